@@ -0,0 +1,49 @@
+package com.elegantevents.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Pool for outbound notifications so SMTP/SMS latency never sits on a request thread.
+     */
+    @Bean(name = "notificationExecutor")
+    public ThreadPoolTaskExecutor notificationExecutor(
+            @Value("${app.notifications.executor.core-size:2}") int coreSize,
+            @Value("${app.notifications.executor.max-size:4}") int maxSize,
+            @Value("${app.notifications.executor.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notify-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes queued events to message stream subscribers, so a slow client holds up one of these
+     * threads instead of the request that sent the message.
+     */
+    @Bean(name = "messageStreamExecutor")
+    public ThreadPoolTaskExecutor messageStreamExecutor(
+            @Value("${app.messages.stream.executor.core-size:2}") int coreSize,
+            @Value("${app.messages.stream.executor.max-size:8}") int maxSize,
+            @Value("${app.messages.stream.executor.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("message-stream-");
+        executor.initialize();
+        return executor;
+    }
+}
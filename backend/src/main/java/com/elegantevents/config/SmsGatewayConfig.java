@@ -0,0 +1,31 @@
+package com.elegantevents.config;
+
+import com.elegantevents.service.HttpSmsGateway;
+import com.elegantevents.service.LoggingSmsGateway;
+import com.elegantevents.service.SmsGateway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class SmsGatewayConfig {
+
+    // No provider URL configured: messages are only logged
+    @Bean
+    public SmsGateway smsGateway(RestTemplateBuilder restTemplateBuilder,
+                                 @Value("${app.sms.gateway.url:}") String url,
+                                 @Value("${app.sms.gateway.api-key:}") String apiKey,
+                                 @Value("${app.sms.gateway.sender-id:ElegantEvents}") String senderId) {
+        if (url == null || url.isBlank()) {
+            return new LoggingSmsGateway();
+        }
+        // Own client with timeouts, so a stalled provider cannot pin notification threads
+        return new HttpSmsGateway(restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(5))
+                .setReadTimeout(Duration.ofSeconds(30))
+                .build(), url, apiKey, senderId);
+    }
+}
@@ -0,0 +1,26 @@
+package com.elegantevents.controller;
+
+import com.elegantevents.dto.AttendeeBootstrap;
+import com.elegantevents.service.AttendeeService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/attendee")
+public class AttendeeController {
+
+    private final AttendeeService attendeeService;
+
+    public AttendeeController(AttendeeService attendeeService) {
+        this.attendeeService = attendeeService;
+    }
+
+    @GetMapping("/bootstrap")
+    public ResponseEntity<AttendeeBootstrap> bootstrap(@RequestParam String code) {
+        try {
+            return ResponseEntity.ok(attendeeService.bootstrap(code));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.elegantevents.controller;
+
+import com.elegantevents.dto.CampaignProgress;
+import com.elegantevents.dto.CampaignRequest;
+import com.elegantevents.service.CampaignService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/campaigns")
+public class CampaignController {
+
+    private final CampaignService campaignService;
+
+    public CampaignController(CampaignService campaignService) {
+        this.campaignService = campaignService;
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> createCampaign(@Valid @RequestBody CampaignRequest request) {
+        try {
+            CampaignProgress campaign = campaignService.createCampaign(request);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("campaign", campaign);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<CampaignProgress> getCampaign(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(campaignService.getProgress(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/wedding/{weddingId}")
+    public ResponseEntity<List<CampaignProgress>> getCampaignsByWedding(@PathVariable Long weddingId) {
+        return ResponseEntity.ok(campaignService.getCampaignsByWeddingId(weddingId));
+    }
+}
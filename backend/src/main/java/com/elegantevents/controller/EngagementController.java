@@ -0,0 +1,58 @@
+package com.elegantevents.controller;
+
+import com.elegantevents.dto.EngagementStats;
+import com.elegantevents.service.EngagementService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@RestController
+@RequestMapping("/api/engagement")
+public class EngagementController {
+
+    // 1x1 transparent GIF
+    private static final byte[] PIXEL = Base64.getDecoder().decode("R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7");
+
+    private final EngagementService engagementService;
+
+    @Value("${app.frontend.url:http://localhost:5173}")
+    private String frontendUrl;
+
+    public EngagementController(EngagementService engagementService) {
+        this.engagementService = engagementService;
+    }
+
+    // Tracking pixel in invitation emails; always answers with the image, known code or not
+    @GetMapping("/open/{code}")
+    public ResponseEntity<byte[]> trackOpen(@PathVariable String code) {
+        engagementService.recordOpen(code);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .contentType(MediaType.IMAGE_GIF)
+                .body(PIXEL);
+    }
+
+    // Tracked invitation link; the target is fixed here, so the endpoint cannot redirect elsewhere
+    @GetMapping("/click/{code}")
+    public ResponseEntity<Void> trackClick(@PathVariable String code) {
+        engagementService.recordClick(code);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.LOCATION,
+                frontendUrl + "/attendee/dashboard?code=" + URLEncoder.encode(code, StandardCharsets.UTF_8));
+        headers.setCacheControl(CacheControl.noStore());
+        return new ResponseEntity<>(headers, HttpStatus.FOUND);
+    }
+
+    @GetMapping("/wedding/{weddingId}")
+    public ResponseEntity<EngagementStats> getWeddingEngagement(@PathVariable Long weddingId) {
+        return ResponseEntity.ok(engagementService.getStats(weddingId));
+    }
+}
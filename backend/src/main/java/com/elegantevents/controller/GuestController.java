@@ -1,25 +1,66 @@
 package com.elegantevents.controller;
 
+import com.elegantevents.dto.CheckInResult;
+import com.elegantevents.dto.CheckInSyncRequest;
+import com.elegantevents.dto.CheckInSyncResponse;
+import com.elegantevents.dto.GuestImportReport;
+import com.elegantevents.dto.GuestSearchResult;
+import com.elegantevents.dto.GuestSnapshot;
+import com.elegantevents.dto.GuestStats;
 import com.elegantevents.dto.GuestRequest;
+import com.elegantevents.dto.RsvpRequest;
+import com.elegantevents.dto.RsvpResult;
+import com.elegantevents.dto.SignedQRVerification;
 import com.elegantevents.model.Guest;
+import com.elegantevents.service.CheckInSyncService;
+import com.elegantevents.service.GuestFileImportService;
+import com.elegantevents.service.GuestSearchService;
 import com.elegantevents.service.GuestService;
+import com.elegantevents.service.GuestSnapshotService;
+import com.elegantevents.service.GuestStatsService;
+import com.elegantevents.service.QRPayloadSigner;
+import com.elegantevents.service.RsvpService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/guests")
 public class GuestController {
     
     private final GuestService guestService;
+    private final GuestFileImportService guestFileImportService;
+    private final CheckInSyncService checkInSyncService;
+    private final GuestSnapshotService guestSnapshotService;
+    private final GuestStatsService guestStatsService;
+    private final GuestSearchService guestSearchService;
+    private final RsvpService rsvpService;
     
-    public GuestController(GuestService guestService) {
+    public GuestController(GuestService guestService, GuestFileImportService guestFileImportService,
+                           CheckInSyncService checkInSyncService, GuestSnapshotService guestSnapshotService,
+                           GuestStatsService guestStatsService, GuestSearchService guestSearchService,
+                           RsvpService rsvpService) {
         this.guestService = guestService;
+        this.guestFileImportService = guestFileImportService;
+        this.checkInSyncService = checkInSyncService;
+        this.guestSnapshotService = guestSnapshotService;
+        this.guestStatsService = guestStatsService;
+        this.guestSearchService = guestSearchService;
+        this.rsvpService = rsvpService;
     }
     
     @PostMapping("/{coupleClerkId}")
@@ -40,6 +81,29 @@ public class GuestController {
         }
     }
     
+    @PostMapping(value = "/{coupleClerkId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> importGuests(
+            @PathVariable String coupleClerkId,
+            @RequestParam("file") MultipartFile file) {
+        try {
+            GuestImportReport report = guestFileImportService.importFile(coupleClerkId, file);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("report", report);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException | IOException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+    
     @GetMapping("/{coupleClerkId}")
     public ResponseEntity<List<Guest>> getGuestsByCouple(@PathVariable String coupleClerkId) {
         List<Guest> guests = guestService.getGuestsByCouple(coupleClerkId);
@@ -52,6 +116,78 @@ public class GuestController {
         return ResponseEntity.ok(guests);
     }
     
+    @GetMapping("/wedding/{weddingId}/search")
+    public ResponseEntity<List<GuestSearchResult>> searchGuests(
+            @PathVariable Long weddingId,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(guestSearchService.search(weddingId, query, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/wedding/{weddingId}/stats")
+    public ResponseEntity<GuestStats> getGuestStats(@PathVariable Long weddingId) {
+        try {
+            return ResponseEntity.ok(guestStatsService.getStats(weddingId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping(value = "/wedding/{weddingId}/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGuestStats(@PathVariable Long weddingId) {
+        try {
+            return ResponseEntity.ok(guestStatsService.subscribe(weddingId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Binary guest list for offline devices; see GuestSnapshotService for the encoding.
+     * Full snapshots carry an ETag, so an unchanged list costs one aggregate query and a 304.
+     */
+    @GetMapping("/wedding/{weddingId}/snapshot")
+    public ResponseEntity<byte[]> getGuestSnapshot(
+            @PathVariable Long weddingId,
+            @RequestParam(required = false) Long sinceVersion,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            if (sinceVersion == null && ifNoneMatch != null) {
+                String etag = snapshotETag(weddingId, guestSnapshotService.currentVersion(weddingId));
+                if (etag.equals(ifNoneMatch)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                }
+            }
+            GuestSnapshot snapshot = guestSnapshotService.getSnapshot(weddingId, sinceVersion);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header("X-Snapshot-Version", String.valueOf(snapshot.getVersion()))
+                    .header("X-Snapshot-Count", String.valueOf(snapshot.getGuestCount()));
+            if (sinceVersion == null) {
+                response.eTag(snapshotETag(weddingId, snapshot.getVersion()));
+            }
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getBody());
+            }
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.getBody()))) {
+                return response.body(in.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private static String snapshotETag(Long weddingId, long version) {
+        return "\"" + weddingId + "-" + version + "-" + GuestSnapshotService.FORMAT + "\"";
+    }
+    
     @GetMapping("/code/{uniqueCode}")
     public ResponseEntity<Guest> getGuestByCode(@PathVariable String uniqueCode) {
         try {
@@ -62,11 +198,123 @@ public class GuestController {
         }
     }
 
+    @GetMapping("/scan/{uniqueCode}")
+    public ResponseEntity<CheckInResult> lookupForScan(@PathVariable String uniqueCode) {
+        try {
+            return ResponseEntity.ok(guestService.lookupForScan(uniqueCode));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/scan/{uniqueCode}")
+    public ResponseEntity<CheckInResult> scanGuest(@PathVariable String uniqueCode) {
+        try {
+            return ResponseEntity.ok(guestService.scanGuest(uniqueCode));
+        } catch (UncheckedIOException e) {
+            // Not recorded; the scanner should retry rather than wave the guest through
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/rsvp/{uniqueCode}")
+    public ResponseEntity<Map<String, Object>> respondToInvitation(
+            @PathVariable String uniqueCode,
+            @Valid @RequestBody RsvpRequest request) {
+        try {
+            RsvpResult rsvp = rsvpService.respond(uniqueCode, request.getRsvpStatus());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("rsvp", rsvp);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+
+    @PostMapping("/wedding/{weddingId}/check-ins/sync")
+    public ResponseEntity<Map<String, Object>> syncCheckIns(
+            @PathVariable Long weddingId,
+            @RequestBody CheckInSyncRequest request) {
+        try {
+            CheckInSyncResponse sync = checkInSyncService.sync(weddingId, request);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("sync", sync);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+
+    @PostMapping("/{guestId}/signed-qr")
+    public ResponseEntity<Map<String, Object>> issueSignedQRCode(@PathVariable Long guestId) {
+        try {
+            Guest guest = guestService.issueSignedQRCode(guestId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("guest", guest);
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+
+    @PostMapping("/qr/verify")
+    public ResponseEntity<SignedQRVerification> verifySignedPayload(@RequestBody Map<String, String> body) {
+        String payload = body.get("payload");
+        if (payload == null || payload.isBlank()) {
+            return ResponseEntity.badRequest().body(SignedQRVerification.invalid("Missing payload"));
+        }
+        return ResponseEntity.ok(guestService.verifySignedPayload(payload));
+    }
+
+    @GetMapping("/wedding/{weddingId}/scan-key")
+    public ResponseEntity<Map<String, Object>> getScanKey(@PathVariable Long weddingId) {
+        try {
+            byte[] key = guestService.getScanKey(weddingId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("weddingId", weddingId);
+            response.put("algorithm", QRPayloadSigner.ALGORITHM);
+            response.put("signatureLength", QRPayloadSigner.SIGNATURE_LENGTH);
+            response.put("payloadVersion", QRPayloadSigner.VERSION);
+            response.put("publicKey", Base64.getUrlEncoder().withoutPadding().encodeToString(key));
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PatchMapping("/{guestId}/check-in")
     public ResponseEntity<Guest> checkInGuest(@PathVariable Long guestId) {
         try {
             Guest guest = guestService.checkInGuest(guestId);
             return ResponseEntity.ok(guest);
+        } catch (UncheckedIOException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -1,10 +1,18 @@
 package com.elegantevents.controller;
 
+import com.elegantevents.dto.ConversationDTO;
 import com.elegantevents.model.Message;
+import com.elegantevents.service.MessageEventHub;
+import com.elegantevents.service.MessageSearchService;
 import com.elegantevents.service.MessageService;
+import com.elegantevents.service.UnreadCounterService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -13,9 +21,16 @@ import java.util.Map;
 public class MessageController {
 
     private final MessageService messageService;
+    private final MessageEventHub messageEventHub;
+    private final UnreadCounterService unreadCounterService;
+    private final MessageSearchService messageSearchService;
 
-    public MessageController(MessageService messageService) {
+    public MessageController(MessageService messageService, MessageEventHub messageEventHub,
+                             UnreadCounterService unreadCounterService, MessageSearchService messageSearchService) {
         this.messageService = messageService;
+        this.messageEventHub = messageEventHub;
+        this.unreadCounterService = unreadCounterService;
+        this.messageSearchService = messageSearchService;
     }
 
     @PostMapping("/send")
@@ -42,16 +57,104 @@ public class MessageController {
     }
 
     @GetMapping("/conversation")
-    public ResponseEntity<List<Message>> getConversation(
+    public ResponseEntity<?> getConversation(
             @RequestParam String user1, 
-            @RequestParam String user2) {
-        return ResponseEntity.ok(messageService.getConversation(user1, user2));
+            @RequestParam String user2,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Integer limit) {
+        if (afterId == null && beforeId == null && limit == null) {
+            // Unpaged: the whole history with full users, as older clients expect
+            return ResponseEntity.ok(messageService.getConversation(user1, user2));
+        }
+        try {
+            return ResponseEntity.ok(messageService.getConversationPage(user1, user2, afterId, beforeId, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @GetMapping("/inbox/{clerkId}")
     public ResponseEntity<List<Message>> getInbox(@PathVariable String clerkId) {
         return ResponseEntity.ok(messageService.getInbox(clerkId));
     }
+
+    // One entry per conversation with the caller's unread count, without full message or user entities
+    @GetMapping("/conversations/{clerkId}")
+    public ResponseEntity<List<ConversationDTO>> getConversations(@PathVariable String clerkId) {
+        try {
+            return ResponseEntity.ok(messageService.getConversations(clerkId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // Marks the reader's messages from the peer as read, up to upToMessageId when given
+    @PostMapping("/conversation/read")
+    public ResponseEntity<Map<String, Object>> markConversationRead(@RequestBody Map<String, Object> payload) {
+        try {
+            Object readerClerkId = payload.get("readerClerkId");
+            Object peerClerkId = payload.get("peerClerkId");
+            if (readerClerkId == null || peerClerkId == null) {
+                throw new IllegalArgumentException("readerClerkId and peerClerkId are required");
+            }
+            Long upToMessageId = payload.get("upToMessageId") != null
+                    ? Long.valueOf(payload.get("upToMessageId").toString()) : null;
+            int marked = messageService.markConversationRead(readerClerkId.toString(), peerClerkId.toString(),
+                    upToMessageId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("marked", marked);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+
+    // Badge count, answered from memory
+    @GetMapping("/unread-count/{clerkId}")
+    public ResponseEntity<Map<String, Object>> getUnreadCount(@PathVariable String clerkId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("unreadCount", unreadCounterService.getUnreadCount(clerkId));
+        return ResponseEntity.ok(response);
+    }
+
+    // Direct and wedding messages the caller takes part in that match every word of q
+    @GetMapping("/search")
+    public ResponseEntity<?> searchMessages(
+            @RequestParam String clerkId,
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(messageSearchService.search(clerkId, q, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (IllegalStateException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+    }
+
+    // Messages sent or received by the user, pushed as "message" events; "resync" means reload
+    @GetMapping(value = "/stream/{clerkId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessages(@PathVariable String clerkId) {
+        return messageEventHub.subscribe(clerkId);
+    }
     
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<Message>> getMessagesByUser(@PathVariable Long userId) {
@@ -0,0 +1,66 @@
+package com.elegantevents.controller;
+
+import com.elegantevents.dto.NotificationDelivery;
+import com.elegantevents.dto.SmsDeliveryReport;
+import com.elegantevents.service.HttpSmsGateway;
+import com.elegantevents.service.SmsDeliveryService;
+import com.elegantevents.service.SmsGateway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationController.class);
+
+    private final SmsDeliveryService smsDeliveryService;
+    private final String deliveryReportToken;
+    private final boolean refuseUnsignedReports;
+
+    public NotificationController(SmsDeliveryService smsDeliveryService,
+                                  SmsGateway smsGateway,
+                                  @Value("${app.sms.delivery-report-token:}") String deliveryReportToken) {
+        this.smsDeliveryService = smsDeliveryService;
+        this.deliveryReportToken = deliveryReportToken;
+        // With a real provider anyone could otherwise mark messages delivered or failed
+        this.refuseUnsignedReports = smsGateway instanceof HttpSmsGateway && deliveryReportToken.isEmpty();
+        if (refuseUnsignedReports) {
+            logger.warn("app.sms.delivery-report-token is not set; SMS delivery reports will be refused");
+        }
+    }
+
+    @GetMapping("/guest/{guestId}")
+    public ResponseEntity<List<NotificationDelivery>> getGuestDeliveries(@PathVariable Long guestId) {
+        return ResponseEntity.ok(smsDeliveryService.getDeliveriesForGuest(guestId));
+    }
+
+    // Delivery report callback for the SMS provider; accepts a batch of reports per call
+    @PostMapping("/sms/delivery-reports")
+    public ResponseEntity<Map<String, Object>> receiveDeliveryReports(
+            @RequestHeader(value = "X-Delivery-Report-Token", required = false) String token,
+            @RequestBody List<SmsDeliveryReport> reports) {
+        if (refuseUnsignedReports) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("success", false, "error", "Delivery reports are not configured"));
+        }
+        if (!deliveryReportToken.isEmpty() && (token == null || !MessageDigest.isEqual(
+                deliveryReportToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8)))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("success", false, "error", "Invalid token"));
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("updated", smsDeliveryService.applyReports(reports));
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,45 @@
+package com.elegantevents.controller;
+
+import com.elegantevents.dto.SeatingPlanRequest;
+import com.elegantevents.dto.SeatingPlanResponse;
+import com.elegantevents.service.SeatingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/seating")
+public class SeatingController {
+
+    private final SeatingService seatingService;
+
+    public SeatingController(SeatingService seatingService) {
+        this.seatingService = seatingService;
+    }
+
+    @PostMapping("/wedding/{weddingId}/plan")
+    public ResponseEntity<Map<String, Object>> planSeating(
+            @PathVariable Long weddingId,
+            @RequestBody SeatingPlanRequest request) {
+        try {
+            SeatingPlanResponse plan = seatingService.plan(weddingId, request);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("plan", plan);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+    }
+}
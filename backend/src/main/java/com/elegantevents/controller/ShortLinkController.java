@@ -0,0 +1,33 @@
+package com.elegantevents.controller;
+
+import com.elegantevents.service.ShortLinkService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Kept off /api so the links in SMS and QR codes stay as short as possible
+@RestController
+@RequestMapping("/s")
+public class ShortLinkController {
+
+    private final ShortLinkService shortLinkService;
+
+    public ShortLinkController(ShortLinkService shortLinkService) {
+        this.shortLinkService = shortLinkService;
+    }
+
+    @GetMapping("/{slug}")
+    public ResponseEntity<Void> follow(@PathVariable String slug) {
+        String location = shortLinkService.resolve(slug);
+        if (location == null) {
+            return ResponseEntity.notFound().build();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.LOCATION, location);
+        // Not cached, so every visit is counted
+        headers.setCacheControl(CacheControl.noStore());
+        return new ResponseEntity<>(headers, HttpStatus.FOUND);
+    }
+}
@@ -0,0 +1,101 @@
+package com.elegantevents.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for an SMS provider, speaking the bulk-send contract of {@code HttpSmsGateway}.
+ * Point {@code app.sms.gateway.url} at {@code /api/sms-stub/messages} to exercise the whole SMS
+ * path without sending anything. It can reject a share of messages to exercise retries, and
+ * post delivery reports back to the app. Only registered with {@code app.sms.stub.enabled=true}.
+ */
+@RestController
+@RequestMapping("/api/sms-stub")
+@ConditionalOnProperty(name = "app.sms.stub.enabled", havingValue = "true")
+public class SmsStubController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmsStubController.class);
+
+    private final RestTemplate restTemplate;
+    private final double rejectRate;
+    private final String deliveryReportUrl;
+    private final String deliveryReportToken;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public SmsStubController(RestTemplate restTemplate,
+                             @Value("${app.sms.stub.reject-rate:0}") double rejectRate,
+                             @Value("${app.sms.stub.delivery-report-url:}") String deliveryReportUrl,
+                             @Value("${app.sms.delivery-report-token:}") String deliveryReportToken) {
+        this.restTemplate = restTemplate;
+        this.rejectRate = rejectRate;
+        this.deliveryReportUrl = deliveryReportUrl;
+        this.deliveryReportToken = deliveryReportToken;
+    }
+
+    @PostMapping("/messages")
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<Map<String, Object>> sendBatch(@RequestBody Map<String, Object> request) {
+        List<Map<String, Object>> messages = request.get("messages") instanceof List<?> list
+                ? (List<Map<String, Object>>) list : List.of();
+        batches.incrementAndGet();
+        List<Map<String, Object>> results = new ArrayList<>(messages.size());
+        List<Map<String, Object>> reports = new ArrayList<>();
+        for (Map<String, Object> message : messages) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("reference", message.get("reference"));
+            if (ThreadLocalRandom.current().nextDouble() < rejectRate) {
+                rejected.incrementAndGet();
+                result.put("accepted", false);
+                result.put("error", "Stub rejected message");
+            } else {
+                accepted.incrementAndGet();
+                String messageId = "stub-" + UUID.randomUUID();
+                result.put("accepted", true);
+                result.put("messageId", messageId);
+                reports.add(Map.of("messageId", messageId, "status", "DELIVERED"));
+            }
+            results.add(result);
+        }
+        if (!deliveryReportUrl.isEmpty() && !reports.isEmpty()) {
+            CompletableFuture.runAsync(() -> postReports(reports));
+        }
+        return ResponseEntity.ok(Map.of("results", results));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(Map.of("batches", batches.get(), "accepted", accepted.get(), "rejected", rejected.get()));
+    }
+
+    private void postReports(List<Map<String, Object>> reports) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (!deliveryReportToken.isEmpty()) {
+            headers.set("X-Delivery-Report-Token", deliveryReportToken);
+        }
+        try {
+            restTemplate.postForObject(deliveryReportUrl, new HttpEntity<>(reports, headers), Map.class);
+        } catch (RuntimeException e) {
+            logger.warn("SMS stub could not post {} delivery report(s): {}", reports.size(), e.getMessage());
+        }
+    }
+}
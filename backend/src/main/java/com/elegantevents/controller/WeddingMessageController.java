@@ -42,6 +42,20 @@ public class WeddingMessageController {
         return ResponseEntity.ok(messageService.getMessagesByWedding(weddingId));
     }
     
+    @GetMapping("/wedding/{weddingId}/archived")
+    public ResponseEntity<?> getArchivedMessages(@PathVariable Long weddingId,
+                                                 @RequestParam(required = false) Long beforeId,
+                                                 @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(messageService.getArchivedMessages(weddingId, beforeId, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+    
     @GetMapping("/wedding/{weddingId}/guest/{guestId}")
     public ResponseEntity<List<WeddingMessage>> getMessagesForGuest(
             @PathVariable Long weddingId,
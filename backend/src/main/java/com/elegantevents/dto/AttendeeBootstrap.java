@@ -0,0 +1,28 @@
+package com.elegantevents.dto;
+
+import com.elegantevents.model.AttendeeRating;
+import com.elegantevents.model.GalleryItem;
+import com.elegantevents.model.Guest;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.model.WeddingCard;
+import com.elegantevents.model.WeddingMessage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendeeBootstrap {
+    private Guest guest;
+    private Wedding wedding;
+    private UserResponse couple;
+    private WeddingCard card; // null when the couple has not designed one
+    private UserResponse protocol; // null until a protocol officer is assigned
+    private List<WeddingMessage> messages; // Broadcasts and messages to this guest, newest first
+    private List<GalleryItem> gallery; // Newest approved items, first page only
+    private boolean galleryHasMore; // More approved items than the first page; the rest come from /api/gallery
+    private List<AttendeeRating> ratings; // Ratings this guest has given
+}
@@ -0,0 +1,23 @@
+package com.elegantevents.dto;
+
+import com.elegantevents.model.InvitationCampaign;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CampaignProgress {
+    private Long campaignId;
+    private Long weddingId;
+    private InvitationCampaign.Status status;
+    private int guestsMatched;
+    private int messagesQueued;
+    private long sent;
+    private long failed; // Gave up after the outbox's retry limit
+    private long pending; // Waiting, in flight or backing off after a failed attempt
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,25 @@
+package com.elegantevents.dto;
+
+import com.elegantevents.model.Guest;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CampaignRequest {
+    @NotNull(message = "Wedding ID is required")
+    private Long weddingId;
+    private String clerkId; // Who started the campaign
+    private boolean sendEmail = true;
+    private boolean sendSms = true;
+    // Filter; unset fields match every guest of the wedding
+    private Guest.RSVPStatus rsvpStatus;
+    private Guest.Priority priority;
+    private boolean onlyUninvited;
+    private List<Long> guestIds; // Explicit subset, still narrowed by the filter
+}
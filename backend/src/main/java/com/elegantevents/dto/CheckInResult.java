@@ -0,0 +1,23 @@
+package com.elegantevents.dto;
+
+import com.elegantevents.model.Guest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInResult {
+    private Long guestId;
+    private Long weddingId;
+    private String uniqueCode;
+    private String firstName;
+    private String lastName;
+    private String seatNumber;
+    private Guest.Priority priority;
+    private LocalDateTime checkedInAt;
+    private boolean alreadyCheckedIn; // True when this scan was a repeat
+}
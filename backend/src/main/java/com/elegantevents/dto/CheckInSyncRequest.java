@@ -0,0 +1,23 @@
+package com.elegantevents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInSyncRequest {
+    private Long since; // Cursor from the previous sync (server epoch millis); null for a full pull
+    private List<CheckIn> checkIns;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CheckIn {
+        private String code;
+        private Long checkedInAt; // Device clock, epoch millis
+    }
+}
@@ -0,0 +1,18 @@
+package com.elegantevents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckInSyncResponse {
+    private long cursor; // Pass back as "since" on the next sync
+    private int received;
+    private int matched; // Distinct guests the check-ins resolved to
+    private List<String> unknownCodes;
+    private List<CheckInResult> changes; // Authoritative check-in state changed since the cursor
+}
@@ -0,0 +1,25 @@
+package com.elegantevents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An inbox entry: the other participant, the latest message and the caller's unread count.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationDTO {
+    private String peerClerkId;
+    private String peerFirstName;
+    private String peerLastName;
+    private String peerImageUrl;
+    private Long lastMessageId;
+    private String lastSenderClerkId;
+    private String lastSnippet;
+    private LocalDateTime lastMessageAt;
+    private int unreadCount;
+}
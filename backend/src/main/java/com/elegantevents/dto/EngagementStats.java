@@ -0,0 +1,19 @@
+package com.elegantevents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngagementStats {
+    private Long weddingId;
+    private long invitationsSent;
+    private long guestsOpened;
+    private long guestsClicked;
+    private long totalOpens;
+    private long totalClicks;
+    private double openRate; // Share of invited guests who opened at least once
+    private double clickRate;
+}
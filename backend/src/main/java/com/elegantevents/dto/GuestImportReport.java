@@ -0,0 +1,29 @@
+package com.elegantevents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuestImportReport {
+    private int totalRows; // Data rows read, header excluded
+    private int imported;
+    private int duplicates;
+    private int failed;
+    private boolean errorsTruncated; // True when more errors occurred than are listed
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row; // 1-based line in the sheet, header is row 1
+        private String field;
+        private String message;
+    }
+}
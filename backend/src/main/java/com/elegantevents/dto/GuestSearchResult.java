@@ -0,0 +1,19 @@
+package com.elegantevents.dto;
+
+import com.elegantevents.model.Guest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuestSearchResult {
+    private Long guestId;
+    private String uniqueCode;
+    private String firstName;
+    private String lastName;
+    private String seatNumber;
+    private Guest.Priority priority;
+    private double score; // Higher is better; only meaningful within one response
+}
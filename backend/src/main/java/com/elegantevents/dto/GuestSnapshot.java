@@ -0,0 +1,16 @@
+package com.elegantevents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuestSnapshot {
+    private Long weddingId;
+    private long version; // Latest guest update in the snapshot, epoch millis; pass back as sinceVersion
+    private long baseVersion; // 0 for a full snapshot
+    private int guestCount;
+    private byte[] body; // Gzip-compressed columnar encoding, see GuestSnapshotService
+}
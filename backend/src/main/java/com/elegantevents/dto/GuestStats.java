@@ -0,0 +1,22 @@
+package com.elegantevents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuestStats {
+    private Long weddingId;
+    private long total;
+    private Map<String, Long> byRsvpStatus;
+    private Map<String, Long> byPriority;
+    private long checkedIn;
+    private long invitationsSent;
+    private long sequence; // Increases with every change, so clients can drop stale pushes
+    private LocalDateTime asOf;
+}
@@ -0,0 +1,23 @@
+package com.elegantevents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A direct message without its sender and receiver entities; conversation pages are built
+ * straight from a constructor query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageDTO {
+    private Long id;
+    private String senderClerkId;
+    private String receiverClerkId;
+    private String content;
+    private LocalDateTime sentAt;
+    private boolean read;
+}
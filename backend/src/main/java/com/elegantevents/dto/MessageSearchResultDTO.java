@@ -0,0 +1,24 @@
+package com.elegantevents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A search hit, read from the search index alone. {@code type} is DIRECT for a direct message
+ * (with receiverClerkId) or WEDDING for a wedding message or broadcast (with weddingId).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageSearchResultDTO {
+    private String type;
+    private Long id;
+    private Long weddingId;
+    private String senderClerkId;
+    private String receiverClerkId;
+    private String content;
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,25 @@
+package com.elegantevents.dto;
+
+import com.elegantevents.model.NotificationOutbox;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDelivery {
+    private Long id;
+    private NotificationOutbox.Channel channel;
+    private String kind;
+    private String recipient;
+    private Long campaignId;
+    private NotificationOutbox.Status status;
+    private NotificationOutbox.DeliveryStatus deliveryStatus;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime sentAt;
+    private LocalDateTime deliveredAt;
+}
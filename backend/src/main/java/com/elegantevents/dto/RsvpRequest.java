@@ -0,0 +1,15 @@
+package com.elegantevents.dto;
+
+import com.elegantevents.model.Guest;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RsvpRequest {
+    @NotNull(message = "RSVP status is required")
+    private Guest.RSVPStatus rsvpStatus;
+}
@@ -0,0 +1,16 @@
+package com.elegantevents.dto;
+
+import com.elegantevents.model.Guest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RsvpResult {
+    private Long guestId;
+    private Long weddingId;
+    private Guest.RSVPStatus rsvpStatus;
+    private Guest.RSVPStatus previousStatus;
+}
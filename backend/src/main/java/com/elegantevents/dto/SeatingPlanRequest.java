@@ -0,0 +1,27 @@
+package com.elegantevents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatingPlanRequest {
+    private List<TableLayout> tables;
+    private List<List<Long>> parties; // Guest ids that should share a table
+    private List<List<Long>> keepApart; // Guest ids that must not share a table with each other
+    private List<Long> changedGuestIds; // Re-seat only these (and their parties); null or empty re-plans everyone
+    private boolean apply; // Write the seats back; otherwise the plan is only previewed
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TableLayout {
+        private String label; // Seat numbers are written as "<label>-<seat>"
+        private int capacity;
+        private int zoneRank; // 0 is the most prominent zone (head table area)
+    }
+}
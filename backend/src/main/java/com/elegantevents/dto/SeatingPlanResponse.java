@@ -0,0 +1,22 @@
+package com.elegantevents.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatingPlanResponse {
+    private Long weddingId;
+    private int assigned;
+    private int moved; // Guests whose seat differs from the stored one
+    private List<Long> unassigned; // Guests that did not fit into the layout
+    private int keepApartViolations;
+    private boolean applied;
+    private long elapsedMillis;
+    private Map<Long, String> seats; // Guest id -> seat number
+}
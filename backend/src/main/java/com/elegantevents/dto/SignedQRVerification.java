@@ -0,0 +1,28 @@
+package com.elegantevents.dto;
+
+import com.elegantevents.model.Guest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SignedQRVerification {
+    private boolean valid;
+    private String reason; // Why verification failed, null when valid
+    private Long guestId;
+    private Long weddingId;
+    private Guest.Priority priority;
+    private String seatNumber;
+    private Instant expiresAt;
+
+    public static SignedQRVerification invalid(String reason) {
+        SignedQRVerification result = new SignedQRVerification();
+        result.setValid(false);
+        result.setReason(reason);
+        return result;
+    }
+}
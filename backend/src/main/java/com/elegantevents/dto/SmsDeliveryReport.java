@@ -0,0 +1,18 @@
+package com.elegantevents.dto;
+
+import com.elegantevents.model.NotificationOutbox;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmsDeliveryReport {
+    private String messageId; // Provider's id, as returned when the message was accepted
+    private NotificationOutbox.DeliveryStatus status;
+    private String error; // Provider's reason when undelivered
+    private LocalDateTime deliveredAt; // Defaults to when the report is received
+}
@@ -0,0 +1,49 @@
+package com.elegantevents.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One user's view of a direct-message conversation: the latest message and how many of the
+ * peer's messages the user has not read. Each pair has two rows, one per participant, so an
+ * inbox is a range scan on (user_id, last_message_at). Kept up to date by MessageService in
+ * the same transaction as the messages themselves.
+ */
+@Entity
+@Table(name = "conversation_summaries",
+    uniqueConstraints = @UniqueConstraint(name = "uk_conversation_pair", columnNames = {"user_id", "peer_id"}),
+    indexes = @Index(name = "idx_conversation_inbox", columnList = "user_id, last_message_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "peer_id", nullable = false)
+    private Long peerId;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id", nullable = false)
+    private Long lastSenderId;
+
+    @Column(name = "last_snippet", length = 160)
+    private String lastSnippet;
+
+    @Column(name = "last_message_at", nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount = 0;
+}
@@ -0,0 +1,48 @@
+package com.elegantevents.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * How often a guest opened their invitation email and followed its link. Written only by
+ * the engagement service's periodic upsert, never per hit.
+ */
+@Entity
+@Table(name = "guest_engagement", indexes = {
+    @Index(name = "idx_engagement_wedding", columnList = "wedding_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuestEngagement {
+
+    @Id
+    @Column(name = "guest_id")
+    private Long guestId;
+
+    @Column(name = "wedding_id", nullable = false)
+    private Long weddingId;
+
+    @Column(name = "opens", nullable = false)
+    private Long opens = 0L;
+
+    @Column(name = "clicks", nullable = false)
+    private Long clicks = 0L;
+
+    // First times are accurate to one flush interval
+    @Column(name = "first_opened_at")
+    private LocalDateTime firstOpenedAt;
+
+    @Column(name = "last_opened_at")
+    private LocalDateTime lastOpenedAt;
+
+    @Column(name = "first_clicked_at")
+    private LocalDateTime firstClickedAt;
+
+    @Column(name = "last_clicked_at")
+    private LocalDateTime lastClickedAt;
+}
@@ -0,0 +1,91 @@
+package com.elegantevents.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A (re)send of invitations to the guests of one wedding that match a filter. Messages are
+ * queued in the notification outbox in chunks; {@code lastGuestId} records how far that got,
+ * so a campaign interrupted by a restart resumes instead of starting over.
+ */
+@Entity
+@Table(name = "invitation_campaigns", indexes = {
+    @Index(name = "idx_campaign_wedding", columnList = "wedding_id"),
+    @Index(name = "idx_campaign_status", columnList = "status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvitationCampaign {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "wedding_id", nullable = false)
+    private Long weddingId;
+
+    @Column(name = "created_by")
+    private String createdBy; // Clerk ID of the couple or staff member who started it
+
+    @Column(name = "send_email", nullable = false)
+    private Boolean sendEmail = true;
+
+    @Column(name = "send_sms", nullable = false)
+    private Boolean sendSms = true;
+
+    // Guest filter; null fields match every guest
+    @Column(name = "rsvp_status", length = 20)
+    @Enumerated(EnumType.STRING)
+    private Guest.RSVPStatus rsvpStatus;
+
+    @Column(name = "priority", length = 20)
+    @Enumerated(EnumType.STRING)
+    private Guest.Priority priority;
+
+    @Column(name = "only_uninvited", nullable = false)
+    private Boolean onlyUninvited = false;
+
+    @Column(name = "guest_ids", columnDefinition = "TEXT")
+    private String guestIds; // Comma-separated explicit subset, or null for the whole filter
+
+    @Column(name = "status", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.QUEUING;
+
+    @Column(name = "last_guest_id", nullable = false)
+    private Long lastGuestId = 0L;
+
+    @Column(name = "guests_matched", nullable = false)
+    private Integer guestsMatched = 0;
+
+    @Column(name = "messages_queued", nullable = false)
+    private Integer messagesQueued = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum Status {
+        QUEUING, // Guests are still being written to the outbox
+        QUEUED,  // Every message is in the outbox; delivery progress comes from there
+        FAILED
+    }
+}
@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    @Index(name = "idx_message_pair", columnList = "sender_id, receiver_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,72 @@
+package com.elegantevents.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One month of a conversation moved out of the hot tables: the messages of a user pair
+ * (DIRECT) or of a wedding (WEDDING), as gzipped JSON. Message ids are kept, and
+ * first/last_message_id let reads open only the chunks a page needs.
+ */
+@Entity
+@Table(name = "message_archives", indexes = {
+    @Index(name = "idx_archive_pair", columnList = "user_low_id, user_high_id, last_message_id"),
+    @Index(name = "idx_archive_wedding", columnList = "wedding_id, last_message_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 16)
+    private Kind kind;
+
+    // DIRECT: the pair's user ids, lower first
+    @Column(name = "user_low_id")
+    private Long userLowId;
+
+    @Column(name = "user_high_id")
+    private Long userHighId;
+
+    // WEDDING: the wedding the messages belong to
+    @Column(name = "wedding_id")
+    private Long weddingId;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "first_message_id", nullable = false)
+    private Long firstMessageId;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "message_count", nullable = false)
+    private Integer messageCount;
+
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum Kind {
+        DIRECT, WEDDING
+    }
+}
@@ -0,0 +1,115 @@
+package com.elegantevents.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One outbound notification, written in the same transaction as the change that caused it
+ * and delivered later by the outbox dispatcher.
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = {
+    @Index(name = "idx_outbox_due", columnList = "channel, status, next_attempt_at"),
+    @Index(name = "idx_outbox_campaign", columnList = "campaign_id, status"),
+    @Index(name = "idx_outbox_provider_message", columnList = "provider_message_id"),
+    @Index(name = "idx_outbox_guest", columnList = "guest_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "channel", nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private Channel channel;
+
+    @Column(name = "kind", nullable = false, length = 40)
+    private String kind; // What the message is about, e.g. GUEST_INVITATION; drives post-delivery bookkeeping
+
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 191)
+    private String idempotencyKey; // Enqueuing the same key twice is a no-op; also sent as the Message-ID
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient; // Email address or phone number
+
+    @Column(name = "subject")
+    private String subject;
+
+    @Column(name = "body", columnDefinition = "LONGTEXT", nullable = false)
+    private String body;
+
+    @Column(name = "wedding_id")
+    private Long weddingId;
+
+    @Column(name = "guest_id")
+    private Long guestId;
+
+    @Column(name = "campaign_id")
+    private Long campaignId;
+
+    @Column(name = "status", nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil; // A SENDING row whose lease ran out is claimed again
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt; // Accepted by the mail relay or SMS provider
+
+    @Column(name = "provider_message_id", length = 100)
+    private String providerMessageId; // SMS provider's id, matched by delivery reports
+
+    @Column(name = "delivery_status", length = 20)
+    @Enumerated(EnumType.STRING)
+    private DeliveryStatus deliveryStatus; // From the provider's delivery report; null until one arrives
+
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum Channel {
+        EMAIL, SMS
+    }
+
+    public enum Status {
+        PENDING, SENDING, SENT, DEAD
+    }
+
+    public enum DeliveryStatus {
+        DELIVERED, UNDELIVERED
+    }
+}
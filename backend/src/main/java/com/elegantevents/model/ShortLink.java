@@ -0,0 +1,48 @@
+package com.elegantevents.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A short invitation link, {@code /s/{slug}}, standing in for a guest's dashboard URL in SMS
+ * and QR codes. Hit counts are written by the short-link service's periodic flush.
+ */
+@Entity
+@Table(name = "short_links", indexes = {
+    @Index(name = "idx_short_link_wedding", columnList = "wedding_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShortLink {
+
+    @Id
+    @Column(name = "slug", length = 16)
+    private String slug;
+
+    @Column(name = "guest_id", nullable = false, unique = true)
+    private Long guestId;
+
+    @Column(name = "wedding_id", nullable = false)
+    private Long weddingId;
+
+    @Column(name = "unique_code", nullable = false)
+    private String uniqueCode;
+
+    // Frontend path and query the slug redirects to; the frontend origin is added when resolving
+    @Column(name = "target", nullable = false, length = 500)
+    private String target;
+
+    @Column(name = "hits", nullable = false)
+    private Long hits = 0L;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_hit_at")
+    private LocalDateTime lastHitAt;
+}
@@ -8,7 +8,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "wedding_messages")
+@Table(name = "wedding_messages", indexes = {
+    @Index(name = "idx_wedding_message_wedding", columnList = "wedding_id, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,33 @@
+package com.elegantevents.repository;
+
+import com.elegantevents.dto.ConversationDTO;
+import com.elegantevents.model.ConversationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, Long> {
+
+    @Query("SELECT new com.elegantevents.dto.ConversationDTO(p.clerkId, p.firstName, p.lastName, p.imageUrl, " +
+           "c.lastMessageId, s.clerkId, c.lastSnippet, c.lastMessageAt, c.unreadCount) " +
+           "FROM ConversationSummary c JOIN User p ON p.id = c.peerId JOIN User s ON s.id = c.lastSenderId " +
+           "WHERE c.userId = :userId ORDER BY c.lastMessageAt DESC")
+    List<ConversationDTO> findInbox(@Param("userId") Long userId);
+
+    List<ConversationSummary> findByUserIdOrderByLastMessageAtDesc(Long userId);
+
+    @Query("SELECT COALESCE(SUM(c.unreadCount), 0) FROM ConversationSummary c JOIN User u ON u.id = c.userId " +
+           "WHERE u.clerkId = :clerkId")
+    long sumUnreadByClerkId(@Param("clerkId") String clerkId);
+
+    @Modifying
+    @Query("UPDATE ConversationSummary c SET c.unreadCount = " +
+           "CASE WHEN c.unreadCount > :count THEN c.unreadCount - :count ELSE 0 END " +
+           "WHERE c.userId = :userId AND c.peerId = :peerId")
+    int decrementUnread(@Param("userId") Long userId, @Param("peerId") Long peerId, @Param("count") int count);
+}
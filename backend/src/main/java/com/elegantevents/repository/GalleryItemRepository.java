@@ -1,6 +1,7 @@
 package com.elegantevents.repository;
 
 import com.elegantevents.model.GalleryItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,6 +11,7 @@ import java.util.List;
 public interface GalleryItemRepository extends JpaRepository<GalleryItem, Long> {
     List<GalleryItem> findByWeddingId(Long weddingId);
     List<GalleryItem> findByWeddingIdAndIsApprovedTrue(Long weddingId);
+    List<GalleryItem> findByWeddingIdAndIsApprovedTrueOrderByCreatedAtDesc(Long weddingId, Pageable pageable);
     List<GalleryItem> findByUploadedByClerkId(String clerkId);
 }
 
@@ -0,0 +1,26 @@
+package com.elegantevents.repository;
+
+import com.elegantevents.model.GuestCodeSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface GuestCodeSequenceRepository extends JpaRepository<GuestCodeSequence, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM GuestCodeSequence s WHERE s.name = :name")
+    Optional<GuestCodeSequence> findForUpdate(@Param("name") String name);
+
+    // Creates the row unless another node already has; an existing row is never touched
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO guest_code_sequences (name, next_value, updated_at) " +
+                   "VALUES (:name, 1, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int createIfMissing(@Param("name") String name);
+}
@@ -0,0 +1,18 @@
+package com.elegantevents.repository;
+
+import com.elegantevents.model.GuestEngagement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GuestEngagementRepository extends JpaRepository<GuestEngagement, Long> {
+
+    // Guests who opened, guests who clicked, total opens, total clicks
+    @Query("SELECT SUM(CASE WHEN e.opens > 0 THEN 1 ELSE 0 END), SUM(CASE WHEN e.clicks > 0 THEN 1 ELSE 0 END), " +
+           "SUM(e.opens), SUM(e.clicks) FROM GuestEngagement e WHERE e.weddingId = :weddingId")
+    List<Object[]> summarizeByWeddingId(@Param("weddingId") Long weddingId);
+}
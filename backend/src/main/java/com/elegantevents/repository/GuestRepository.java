@@ -1,9 +1,19 @@
 package com.elegantevents.repository;
 
 import com.elegantevents.model.Guest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +23,79 @@ public interface GuestRepository extends JpaRepository<Guest, Long> {
     List<Guest> findByWeddingId(Long weddingId);
     Optional<Guest> findByUniqueCode(String uniqueCode);
     boolean existsByUniqueCode(String uniqueCode);
+
+    // Not dirty-checked: changes made to the result are never written back
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT g FROM Guest g WHERE g.id = :id")
+    Optional<Guest> findReadOnlyById(@Param("id") Long id);
+
+    // Contact columns only, for de-duplicating imports without loading QR codes
+    @Query("SELECT g.email, g.phoneNumber FROM Guest g WHERE g.weddingId = :weddingId")
+    List<Object[]> findContactsByWeddingId(@Param("weddingId") Long weddingId);
+
+    // Columns held by the door-scanning index, without QR code images
+    @Query("SELECT g.id, g.uniqueCode, g.firstName, g.lastName, g.seatNumber, g.priority, g.checkedIn, g.checkedInAt " +
+           "FROM Guest g WHERE g.weddingId = :weddingId")
+    List<Object[]> findCheckInRowsByWeddingId(@Param("weddingId") Long weddingId);
+
+    @Query("SELECT g.id, g.uniqueCode FROM Guest g WHERE g.weddingId = :weddingId AND g.uniqueCode IN :codes")
+    List<Object[]> findIdsByWeddingIdAndUniqueCodes(@Param("weddingId") Long weddingId,
+                                                    @Param("codes") Collection<String> codes);
+
+    // Same columns as findCheckInRowsByWeddingId, for guests whose check-in changed after the cursor
+    @Query("SELECT g.id, g.uniqueCode, g.firstName, g.lastName, g.seatNumber, g.priority, g.checkedIn, g.checkedInAt " +
+           "FROM Guest g WHERE g.weddingId = :weddingId AND g.checkedIn = true AND g.updatedAt > :since")
+    List<Object[]> findCheckedInRowsUpdatedSince(@Param("weddingId") Long weddingId,
+                                                 @Param("since") LocalDateTime since);
+
+    @Query("SELECT MAX(g.updatedAt) FROM Guest g WHERE g.weddingId = :weddingId")
+    LocalDateTime findLatestUpdateByWeddingId(@Param("weddingId") Long weddingId);
+
+    // Columns carried by offline snapshots; updatedAt last, for the snapshot version
+    @Query("SELECT g.id, g.uniqueCode, g.firstName, g.lastName, g.seatNumber, g.priority, g.rsvpStatus, g.checkedIn, g.updatedAt " +
+           "FROM Guest g WHERE g.weddingId = :weddingId ORDER BY g.id")
+    List<Object[]> findSnapshotRows(@Param("weddingId") Long weddingId);
+
+    @Query("SELECT g.id, g.uniqueCode, g.firstName, g.lastName, g.seatNumber, g.priority, g.rsvpStatus, g.checkedIn, g.updatedAt " +
+           "FROM Guest g WHERE g.weddingId = :weddingId AND g.updatedAt >= :since ORDER BY g.id")
+    List<Object[]> findSnapshotRowsUpdatedSince(@Param("weddingId") Long weddingId, @Param("since") LocalDateTime since);
+
+    // Next chunk of a campaign's guests after the cursor: just what an invitation needs, without QR code images
+    @Query("SELECT g.id, g.firstName, g.lastName, g.email, g.phoneNumber, g.uniqueCode FROM Guest g " +
+           "WHERE g.weddingId = :weddingId AND g.id > :afterId " +
+           "AND (:rsvpStatus IS NULL OR g.rsvpStatus = :rsvpStatus) AND (:priority IS NULL OR g.priority = :priority) " +
+           "AND (:onlyUninvited = false OR g.invitationSent IS NULL OR g.invitationSent = false) ORDER BY g.id")
+    List<Object[]> findCampaignRows(@Param("weddingId") Long weddingId, @Param("afterId") Long afterId,
+                                    @Param("rsvpStatus") Guest.RSVPStatus rsvpStatus,
+                                    @Param("priority") Guest.Priority priority,
+                                    @Param("onlyUninvited") boolean onlyUninvited, Pageable pageable);
+
+    // Same as findCampaignRows, narrowed to an explicit subset of guests
+    @Query("SELECT g.id, g.firstName, g.lastName, g.email, g.phoneNumber, g.uniqueCode FROM Guest g " +
+           "WHERE g.weddingId = :weddingId AND g.id > :afterId AND g.id IN :ids " +
+           "AND (:rsvpStatus IS NULL OR g.rsvpStatus = :rsvpStatus) AND (:priority IS NULL OR g.priority = :priority) " +
+           "AND (:onlyUninvited = false OR g.invitationSent IS NULL OR g.invitationSent = false) ORDER BY g.id")
+    List<Object[]> findCampaignRowsIn(@Param("weddingId") Long weddingId, @Param("afterId") Long afterId,
+                                      @Param("ids") Collection<Long> ids,
+                                      @Param("rsvpStatus") Guest.RSVPStatus rsvpStatus,
+                                      @Param("priority") Guest.Priority priority,
+                                      @Param("onlyUninvited") boolean onlyUninvited, Pageable pageable);
+
+    // Every guest's code, for the RSVP code directory
+    @Query("SELECT g.id, g.uniqueCode, g.weddingId, g.rsvpStatus FROM Guest g WHERE g.uniqueCode IS NOT NULL")
+    List<Object[]> findRsvpDirectoryRows();
+
+    // One row per combination; the stats service folds these into its counters
+    @Query("SELECT g.rsvpStatus, g.priority, g.checkedIn, g.invitationSent, COUNT(g) FROM Guest g " +
+           "WHERE g.weddingId = :weddingId GROUP BY g.rsvpStatus, g.priority, g.checkedIn, g.invitationSent")
+    List<Object[]> countStatsByWeddingId(@Param("weddingId") Long weddingId);
+
+    // Only flips guests not yet flagged, so the count is the number of newly invited guests
+    @Modifying
+    @Transactional
+    @Query("UPDATE Guest g SET g.invitationSent = true, g.updatedAt = :now " +
+           "WHERE g.id IN :ids AND (g.invitationSent = false OR g.invitationSent IS NULL)")
+    int markInvitationsSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
 
 
@@ -0,0 +1,13 @@
+package com.elegantevents.repository;
+
+import com.elegantevents.model.InvitationCampaign;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InvitationCampaignRepository extends JpaRepository<InvitationCampaign, Long> {
+    List<InvitationCampaign> findByWeddingIdOrderByCreatedAtDesc(Long weddingId);
+    List<InvitationCampaign> findByStatus(InvitationCampaign.Status status);
+}
@@ -0,0 +1,36 @@
+package com.elegantevents.repository;
+
+import com.elegantevents.model.MessageArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MessageArchiveRepository extends JpaRepository<MessageArchive, Long> {
+
+    // Chunk ids only, so payloads are read one chunk at a time and only while a page still needs messages
+    @Query("SELECT a.id FROM MessageArchive a WHERE a.kind = com.elegantevents.model.MessageArchive$Kind.DIRECT " +
+           "AND a.userLowId = :lowId AND a.userHighId = :highId AND a.firstMessageId < :beforeId " +
+           "ORDER BY a.lastMessageId DESC")
+    List<Long> findDirectChunksBefore(@Param("lowId") Long lowId, @Param("highId") Long highId,
+                                      @Param("beforeId") Long beforeId);
+
+    @Query("SELECT a.id FROM MessageArchive a WHERE a.kind = com.elegantevents.model.MessageArchive$Kind.DIRECT " +
+           "AND a.userLowId = :lowId AND a.userHighId = :highId AND a.lastMessageId > :afterId " +
+           "ORDER BY a.firstMessageId ASC")
+    List<Long> findDirectChunksAfter(@Param("lowId") Long lowId, @Param("highId") Long highId,
+                                     @Param("afterId") Long afterId);
+
+    @Query("SELECT a.id FROM MessageArchive a WHERE a.kind = com.elegantevents.model.MessageArchive$Kind.DIRECT " +
+           "AND a.userLowId = :lowId AND a.userHighId = :highId " +
+           "AND a.firstMessageId <= :messageId AND a.lastMessageId >= :messageId")
+    List<Long> findDirectChunksContaining(@Param("lowId") Long lowId, @Param("highId") Long highId,
+                                          @Param("messageId") Long messageId);
+
+    @Query("SELECT a.id FROM MessageArchive a WHERE a.kind = com.elegantevents.model.MessageArchive$Kind.WEDDING " +
+           "AND a.weddingId = :weddingId AND a.firstMessageId < :beforeId ORDER BY a.lastMessageId DESC")
+    List<Long> findWeddingChunksBefore(@Param("weddingId") Long weddingId, @Param("beforeId") Long beforeId);
+}
@@ -1,10 +1,16 @@
 package com.elegantevents.repository;
 
+import com.elegantevents.dto.MessageDTO;
 import com.elegantevents.model.Message;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
@@ -14,13 +20,34 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
            "OR (m.sender.id = :user2Id AND m.receiver.id = :user1Id) ORDER BY m.sentAt ASC")
     List<Message> findConversation(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
 
-    // Find latest messages for a user (to build inbox)
-    @Query("SELECT m FROM Message m WHERE m.id IN " +
-           "(SELECT MAX(m2.id) FROM Message m2 WHERE m2.sender.id = :userId OR m2.receiver.id = :userId " +
-           "GROUP BY CASE WHEN m2.sender.id = :userId THEN m2.receiver.id ELSE m2.sender.id END) " +
-           "ORDER BY m.sentAt DESC")
-    List<Message> findLatestConversations(@Param("userId") Long userId);
-    
-    // Count unread messages
-    long countByReceiverIdAndIsReadFalse(Long receiverId);
+    // Keyset pages of a conversation; each branch of the OR is a range on idx_message_pair
+    @Query("SELECT new com.elegantevents.dto.MessageDTO(m.id, m.sender.clerkId, m.receiver.clerkId, m.content, " +
+           "m.sentAt, m.isRead) FROM Message m WHERE ((m.sender.id = :user1Id AND m.receiver.id = :user2Id) " +
+           "OR (m.sender.id = :user2Id AND m.receiver.id = :user1Id)) AND m.id > :afterId ORDER BY m.id ASC")
+    List<MessageDTO> findConversationAfter(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id,
+                                           @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.elegantevents.dto.MessageDTO(m.id, m.sender.clerkId, m.receiver.clerkId, m.content, " +
+           "m.sentAt, m.isRead) FROM Message m WHERE ((m.sender.id = :user1Id AND m.receiver.id = :user2Id) " +
+           "OR (m.sender.id = :user2Id AND m.receiver.id = :user1Id)) AND m.id < :beforeId ORDER BY m.id DESC")
+    List<MessageDTO> findConversationBefore(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id,
+                                            @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // All messages in id order, for building the search index
+    @Query("SELECT new com.elegantevents.dto.MessageDTO(m.id, m.sender.clerkId, m.receiver.clerkId, m.content, " +
+           "m.sentAt, m.isRead) FROM Message m WHERE m.id > :afterId ORDER BY m.id ASC")
+    List<MessageDTO> findAllAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // A user's messages sent before a time, oldest first, for archiving; locked so a second archiver waits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Message m WHERE (m.sender.id = :userId OR m.receiver.id = :userId) " +
+           "AND m.sentAt < :before ORDER BY m.id ASC")
+    List<Message> findArchivable(@Param("userId") Long userId, @Param("before") LocalDateTime before,
+                                 Pageable pageable);
+
+    // Marks what the reader received from the peer up to a message in one statement; a range on idx_message_pair
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.sender.id = :peerId AND m.receiver.id = :readerId " +
+           "AND m.id <= :upToId AND m.isRead = false")
+    int markReadUpTo(@Param("readerId") Long readerId, @Param("peerId") Long peerId, @Param("upToId") Long upToId);
 }
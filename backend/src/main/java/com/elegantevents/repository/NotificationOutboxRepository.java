@@ -0,0 +1,39 @@
+package com.elegantevents.repository;
+
+import com.elegantevents.dto.NotificationDelivery;
+import com.elegantevents.model.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Due rows of one channel, plus rows whose sender died mid-delivery; the dispatcher claims them one by one
+    @Query("SELECT o.id FROM NotificationOutbox o WHERE o.channel = :channel " +
+           "AND ((o.status = com.elegantevents.model.NotificationOutbox$Status.PENDING AND o.nextAttemptAt <= :now) " +
+           "OR (o.status = com.elegantevents.model.NotificationOutbox$Status.SENDING AND o.leaseUntil < :now)) " +
+           "ORDER BY o.nextAttemptAt")
+    List<Long> findClaimableIds(@Param("channel") NotificationOutbox.Channel channel, @Param("now") LocalDateTime now,
+                                Pageable pageable);
+
+    @Query("SELECT o.idempotencyKey FROM NotificationOutbox o WHERE o.idempotencyKey IN :keys")
+    List<String> findExistingKeys(@Param("keys") Collection<String> keys);
+
+    long countByStatus(NotificationOutbox.Status status);
+
+    // Everything queued for one guest, without message bodies
+    @Query("SELECT new com.elegantevents.dto.NotificationDelivery(o.id, o.channel, o.kind, o.recipient, o.campaignId, " +
+           "o.status, o.deliveryStatus, o.attempts, o.lastError, o.sentAt, o.deliveredAt) " +
+           "FROM NotificationOutbox o WHERE o.guestId = :guestId ORDER BY o.id DESC")
+    List<NotificationDelivery> findDeliveriesByGuestId(@Param("guestId") Long guestId);
+
+    @Query("SELECT o.status, COUNT(o) FROM NotificationOutbox o WHERE o.campaignId = :campaignId GROUP BY o.status")
+    List<Object[]> countByCampaignIdGroupByStatus(@Param("campaignId") Long campaignId);
+}
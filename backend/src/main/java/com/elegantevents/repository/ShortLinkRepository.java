@@ -0,0 +1,22 @@
+package com.elegantevents.repository;
+
+import com.elegantevents.model.ShortLink;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ShortLinkRepository extends JpaRepository<ShortLink, String> {
+
+    // Slug, target, unique code; everything the redirect needs, for loading the in-memory map
+    @Query("SELECT s.slug, s.target, s.uniqueCode FROM ShortLink s")
+    List<Object[]> findDirectoryRows();
+
+    // Guest id, slug
+    @Query("SELECT s.guestId, s.slug FROM ShortLink s WHERE s.guestId IN :guestIds")
+    List<Object[]> findSlugsByGuestIds(@Param("guestIds") Collection<Long> guestIds);
+}
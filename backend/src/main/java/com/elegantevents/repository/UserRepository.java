@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +19,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     List<User> findBySelectedRole(User.UserRole role);
 
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     @Query("SELECT u FROM User u WHERE u.packageExpiryDate IS NOT NULL AND u.packageExpiryDate < :now AND u.packageType != 'NORMAL'")
     List<User> findExpiredPackages(@Param("now") LocalDateTime now);
 }
@@ -2,6 +2,8 @@ package com.elegantevents.repository;
 
 import com.elegantevents.model.WeddingAssignment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,6 +16,10 @@ public interface WeddingAssignmentRepository extends JpaRepository<WeddingAssign
     List<WeddingAssignment> findByManagerClerkId(String managerClerkId);
     List<WeddingAssignment> findByProtocolClerkId(String protocolClerkId);
     List<WeddingAssignment> findAll();
+    
+    @Query("SELECT a.weddingId FROM WeddingAssignment a WHERE a.coupleClerkId = :clerkId " +
+           "OR a.managerClerkId = :clerkId OR a.protocolClerkId = :clerkId")
+    List<Long> findWeddingIdsByParticipant(@Param("clerkId") String clerkId);
 }
 
 
@@ -1,9 +1,13 @@
 package com.elegantevents.repository;
 
 import com.elegantevents.model.WeddingMessage;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -11,6 +15,10 @@ public interface WeddingMessageRepository extends JpaRepository<WeddingMessage,
     List<WeddingMessage> findByWeddingIdOrderByCreatedAtDesc(Long weddingId);
     List<WeddingMessage> findByWeddingIdAndRecipientGuestIdOrderByCreatedAtDesc(Long weddingId, Long guestId);
     List<WeddingMessage> findByWeddingIdAndIsBroadcastTrueOrderByCreatedAtDesc(Long weddingId);
+    List<WeddingMessage> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    // Locked so a second archiver waits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<WeddingMessage> findByWeddingIdAndCreatedAtBeforeOrderByIdAsc(Long weddingId, LocalDateTime before, Pageable pageable);
 }
 
 
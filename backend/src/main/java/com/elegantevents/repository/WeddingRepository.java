@@ -4,12 +4,14 @@ import com.elegantevents.model.Wedding;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WeddingRepository extends JpaRepository<Wedding, Long> {
     Optional<Wedding> findByClerkId(String clerkId);
     boolean existsByClerkId(String clerkId);
+    List<Wedding> findByStatus(Wedding.WeddingStatus status);
 }
 
 
@@ -0,0 +1,41 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.AttendeeBootstrap;
+import com.elegantevents.model.Guest;
+import com.elegantevents.repository.AttendeeRatingRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Everything the attendee dashboard shows, in one call. Wedding-wide parts come from
+ * {@link WeddingContentCache}; only the guest, their direct messages and their ratings are
+ * read per request.
+ */
+@Service
+public class AttendeeService {
+
+    private final GuestService guestService;
+    private final WeddingContentCache weddingContentCache;
+    private final WeddingMessageService weddingMessageService;
+    private final AttendeeRatingRepository attendeeRatingRepository;
+
+    public AttendeeService(GuestService guestService,
+                           WeddingContentCache weddingContentCache,
+                           WeddingMessageService weddingMessageService,
+                           AttendeeRatingRepository attendeeRatingRepository) {
+        this.guestService = guestService;
+        this.weddingContentCache = weddingContentCache;
+        this.weddingMessageService = weddingMessageService;
+        this.attendeeRatingRepository = attendeeRatingRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public AttendeeBootstrap bootstrap(String uniqueCode) {
+        Guest guest = guestService.getGuestByUniqueCode(uniqueCode);
+        WeddingContentCache.WeddingContent content = weddingContentCache.get(guest.getWeddingId());
+
+        return new AttendeeBootstrap(guest, content.wedding(), content.couple(), content.card(), content.protocol(),
+                weddingMessageService.getMessagesForGuest(guest.getWeddingId(), guest.getId()), content.gallery(),
+                content.galleryHasMore(), attendeeRatingRepository.findByGuestId(guest.getId()));
+    }
+}
@@ -0,0 +1,14 @@
+package com.elegantevents.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when an invitation campaign is created; its guests are queued once the creating
+ * transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class CampaignQueuedEvent {
+    private final Long campaignId;
+}
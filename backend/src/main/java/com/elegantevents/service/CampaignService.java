@@ -0,0 +1,246 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.CampaignProgress;
+import com.elegantevents.dto.CampaignRequest;
+import com.elegantevents.model.Guest;
+import com.elegantevents.model.InvitationCampaign;
+import com.elegantevents.model.NotificationOutbox;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.InvitationCampaignRepository;
+import com.elegantevents.repository.NotificationOutboxRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Re-sends invitations to a filtered subset of a wedding's guests. Creating a campaign only
+ * saves it; its guests are then walked in id order on the notification pool, one chunk per
+ * transaction, and each chunk's messages go into the outbox with the campaign's id. Delivery,
+ * throttling and retries are the outbox dispatcher's, and progress is read back from it.
+ */
+@Service
+public class CampaignService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CampaignService.class);
+
+    private final InvitationCampaignRepository campaignRepository;
+    private final WeddingRepository weddingRepository;
+    private final GuestRepository guestRepository;
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationService notificationService;
+    private final ShortLinkService shortLinkService;
+    private final GuestBulkImportService guestBulkImportService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate newTransaction;
+    private final int chunkSize;
+
+    public CampaignService(InvitationCampaignRepository campaignRepository,
+                           WeddingRepository weddingRepository,
+                           GuestRepository guestRepository,
+                           NotificationOutboxRepository outboxRepository,
+                           NotificationService notificationService,
+                           ShortLinkService shortLinkService,
+                           GuestBulkImportService guestBulkImportService,
+                           ApplicationEventPublisher eventPublisher,
+                           @Qualifier("notificationExecutor") ThreadPoolTaskExecutor executor,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.campaign.chunk-size:500}") int chunkSize) {
+        this.campaignRepository = campaignRepository;
+        this.weddingRepository = weddingRepository;
+        this.guestRepository = guestRepository;
+        this.outboxRepository = outboxRepository;
+        this.notificationService = notificationService;
+        this.shortLinkService = shortLinkService;
+        this.guestBulkImportService = guestBulkImportService;
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+    }
+
+    @Transactional
+    public CampaignProgress createCampaign(CampaignRequest request) {
+        if (!request.isSendEmail() && !request.isSendSms()) {
+            throw new IllegalArgumentException("Select at least one channel");
+        }
+        if (request.getGuestIds() != null && request.getGuestIds().isEmpty()) {
+            throw new IllegalArgumentException("Guest list is empty");
+        }
+        if (!weddingRepository.existsById(request.getWeddingId())) {
+            throw new RuntimeException("Wedding not found");
+        }
+        InvitationCampaign campaign = new InvitationCampaign();
+        campaign.setWeddingId(request.getWeddingId());
+        campaign.setCreatedBy(request.getClerkId());
+        campaign.setSendEmail(request.isSendEmail());
+        campaign.setSendSms(request.isSendSms());
+        campaign.setRsvpStatus(request.getRsvpStatus());
+        campaign.setPriority(request.getPriority());
+        campaign.setOnlyUninvited(request.isOnlyUninvited());
+        if (request.getGuestIds() != null) {
+            campaign.setGuestIds(request.getGuestIds().stream().distinct().map(String::valueOf)
+                    .collect(Collectors.joining(",")));
+        }
+        campaign = campaignRepository.save(campaign);
+        eventPublisher.publishEvent(new CampaignQueuedEvent(campaign.getId()));
+        return toProgress(campaign);
+    }
+
+    @Transactional(readOnly = true)
+    public CampaignProgress getProgress(Long campaignId) {
+        InvitationCampaign campaign = campaignRepository.findById(campaignId)
+                .orElseThrow(() -> new RuntimeException("Campaign not found"));
+        return toProgress(campaign);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CampaignProgress> getCampaignsByWeddingId(Long weddingId) {
+        return campaignRepository.findByWeddingIdOrderByCreatedAtDesc(weddingId).stream()
+                .map(this::toProgress)
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener
+    public void onCampaignQueued(CampaignQueuedEvent event) {
+        start(event.getCampaignId());
+    }
+
+    // Campaigns a restart interrupted pick up from their cursor
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeQueuing() {
+        for (InvitationCampaign campaign : campaignRepository.findByStatus(InvitationCampaign.Status.QUEUING)) {
+            logger.info("Resuming invitation campaign {} after guest {}", campaign.getId(), campaign.getLastGuestId());
+            start(campaign.getId());
+        }
+    }
+
+    private void start(Long campaignId) {
+        try {
+            executor.execute(() -> queue(campaignId));
+        } catch (TaskRejectedException e) {
+            // Nothing else would pick it up until the next restart
+            logger.error("Invitation campaign {} could not be started: notification pool saturated", campaignId);
+            markFailed(campaignId);
+        }
+    }
+
+    void queue(Long campaignId) {
+        try {
+            InvitationCampaign campaign = campaignRepository.findById(campaignId).orElse(null);
+            if (campaign == null) {
+                return;
+            }
+            Wedding wedding = weddingRepository.findById(campaign.getWeddingId())
+                    .orElseThrow(() -> new RuntimeException("Wedding not found"));
+            String coupleName = guestBulkImportService.resolveCoupleName(wedding.getClerkId());
+            // One chunk per transaction keeps locks short and makes each chunk's cursor durable
+            boolean more;
+            do {
+                more = Boolean.TRUE.equals(newTransaction.execute(status -> queueChunk(campaignId, wedding, coupleName)));
+            } while (more);
+        } catch (RuntimeException e) {
+            logger.error("Invitation campaign {} failed while queuing", campaignId, e);
+            markFailed(campaignId);
+        }
+    }
+
+    private void markFailed(Long campaignId) {
+        newTransaction.executeWithoutResult(status -> campaignRepository.findById(campaignId).ifPresent(campaign -> {
+            campaign.setStatus(InvitationCampaign.Status.FAILED);
+            campaignRepository.save(campaign);
+        }));
+    }
+
+    /**
+     * @return whether more guests may follow
+     */
+    private boolean queueChunk(Long campaignId, Wedding wedding, String coupleName) {
+        InvitationCampaign campaign = campaignRepository.findById(campaignId).orElse(null);
+        if (campaign == null || campaign.getStatus() != InvitationCampaign.Status.QUEUING) {
+            return false;
+        }
+        PageRequest chunk = PageRequest.of(0, chunkSize);
+        boolean onlyUninvited = Boolean.TRUE.equals(campaign.getOnlyUninvited());
+        List<Object[]> rows = campaign.getGuestIds() == null
+                ? guestRepository.findCampaignRows(campaign.getWeddingId(), campaign.getLastGuestId(),
+                        campaign.getRsvpStatus(), campaign.getPriority(), onlyUninvited, chunk)
+                : guestRepository.findCampaignRowsIn(campaign.getWeddingId(), campaign.getLastGuestId(),
+                        parseIds(campaign.getGuestIds()), campaign.getRsvpStatus(), campaign.getPriority(),
+                        onlyUninvited, chunk);
+        List<Guest> guests = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Guest guest = new Guest();
+            guest.setId((Long) row[0]);
+            guest.setFirstName((String) row[1]);
+            guest.setLastName((String) row[2]);
+            guest.setEmail((String) row[3]);
+            guest.setPhoneNumber((String) row[4]);
+            guest.setUniqueCode((String) row[5]);
+            guests.add(guest);
+        }
+        if (!guests.isEmpty()) {
+            Map<Long, String> shortUrls = Boolean.TRUE.equals(campaign.getSendSms())
+                    ? shortLinkService.issue(wedding, guests.stream()
+                            .filter(g -> g.getPhoneNumber() != null && !g.getPhoneNumber().isEmpty()).toList())
+                    : Map.of();
+            int queued = notificationService.enqueueCampaignInvitations(campaign, wedding, coupleName, guests, shortUrls);
+            campaign.setLastGuestId(guests.get(guests.size() - 1).getId());
+            campaign.setGuestsMatched(campaign.getGuestsMatched() + guests.size());
+            campaign.setMessagesQueued(campaign.getMessagesQueued() + queued);
+        }
+        boolean more = rows.size() == chunkSize;
+        if (!more) {
+            campaign.setStatus(InvitationCampaign.Status.QUEUED);
+            logger.info("Invitation campaign {} queued {} message(s) for {} guest(s)", campaignId,
+                    campaign.getMessagesQueued(), campaign.getGuestsMatched());
+        }
+        campaignRepository.save(campaign);
+        return more;
+    }
+
+    private CampaignProgress toProgress(InvitationCampaign campaign) {
+        long sent = 0;
+        long failed = 0;
+        long pending = 0;
+        if (campaign.getId() != null) {
+            for (Object[] row : outboxRepository.countByCampaignIdGroupByStatus(campaign.getId())) {
+                long count = (Long) row[1];
+                switch ((NotificationOutbox.Status) row[0]) {
+                    case SENT -> sent += count;
+                    case DEAD -> failed += count;
+                    case PENDING, SENDING -> pending += count;
+                }
+            }
+        }
+        return new CampaignProgress(campaign.getId(), campaign.getWeddingId(), campaign.getStatus(),
+                campaign.getGuestsMatched(), campaign.getMessagesQueued(), sent, failed, pending,
+                campaign.getCreatedAt());
+    }
+
+    private static List<Long> parseIds(String ids) {
+        return Arrays.stream(ids.split(",")).map(Long::valueOf).collect(Collectors.toList());
+    }
+}
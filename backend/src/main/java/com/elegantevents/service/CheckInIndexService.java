@@ -0,0 +1,298 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.CheckInResult;
+import com.elegantevents.model.Guest;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves door scans for ONGOING weddings from memory. A check-in is acknowledged once it is
+ * in the index and in the {@link CheckInJournal}; the guests table is brought up to date by
+ * a batched flush every {@code app.checkin.flush-interval-ms}. Weddings that are not loaded
+ * fall back to the database in {@link GuestService}.
+ */
+@Service
+public class CheckInIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckInIndexService.class);
+
+    // Earliest time wins, so a replayed or late entry never moves a check-in forward
+    private static final String FLUSH_CHECK_IN = "UPDATE guests SET checked_in = TRUE, checked_in_at = ?, updated_at = ? " +
+            "WHERE id = ? AND (checked_in_at IS NULL OR checked_in_at > ?)";
+
+    private final Map<Long, WeddingCheckInIndex> indexes = new ConcurrentHashMap<>();
+    private final List<CheckInJournal.Segment> unflushed = new ArrayList<>();
+
+    private final GuestRepository guestRepository;
+    private final WeddingRepository weddingRepository;
+    private final CheckInJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public CheckInIndexService(GuestRepository guestRepository,
+                               WeddingRepository weddingRepository,
+                               CheckInJournal journal,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${app.checkin.index.enabled:true}") boolean enabled,
+                               @Value("${app.guest-import.jdbc-batch-size:200}") int batchSize) {
+        this.guestRepository = guestRepository;
+        this.weddingRepository = weddingRepository;
+        this.journal = journal;
+        this.jdbcTemplate = jdbcTemplate;
+        // Flushes may be triggered inside a caller's transaction (wedding status change) but must commit on their own
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Replays check-ins a previous run acknowledged but never flushed, then loads ongoing weddings.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        List<CheckInJournal.Segment> leftovers = journal.recover();
+        if (!leftovers.isEmpty()) {
+            logger.info("Replaying {} check-in journal segment(s)", leftovers.size());
+            synchronized (unflushed) {
+                unflushed.addAll(leftovers);
+            }
+            flush();
+        }
+        if (!enabled) {
+            return;
+        }
+        for (Wedding wedding : weddingRepository.findByStatus(Wedding.WeddingStatus.ONGOING)) {
+            load(wedding.getId());
+        }
+    }
+
+    public void onWeddingStatusChanged(Long weddingId, Wedding.WeddingStatus status) {
+        if (status == Wedding.WeddingStatus.ONGOING) {
+            load(weddingId);
+        } else {
+            unload(weddingId);
+        }
+    }
+
+    public WeddingCheckInIndex load(Long weddingId) {
+        if (!enabled) {
+            return null;
+        }
+        return indexes.computeIfAbsent(weddingId, id -> {
+            List<Object[]> rows = guestRepository.findCheckInRowsByWeddingId(id);
+            WeddingCheckInIndex index = new WeddingCheckInIndex(id, rows.size());
+            for (Object[] row : rows) {
+                LocalDateTime checkedInAt = (LocalDateTime) row[7];
+                if (checkedInAt == null && Boolean.TRUE.equals(row[6])) {
+                    // Checked in before times were recorded
+                    checkedInAt = LocalDateTime.now();
+                }
+                index.add((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                        (Guest.Priority) row[5], checkedInAt);
+            }
+            logger.info("Loaded check-in index for wedding {} ({} guests)", id, rows.size());
+            return index;
+        });
+    }
+
+    public void unload(Long weddingId) {
+        if (indexes.containsKey(weddingId)) {
+            flush();
+            indexes.remove(weddingId);
+        }
+    }
+
+    public WeddingCheckInIndex getIndex(Long weddingId) {
+        return indexes.get(weddingId);
+    }
+
+    /**
+     * @return the guest for this code if their wedding is loaded, otherwise null
+     */
+    public CheckInResult lookup(String uniqueCode) {
+        for (WeddingCheckInIndex index : indexes.values()) {
+            int slot = index.slotForCode(uniqueCode);
+            if (slot >= 0) {
+                return index.describe(slot);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the check-in result, or null when the code's wedding is not loaded
+     */
+    public CheckInResult checkInByCode(String uniqueCode) {
+        for (WeddingCheckInIndex index : indexes.values()) {
+            int slot = index.slotForCode(uniqueCode);
+            if (slot >= 0) {
+                return checkIn(index, slot);
+            }
+        }
+        return null;
+    }
+
+    public CheckInResult checkInByGuestId(Long guestId) {
+        for (WeddingCheckInIndex index : indexes.values()) {
+            int slot = index.slotForGuestId(guestId);
+            if (slot >= 0) {
+                return checkIn(index, slot);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Journals the check-in before marking the index, so a scan the journal could not take leaves
+     * the guest not checked in and the failure reaches the scanner. Two scans racing here may both
+     * be journaled; the flush keeps the earliest time.
+     *
+     * @throws UncheckedIOException when the journal cannot be written
+     */
+    private CheckInResult checkIn(WeddingCheckInIndex index, int slot) {
+        CheckInResult current = index.describe(slot);
+        if (current.isAlreadyCheckedIn()) {
+            return current;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            journal.append(current.getGuestId(), now);
+        } catch (UncheckedIOException e) {
+            logger.error("Check-in for guest {} could not be journaled", current.getGuestId(), e);
+            throw e;
+        }
+        CheckInResult result = index.checkIn(slot, now);
+        if (!result.isAlreadyCheckedIn()) {
+            eventPublisher.publishEvent(new GuestCheckedInEvent(index.getWeddingId(), result.getGuestId()));
+        }
+        return result;
+    }
+
+    /**
+     * Adds newly imported guests to their wedding's index once their rows are committed.
+     */
+    @TransactionalEventListener
+    public void onGuestsImported(GuestsImportedEvent event) {
+        WeddingCheckInIndex index = indexes.get(event.getWeddingId());
+        if (index == null) {
+            return;
+        }
+        for (Guest guest : event.getGuests()) {
+            index.add(guest.getId(), guest.getUniqueCode(), guest.getFirstName(), guest.getLastName(),
+                    guest.getSeatNumber(), guest.getPriority(), guest.getCheckedInAt());
+        }
+    }
+
+    /**
+     * Sets checked_in/checked_in_at for each guest (id -> epoch millis) in one batch, keeping any earlier time
+     * already stored. Runs in the caller's transaction. Safe to repeat.
+     */
+    public void persistEarliest(Map<Long, Long> earliestByGuest) {
+        if (earliestByGuest.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(FLUSH_CHECK_IN, new ArrayList<>(earliestByGuest.entrySet()), batchSize, (ps, entry) -> {
+            Timestamp checkedInAt = new Timestamp(entry.getValue());
+            ps.setTimestamp(1, checkedInAt);
+            ps.setTimestamp(2, now);
+            ps.setLong(3, entry.getKey());
+            ps.setTimestamp(4, checkedInAt);
+        });
+    }
+
+    /**
+     * Brings a loaded index in line with check-ins that were written to the database directly.
+     */
+    public void applyToIndex(Long weddingId, Map<Long, Long> earliestByGuest) {
+        WeddingCheckInIndex index = indexes.get(weddingId);
+        if (index == null) {
+            return;
+        }
+        for (Map.Entry<Long, Long> entry : earliestByGuest.entrySet()) {
+            int slot = index.slotForGuestId(entry.getKey());
+            if (slot >= 0) {
+                index.applyEarliest(slot, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Mirrors seat changes written by the seating planner (guest id -> seat number).
+     */
+    public void updateSeats(Long weddingId, Map<Long, String> seatByGuest) {
+        WeddingCheckInIndex index = indexes.get(weddingId);
+        if (index == null) {
+            return;
+        }
+        for (Map.Entry<Long, String> entry : seatByGuest.entrySet()) {
+            int slot = index.slotForGuestId(entry.getKey());
+            if (slot >= 0) {
+                index.setSeat(slot, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Writes journaled check-ins to the guests table. A segment is only deleted after its batch
+     * succeeds; failed segments are retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.checkin.flush-interval-ms:1000}")
+    public void flush() {
+        synchronized (unflushed) {
+            CheckInJournal.Segment current = journal.rotate();
+            if (current != null) {
+                unflushed.add(current);
+            }
+            if (unflushed.isEmpty()) {
+                return;
+            }
+            Map<Long, Long> earliest = new HashMap<>();
+            for (CheckInJournal.Segment segment : unflushed) {
+                for (CheckInJournal.Entry entry : segment.entries()) {
+                    earliest.merge(entry.guestId(), entry.epochMillis(), Math::min);
+                }
+            }
+            try {
+                newTransaction.executeWithoutResult(status -> persistEarliest(earliest));
+            } catch (RuntimeException e) {
+                logger.error("Failed to flush {} check-in(s); will retry", earliest.size(), e);
+                return;
+            }
+            for (CheckInJournal.Segment segment : unflushed) {
+                journal.delete(segment);
+            }
+            unflushed.clear();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.elegantevents.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only local log of check-ins that have been acknowledged at the door but not yet
+ * written to the guests table. Each record is 16 bytes (guest id, epoch millis). The active
+ * file is rotated into a segment on every flush; a segment file is only deleted once its
+ * entries are in the database, so anything left on disk after a crash is replayed at startup.
+ */
+@Service
+public class CheckInJournal {
+
+    private static final int RECORD_SIZE = 16;
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+
+    private FileChannel channel;
+    private Path activeFile;
+    private List<Entry> activeEntries = new ArrayList<>();
+    private long segmentCounter;
+
+    public CheckInJournal(@Value("${app.checkin.journal-dir:data/checkin-journal}") String directory,
+                          @Value("${app.checkin.journal-fsync:true}") boolean fsync) {
+        this.directory = Path.of(directory);
+        this.fsync = fsync;
+    }
+
+    public synchronized void append(long guestId, long epochMillis) {
+        try {
+            if (channel == null) {
+                openActiveFile();
+            }
+            record.clear();
+            record.putLong(guestId).putLong(epochMillis).flip();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            activeEntries.add(new Entry(guestId, epochMillis));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal check-in for guest " + guestId, e);
+        }
+    }
+
+    /**
+     * Closes the active file and hands it over as a segment; later appends go to a new file.
+     *
+     * @return the segment, or null when nothing was appended since the last rotation
+     */
+    public synchronized Segment rotate() {
+        if (channel == null) {
+            return null;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close check-in journal " + activeFile, e);
+        }
+        Segment segment = new Segment(activeFile, activeEntries);
+        channel = null;
+        activeFile = null;
+        activeEntries = new ArrayList<>();
+        return segment;
+    }
+
+    /**
+     * Segments left behind by a previous run, oldest first. The file currently being appended to is skipped.
+     */
+    public synchronized List<Segment> recover() {
+        List<Segment> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (file.equals(activeFile)) {
+                    continue;
+                }
+                segments.add(new Segment(file, read(file)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read check-in journal directory " + directory, e);
+        }
+        segments.sort((a, b) -> a.file().getFileName().compareTo(b.file().getFileName()));
+        return segments;
+    }
+
+    public void delete(Segment segment) {
+        try {
+            Files.deleteIfExists(segment.file());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete check-in journal segment " + segment.file(), e);
+        }
+    }
+
+    private void openActiveFile() throws IOException {
+        Files.createDirectories(directory);
+        activeFile = directory.resolve(String.format("checkins-%d-%06d%s", System.currentTimeMillis(), segmentCounter++, SUFFIX));
+        channel = FileChannel.open(activeFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private static List<Entry> read(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        // A torn trailing record (crash mid-write) was never acknowledged, so it is dropped
+        while (buffer.remaining() >= RECORD_SIZE) {
+            entries.add(new Entry(buffer.getLong(), buffer.getLong()));
+        }
+        return entries;
+    }
+
+    public record Entry(long guestId, long epochMillis) {
+    }
+
+    public record Segment(Path file, List<Entry> entries) {
+    }
+}
@@ -0,0 +1,144 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.CheckInResult;
+import com.elegantevents.dto.CheckInSyncRequest;
+import com.elegantevents.dto.CheckInSyncResponse;
+import com.elegantevents.model.Guest;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reconciles check-ins captured offline by protocol devices. Uploads are idempotent and the
+ * earliest arrival time wins, so devices can retry or overlap freely; the response carries
+ * every check-in the server knows about since the device's last cursor.
+ */
+@Service
+public class CheckInSyncService {
+
+    // IN lists are split to stay well under driver and optimizer limits
+    private static final int CODE_LOOKUP_CHUNK = 1000;
+    // Rows committed just before the cursor by a concurrent writer are sent again rather than missed
+    private static final long CURSOR_OVERLAP_MILLIS = 2000;
+
+    private final GuestRepository guestRepository;
+    private final WeddingRepository weddingRepository;
+    private final CheckInIndexService checkInIndexService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxBatch;
+
+    public CheckInSyncService(GuestRepository guestRepository,
+                              WeddingRepository weddingRepository,
+                              CheckInIndexService checkInIndexService,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${app.checkin.sync.max-batch:5000}") int maxBatch) {
+        this.guestRepository = guestRepository;
+        this.weddingRepository = weddingRepository;
+        this.checkInIndexService = checkInIndexService;
+        this.eventPublisher = eventPublisher;
+        this.maxBatch = maxBatch;
+    }
+
+    @Transactional
+    public CheckInSyncResponse sync(Long weddingId, CheckInSyncRequest request) {
+        Wedding wedding = weddingRepository.findById(weddingId)
+                .orElseThrow(() -> new RuntimeException("Wedding not found"));
+        List<CheckInSyncRequest.CheckIn> checkIns = request.getCheckIns() != null ? request.getCheckIns() : List.of();
+        if (checkIns.size() > maxBatch) {
+            throw new IllegalArgumentException("At most " + maxBatch + " check-ins per sync");
+        }
+        long receivedAt = System.currentTimeMillis();
+        long earliestPlausible = earliestPlausible(wedding);
+
+        // Coalesce per code first. A device clock ahead of the server is clamped to the receive time;
+        // one that was never set or was reset reads as long ago and would win "earliest" for good, so
+        // times before the wedding could have started are replaced by the receive time as well
+        Map<String, Long> earliestByCode = new LinkedHashMap<>();
+        for (CheckInSyncRequest.CheckIn checkIn : checkIns) {
+            if (checkIn.getCode() == null || checkIn.getCode().isBlank()) {
+                continue;
+            }
+            Long deviceTime = checkIn.getCheckedInAt();
+            long at = deviceTime != null && deviceTime >= earliestPlausible ? Math.min(deviceTime, receivedAt) : receivedAt;
+            earliestByCode.merge(checkIn.getCode().trim().toUpperCase(Locale.ROOT), at, Math::min);
+        }
+
+        Map<String, Long> guestIdByCode = resolveCodes(weddingId, earliestByCode.keySet());
+        Map<Long, Long> earliestByGuest = new HashMap<>();
+        List<String> unknownCodes = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : earliestByCode.entrySet()) {
+            Long guestId = guestIdByCode.get(entry.getKey());
+            if (guestId == null) {
+                unknownCodes.add(entry.getKey());
+            } else {
+                earliestByGuest.merge(guestId, entry.getValue(), Math::min);
+            }
+        }
+
+        // Door scans acknowledged from memory must be in the table before the delta is read
+        checkInIndexService.flush();
+        checkInIndexService.persistEarliest(earliestByGuest);
+
+        LocalDateTime since = request.getSince() != null
+                ? toLocalDateTime(request.getSince() - CURSOR_OVERLAP_MILLIS)
+                : LocalDateTime.of(1970, 1, 1, 0, 0);
+        List<CheckInResult> changes = new ArrayList<>();
+        for (Object[] row : guestRepository.findCheckedInRowsUpdatedSince(weddingId, since)) {
+            changes.add(new CheckInResult((Long) row[0], weddingId, (String) row[1], (String) row[2], (String) row[3],
+                    (String) row[4], (Guest.Priority) row[5], (LocalDateTime) row[7], false));
+        }
+        checkInIndexService.applyToIndex(weddingId, earliestByGuest);
+        if (!earliestByGuest.isEmpty()) {
+            // Which rows were new arrivals is not reported per row by the batch, so counters are reloaded
+            eventPublisher.publishEvent(new CheckInsSyncedEvent(weddingId));
+        }
+
+        return new CheckInSyncResponse(receivedAt, checkIns.size(), earliestByGuest.size(), unknownCodes, changes);
+    }
+
+    private Map<String, Long> resolveCodes(Long weddingId, Set<String> codes) {
+        Map<String, Long> guestIdByCode = new HashMap<>();
+        List<String> pending = new ArrayList<>(new LinkedHashSet<>(codes));
+        for (int start = 0; start < pending.size(); start += CODE_LOOKUP_CHUNK) {
+            List<String> chunk = pending.subList(start, Math.min(start + CODE_LOOKUP_CHUNK, pending.size()));
+            for (Object[] row : guestRepository.findIdsByWeddingIdAndUniqueCodes(weddingId, chunk)) {
+                guestIdByCode.put(((String) row[1]).toUpperCase(Locale.ROOT), (Long) row[0]);
+            }
+        }
+        return guestIdByCode;
+    }
+
+    /**
+     * Start of the day before the wedding, allowing for time zones and early arrivals; the wedding's
+     * creation time when it has no date.
+     */
+    private static long earliestPlausible(Wedding wedding) {
+        if (wedding.getWeddingDate() != null) {
+            return wedding.getWeddingDate().minusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        if (wedding.getCreatedAt() != null) {
+            return wedding.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        return 0;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,13 @@
+package com.elegantevents.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Offline check-ins from a protocol device were written for the wedding; stats are reloaded once committed.
+ */
+@Getter
+@AllArgsConstructor
+public class CheckInsSyncedEvent {
+    private final Long weddingId;
+}
@@ -0,0 +1,126 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.Message;
+import com.elegantevents.repository.ConversationSummaryRepository;
+import com.elegantevents.repository.MessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maintains the conversation_summaries read model, so an inbox is one indexed range scan
+ * instead of a GROUP BY over the user's whole message history. Every message upserts the
+ * sender's and the receiver's row in the sending transaction; the receiver's unread count
+ * goes up by one. Rows only move forward: a message older than the row's latest (two sends
+ * racing) still counts as unread but does not replace the latest message.
+ */
+@Service
+public class ConversationSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationSummaryService.class);
+
+    static final int SNIPPET_LENGTH = 160;
+
+    // last_message_id is assigned last: MySQL applies the assignments left to right
+    private static final String UPSERT = "INSERT INTO conversation_summaries (user_id, peer_id, last_message_id, " +
+            "last_sender_id, last_snippet, last_message_at, unread_count) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE unread_count = unread_count + VALUES(unread_count), " +
+            "last_sender_id = CASE WHEN VALUES(last_message_id) > last_message_id THEN VALUES(last_sender_id) ELSE last_sender_id END, " +
+            "last_snippet = CASE WHEN VALUES(last_message_id) > last_message_id THEN VALUES(last_snippet) ELSE last_snippet END, " +
+            "last_message_at = CASE WHEN VALUES(last_message_id) > last_message_id THEN VALUES(last_message_at) ELSE last_message_at END, " +
+            "last_message_id = GREATEST(last_message_id, VALUES(last_message_id))";
+
+    // Rebuilds every row from the messages table; the same statement is in db-migration.sql
+    private static final String BACKFILL = "INSERT INTO conversation_summaries (user_id, peer_id, last_message_id, " +
+            "last_sender_id, last_snippet, last_message_at, unread_count) " +
+            "SELECT p.user_id, p.peer_id, m.id, m.sender_id, SUBSTRING(m.content, 1, " + SNIPPET_LENGTH + "), m.sent_at, " +
+            "(SELECT COUNT(*) FROM messages u WHERE u.receiver_id = p.user_id AND u.sender_id = p.peer_id " +
+            "AND u.is_read = FALSE) " +
+            "FROM (SELECT x.user_id, x.peer_id, MAX(x.id) AS last_id FROM (" +
+            "SELECT sender_id AS user_id, receiver_id AS peer_id, id FROM messages " +
+            "UNION ALL SELECT receiver_id AS user_id, sender_id AS peer_id, id FROM messages) x " +
+            "GROUP BY x.user_id, x.peer_id) p JOIN messages m ON m.id = p.last_id " +
+            "ON DUPLICATE KEY UPDATE last_message_id = VALUES(last_message_id), last_sender_id = VALUES(last_sender_id), " +
+            "last_snippet = VALUES(last_snippet), last_message_at = VALUES(last_message_at), " +
+            "unread_count = VALUES(unread_count)";
+
+    private final ConversationSummaryRepository summaryRepository;
+    private final MessageRepository messageRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ConversationSummaryService(ConversationSummaryRepository summaryRepository,
+                                      MessageRepository messageRepository,
+                                      JdbcTemplate jdbcTemplate) {
+        this.summaryRepository = summaryRepository;
+        this.messageRepository = messageRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Builds the read model on the first start after it was added, so inboxes are not empty
+     * until someone runs the migration's backfill by hand.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (summaryRepository.count() == 0 && messageRepository.count() > 0) {
+            int rows = jdbcTemplate.update(BACKFILL);
+            logger.info("Backfilled {} conversation summary row(s) from existing messages", rows);
+        }
+    }
+
+    /**
+     * Must run in the transaction that saved the message, after the insert assigned its id.
+     */
+    public void recordMessage(Message message) {
+        Long senderId = message.getSender().getId();
+        Long receiverId = message.getReceiver().getId();
+        List<Object[]> rows = new ArrayList<>(2);
+        if (senderId.equals(receiverId)) {
+            rows.add(row(senderId, receiverId, message, 0));
+        } else {
+            Object[] senderRow = row(senderId, receiverId, message, 0);
+            Object[] receiverRow = row(receiverId, senderId, message, message.isRead() ? 0 : 1);
+            // Lower user id first, whoever sends: two people messaging each other at once would
+            // otherwise lock the pair's rows in opposite orders and deadlock
+            if (senderId < receiverId) {
+                rows.add(senderRow);
+                rows.add(receiverRow);
+            } else {
+                rows.add(receiverRow);
+                rows.add(senderRow);
+            }
+        }
+        jdbcTemplate.batchUpdate(UPSERT, rows);
+    }
+
+    /**
+     * The reader has read {@code count} more of the peer's messages.
+     */
+    public void markRead(Long readerId, Long peerId, int count) {
+        if (count > 0) {
+            // Floored at zero, so a count already out of step cannot go negative
+            summaryRepository.decrementUnread(readerId, peerId, count);
+        }
+    }
+
+    private static Object[] row(Long userId, Long peerId, Message message, int unread) {
+        String content = message.getContent();
+        String snippet = content;
+        if (content != null && content.length() > SNIPPET_LENGTH) {
+            // Never cut an emoji or other surrogate pair in half
+            int end = Character.isHighSurrogate(content.charAt(SNIPPET_LENGTH - 1)) ? SNIPPET_LENGTH - 1 : SNIPPET_LENGTH;
+            snippet = content.substring(0, end);
+        }
+        return new Object[]{userId, peerId, message.getId(), message.getSender().getId(), snippet,
+                Timestamp.valueOf(message.getSentAt()), unread};
+    }
+}
@@ -0,0 +1,113 @@
+package com.elegantevents.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV reader: quoted fields, doubled quotes, embedded newlines, CRLF/LF and a UTF-8 BOM.
+ * The delimiter is taken from the header line (comma, semicolon or tab), since spreadsheet
+ * exports in some locales use semicolons.
+ */
+public class CsvRowReader implements SpreadsheetRowReader {
+
+    private final Reader reader;
+    private char delimiter;
+    private boolean firstRow = true;
+    private boolean eof;
+
+    public CsvRowReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        if (eof) {
+            return null;
+        }
+        if (firstRow) {
+            firstRow = false;
+            detectDelimiter();
+        }
+
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int peek = reader.read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (peek != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (ch == delimiter) {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                row.add(field.toString());
+                return row;
+            } else if (ch == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                row.add(field.toString());
+                return row;
+            } else {
+                field.append(ch);
+            }
+        }
+        eof = true;
+        if (!any) {
+            return null;
+        }
+        row.add(field.toString());
+        return row;
+    }
+
+    private void detectDelimiter() throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        reader.mark(8192);
+        int c;
+        int commas = 0, semicolons = 0, tabs = 0;
+        boolean quoted = false;
+        for (int i = 0; i < 8000 && (c = reader.read()) != -1; i++) {
+            if (c == '"') quoted = !quoted;
+            if (quoted) continue;
+            if (c == '\n' || c == '\r') break;
+            if (c == ',') commas++;
+            else if (c == ';') semicolons++;
+            else if (c == '\t') tabs++;
+        }
+        reader.reset();
+        delimiter = semicolons > commas && semicolons >= tabs ? ';' : tabs > commas ? '\t' : ',';
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,88 @@
+package com.elegantevents.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template parsed once into alternating static chunks and {@code {{name}}} slots. Rendering
+ * appends the chunks and the HTML-escaped slot values straight into the caller's buffer.
+ */
+final class EmailTemplate {
+
+    private final String name;
+    // chunks[i] precedes slots[i]; the last chunk follows the last slot
+    private final String[] chunks;
+    private final String[] slots;
+
+    private EmailTemplate(String name, String[] chunks, String[] slots) {
+        this.name = name;
+        this.chunks = chunks;
+        this.slots = slots;
+    }
+
+    static EmailTemplate parse(String name, String source) {
+        List<String> chunks = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int open = source.indexOf("{{", from);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed slot in template " + name + " at offset " + open);
+            }
+            String slot = source.substring(open + 2, close).trim();
+            if (slot.isEmpty() || !slot.chars().allMatch(Character::isLetterOrDigit)) {
+                throw new IllegalArgumentException("Invalid slot '" + slot + "' in template " + name);
+            }
+            chunks.add(source.substring(from, open));
+            slots.add(slot);
+            from = close + 2;
+        }
+        chunks.add(source.substring(from));
+        return new EmailTemplate(name, chunks.toArray(String[]::new), slots.toArray(String[]::new));
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Missing or null values render as empty.
+     */
+    void renderTo(StringBuilder out, Map<String, ?> model) {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(chunks[i]);
+            Object value = model.get(slots[i]);
+            if (value != null) {
+                appendEscaped(out, value instanceof CharSequence text ? text : value.toString());
+            }
+        }
+        out.append(chunks[slots.length]);
+    }
+
+    int estimatedLength() {
+        int length = 0;
+        for (String chunk : chunks) {
+            length += chunk.length();
+        }
+        return length + slots.length * 32;
+    }
+
+    static void appendEscaped(StringBuilder out, CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            switch (ch) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(ch);
+            }
+        }
+    }
+}
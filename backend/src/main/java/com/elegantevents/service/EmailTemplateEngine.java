@@ -0,0 +1,114 @@
+package com.elegantevents.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Email templates from {@code app.mail.templates.location}, one {@code name.html} file each,
+ * parsed at startup. Renders go through a per-thread buffer, so a send costs one pass over
+ * the template and one final String. With {@code app.mail.templates.watch} on (pointing the
+ * location at a {@code file:} directory), edited files are picked up without a restart; a
+ * template that fails to parse on reload is logged and the previous set is kept.
+ */
+@Component
+public class EmailTemplateEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateEngine.class);
+    // Buffers that grew past this after an unusually large render are not kept per thread
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+    private final String location;
+    private final boolean watch;
+    private volatile Map<String, EmailTemplate> templates;
+    private volatile long fingerprint;
+
+    public EmailTemplateEngine(@Value("${app.mail.templates.location:classpath:templates/email/}") String location,
+                               @Value("${app.mail.templates.watch:false}") boolean watch) throws IOException {
+        this.location = location.endsWith("/") ? location : location + "/";
+        this.watch = watch;
+        reload();
+    }
+
+    public String render(String name, Map<String, ?> model) {
+        EmailTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        StringBuilder out = buffers.get();
+        out.setLength(0);
+        out.ensureCapacity(template.estimatedLength());
+        template.renderTo(out, model);
+        String rendered = out.toString();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.remove();
+        }
+        return rendered;
+    }
+
+    /**
+     * Re-reads and re-parses every template; the new set replaces the old one only if all parse.
+     */
+    public synchronized void reload() throws IOException {
+        Map<String, EmailTemplate> loaded = new HashMap<>();
+        for (Resource resource : resolver.getResources(location + "*.html")) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                String name = filename.substring(0, filename.length() - ".html".length());
+                loaded.put(name, EmailTemplate.parse(name, new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+            }
+        }
+        if (loaded.isEmpty()) {
+            throw new IOException("No email templates found at " + location);
+        }
+        templates = Map.copyOf(loaded);
+        fingerprint = fingerprint();
+        logger.info("Loaded {} email template(s) from {}", loaded.size(), location);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.templates.watch-interval-ms:5000}")
+    public void reloadIfChanged() {
+        if (!watch) {
+            return;
+        }
+        try {
+            long current = fingerprint();
+            if (current != fingerprint) {
+                // Recorded first, so a broken edit is reported once rather than on every check
+                fingerprint = current;
+                reload();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error("Email template reload from {} failed; keeping the previous templates", location, e);
+        }
+    }
+
+    private long fingerprint() throws IOException {
+        long hash = 1;
+        for (Resource resource : resolver.getResources(location + "*.html")) {
+            hash = 31 * hash + String.valueOf(resource.getFilename()).hashCode();
+            try {
+                hash = 31 * hash + resource.lastModified();
+            } catch (IOException e) {
+                // Resources inside a jar have no timestamp and never change
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,165 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.EngagementStats;
+import com.elegantevents.repository.GuestEngagementRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts invitation opens (tracking pixel) and clicks (tracked link) per guest. A hit resolves
+ * the guest code through the RSVP directory and bumps a striped counter, never touching the
+ * database; every {@code app.engagement.flush-interval-ms} the accumulated counts are upserted
+ * in one JDBC batch. Hits for codes not in the directory are dropped rather than looked up,
+ * so a flood of made-up codes costs nothing. Counts not yet flushed are lost if the process
+ * dies.
+ */
+@Service
+public class EngagementService {
+
+    private static final String UPSERT = "INSERT INTO guest_engagement (guest_id, wedding_id, opens, clicks, " +
+            "first_opened_at, last_opened_at, first_clicked_at, last_clicked_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE opens = opens + VALUES(opens), clicks = clicks + VALUES(clicks), " +
+            "first_opened_at = COALESCE(first_opened_at, VALUES(first_opened_at)), " +
+            "last_opened_at = COALESCE(VALUES(last_opened_at), last_opened_at), " +
+            "first_clicked_at = COALESCE(first_clicked_at, VALUES(first_clicked_at)), " +
+            "last_clicked_at = COALESCE(VALUES(last_clicked_at), last_clicked_at)";
+
+    // One entry per guest who has engaged since startup; entries are reset on flush, not removed,
+    // so a hit can never land on a counter that a flush already dropped
+    private final Map<Long, Tally> tallies = new ConcurrentHashMap<>();
+
+    private final RsvpService rsvpService;
+    private final GuestStatsService guestStatsService;
+    private final GuestEngagementRepository engagementRepository;
+    private final WriteBehindWriter writer;
+
+    public EngagementService(RsvpService rsvpService,
+                             GuestStatsService guestStatsService,
+                             GuestEngagementRepository engagementRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.guest-import.jdbc-batch-size:200}") int batchSize) {
+        this.rsvpService = rsvpService;
+        this.guestStatsService = guestStatsService;
+        this.engagementRepository = engagementRepository;
+        this.writer = new WriteBehindWriter(jdbcTemplate, transactionManager, batchSize);
+    }
+
+    public void recordOpen(String uniqueCode) {
+        Tally tally = tally(uniqueCode);
+        if (tally != null) {
+            tally.opens.increment();
+            tally.lastOpenAt = System.currentTimeMillis();
+        }
+    }
+
+    public void recordClick(String uniqueCode) {
+        Tally tally = tally(uniqueCode);
+        if (tally != null) {
+            tally.clicks.increment();
+            tally.lastClickAt = System.currentTimeMillis();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public EngagementStats getStats(Long weddingId) {
+        long opened = 0;
+        long clicked = 0;
+        long opens = 0;
+        long clicks = 0;
+        List<Object[]> rows = engagementRepository.summarizeByWeddingId(weddingId);
+        if (!rows.isEmpty() && rows.get(0)[0] != null) {
+            Object[] row = rows.get(0);
+            opened = ((Number) row[0]).longValue();
+            clicked = ((Number) row[1]).longValue();
+            opens = ((Number) row[2]).longValue();
+            clicks = ((Number) row[3]).longValue();
+        }
+        long invited = guestStatsService.getStats(weddingId).getInvitationsSent();
+        return new EngagementStats(weddingId, invited, opened, clicked, opens, clicks,
+                rate(opened, invited), rate(clicked, invited));
+    }
+
+    @Scheduled(fixedDelayString = "${app.engagement.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        List<Delta> batch = new ArrayList<>();
+        for (Map.Entry<Long, Tally> entry : tallies.entrySet()) {
+            Tally tally = entry.getValue();
+            long opens = tally.opens.sumThenReset();
+            long clicks = tally.clicks.sumThenReset();
+            if (opens > 0 || clicks > 0) {
+                batch.add(new Delta(entry.getKey(), tally, opens, clicks,
+                        opens > 0 ? tally.lastOpenAt : 0, clicks > 0 ? tally.lastClickAt : 0));
+            }
+        }
+        writer.write(UPSERT, batch, (ps, delta) -> {
+            Timestamp openedAt = timestamp(delta.lastOpenAt());
+            Timestamp clickedAt = timestamp(delta.lastClickAt());
+            ps.setLong(1, delta.guestId());
+            ps.setLong(2, delta.tally().weddingId);
+            ps.setLong(3, delta.opens());
+            ps.setLong(4, delta.clicks());
+            ps.setTimestamp(5, openedAt);
+            ps.setTimestamp(6, openedAt);
+            ps.setTimestamp(7, clickedAt);
+            ps.setTimestamp(8, clickedAt);
+        }, "guest engagement(s)", delta -> {
+            delta.tally().opens.add(delta.opens());
+            delta.tally().clicks.add(delta.clicks());
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private Tally tally(String uniqueCode) {
+        RsvpService.GuestRef guest = rsvpService.findGuest(uniqueCode);
+        if (guest == null) {
+            return null;
+        }
+        Tally tally = tallies.get(guest.guestId());
+        return tally != null ? tally : tallies.computeIfAbsent(guest.guestId(), id -> new Tally(guest.weddingId()));
+    }
+
+    // Guests invited outside the outbox can open too, so the share is capped at 1
+    private static double rate(long guests, long invited) {
+        return invited > 0 ? Math.min(1.0, (double) guests / invited) : 0;
+    }
+
+    private static Timestamp timestamp(long epochMillis) {
+        return epochMillis == 0 ? null
+                : Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()));
+    }
+
+    private static final class Tally {
+        final long weddingId;
+        final LongAdder opens = new LongAdder();
+        final LongAdder clicks = new LongAdder();
+        volatile long lastOpenAt;
+        volatile long lastClickAt;
+
+        Tally(long weddingId) {
+            this.weddingId = weddingId;
+        }
+    }
+
+    private record Delta(long guestId, Tally tally, long opens, long clicks, long lastOpenAt, long lastClickAt) {
+    }
+}
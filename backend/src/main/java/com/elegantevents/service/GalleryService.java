@@ -5,6 +5,7 @@ import com.elegantevents.model.GalleryItem;
 import com.elegantevents.model.Wedding;
 import com.elegantevents.repository.GalleryItemRepository;
 import com.elegantevents.repository.WeddingRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,11 +17,14 @@ public class GalleryService {
     
     private final GalleryItemRepository galleryItemRepository;
     private final WeddingRepository weddingRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public GalleryService(GalleryItemRepository galleryItemRepository,
-                         WeddingRepository weddingRepository) {
+                         WeddingRepository weddingRepository,
+                         ApplicationEventPublisher eventPublisher) {
         this.galleryItemRepository = galleryItemRepository;
         this.weddingRepository = weddingRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     public GalleryItem uploadGalleryItem(String uploaderId, GalleryItemRequest request) {
@@ -42,7 +46,9 @@ public class GalleryService {
         item.setCaption(request.getCaption());
         item.setIsApproved(true); // Auto-approve, admin can change later
         
-        return galleryItemRepository.save(item);
+        GalleryItem saved = galleryItemRepository.save(item);
+        eventPublisher.publishEvent(new WeddingContentChangedEvent(saved.getWeddingId()));
+        return saved;
     }
     
     @Transactional(readOnly = true)
@@ -68,6 +74,7 @@ public class GalleryService {
         }
         
         galleryItemRepository.delete(item);
+        eventPublisher.publishEvent(new WeddingContentChangedEvent(item.getWeddingId()));
     }
     
     public GalleryItem updateApprovalStatus(Long itemId, boolean isApproved, String adminClerkId) {
@@ -76,7 +83,9 @@ public class GalleryService {
                 .orElseThrow(() -> new RuntimeException("Gallery item not found"));
         
         item.setIsApproved(isApproved);
-        return galleryItemRepository.save(item);
+        GalleryItem saved = galleryItemRepository.save(item);
+        eventPublisher.publishEvent(new WeddingContentChangedEvent(saved.getWeddingId()));
+        return saved;
     }
 }
 
@@ -0,0 +1,232 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.GuestRequest;
+import com.elegantevents.model.Guest;
+import com.elegantevents.model.User;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Inserts guests and their attendee accounts with JDBC batches instead of one
+ * persist per row. Invitations are queued in the notification outbox in the same
+ * transaction, so they go out exactly for the guests that were committed.
+ */
+@Service
+public class GuestBulkImportService {
+
+    private static final String INSERT_GUEST = "INSERT INTO guests (wedding_id, couple_clerk_id, first_name, last_name, " +
+            "phone_number, email, unique_code, qr_code_url, invitation_sent, rsvp_status, priority, seat_number, " +
+            "checked_in, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, FALSE, ?, ?, ?, FALSE, ?, ?)";
+
+    private static final String INSERT_ATTENDEE = "INSERT INTO users (clerk_id, email, first_name, last_name, " +
+            "phone_number, selected_role, package_type, profile_completed, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, TRUE, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final GuestCodeAllocator guestCodeAllocator;
+    private final QRCodeService qrCodeService;
+    private final NotificationService notificationService;
+    private final ShortLinkService shortLinkService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public GuestBulkImportService(JdbcTemplate jdbcTemplate,
+                                  UserRepository userRepository,
+                                  GuestCodeAllocator guestCodeAllocator,
+                                  QRCodeService qrCodeService,
+                                  NotificationService notificationService,
+                                  ShortLinkService shortLinkService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${app.guest-import.jdbc-batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.guestCodeAllocator = guestCodeAllocator;
+        this.qrCodeService = qrCodeService;
+        this.notificationService = notificationService;
+        this.shortLinkService = shortLinkService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Display name used in invitations, resolved once per import.
+     */
+    @Transactional(readOnly = true)
+    public String resolveCoupleName(String coupleClerkId) {
+        User couple = userRepository.findByClerkId(coupleClerkId).orElse(null);
+        return couple != null ?
+            (couple.getFirstName() + " " + (couple.getLastName() != null ? couple.getLastName() : "")).trim()
+            : "The Couple";
+    }
+
+    @Transactional
+    public List<Guest> importGuests(Wedding wedding, String coupleName, List<GuestRequest.GuestData> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        boolean signed = qrCodeService.isSignedPayloadEnabled();
+        List<String> codes = guestCodeAllocator.nextCodes(rows.size());
+        List<String> slugs = shortLinkService.newSlugs(rows.size());
+
+        List<Guest> guests = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            GuestRequest.GuestData data = rows.get(i);
+            Guest guest = new Guest();
+            guest.setWeddingId(wedding.getId());
+            guest.setCoupleClerkId(wedding.getClerkId());
+            guest.setFirstName(data.getFirstName());
+            guest.setLastName(data.getLastName());
+            guest.setPhoneNumber(data.getPhoneNumber());
+            guest.setEmail(data.getEmail());
+            if (data.getPriority() != null) {
+                guest.setPriority(data.getPriority());
+            }
+            if (data.getSeatNumber() != null && !data.getSeatNumber().isEmpty()) {
+                guest.setSeatNumber(data.getSeatNumber());
+            }
+            guest.setUniqueCode(codes.get(i));
+            if (!signed) {
+                // Unsigned codes only need to lead to the invitation, so they carry the short link
+                guest.setQrCodeUrl(qrCodeService.generateQRCodeForUrl(shortLinkService.shortUrl(slugs.get(i))));
+            }
+            guest.setCreatedAt(now);
+            guest.setUpdatedAt(now);
+            guests.add(guest);
+        }
+
+        insertGuests(guests);
+        Map<Long, String> shortUrls = shortLinkService.save(wedding, guests, slugs);
+        if (signed) {
+            // Signed payloads embed the guest id, which only exists after the insert
+            for (Guest guest : guests) {
+                guest.setQrCodeUrl(qrCodeService.generateSignedQRCode(guest, wedding));
+            }
+            jdbcTemplate.batchUpdate("UPDATE guests SET qr_code_url = ? WHERE id = ?", guests, batchSize,
+                    (ps, guest) -> {
+                        ps.setString(1, guest.getQrCodeUrl());
+                        ps.setLong(2, guest.getId());
+                    });
+        }
+        insertAttendeeUsers(guests, now);
+        notificationService.enqueueGuestInvitations(wedding, coupleName, guests, shortUrls);
+
+        eventPublisher.publishEvent(new GuestsImportedEvent(wedding.getId(), wedding.getClerkId(), coupleName, guests));
+        return guests;
+    }
+
+    private void insertGuests(List<Guest> guests) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_GUEST, Statement.RETURN_GENERATED_KEYS)) {
+                for (int start = 0; start < guests.size(); start += batchSize) {
+                    List<Guest> chunk = guests.subList(start, Math.min(start + batchSize, guests.size()));
+                    for (Guest guest : chunk) {
+                        ps.setLong(1, guest.getWeddingId());
+                        ps.setString(2, guest.getCoupleClerkId());
+                        ps.setString(3, guest.getFirstName());
+                        ps.setString(4, guest.getLastName());
+                        ps.setString(5, guest.getPhoneNumber());
+                        ps.setString(6, guest.getEmail());
+                        ps.setString(7, guest.getUniqueCode());
+                        ps.setString(8, guest.getQrCodeUrl());
+                        ps.setString(9, guest.getRsvpStatus().name());
+                        ps.setString(10, guest.getPriority().name());
+                        ps.setString(11, guest.getSeatNumber());
+                        ps.setTimestamp(12, Timestamp.valueOf(guest.getCreatedAt()));
+                        ps.setTimestamp(13, Timestamp.valueOf(guest.getUpdatedAt()));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (Guest guest : chunk) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("Missing generated key for guest " + guest.getUniqueCode());
+                            }
+                            guest.setId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Attendee accounts for guests with an email or phone; existing emails are found with a single IN query.
+     */
+    private void insertAttendeeUsers(List<Guest> guests, LocalDateTime now) {
+        Set<String> emails = new HashSet<>();
+        for (Guest guest : guests) {
+            if (guest.getEmail() != null && !guest.getEmail().isEmpty()) {
+                emails.add(guest.getEmail().toLowerCase(Locale.ROOT));
+            }
+        }
+        Set<String> taken = new HashSet<>();
+        if (!emails.isEmpty()) {
+            for (String existing : userRepository.findExistingEmails(emails)) {
+                taken.add(existing.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<Guest> attendees = new ArrayList<>();
+        for (Guest guest : guests) {
+            boolean hasEmail = guest.getEmail() != null && !guest.getEmail().isEmpty();
+            boolean hasPhone = guest.getPhoneNumber() != null && !guest.getPhoneNumber().isEmpty();
+            if (hasEmail) {
+                // add() also de-duplicates repeated emails within the same import
+                if (taken.add(guest.getEmail().toLowerCase(Locale.ROOT))) {
+                    attendees.add(guest);
+                }
+            } else if (hasPhone) {
+                attendees.add(guest);
+            }
+        }
+        if (attendees.isEmpty()) {
+            return;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_ATTENDEE, attendees, batchSize, (ps, guest) -> {
+            boolean hasEmail = guest.getEmail() != null && !guest.getEmail().isEmpty();
+            // Attendees have no Clerk account, so the clerkId is derived from their unique code
+            ps.setString(1, "attendee_" + guest.getUniqueCode() + "_" + UUID.randomUUID().toString().substring(0, 8));
+            if (hasEmail) {
+                ps.setString(2, guest.getEmail());
+            } else {
+                ps.setNull(2, Types.VARCHAR);
+            }
+            ps.setString(3, guest.getFirstName());
+            ps.setString(4, guest.getLastName());
+            if (guest.getPhoneNumber() != null && !guest.getPhoneNumber().isEmpty()) {
+                ps.setString(5, guest.getPhoneNumber());
+            } else {
+                ps.setNull(5, Types.VARCHAR);
+            }
+            ps.setString(6, User.UserRole.ATTENDEE.name());
+            ps.setString(7, User.PackageType.NORMAL.name());
+            ps.setTimestamp(8, timestamp);
+            ps.setTimestamp(9, timestamp);
+        });
+    }
+}
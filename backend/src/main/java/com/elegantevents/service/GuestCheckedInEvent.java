@@ -0,0 +1,14 @@
+package com.elegantevents.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A guest arrived for the first time; repeat scans do not publish it.
+ */
+@Getter
+@AllArgsConstructor
+public class GuestCheckedInEvent {
+    private final Long weddingId;
+    private final Long guestId;
+}
@@ -0,0 +1,197 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.GuestCodeSequence;
+import com.elegantevents.repository.GuestCodeSequenceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands out guest unique codes without asking the database whether a code is taken.
+ *
+ * Each code is a sequence number pushed through a keyed Feistel permutation of the 35-bit
+ * space, written as 7 Crockford base32 characters plus a Luhn mod 32 check character.
+ * Distinct sequence numbers always give distinct codes, and consecutive guests get codes
+ * that look unrelated. Nodes reserve sequence numbers in blocks, so the database is only
+ * touched once per block.
+ *
+ * The permutation key must never change once codes have been issued: a new key maps
+ * future sequence numbers onto codes the old key may already have produced.
+ */
+@Service
+public class GuestCodeAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuestCodeAllocator.class);
+
+    static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    static final int DATA_CHARS = 7;
+    static final int CODE_LENGTH = DATA_CHARS + 1;
+    static final long DOMAIN_SIZE = 1L << 35;
+
+    private static final String SEQUENCE_NAME = "guest_code";
+    private static final int HALF_BITS = 18;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+
+    private final GuestCodeSequenceRepository sequenceRepository;
+    private final TransactionTemplate newTransaction;
+    private final int blockSize;
+    private final long[] roundKeys;
+
+    private long nextSequence;
+    private long blockLimit;
+
+    public GuestCodeAllocator(GuestCodeSequenceRepository sequenceRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.guest-code.block-size:500}") int blockSize,
+                              @Value("${app.guest-code.secret:}") String secret) {
+        this.sequenceRepository = sequenceRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+        if (secret == null || secret.isBlank()) {
+            logger.warn("app.guest-code.secret is not configured; guest codes are predictable to anyone who reads this source");
+            secret = "elegantevents-guest-code";
+        }
+        this.roundKeys = deriveRoundKeys(secret);
+    }
+
+    public synchronized String nextCode() {
+        if (nextSequence >= blockLimit) {
+            reserveBlock();
+        }
+        return encode(nextSequence++);
+    }
+
+    public synchronized List<String> nextCodes(int count) {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(nextCode());
+        }
+        return codes;
+    }
+
+    /**
+     * Cheap typo check for scanners and forms; does not prove the code was ever issued.
+     */
+    public static boolean hasValidChecksum(String code) {
+        if (code == null || code.length() != CODE_LENGTH) {
+            return false;
+        }
+        int factor = 1;
+        int sum = 0;
+        for (int i = code.length() - 1; i >= 0; i--) {
+            int value = ALPHABET.indexOf(Character.toUpperCase(code.charAt(i)));
+            if (value < 0) {
+                return false;
+            }
+            sum += luhnAddend(value, factor);
+            factor = factor == 2 ? 1 : 2;
+        }
+        return sum % ALPHABET.length() == 0;
+    }
+
+    String encode(long sequence) {
+        long permuted = permute(sequence);
+        char[] code = new char[CODE_LENGTH];
+        for (int i = DATA_CHARS - 1; i >= 0; i--) {
+            code[i] = ALPHABET.charAt((int) (permuted & 31));
+            permuted >>>= 5;
+        }
+        code[DATA_CHARS] = checkCharacter(code);
+        return new String(code);
+    }
+
+    /**
+     * Balanced Feistel network over 36 bits; cycle-walking keeps the result inside the 35-bit domain.
+     */
+    long permute(long sequence) {
+        if (sequence < 0 || sequence >= DOMAIN_SIZE) {
+            throw new IllegalStateException("Guest code space exhausted");
+        }
+        long value = sequence;
+        do {
+            long left = value >>> HALF_BITS;
+            long right = value & HALF_MASK;
+            for (int round = 0; round < ROUNDS; round++) {
+                long next = left ^ roundFunction(right, roundKeys[round]);
+                left = right;
+                right = next;
+            }
+            value = (left << HALF_BITS) | right;
+        } while (value >= DOMAIN_SIZE);
+        return value;
+    }
+
+    private void reserveBlock() {
+        Long start = newTransaction.execute(status -> sequenceRepository.findForUpdate(SEQUENCE_NAME)
+                .map(this::take)
+                .orElse(null));
+        if (start == null) {
+            // db-migration.sql seeds the row, but a schema generated by Hibernate starts empty. The row is
+            // created in a transaction of its own and the reservation retried in a fresh one
+            newTransaction.executeWithoutResult(status -> sequenceRepository.createIfMissing(SEQUENCE_NAME));
+            start = newTransaction.execute(status -> take(sequenceRepository.findForUpdate(SEQUENCE_NAME)
+                    .orElseThrow(() -> new IllegalStateException("Guest code sequence missing"))));
+        }
+        nextSequence = start;
+        blockLimit = start + blockSize;
+    }
+
+    private long take(GuestCodeSequence sequence) {
+        long first = sequence.getNextValue();
+        sequence.setNextValue(first + blockSize);
+        sequenceRepository.save(sequence);
+        return first;
+    }
+
+    private static long roundFunction(long half, long key) {
+        long x = (half ^ key) * 0x9E3779B97F4A7C15L;
+        x ^= x >>> 29;
+        x *= 0xBF58476D1CE4E5B9L;
+        x ^= x >>> 32;
+        return x & HALF_MASK;
+    }
+
+    private static char checkCharacter(char[] code) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = DATA_CHARS - 1; i >= 0; i--) {
+            sum += luhnAddend(ALPHABET.indexOf(code[i]), factor);
+            factor = factor == 2 ? 1 : 2;
+        }
+        int n = ALPHABET.length();
+        return ALPHABET.charAt((n - sum % n) % n);
+    }
+
+    private static int luhnAddend(int value, int factor) {
+        int addend = value * factor;
+        int n = ALPHABET.length();
+        return addend / n + addend % n;
+    }
+
+    private static long[] deriveRoundKeys(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            long[] keys = new long[ROUNDS];
+            for (int i = 0; i < ROUNDS; i++) {
+                keys[i] = buffer.getLong();
+            }
+            return keys;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
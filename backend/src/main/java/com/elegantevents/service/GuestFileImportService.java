@@ -0,0 +1,297 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.GuestImportReport;
+import com.elegantevents.dto.GuestRequest;
+import com.elegantevents.model.Guest;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Imports a guest list from a CSV or XLSX upload. Rows are streamed, validated,
+ * de-duplicated against the wedding's existing guests by normalized email/phone,
+ * and inserted in chunks, each chunk in its own transaction.
+ */
+@Service
+public class GuestFileImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuestFileImportService.class);
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_SEAT_LENGTH = 50;
+
+    private final GuestRepository guestRepository;
+    private final WeddingRepository weddingRepository;
+    private final GuestBulkImportService guestBulkImportService;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public GuestFileImportService(GuestRepository guestRepository,
+                                  WeddingRepository weddingRepository,
+                                  GuestBulkImportService guestBulkImportService,
+                                  @Value("${app.guest-import.chunk-size:500}") int chunkSize,
+                                  @Value("${app.guest-import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.guestRepository = guestRepository;
+        this.weddingRepository = weddingRepository;
+        this.guestBulkImportService = guestBulkImportService;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public GuestImportReport importFile(String coupleClerkId, MultipartFile file) throws IOException {
+        Wedding wedding = weddingRepository.findByClerkId(coupleClerkId)
+                .orElseThrow(() -> new RuntimeException("Wedding not found"));
+        String coupleName = guestBulkImportService.resolveCoupleName(coupleClerkId);
+
+        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        if (filename.endsWith(".xlsx")) {
+            // Zip entries need random access, so the upload goes to a temp file rather than memory
+            Path temp = Files.createTempFile("guest-import-", ".xlsx");
+            try {
+                file.transferTo(temp);
+                try (SpreadsheetRowReader reader = new XlsxRowReader(temp)) {
+                    return importRows(wedding, coupleName, reader);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        if (filename.endsWith(".xls")) {
+            throw new IllegalArgumentException("Legacy .xls files are not supported; save the sheet as .xlsx or .csv");
+        }
+        try (SpreadsheetRowReader reader = new CsvRowReader(file.getInputStream())) {
+            return importRows(wedding, coupleName, reader);
+        }
+    }
+
+    GuestImportReport importRows(Wedding wedding, String coupleName, SpreadsheetRowReader reader) throws IOException {
+        GuestImportReport report = new GuestImportReport();
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        Map<Column, Integer> columns = mapHeader(header);
+        if (!columns.containsKey(Column.FIRST_NAME) && !columns.containsKey(Column.FULL_NAME)) {
+            throw new IllegalArgumentException("Missing a 'First Name' or 'Name' column");
+        }
+
+        Set<String> seenContacts = existingContacts(wedding.getId());
+        List<GuestRequest.GuestData> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkRows = new ArrayList<>(chunkSize);
+
+        int rowNumber = 1;
+        List<String> cells;
+        while ((cells = reader.next()) != null) {
+            rowNumber++;
+            if (isBlank(cells)) {
+                continue;
+            }
+            report.setTotalRows(report.getTotalRows() + 1);
+
+            GuestRequest.GuestData data = toGuestData(cells, columns, rowNumber, report);
+            if (data == null) {
+                report.setFailed(report.getFailed() + 1);
+                continue;
+            }
+
+            String emailKey = data.getEmail() != null ? "e:" + data.getEmail().toLowerCase(Locale.ROOT) : null;
+            String phoneKey = data.getPhoneNumber() != null ? "p:" + normalizePhone(data.getPhoneNumber()) : null;
+            if ((emailKey != null && seenContacts.contains(emailKey)) || (phoneKey != null && seenContacts.contains(phoneKey))) {
+                report.setDuplicates(report.getDuplicates() + 1);
+                addError(report, rowNumber, emailKey != null && seenContacts.contains(emailKey) ? "email" : "phoneNumber",
+                        "Duplicate of an existing guest");
+                continue;
+            }
+            if (emailKey != null) seenContacts.add(emailKey);
+            if (phoneKey != null) seenContacts.add(phoneKey);
+
+            chunk.add(data);
+            chunkRows.add(rowNumber);
+            if (chunk.size() >= chunkSize) {
+                flushChunk(wedding, coupleName, chunk, chunkRows, report);
+            }
+        }
+        flushChunk(wedding, coupleName, chunk, chunkRows, report);
+        return report;
+    }
+
+    private void flushChunk(Wedding wedding, String coupleName, List<GuestRequest.GuestData> chunk,
+                            List<Integer> chunkRows, GuestImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            // importGuests is @Transactional, so every chunk commits (or rolls back) on its own
+            guestBulkImportService.importGuests(wedding, coupleName, new ArrayList<>(chunk));
+            report.setImported(report.getImported() + chunk.size());
+        } catch (RuntimeException e) {
+            logger.warn("Guest import chunk for wedding {} failed: {}", wedding.getId(), e.getMessage());
+            report.setFailed(report.getFailed() + chunk.size());
+            for (Integer row : chunkRows) {
+                addError(report, row, null, "Could not be saved: " + e.getMessage());
+            }
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    private GuestRequest.GuestData toGuestData(List<String> cells, Map<Column, Integer> columns, int row,
+                                               GuestImportReport report) {
+        String firstName = cell(cells, columns, Column.FIRST_NAME);
+        String lastName = cell(cells, columns, Column.LAST_NAME);
+        if (firstName == null) {
+            String fullName = cell(cells, columns, Column.FULL_NAME);
+            if (fullName != null) {
+                int space = fullName.indexOf(' ');
+                firstName = space > 0 ? fullName.substring(0, space) : fullName;
+                if (lastName == null && space > 0) {
+                    lastName = fullName.substring(space + 1).trim();
+                }
+            }
+        }
+        String email = cell(cells, columns, Column.EMAIL);
+        String phone = cell(cells, columns, Column.PHONE);
+        String priority = cell(cells, columns, Column.PRIORITY);
+        String seat = cell(cells, columns, Column.SEAT);
+
+        boolean valid = true;
+        if (firstName == null) {
+            addError(report, row, "firstName", "Name is required");
+            valid = false;
+        } else if (firstName.length() > MAX_NAME_LENGTH || (lastName != null && lastName.length() > MAX_NAME_LENGTH)) {
+            addError(report, row, "firstName", "Name is too long");
+            valid = false;
+        }
+        if (email != null && !EMAIL.matcher(email).matches()) {
+            addError(report, row, "email", "Invalid email address");
+            valid = false;
+        }
+        if (phone != null) {
+            int digits = normalizePhone(phone).length();
+            if (digits < 7 || digits > 15 || !phone.matches("^[+0-9 ()\\-.]+$")) {
+                addError(report, row, "phoneNumber", "Invalid phone number");
+                valid = false;
+            }
+        }
+        Guest.Priority parsedPriority = null;
+        if (priority != null) {
+            try {
+                parsedPriority = Guest.Priority.valueOf(priority.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                addError(report, row, "priority", "Priority must be STANDARD, VIP or VVIP");
+                valid = false;
+            }
+        }
+        if (seat != null && seat.length() > MAX_SEAT_LENGTH) {
+            addError(report, row, "seatNumber", "Seat number is longer than " + MAX_SEAT_LENGTH + " characters");
+            valid = false;
+        }
+        if (!valid) {
+            return null;
+        }
+        return new GuestRequest.GuestData(firstName, lastName, phone, email, parsedPriority, seat);
+    }
+
+    private Set<String> existingContacts(Long weddingId) {
+        Set<String> contacts = new HashSet<>();
+        for (Object[] contact : guestRepository.findContactsByWeddingId(weddingId)) {
+            if (contact[0] != null && !contact[0].toString().isBlank()) {
+                contacts.add("e:" + contact[0].toString().trim().toLowerCase(Locale.ROOT));
+            }
+            if (contact[1] != null && !contact[1].toString().isBlank()) {
+                contacts.add("p:" + normalizePhone(contact[1].toString()));
+            }
+        }
+        return contacts;
+    }
+
+    /**
+     * Digits only, with Ethiopian local numbers (09..., 07...) folded into the +251 form.
+     */
+    static String normalizePhone(String phone) {
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char ch = phone.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                digits.append(ch);
+            }
+        }
+        String normalized = digits.toString();
+        if (normalized.length() == 10 && normalized.startsWith("0")) {
+            return "251" + normalized.substring(1);
+        }
+        if (normalized.startsWith("00")) {
+            return normalized.substring(2);
+        }
+        return normalized;
+    }
+
+    private void addError(GuestImportReport report, int row, String field, String message) {
+        if (report.getErrors().size() >= maxReportedErrors) {
+            report.setErrorsTruncated(true);
+            return;
+        }
+        report.getErrors().add(new GuestImportReport.RowError(row, field, message));
+    }
+
+    private static String cell(List<String> cells, Map<Column, Integer> columns, Column column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean isBlank(List<String> cells) {
+        for (String cell : cells) {
+            if (!cell.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<Column, Integer> mapHeader(List<String> header) {
+        Map<Column, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+            Column column = switch (name) {
+                case "firstname", "first", "givenname" -> Column.FIRST_NAME;
+                case "lastname", "last", "surname", "familyname" -> Column.LAST_NAME;
+                case "name", "fullname", "guest", "guestname" -> Column.FULL_NAME;
+                case "email", "emailaddress", "mail" -> Column.EMAIL;
+                case "phone", "phonenumber", "mobile", "mobilenumber", "tel", "telephone" -> Column.PHONE;
+                case "priority", "category", "type" -> Column.PRIORITY;
+                case "seat", "seatnumber", "table", "seating" -> Column.SEAT;
+                default -> null;
+            };
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+        return columns;
+    }
+
+    private enum Column {
+        FIRST_NAME, LAST_NAME, FULL_NAME, EMAIL, PHONE, PRIORITY, SEAT
+    }
+}
@@ -0,0 +1,192 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.GuestSearchResult;
+import com.elegantevents.model.Guest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Name lookup for one wedding's check-in desk. Each normalized name token goes into a prefix
+ * trie, so "abe" finds Abebe as it is typed, and its trigrams go into an inverted index that
+ * scores near misses ("tesfay" for Tesfaye) by trigram overlap. Guests are addressed by slot
+ * in parallel lists; the lock only excludes additions.
+ */
+public class GuestNameIndex {
+
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TrieNode root = new TrieNode();
+    private final Map<Integer, IntList> postings = new HashMap<>();
+    private final List<GuestSearchResult> guests = new ArrayList<>();
+    private final IntList trigramCounts = new IntList();
+
+    public void add(Long guestId, String uniqueCode, String firstName, String lastName, String seatNumber,
+                    Guest.Priority priority) {
+        String name = NameNormalizer.normalize((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : ""));
+        lock.writeLock().lock();
+        try {
+            int slot = guests.size();
+            guests.add(new GuestSearchResult(guestId, uniqueCode, firstName, lastName, seatNumber, priority, 0));
+            for (String token : name.split(" ")) {
+                if (!token.isEmpty()) {
+                    insertPrefix(token, slot);
+                }
+            }
+            int[] trigrams = trigrams(name);
+            for (int trigram : trigrams) {
+                postings.computeIfAbsent(trigram, t -> new IntList()).add(slot);
+            }
+            trigramCounts.add(trigrams.length);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return guests.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best matches first. Every query token must prefix-match a name token for a prefix hit;
+     * anything else is ranked by trigram similarity.
+     */
+    public List<GuestSearchResult> search(String query, int limit) {
+        String normalized = NameNormalizer.normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String[] tokens = normalized.split(" ");
+        lock.readLock().lock();
+        try {
+            int count = guests.size();
+            double[] scores = new double[count];
+
+            // Prefix hits: a guest scores once for each query token that starts one of its name tokens
+            int[] tokenHits = new int[count];
+            for (String token : tokens) {
+                TrieNode node = find(token);
+                if (node == null) {
+                    continue;
+                }
+                IntList slots = node.slots;
+                for (int i = 0; i < slots.size; i++) {
+                    int slot = slots.values[i];
+                    if (tokenHits[slot] < tokens.length) {
+                        tokenHits[slot]++;
+                        scores[slot] += 1.0;
+                    }
+                }
+            }
+            for (int slot = 0; slot < count; slot++) {
+                if (tokenHits[slot] == tokens.length) {
+                    scores[slot] += 2.0; // Every token matched: ranks above any fuzzy match
+                }
+            }
+
+            // Fuzzy hits: Dice coefficient over distinct trigrams
+            int[] queryTrigrams = trigrams(normalized);
+            int[] shared = new int[count];
+            for (int trigram : queryTrigrams) {
+                IntList slots = postings.get(trigram);
+                if (slots == null) {
+                    continue;
+                }
+                for (int i = 0; i < slots.size; i++) {
+                    shared[slots.values[i]]++;
+                }
+            }
+            for (int slot = 0; slot < count; slot++) {
+                if (shared[slot] == 0) {
+                    continue;
+                }
+                double similarity = 2.0 * shared[slot] / (queryTrigrams.length + trigramCounts.values[slot]);
+                if (similarity >= MIN_SIMILARITY || scores[slot] > 0) {
+                    scores[slot] += similarity;
+                }
+            }
+
+            PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(scores[a], scores[b]));
+            for (int slot = 0; slot < count; slot++) {
+                if (scores[slot] <= 0) {
+                    continue;
+                }
+                top.add(slot);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            GuestSearchResult[] results = new GuestSearchResult[top.size()];
+            for (int i = results.length - 1; i >= 0; i--) {
+                int slot = top.poll();
+                GuestSearchResult guest = guests.get(slot);
+                results[i] = new GuestSearchResult(guest.getGuestId(), guest.getUniqueCode(), guest.getFirstName(),
+                        guest.getLastName(), guest.getSeatNumber(), guest.getPriority(), scores[slot]);
+            }
+            return Arrays.asList(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insertPrefix(String token, int slot) {
+        TrieNode node = root;
+        for (int i = 0; i < token.length(); i++) {
+            node = node.children.computeIfAbsent(token.charAt(i), c -> new TrieNode());
+            // A name with a repeated token ("Abebe Abebe") is listed once per node
+            if (node.slots.size == 0 || node.slots.values[node.slots.size - 1] != slot) {
+                node.slots.add(slot);
+            }
+        }
+    }
+
+    private TrieNode find(String prefix) {
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Distinct trigrams of the name with word boundaries marked, packed 8 bits per character.
+     */
+    static int[] trigrams(String normalized) {
+        String padded = " " + normalized + " ";
+        int[] packed = new int[Math.max(0, padded.length() - 2)];
+        int count = 0;
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            int trigram = (padded.charAt(i) << 16) | (padded.charAt(i + 1) << 8) | padded.charAt(i + 2);
+            packed[count++] = trigram;
+        }
+        return Arrays.stream(packed, 0, count).distinct().toArray();
+    }
+
+    private static final class TrieNode {
+        final Map<Character, TrieNode> children = new HashMap<>(4);
+        final IntList slots = new IntList();
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
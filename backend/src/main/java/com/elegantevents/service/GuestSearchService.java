@@ -0,0 +1,90 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.GuestSearchResult;
+import com.elegantevents.model.Guest;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guest name search for check-in desks. A wedding's {@link GuestNameIndex} is built from one
+ * projection query on first use and kept for the most recently searched weddings.
+ */
+@Service
+public class GuestSearchService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final GuestRepository guestRepository;
+    private final WeddingRepository weddingRepository;
+    private final Map<Long, GuestNameIndex> indexes;
+
+    public GuestSearchService(GuestRepository guestRepository,
+                              WeddingRepository weddingRepository,
+                              @Value("${app.guest-search.cache-size:32}") int cacheSize) {
+        this.guestRepository = guestRepository;
+        this.weddingRepository = weddingRepository;
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, GuestNameIndex> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public List<GuestSearchResult> search(Long weddingId, String query, int limit) {
+        return indexFor(weddingId).search(query, Math.min(Math.max(limit, 1), MAX_LIMIT));
+    }
+
+    @TransactionalEventListener
+    public void onGuestsImported(GuestsImportedEvent event) {
+        GuestNameIndex index;
+        synchronized (indexes) {
+            index = indexes.get(event.getWeddingId());
+        }
+        if (index == null) {
+            return;
+        }
+        for (Guest guest : event.getGuests()) {
+            index.add(guest.getId(), guest.getUniqueCode(), guest.getFirstName(), guest.getLastName(),
+                    guest.getSeatNumber(), guest.getPriority());
+        }
+    }
+
+    /**
+     * Drops a wedding's index after writes that change names or seats; it is rebuilt on the next search.
+     */
+    public void invalidate(Long weddingId) {
+        synchronized (indexes) {
+            indexes.remove(weddingId);
+        }
+    }
+
+    private GuestNameIndex indexFor(Long weddingId) {
+        synchronized (indexes) {
+            GuestNameIndex index = indexes.get(weddingId);
+            if (index != null) {
+                return index;
+            }
+        }
+        if (!weddingRepository.existsById(weddingId)) {
+            throw new RuntimeException("Wedding not found");
+        }
+        GuestNameIndex index = new GuestNameIndex();
+        for (Object[] row : guestRepository.findCheckInRowsByWeddingId(weddingId)) {
+            index.add((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                    (Guest.Priority) row[5]);
+        }
+        synchronized (indexes) {
+            // Another request may have built it meanwhile; keep the first so imports are not split
+            GuestNameIndex existing = indexes.putIfAbsent(weddingId, index);
+            return existing != null ? existing : index;
+        }
+    }
+}
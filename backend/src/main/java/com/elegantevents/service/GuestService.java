@@ -1,22 +1,21 @@
 package com.elegantevents.service;
 
+import com.elegantevents.dto.CheckInResult;
 import com.elegantevents.dto.GuestRequest;
+import com.elegantevents.dto.SignedQRVerification;
 import com.elegantevents.model.Guest;
-import com.elegantevents.model.User;
 import com.elegantevents.model.Wedding;
 import com.elegantevents.model.WeddingCard;
 import com.elegantevents.repository.GuestRepository;
-import com.elegantevents.repository.UserRepository;
 import com.elegantevents.repository.WeddingRepository;
 import com.elegantevents.repository.WeddingCardRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.security.SecureRandom;
 import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
 
 @Service
 @Transactional
@@ -24,134 +23,41 @@ public class GuestService {
     
     private final GuestRepository guestRepository;
     private final WeddingRepository weddingRepository;
-    private final UserRepository userRepository;
     private final WeddingCardRepository weddingCardRepository;
     private final QRCodeService qrCodeService;
-    private final NotificationService notificationService;
-    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final int CODE_LENGTH = 8;
-    private final SecureRandom random = new SecureRandom();
+    private final QRPayloadSigner qrPayloadSigner;
+    private final GuestBulkImportService guestBulkImportService;
+    private final CheckInIndexService checkInIndexService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean rejectInvalidCodeChecksum;
     
     public GuestService(GuestRepository guestRepository,
                        WeddingRepository weddingRepository,
-                       UserRepository userRepository,
                        WeddingCardRepository weddingCardRepository,
                        QRCodeService qrCodeService,
-                       NotificationService notificationService) {
+                       QRPayloadSigner qrPayloadSigner,
+                       GuestBulkImportService guestBulkImportService,
+                       CheckInIndexService checkInIndexService,
+                       ApplicationEventPublisher eventPublisher,
+                       @Value("${app.guest-code.reject-invalid-checksum:false}") boolean rejectInvalidCodeChecksum) {
         this.guestRepository = guestRepository;
         this.weddingRepository = weddingRepository;
-        this.userRepository = userRepository;
         this.weddingCardRepository = weddingCardRepository;
         this.qrCodeService = qrCodeService;
-        this.notificationService = notificationService;
+        this.qrPayloadSigner = qrPayloadSigner;
+        this.guestBulkImportService = guestBulkImportService;
+        this.checkInIndexService = checkInIndexService;
+        this.eventPublisher = eventPublisher;
+        this.rejectInvalidCodeChecksum = rejectInvalidCodeChecksum;
     }
     
     public List<Guest> createGuests(String coupleClerkId, GuestRequest request) {
         Wedding wedding = weddingRepository.findByClerkId(coupleClerkId)
                 .orElseThrow(() -> new RuntimeException("Wedding not found"));
         
-        return request.getGuests().stream()
-                .map(guestData -> {
-                    Guest guest = new Guest();
-                    guest.setWeddingId(wedding.getId());
-                    guest.setCoupleClerkId(coupleClerkId);
-                    guest.setFirstName(guestData.getFirstName());
-                    guest.setLastName(guestData.getLastName());
-                    guest.setPhoneNumber(guestData.getPhoneNumber());
-                    guest.setEmail(guestData.getEmail());
-                    // Set priority and seat number if provided
-                    if (guestData.getPriority() != null) {
-                        guest.setPriority(guestData.getPriority());
-                    }
-                    if (guestData.getSeatNumber() != null && !guestData.getSeatNumber().isEmpty()) {
-                        guest.setSeatNumber(guestData.getSeatNumber());
-                    }
-                    
-                    // Generate unique code
-                    String uniqueCode = generateUniqueCode();
-                    guest.setUniqueCode(uniqueCode);
-                    
-                    // Generate QR code
-                    String qrCodeUrl = qrCodeService.generateQRCode(uniqueCode, coupleClerkId);
-                    guest.setQrCodeUrl(qrCodeUrl);
-                    
-                    Guest savedGuest = guestRepository.save(guest);
-                    
-                    // Create attendee user if email or phone is provided
-                    createAttendeeUser(guestData, uniqueCode);
-                    
-                    // Send invitation notification
-                    try {
-                        User couple = userRepository.findByClerkId(coupleClerkId).orElse(null);
-                        String coupleName = couple != null ? 
-                            (couple.getFirstName() + " " + (couple.getLastName() != null ? couple.getLastName() : "")).trim() 
-                            : "The Couple";
-                        notificationService.sendGuestInvitation(
-                            guestData.getEmail(),
-                            guestData.getPhoneNumber(),
-                            guestData.getFirstName() + " " + (guestData.getLastName() != null ? guestData.getLastName() : ""),
-                            uniqueCode,
-                            coupleClerkId,
-                            coupleName
-                        );
-                        savedGuest.setInvitationSent(true);
-                        guestRepository.save(savedGuest);
-                    } catch (Exception e) {
-                        System.err.println("Failed to send invitation notification: " + e.getMessage());
-                    }
-                    
-                    return savedGuest;
-                })
-                .toList();
-    }
-    
-    private void createAttendeeUser(GuestRequest.GuestData guestData, String uniqueCode) {
-        String email = guestData.getEmail();
-        String phone = guestData.getPhoneNumber();
-        
-        // Create attendee user if email is provided
-        if (email != null && !email.isEmpty()) {
-            // Check if user already exists
-            if (userRepository.findByEmail(email).isEmpty()) {
-                User attendee = new User();
-                // Generate a unique clerkId for attendee (since they don't have Clerk account)
-                // Use uniqueCode as part of the ID to ensure uniqueness
-                attendee.setClerkId("attendee_" + uniqueCode + "_" + UUID.randomUUID().toString().substring(0, 8));
-                attendee.setEmail(email);
-                attendee.setFirstName(guestData.getFirstName());
-                attendee.setLastName(guestData.getLastName());
-                if (phone != null && !phone.isEmpty()) {
-                    attendee.setPhoneNumber(phone);
-                }
-                attendee.setSelectedRole(User.UserRole.ATTENDEE);
-                attendee.setProfileCompleted(true);
-                userRepository.save(attendee);
-            }
-        } else if (phone != null && !phone.isEmpty()) {
-            // If only phone is provided, create user with phone-based identifier
-            // Note: We can't use phone as unique identifier easily, so we'll use the uniqueCode
-            User attendee = new User();
-            attendee.setClerkId("attendee_" + uniqueCode + "_" + UUID.randomUUID().toString().substring(0, 8));
-            attendee.setFirstName(guestData.getFirstName());
-            attendee.setLastName(guestData.getLastName());
-            attendee.setPhoneNumber(phone);
-            attendee.setSelectedRole(User.UserRole.ATTENDEE);
-            attendee.setProfileCompleted(true);
-            userRepository.save(attendee);
-        }
-    }
-    
-    private String generateUniqueCode() {
-        String code;
-        do {
-            StringBuilder sb = new StringBuilder(CODE_LENGTH);
-            for (int i = 0; i < CODE_LENGTH; i++) {
-                sb.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
-            }
-            code = sb.toString();
-        } while (guestRepository.existsByUniqueCode(code));
-        
-        return code;
+        // Resolve the couple once for the whole list; invitations are queued with the import
+        String coupleName = guestBulkImportService.resolveCoupleName(coupleClerkId);
+        return guestBulkImportService.importGuests(wedding, coupleName, request.getGuests());
     }
     
     @Transactional(readOnly = true)
@@ -166,17 +72,99 @@ public class GuestService {
     
     @Transactional(readOnly = true)
     public Guest getGuestByUniqueCode(String uniqueCode) {
+        // Typos are caught by the check character before touching the database.
+        // Only enabled once legacy random codes (no check character) are gone.
+        if (rejectInvalidCodeChecksum && !GuestCodeAllocator.hasValidChecksum(uniqueCode)) {
+            throw new RuntimeException("Guest not found");
+        }
         return guestRepository.findByUniqueCode(uniqueCode)
                 .orElseThrow(() -> new RuntimeException("Guest not found"));
     }
 
+    /**
+     * Re-issue the guest's QR code with a signed payload so protocol scanners can verify it offline.
+     */
+    public Guest issueSignedQRCode(Long guestId) {
+        if (!qrCodeService.isSignedPayloadEnabled()) {
+            throw new IllegalStateException("Signed QR payloads are disabled");
+        }
+        Guest guest = guestRepository.findById(guestId)
+                .orElseThrow(() -> new RuntimeException("Guest not found"));
+        Wedding wedding = weddingRepository.findById(guest.getWeddingId()).orElse(null);
+        guest.setQrCodeUrl(qrCodeService.generateSignedQRCode(guest, wedding));
+        return guestRepository.save(guest);
+    }
+
+    @Transactional(readOnly = true)
+    public SignedQRVerification verifySignedPayload(String payload) {
+        return qrPayloadSigner.verify(payload);
+    }
+
+    /**
+     * Public verification key for one wedding. It cannot sign, so it is not access controlled.
+     */
+    @Transactional(readOnly = true)
+    public byte[] getScanKey(Long weddingId) {
+        if (!weddingRepository.existsById(weddingId)) {
+            throw new RuntimeException("Wedding not found");
+        }
+        return qrPayloadSigner.weddingPublicKey(weddingId);
+    }
+
     @Transactional
     public Guest checkInGuest(Long guestId) {
+        CheckInResult indexed = checkInIndexService.checkInByGuestId(guestId);
+        if (indexed != null) {
+            // Wedding is ONGOING: recorded in memory and persisted by the next journal flush, so the
+            // row is read without being written back
+            Guest guest = guestRepository.findReadOnlyById(guestId)
+                    .orElseThrow(() -> new RuntimeException("Guest not found"));
+            guest.setCheckedIn(true);
+            guest.setCheckedInAt(indexed.getCheckedInAt());
+            return guest;
+        }
         Guest guest = guestRepository.findById(guestId)
                 .orElseThrow(() -> new RuntimeException("Guest not found"));
+        if (!Boolean.TRUE.equals(guest.getCheckedIn())) {
+            eventPublisher.publishEvent(new GuestCheckedInEvent(guest.getWeddingId(), guest.getId()));
+        }
         guest.setCheckedIn(true);
         guest.setCheckedInAt(LocalDateTime.now());
         return guestRepository.save(guest);
     }
-}
 
+    /**
+     * Looks up a scanned code for the door, without checking the guest in.
+     */
+    @Transactional(readOnly = true)
+    public CheckInResult lookupForScan(String uniqueCode) {
+        CheckInResult indexed = checkInIndexService.lookup(uniqueCode);
+        return indexed != null ? indexed : toCheckInResult(getGuestByUniqueCode(uniqueCode), false);
+    }
+
+    /**
+     * Resolves a scanned code and checks the guest in with one call. Repeat scans keep the first
+     * arrival time and come back with {@code alreadyCheckedIn} set.
+     */
+    @Transactional
+    public CheckInResult scanGuest(String uniqueCode) {
+        CheckInResult indexed = checkInIndexService.checkInByCode(uniqueCode);
+        if (indexed != null) {
+            return indexed;
+        }
+        Guest guest = getGuestByUniqueCode(uniqueCode);
+        boolean alreadyCheckedIn = Boolean.TRUE.equals(guest.getCheckedIn());
+        if (!alreadyCheckedIn) {
+            guest.setCheckedIn(true);
+            guest.setCheckedInAt(LocalDateTime.now());
+            guest = guestRepository.save(guest);
+            eventPublisher.publishEvent(new GuestCheckedInEvent(guest.getWeddingId(), guest.getId()));
+        }
+        return toCheckInResult(guest, alreadyCheckedIn);
+    }
+
+    private static CheckInResult toCheckInResult(Guest guest, boolean alreadyCheckedIn) {
+        return new CheckInResult(guest.getId(), guest.getWeddingId(), guest.getUniqueCode(), guest.getFirstName(),
+                guest.getLastName(), guest.getSeatNumber(), guest.getPriority(), guest.getCheckedInAt(), alreadyCheckedIn);
+    }
+}
@@ -0,0 +1,182 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.GuestSnapshot;
+import com.elegantevents.model.Guest;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact guest lists for protocol devices that work offline. The body is gzip over a
+ * columnar encoding (all values big-endian):
+ *
+ * <pre>
+ * "EEGS" | format u8 | flags u8 (bit 0: delta) | weddingId i64 | version i64 | baseVersion i64 | count varint
+ * ids          count varints, each the difference from the previous id (rows are sorted by id)
+ * codes        per row varint(byte length + 1) then UTF-8; 0 means null
+ * first names  same as codes
+ * last names   same as codes
+ * seats        same as codes
+ * priority     count bytes, Guest.Priority ordinal
+ * rsvp         count bytes, Guest.RSVPStatus ordinal
+ * checked in   ceil(count / 8) bytes, bit i of byte i / 8 (least significant first)
+ * </pre>
+ *
+ * The version is the latest {@code updated_at} in epoch millis. A delta holds every guest
+ * updated at or after {@code sinceVersion} less {@value #DELTA_OVERLAP_MILLIS} ms, since a row
+ * stamped just before the version may commit after it was read; rows near the boundary repeat,
+ * and clients upsert by id.
+ */
+@Service
+public class GuestSnapshotService {
+
+    public static final byte FORMAT = 1;
+    private static final byte[] MAGIC = {'E', 'E', 'G', 'S'};
+    private static final int FLAG_DELTA = 1;
+    // Same window as CheckInSyncService's cursor overlap
+    static final long DELTA_OVERLAP_MILLIS = 2000;
+
+    private final GuestRepository guestRepository;
+    private final WeddingRepository weddingRepository;
+    private final CheckInIndexService checkInIndexService;
+    private final Map<Long, GuestSnapshot> fullSnapshots;
+
+    public GuestSnapshotService(GuestRepository guestRepository,
+                                WeddingRepository weddingRepository,
+                                CheckInIndexService checkInIndexService,
+                                @Value("${app.guest-snapshot.cache-size:64}") int cacheSize) {
+        this.guestRepository = guestRepository;
+        this.weddingRepository = weddingRepository;
+        this.checkInIndexService = checkInIndexService;
+        // Full snapshots of the most recently requested weddings, replaced when their version moves
+        this.fullSnapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, GuestSnapshot> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Current snapshot version of a wedding's guest list, cheap enough for conditional requests.
+     * Door scans still held in memory are not counted until their next scheduled flush.
+     */
+    @Transactional(readOnly = true)
+    public long currentVersion(Long weddingId) {
+        if (!weddingRepository.existsById(weddingId)) {
+            throw new RuntimeException("Wedding not found");
+        }
+        return toEpochMillis(guestRepository.findLatestUpdateByWeddingId(weddingId));
+    }
+
+    /**
+     * @param sinceVersion version the client already holds, or null for the full list
+     */
+    @Transactional(readOnly = true)
+    public GuestSnapshot getSnapshot(Long weddingId, Long sinceVersion) {
+        // Door scans held in memory count as updates
+        checkInIndexService.flush();
+        long version = currentVersion(weddingId);
+        if (sinceVersion != null && sinceVersion > 0) {
+            LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(sinceVersion - DELTA_OVERLAP_MILLIS),
+                    ZoneId.systemDefault());
+            return encode(weddingId, sinceVersion, guestRepository.findSnapshotRowsUpdatedSince(weddingId, since));
+        }
+        synchronized (fullSnapshots) {
+            GuestSnapshot cached = fullSnapshots.get(weddingId);
+            if (cached != null && cached.getVersion() == version) {
+                return cached;
+            }
+        }
+        GuestSnapshot snapshot = encode(weddingId, 0, guestRepository.findSnapshotRows(weddingId));
+        synchronized (fullSnapshots) {
+            fullSnapshots.put(weddingId, snapshot);
+        }
+        return snapshot;
+    }
+
+    static GuestSnapshot encode(Long weddingId, long baseVersion, List<Object[]> rows) {
+        long version = baseVersion;
+        for (Object[] row : rows) {
+            version = Math.max(version, toEpochMillis((LocalDateTime) row[8]));
+        }
+        int count = rows.size();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + count * 24);
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes, 8192))) {
+            out.write(MAGIC);
+            out.writeByte(FORMAT);
+            out.writeByte(baseVersion > 0 ? FLAG_DELTA : 0);
+            out.writeLong(weddingId);
+            out.writeLong(version);
+            out.writeLong(baseVersion);
+            writeVarint(out, count);
+
+            long previousId = 0;
+            for (Object[] row : rows) {
+                long id = (Long) row[0];
+                writeVarint(out, id - previousId);
+                previousId = id;
+            }
+            for (int column = 1; column <= 4; column++) {
+                for (Object[] row : rows) {
+                    writeString(out, (String) row[column]);
+                }
+            }
+            for (Object[] row : rows) {
+                Guest.Priority priority = (Guest.Priority) row[5];
+                out.writeByte(priority != null ? priority.ordinal() : Guest.Priority.STANDARD.ordinal());
+            }
+            for (Object[] row : rows) {
+                Guest.RSVPStatus rsvp = (Guest.RSVPStatus) row[6];
+                out.writeByte(rsvp != null ? rsvp.ordinal() : Guest.RSVPStatus.PENDING.ordinal());
+            }
+            byte[] checkedIn = new byte[(count + 7) >>> 3];
+            for (int i = 0; i < count; i++) {
+                if (Boolean.TRUE.equals(rows.get(i)[7])) {
+                    checkedIn[i >>> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            out.write(checkedIn);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode guest snapshot", e);
+        }
+        return new GuestSnapshot(weddingId, version, baseVersion, count, bytes.toByteArray());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, utf8.length + 1L);
+        out.write(utf8);
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+}
@@ -0,0 +1,236 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.GuestStats;
+import com.elegantevents.model.Guest;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-wedding guest counters. They are loaded with one GROUP BY the first time a wedding is
+ * asked for and then moved by the code paths that write guests, so reads never count rows.
+ * Subscribers get the new totals over SSE at most once per push interval.
+ */
+@Service
+public class GuestStatsService {
+
+    private static final long HEARTBEAT_MILLIS = 15_000;
+
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final GuestRepository guestRepository;
+    private final WeddingRepository weddingRepository;
+    private final CheckInIndexService checkInIndexService;
+    private final long streamTimeoutMillis;
+    private long lastHeartbeat = System.currentTimeMillis();
+
+    public GuestStatsService(GuestRepository guestRepository,
+                             WeddingRepository weddingRepository,
+                             CheckInIndexService checkInIndexService,
+                             @Value("${app.guest-stats.stream-timeout-ms:1800000}") long streamTimeoutMillis) {
+        this.guestRepository = guestRepository;
+        this.weddingRepository = weddingRepository;
+        this.checkInIndexService = checkInIndexService;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+    }
+
+    public GuestStats getStats(Long weddingId) {
+        return countersFor(weddingId).snapshot(weddingId);
+    }
+
+    public SseEmitter subscribe(Long weddingId) {
+        GuestStats current = getStats(weddingId);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        List<SseEmitter> list = subscribers.computeIfAbsent(weddingId, id -> new CopyOnWriteArrayList<>());
+        list.add(emitter);
+        emitter.onCompletion(() -> list.remove(emitter));
+        emitter.onTimeout(() -> list.remove(emitter));
+        emitter.onError(e -> list.remove(emitter));
+        try {
+            emitter.send(SseEmitter.event().name("stats").data(current));
+        } catch (IOException e) {
+            list.remove(emitter);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onGuestsImported(GuestsImportedEvent event) {
+        Counters stats = counters.get(event.getWeddingId());
+        if (stats == null) {
+            return;
+        }
+        for (Guest guest : event.getGuests()) {
+            stats.add(guest.getRsvpStatus(), guest.getPriority(), Boolean.TRUE.equals(guest.getCheckedIn()),
+                    Boolean.TRUE.equals(guest.getInvitationSent()), 1);
+        }
+        touched(event.getWeddingId(), stats);
+    }
+
+    /**
+     * Counted once committed; scans served from memory outside a transaction count immediately.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGuestCheckedIn(GuestCheckedInEvent event) {
+        Counters stats = counters.get(event.getWeddingId());
+        if (stats != null) {
+            stats.checkedIn.incrementAndGet();
+            touched(event.getWeddingId(), stats);
+        }
+    }
+
+    /**
+     * Reloaded only after the sync commits, so a read in between cannot cache the old counts again.
+     */
+    @TransactionalEventListener
+    public void onCheckInsSynced(CheckInsSyncedEvent event) {
+        invalidate(event.getWeddingId());
+    }
+
+    public void recordInvitationsSent(Long weddingId, int count) {
+        Counters stats = counters.get(weddingId);
+        if (stats != null && count > 0) {
+            stats.invitationsSent.addAndGet(count);
+            touched(weddingId, stats);
+        }
+    }
+
+    /**
+     * @return false when the wedding's counters are not loaded, so the change will only show once it is in the database
+     */
+    public boolean recordRsvpChange(Long weddingId, Guest.RSVPStatus from, Guest.RSVPStatus to, int count) {
+        Counters stats = counters.get(weddingId);
+        if (stats == null) {
+            return false;
+        }
+        if (from != to && count > 0) {
+            stats.byRsvp.addAndGet(ordinal(from, Guest.RSVPStatus.PENDING), -count);
+            stats.byRsvp.addAndGet(ordinal(to, Guest.RSVPStatus.PENDING), count);
+            touched(weddingId, stats);
+        }
+        return true;
+    }
+
+    /**
+     * Drops the counters after a write whose effect is not known row by row; the next read reloads them.
+     */
+    public void invalidate(Long weddingId) {
+        if (counters.remove(weddingId) != null) {
+            changed.add(weddingId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.guest-stats.push-interval-ms:500}")
+    public void pushChanges() {
+        boolean heartbeat = System.currentTimeMillis() - lastHeartbeat >= HEARTBEAT_MILLIS;
+        if (heartbeat) {
+            lastHeartbeat = System.currentTimeMillis();
+        }
+        for (Map.Entry<Long, List<SseEmitter>> entry : subscribers.entrySet()) {
+            List<SseEmitter> list = entry.getValue();
+            if (list.isEmpty()) {
+                subscribers.remove(entry.getKey(), list);
+                continue;
+            }
+            SseEmitter.SseEventBuilder event;
+            if (changed.remove(entry.getKey())) {
+                event = SseEmitter.event().name("stats").data(getStats(entry.getKey()));
+            } else if (heartbeat) {
+                // Keeps proxies from closing an idle stream
+                event = SseEmitter.event().comment("keep-alive");
+            } else {
+                continue;
+            }
+            for (SseEmitter emitter : list) {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    list.remove(emitter);
+                }
+            }
+        }
+        changed.retainAll(subscribers.keySet());
+    }
+
+    private Counters countersFor(Long weddingId) {
+        return counters.computeIfAbsent(weddingId, id -> {
+            if (!weddingRepository.existsById(id)) {
+                throw new RuntimeException("Wedding not found");
+            }
+            Counters stats = new Counters();
+            for (Object[] row : guestRepository.countStatsByWeddingId(id)) {
+                stats.add((Guest.RSVPStatus) row[0], (Guest.Priority) row[1], Boolean.TRUE.equals(row[2]),
+                        Boolean.TRUE.equals(row[3]), (Long) row[4]);
+            }
+            // Door scans not yet flushed are only in the check-in index
+            WeddingCheckInIndex index = checkInIndexService.getIndex(id);
+            if (index != null) {
+                stats.checkedIn.set(index.checkedInCount());
+            }
+            stats.sequence.set(sequence.incrementAndGet());
+            return stats;
+        });
+    }
+
+    private void touched(Long weddingId, Counters stats) {
+        stats.sequence.set(sequence.incrementAndGet());
+        changed.add(weddingId);
+    }
+
+    private static int ordinal(Enum<?> value, Enum<?> fallback) {
+        return (value != null ? value : fallback).ordinal();
+    }
+
+    private static final class Counters {
+        final AtomicLong total = new AtomicLong();
+        final AtomicLongArray byRsvp = new AtomicLongArray(Guest.RSVPStatus.values().length);
+        final AtomicLongArray byPriority = new AtomicLongArray(Guest.Priority.values().length);
+        final AtomicLong checkedIn = new AtomicLong();
+        final AtomicLong invitationsSent = new AtomicLong();
+        final AtomicLong sequence = new AtomicLong(); // Service-wide sequence at the last change
+
+        void add(Guest.RSVPStatus rsvp, Guest.Priority priority, boolean checkedIn, boolean invitationSent, long count) {
+            total.addAndGet(count);
+            byRsvp.addAndGet(ordinal(rsvp, Guest.RSVPStatus.PENDING), count);
+            byPriority.addAndGet(ordinal(priority, Guest.Priority.STANDARD), count);
+            if (checkedIn) {
+                this.checkedIn.addAndGet(count);
+            }
+            if (invitationSent) {
+                invitationsSent.addAndGet(count);
+            }
+        }
+
+        GuestStats snapshot(Long weddingId) {
+            Map<String, Long> rsvp = new LinkedHashMap<>();
+            for (Guest.RSVPStatus status : Guest.RSVPStatus.values()) {
+                rsvp.put(status.name(), byRsvp.get(status.ordinal()));
+            }
+            Map<String, Long> priority = new LinkedHashMap<>();
+            for (Guest.Priority level : Guest.Priority.values()) {
+                priority.put(level.name(), byPriority.get(level.ordinal()));
+            }
+            return new GuestStats(weddingId, total.get(), rsvp, priority, checkedIn.get(), invitationsSent.get(),
+                    sequence.get(), LocalDateTime.now());
+        }
+    }
+}
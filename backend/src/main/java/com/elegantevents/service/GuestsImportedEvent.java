@@ -0,0 +1,20 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.Guest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published inside the import transaction; listeners that care about delivery
+ * (invitations) run only after it commits.
+ */
+@Getter
+@AllArgsConstructor
+public class GuestsImportedEvent {
+    private final Long weddingId;
+    private final String coupleClerkId;
+    private final String coupleName;
+    private final List<Guest> guests;
+}
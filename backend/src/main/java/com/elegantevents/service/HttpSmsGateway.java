@@ -0,0 +1,83 @@
+package com.elegantevents.service;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Posts a batch to a JSON bulk-send endpoint:
+ * <pre>
+ * POST {url}  {"sender": "...", "messages": [{"reference": "...", "to": "+2519...", "text": "..."}]}
+ * 200         {"results": [{"reference": "...", "accepted": true, "messageId": "...", "error": null}]}
+ * </pre>
+ * Messages the response leaves out count as rejected. {@code SmsStubController} serves the
+ * same contract locally.
+ */
+public class HttpSmsGateway implements SmsGateway {
+
+    private final RestTemplate restTemplate;
+    private final String url;
+    private final String apiKey;
+    private final String senderId;
+
+    public HttpSmsGateway(RestTemplate restTemplate, String url, String apiKey, String senderId) {
+        this.restTemplate = restTemplate;
+        this.url = url;
+        this.apiKey = apiKey;
+        this.senderId = senderId;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<SmsResult> sendBatch(List<SmsMessage> messages) {
+        List<Map<String, String>> payloadMessages = new ArrayList<>(messages.size());
+        for (SmsMessage message : messages) {
+            Map<String, String> entry = new HashMap<>();
+            entry.put("reference", message.reference());
+            entry.put("to", message.to());
+            entry.put("text", message.text());
+            payloadMessages.add(entry);
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("sender", senderId);
+        payload.put("messages", payloadMessages);
+
+        HttpHeaders headers = new HttpHeaders();
+        if (apiKey != null && !apiKey.isEmpty()) {
+            headers.setBearerAuth(apiKey);
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> response = restTemplate.postForObject(url, new HttpEntity<>(payload, headers), Map.class);
+        List<Map<String, Object>> rows = response != null && response.get("results") instanceof List<?> list
+                ? (List<Map<String, Object>>) list : List.of();
+
+        List<SmsResult> results = new ArrayList<>(messages.size());
+        Set<String> answered = new HashSet<>();
+        for (Map<String, Object> row : rows) {
+            String reference = String.valueOf(row.get("reference"));
+            answered.add(reference);
+            if (Boolean.TRUE.equals(row.get("accepted"))) {
+                Object messageId = row.get("messageId");
+                results.add(SmsResult.accepted(reference, messageId != null ? messageId.toString() : null));
+            } else {
+                Object error = row.get("error");
+                results.add(SmsResult.rejected(reference, error != null ? error.toString() : "Rejected by SMS provider"));
+            }
+        }
+        for (SmsMessage message : messages) {
+            if (!answered.contains(message.reference())) {
+                results.add(SmsResult.rejected(message.reference(), "No result from SMS provider"));
+            }
+        }
+        return results;
+    }
+}
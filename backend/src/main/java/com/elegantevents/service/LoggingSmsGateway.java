@@ -0,0 +1,26 @@
+package com.elegantevents.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Used when no provider is configured: logs each message and reports it accepted, so
+ * invitations flow end to end in development.
+ */
+public class LoggingSmsGateway implements SmsGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingSmsGateway.class);
+
+    @Override
+    public List<SmsResult> sendBatch(List<SmsMessage> messages) {
+        List<SmsResult> results = new ArrayList<>(messages.size());
+        for (SmsMessage message : messages) {
+            logger.info("SMS to {}: {}", message.to(), message.text());
+            results.add(SmsResult.accepted(message.reference(), null));
+        }
+        return results;
+    }
+}
@@ -68,11 +68,12 @@ public class MeetingService {
 
         MeetingRequest savedMeeting = meetingRepository.save(meeting);
 
-        // Send Email Notifications
+        // Queue email notifications; they are sent after this transaction commits
         String formattedTime = meeting.getMeetingTime().format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' hh:mm a"));
         
         // Notify Couple
         notificationService.sendMeetingConfirmation(
+                savedMeeting.getId(),
                 couple.getEmail(), 
                 couple.getFirstName(), 
                 formattedTime, 
@@ -83,6 +84,7 @@ public class MeetingService {
         // Notify Manager if assigned
         if (manager != null && manager.getEmail() != null) {
             notificationService.sendMeetingConfirmation(
+                    savedMeeting.getId(),
                     manager.getEmail(),
                     manager.getFirstName(),
                     formattedTime,
@@ -125,6 +127,7 @@ public class MeetingService {
         // Notify Couple
         String formattedTime = meeting.getMeetingTime().format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' hh:mm a"));
         notificationService.sendMeetingConfirmation(
+                savedMeeting.getId(),
                 couple.getEmail(),
                 couple.getFirstName(),
                 formattedTime,
@@ -0,0 +1,320 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.MessageDTO;
+import com.elegantevents.model.Message;
+import com.elegantevents.model.MessageArchive;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.model.WeddingMessage;
+import com.elegantevents.repository.MessageArchiveRepository;
+import com.elegantevents.repository.MessageRepository;
+import com.elegantevents.repository.WeddingMessageRepository;
+import com.elegantevents.repository.WeddingRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.IntSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the messages and wedding_messages tables down to the conversations still in use.
+ * Every night, the direct messages of each COMPLETED wedding's couple and the wedding's own
+ * messages are moved into message_archives once the wedding is
+ * {@code app.messages.archive.after-days} old. Each chunk there holds one month of one
+ * conversation as gzipped JSON. Only whole months before the cut-off are moved, in batches of
+ * {@code app.messages.archive.batch-size}, each in its own transaction.
+ *
+ * Archived messages keep their ids, and a user pair's archived ids are all lower than its hot
+ * ones, so reads page through the hot table first and continue into the archive. They fetch
+ * chunks a few at a time and stop once the page is full. Archiving closes a conversation:
+ * messages still unread are archived as read and taken off the unread counts. Each batch is
+ * selected FOR UPDATE, so two nodes running the job at once cannot archive the same messages.
+ */
+@Service
+public class MessageArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageArchiveService.class);
+
+    private static final TypeReference<List<MessageDTO>> DIRECT_PAYLOAD = new TypeReference<>() {
+    };
+    private static final TypeReference<List<WeddingMessage>> WEDDING_PAYLOAD = new TypeReference<>() {
+    };
+    // Payloads fetched per query; most pages end inside the first chunk or two
+    private static final int CHUNKS_PER_FETCH = 4;
+
+    private final MessageArchiveRepository archiveRepository;
+    private final MessageRepository messageRepository;
+    private final WeddingMessageRepository weddingMessageRepository;
+    private final WeddingRepository weddingRepository;
+    private final ConversationSummaryService summaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate newTransaction;
+    private final boolean enabled;
+    private final int afterDays;
+    private final int batchSize;
+
+    public MessageArchiveService(MessageArchiveRepository archiveRepository,
+                                 MessageRepository messageRepository,
+                                 WeddingMessageRepository weddingMessageRepository,
+                                 WeddingRepository weddingRepository,
+                                 ConversationSummaryService summaryService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.messages.archive.enabled:true}") boolean enabled,
+                                 @Value("${app.messages.archive.after-days:90}") int afterDays,
+                                 @Value("${app.messages.archive.batch-size:1000}") int batchSize) {
+        this.archiveRepository = archiveRepository;
+        this.messageRepository = messageRepository;
+        this.weddingMessageRepository = weddingMessageRepository;
+        this.weddingRepository = weddingRepository;
+        this.summaryService = summaryService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.messages.archive.cron:0 30 3 * * *}")
+    public void archiveCompletedWeddings() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(afterDays);
+        // Whole months only, so a month of a conversation is archived in one go
+        LocalDateTime before = cutoff.withDayOfMonth(1).atStartOfDay();
+        int direct = 0;
+        int wedding = 0;
+        for (Wedding w : weddingRepository.findByStatus(Wedding.WeddingStatus.COMPLETED)) {
+            if (w.getWeddingDate() == null || !w.getWeddingDate().isBefore(cutoff)) {
+                continue;
+            }
+            try {
+                direct += inBatches(() -> archiveDirect(w.getUserId(), before));
+                wedding += inBatches(() -> archiveWedding(w.getId(), before));
+            } catch (RuntimeException e) {
+                // Batches already committed stay archived; the rest is picked up on the next run
+                logger.error("Failed to archive messages of wedding {}", w.getId(), e);
+            }
+        }
+        if (direct + wedding > 0) {
+            logger.info("Archived {} direct message(s) and {} wedding message(s)", direct, wedding);
+        }
+    }
+
+    /**
+     * Archives one batch of the user's direct messages sent before {@code before}.
+     *
+     * @return how many messages were archived
+     */
+    int archiveDirect(Long userId, LocalDateTime before) {
+        Integer archived = newTransaction.execute(status -> {
+            List<Message> batch = messageRepository.findArchivable(userId, before, PageRequest.of(0, batchSize));
+            Map<ChunkKey, List<MessageDTO>> chunks = new LinkedHashMap<>();
+            Map<Direction, Integer> unread = new LinkedHashMap<>();
+            List<Long> ids = new ArrayList<>(batch.size());
+            for (Message m : batch) {
+                Long senderId = m.getSender().getId();
+                Long receiverId = m.getReceiver().getId();
+                ChunkKey key = new ChunkKey(Math.min(senderId, receiverId), Math.max(senderId, receiverId), null,
+                        m.getSentAt().toLocalDate().withDayOfMonth(1));
+                chunks.computeIfAbsent(key, k -> new ArrayList<>()).add(new MessageDTO(m.getId(),
+                        m.getSender().getClerkId(), m.getReceiver().getClerkId(), m.getContent(), m.getSentAt(), true));
+                if (!m.isRead()) {
+                    unread.merge(new Direction(receiverId, m.getReceiver().getClerkId(), senderId), 1, Integer::sum);
+                }
+                ids.add(m.getId());
+            }
+            for (Map.Entry<ChunkKey, List<MessageDTO>> chunk : chunks.entrySet()) {
+                List<MessageDTO> messages = chunk.getValue();
+                save(chunk.getKey(), MessageArchive.Kind.DIRECT, messages.get(0).getId(),
+                        messages.get(messages.size() - 1).getId(), messages.size(), messages);
+            }
+            if (!ids.isEmpty()) {
+                messageRepository.deleteAllByIdInBatch(ids);
+            }
+            for (Map.Entry<Direction, Integer> entry : unread.entrySet()) {
+                Direction direction = entry.getKey();
+                summaryService.markRead(direction.readerId(), direction.peerId(), entry.getValue());
+                eventPublisher.publishEvent(new MessagesReadEvent(direction.readerClerkId(), entry.getValue()));
+            }
+            return batch.size();
+        });
+        return archived != null ? archived : 0;
+    }
+
+    /**
+     * Archives one batch of the wedding's messages created before {@code before}.
+     *
+     * @return how many messages were archived
+     */
+    int archiveWedding(Long weddingId, LocalDateTime before) {
+        Integer archived = newTransaction.execute(status -> {
+            List<WeddingMessage> batch = weddingMessageRepository.findByWeddingIdAndCreatedAtBeforeOrderByIdAsc(
+                    weddingId, before, PageRequest.of(0, batchSize));
+            Map<ChunkKey, List<WeddingMessage>> chunks = new LinkedHashMap<>();
+            List<Long> ids = new ArrayList<>(batch.size());
+            for (WeddingMessage m : batch) {
+                ChunkKey key = new ChunkKey(null, null, weddingId, m.getCreatedAt().toLocalDate().withDayOfMonth(1));
+                chunks.computeIfAbsent(key, k -> new ArrayList<>()).add(m);
+                ids.add(m.getId());
+            }
+            for (Map.Entry<ChunkKey, List<WeddingMessage>> chunk : chunks.entrySet()) {
+                List<WeddingMessage> messages = chunk.getValue();
+                save(chunk.getKey(), MessageArchive.Kind.WEDDING, messages.get(0).getId(),
+                        messages.get(messages.size() - 1).getId(), messages.size(), messages);
+            }
+            if (!ids.isEmpty()) {
+                weddingMessageRepository.deleteAllByIdInBatch(ids);
+            }
+            return batch.size();
+        });
+        return archived != null ? archived : 0;
+    }
+
+    /**
+     * The pair's archived messages with ids below {@code beforeId}, newest first, at most {@code limit}.
+     */
+    public List<MessageDTO> findDirectBefore(Long user1Id, Long user2Id, long beforeId, int limit) {
+        return newestFirst(archiveRepository.findDirectChunksBefore(Math.min(user1Id, user2Id),
+                Math.max(user1Id, user2Id), beforeId), DIRECT_PAYLOAD, m -> m.getId() < beforeId, limit);
+    }
+
+    /**
+     * The pair's archived messages with ids above {@code afterId}, oldest first, at most {@code limit}.
+     */
+    public List<MessageDTO> findDirectAfter(Long user1Id, Long user2Id, long afterId, int limit) {
+        List<Long> chunkIds = archiveRepository.findDirectChunksAfter(Math.min(user1Id, user2Id),
+                Math.max(user1Id, user2Id), afterId);
+        List<MessageDTO> found = new ArrayList<>();
+        for (int start = 0; start < chunkIds.size(); start += CHUNKS_PER_FETCH) {
+            List<Long> fetch = chunkIds.subList(start, Math.min(start + CHUNKS_PER_FETCH, chunkIds.size()));
+            for (List<MessageDTO> messages : read(fetch, DIRECT_PAYLOAD)) {
+                for (MessageDTO message : messages) {
+                    if (found.size() >= limit) {
+                        return found;
+                    }
+                    if (message.getId() > afterId) {
+                        found.add(message);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    public Optional<MessageDTO> findDirect(Long user1Id, Long user2Id, Long messageId) {
+        return newestFirst(archiveRepository.findDirectChunksContaining(Math.min(user1Id, user2Id),
+                Math.max(user1Id, user2Id), messageId), DIRECT_PAYLOAD, m -> m.getId().equals(messageId), 1)
+                .stream().findFirst();
+    }
+
+    /**
+     * The wedding's archived messages with ids below {@code beforeId}, newest first, at most
+     * {@code limit}. Detached: saving one would insert it again.
+     */
+    public List<WeddingMessage> findWeddingMessagesBefore(Long weddingId, long beforeId, int limit) {
+        return newestFirst(archiveRepository.findWeddingChunksBefore(weddingId, beforeId), WEDDING_PAYLOAD,
+                m -> m.getId() < beforeId, limit);
+    }
+
+    /**
+     * All of the wedding's archived messages, newest first, for {@link WeddingContentCache}, which
+     * reads them once per load. Detached: saving one would insert it again.
+     */
+    public List<WeddingMessage> findWeddingMessages(Long weddingId) {
+        return findWeddingMessagesBefore(weddingId, Long.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    private int inBatches(IntSupplier batch) {
+        int total = 0;
+        int archived;
+        do {
+            archived = batch.getAsInt();
+            total += archived;
+        } while (archived == batchSize);
+        return total;
+    }
+
+    private void save(ChunkKey key, MessageArchive.Kind kind, Long firstId, Long lastId, int count, Object messages) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes, 8192)) {
+            objectMapper.writeValue(out, messages);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compress archived messages", e);
+        }
+        archiveRepository.save(new MessageArchive(null, kind, key.userLowId(), key.userHighId(), key.weddingId(),
+                key.periodStart(), firstId, lastId, count, bytes.toByteArray(), null));
+    }
+
+    // Walks chunks listed newest first, each read back to front
+    private <T> List<T> newestFirst(List<Long> chunkIds, TypeReference<List<T>> type, Predicate<T> wanted, int limit) {
+        List<T> found = new ArrayList<>();
+        for (int start = 0; start < chunkIds.size() && found.size() < limit; start += CHUNKS_PER_FETCH) {
+            List<Long> fetch = chunkIds.subList(start, Math.min(start + CHUNKS_PER_FETCH, chunkIds.size()));
+            for (List<T> messages : read(fetch, type)) {
+                for (int i = messages.size() - 1; i >= 0 && found.size() < limit; i--) {
+                    if (wanted.test(messages.get(i))) {
+                        found.add(messages.get(i));
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    // The chunks' messages in the order of the ids given, one query for all of them
+    private <T> List<List<T>> read(List<Long> chunkIds, TypeReference<List<T>> type) {
+        Map<Long, MessageArchive> byId = new HashMap<>();
+        for (MessageArchive chunk : archiveRepository.findAllById(chunkIds)) {
+            byId.put(chunk.getId(), chunk);
+        }
+        List<List<T>> chunks = new ArrayList<>(chunkIds.size());
+        for (Long chunkId : chunkIds) {
+            MessageArchive chunk = byId.get(chunkId);
+            if (chunk == null) {
+                throw new IllegalStateException("Archive chunk " + chunkId + " disappeared");
+            }
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(chunk.getPayload()))) {
+                chunks.add(objectMapper.readValue(in, type));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read archive chunk " + chunkId, e);
+            }
+        }
+        return chunks;
+    }
+
+    private record ChunkKey(Long userLowId, Long userHighId, Long weddingId, LocalDate periodStart) {
+    }
+
+    // Unread messages of one sender to one reader
+    private record Direction(Long readerId, String readerClerkId, Long peerId) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes direct messages to the sender's and receiver's open streams over SSE, so message
+ * screens no longer poll the inbox and conversation queries.
+ *
+ * Each subscriber has a bounded queue drained on the message stream pool, so publishing never
+ * blocks on a client and a slow one only delays itself. A subscriber whose queue fills up loses
+ * the queued messages and is sent a {@code resync} event instead, telling it to reload. Idle
+ * streams get a comment every {@code app.messages.stream.heartbeat-ms} to keep proxies from
+ * closing them.
+ */
+@Component
+public class MessageEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageEventHub.class);
+
+    private static final Event HEARTBEAT = new Event(null, "keep-alive");
+    private static final Event RESYNC = new Event("resync", Map.of());
+
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final ThreadPoolTaskExecutor executor;
+    private final int queueCapacity;
+    private final long streamTimeoutMillis;
+
+    public MessageEventHub(@Qualifier("messageStreamExecutor") ThreadPoolTaskExecutor executor,
+                           @Value("${app.messages.stream.queue-capacity:100}") int queueCapacity,
+                           @Value("${app.messages.stream.timeout-ms:1800000}") long streamTimeoutMillis) {
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+    }
+
+    public SseEmitter subscribe(String clerkId) {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter, queueCapacity);
+        // Atomic with remove(), which drops the list once its last subscriber leaves
+        subscribers.compute(clerkId, (id, list) -> {
+            List<Subscriber> current = list != null ? list : new CopyOnWriteArrayList<>();
+            current.add(subscriber);
+            return current;
+        });
+        Runnable remove = () -> remove(clerkId, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        // Sent straight away so the client sees the stream open
+        offer(clerkId, subscriber, HEARTBEAT);
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onMessageSent(MessageSentEvent event) {
+        Message message = event.getMessage();
+        String sender = message.getSender().getClerkId();
+        String receiver = message.getReceiver().getClerkId();
+        Event pushed = new Event("message", message);
+        publish(sender, pushed);
+        if (!receiver.equals(sender)) {
+            publish(receiver, pushed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.messages.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Map.Entry<String, List<Subscriber>> entry : subscribers.entrySet()) {
+            for (Subscriber subscriber : entry.getValue()) {
+                if (subscriber.queue.isEmpty()) {
+                    offer(entry.getKey(), subscriber, HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    int subscriberCount(String clerkId) {
+        List<Subscriber> list = subscribers.get(clerkId);
+        return list != null ? list.size() : 0;
+    }
+
+    // Overridden by tests to see what each stream is sent
+    SseEmitter newEmitter() {
+        return new SseEmitter(streamTimeoutMillis);
+    }
+
+    private void publish(String clerkId, Event event) {
+        List<Subscriber> list = subscribers.get(clerkId);
+        if (list == null) {
+            return;
+        }
+        for (Subscriber subscriber : list) {
+            offer(clerkId, subscriber, event);
+        }
+    }
+
+    private void offer(String clerkId, Subscriber subscriber, Event event) {
+        if (!subscriber.queue.offer(event)) {
+            // Too far behind to catch up event by event; it reloads instead
+            subscriber.queue.clear();
+            subscriber.overflowed = true;
+        }
+        schedule(clerkId, subscriber);
+    }
+
+    private void schedule(String clerkId, Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(clerkId, subscriber));
+        } catch (TaskRejectedException e) {
+            // Left queued; the next event or heartbeat tries again
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(String clerkId, Subscriber subscriber) {
+        try {
+            while (true) {
+                Event event;
+                if (subscriber.overflowed) {
+                    subscriber.overflowed = false;
+                    event = RESYNC;
+                } else {
+                    event = subscriber.queue.poll();
+                }
+                if (event == null) {
+                    break;
+                }
+                try {
+                    subscriber.emitter.send(event.name() == null
+                            ? SseEmitter.event().comment((String) event.data())
+                            : SseEmitter.event().name(event.name()).data(event.data()));
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Message stream for {} closed: {}", clerkId, e.getMessage());
+                    remove(clerkId, subscriber);
+                    return;
+                }
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event offered after the last poll but before the flag was cleared
+        if (!subscriber.queue.isEmpty() || subscriber.overflowed) {
+            schedule(clerkId, subscriber);
+        }
+    }
+
+    private void remove(String clerkId, Subscriber subscriber) {
+        subscriber.queue.clear();
+        subscribers.computeIfPresent(clerkId, (id, list) -> {
+            list.remove(subscriber);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<Event> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean overflowed;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    private record Event(String name, Object data) {
+    }
+}
@@ -0,0 +1,406 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.MessageDTO;
+import com.elegantevents.dto.MessageSearchResultDTO;
+import com.elegantevents.model.Message;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.model.WeddingMessage;
+import com.elegantevents.repository.MessageRepository;
+import com.elegantevents.repository.WeddingAssignmentRepository;
+import com.elegantevents.repository.WeddingMessageRepository;
+import com.elegantevents.repository.WeddingRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Full-text search over direct messages and wedding messages, from a Lucene index on local disk
+ * ({@code app.messages.search.index-dir}) instead of LIKE scans over the message tables.
+ *
+ * Messages are queued once their transaction commits and added to the index every
+ * {@code app.messages.search.refresh-ms}, which also reopens the near-real-time searcher, so a
+ * message is searchable about a second after it was sent. The index is committed to disk every
+ * {@code app.messages.search.commit-interval-ms} with the highest message ids it holds; at startup
+ * everything above those ids (less an overlap, since transactions commit out of id order) is
+ * indexed from the database, which also builds the index from scratch the first time.
+ *
+ * A caller only finds direct messages they sent or received, and wedding messages of weddings
+ * they are the couple, manager or protocol of; the latter is looked up on every search, so a
+ * reassigned wedding is scoped correctly without reindexing.
+ */
+@Service
+public class MessageSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageSearchService.class);
+
+    static final String DIRECT = "DIRECT";
+    static final String WEDDING = "WEDDING";
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String WEDDING_ID = "wedding_id";
+    private static final String PARTICIPANT = "participant";
+    private static final String SENDER = "sender";
+    private static final String RECEIVER = "receiver";
+    private static final String CONTENT = "content";
+    private static final String SENT_AT = "sent_at";
+
+    private static final String DIRECT_WATERMARK = "direct-max-id";
+    private static final String WEDDING_WATERMARK = "wedding-max-id";
+    private static final int CATCH_UP_OVERLAP = 1000;
+    private static final int CATCH_UP_PAGE_SIZE = 1000;
+    private static final int MAX_QUERY_TERMS = 16;
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    // Best match first, newest first among equal matches
+    private static final Sort RELEVANCE_THEN_NEWEST = new Sort(SortField.FIELD_SCORE,
+            new SortField(SENT_AT, SortField.Type.LONG, true));
+
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private final MessageRepository messageRepository;
+    private final WeddingMessageRepository weddingMessageRepository;
+    private final WeddingRepository weddingRepository;
+    private final WeddingAssignmentRepository assignmentRepository;
+    private final Path indexDir;
+    private final int maxResults;
+
+    private Directory directory;
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private long directMaxId;
+    private long weddingMaxId;
+
+    public MessageSearchService(MessageRepository messageRepository,
+                                WeddingMessageRepository weddingMessageRepository,
+                                WeddingRepository weddingRepository,
+                                WeddingAssignmentRepository assignmentRepository,
+                                @Value("${app.messages.search.index-dir:data/message-index}") String indexDir,
+                                @Value("${app.messages.search.max-results:50}") int maxResults) {
+        this.messageRepository = messageRepository;
+        this.weddingMessageRepository = weddingMessageRepository;
+        this.weddingRepository = weddingRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.indexDir = Path.of(indexDir);
+        this.maxResults = maxResults;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void open() {
+        try {
+            Files.createDirectories(indexDir);
+            directory = FSDirectory.open(indexDir);
+            IndexWriter opened = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            Iterable<Map.Entry<String, String>> commitData = opened.getLiveCommitData();
+            if (commitData != null) {
+                for (Map.Entry<String, String> entry : commitData) {
+                    if (DIRECT_WATERMARK.equals(entry.getKey())) {
+                        directMaxId = Long.parseLong(entry.getValue());
+                    } else if (WEDDING_WATERMARK.equals(entry.getKey())) {
+                        weddingMaxId = Long.parseLong(entry.getValue());
+                    }
+                }
+            }
+            searcherManager = new SearcherManager(opened, null);
+            writer = opened;
+        } catch (IOException e) {
+            // Typically another process holding the index lock; everything else keeps working
+            logger.error("Could not open message search index at {}; search is unavailable", indexDir, e);
+            IOUtils.closeWhileHandlingException(directory);
+            return;
+        }
+        int indexed = catchUp();
+        refresh();
+        commit();
+        logger.info("Message search index open with {} document(s), {} indexed from the database",
+                writer.getDocStats().numDocs, indexed);
+    }
+
+    @TransactionalEventListener
+    public void onMessageSent(MessageSentEvent event) {
+        Message message = event.getMessage();
+        pending.add(direct(message.getId(), message.getSender().getClerkId(), message.getReceiver().getClerkId(),
+                message.getContent(), message.getSentAt()));
+    }
+
+    @TransactionalEventListener
+    public void onWeddingMessageSent(WeddingMessageSentEvent event) {
+        pending.add(wedding(event.getMessage()));
+    }
+
+    /**
+     * Messages the caller can see that contain every word of the query, best match first. The
+     * last word also matches as a prefix once it is {@value #MIN_PREFIX_LENGTH} characters
+     * long, so results follow the query as it is typed.
+     */
+    public List<MessageSearchResultDTO> search(String clerkId, String queryText, Integer limit) {
+        SearcherManager manager = searcherManager;
+        if (manager == null) {
+            throw new IllegalStateException("Message search is unavailable");
+        }
+        List<String> words = analyze(queryText);
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one word");
+        }
+        int size = limit == null || limit <= 0 ? maxResults : Math.min(limit, maxResults);
+
+        BooleanQuery.Builder text = new BooleanQuery.Builder();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            Term term = new Term(CONTENT, word);
+            boolean last = i == words.size() - 1;
+            text.add(last && word.length() >= MIN_PREFIX_LENGTH ? new PrefixQuery(term) : new TermQuery(term),
+                    BooleanClause.Occur.MUST);
+        }
+        Query query = new BooleanQuery.Builder()
+                .add(text.build(), BooleanClause.Occur.MUST)
+                .add(scope(clerkId), BooleanClause.Occur.FILTER)
+                .build();
+
+        try {
+            IndexSearcher searcher = manager.acquire();
+            try {
+                ScoreDoc[] hits = searcher.search(query, size, RELEVANCE_THEN_NEWEST).scoreDocs;
+                StoredFields storedFields = searcher.storedFields();
+                List<MessageSearchResultDTO> results = new ArrayList<>(hits.length);
+                for (ScoreDoc hit : hits) {
+                    results.add(toResult(storedFields.document(hit.doc)));
+                }
+                return results;
+            } finally {
+                manager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Message search failed", e);
+        }
+    }
+
+    /**
+     * Adds queued messages to the index and makes them searchable.
+     */
+    @Scheduled(fixedDelayString = "${app.messages.search.refresh-ms:1000}")
+    public synchronized void refresh() {
+        if (writer == null) {
+            return;
+        }
+        Pending next;
+        int added = 0;
+        try {
+            while ((next = pending.poll()) != null) {
+                index(next);
+                added++;
+            }
+            if (added > 0) {
+                searcherManager.maybeRefresh();
+            }
+        } catch (IOException e) {
+            // Messages lost here are picked up again by the catch-up at the next startup
+            logger.error("Failed to add {} message(s) to the search index", added, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.messages.search.commit-interval-ms:60000}")
+    public synchronized void commit() {
+        if (writer == null || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            Map<String, String> commitData = new HashMap<>();
+            commitData.put(DIRECT_WATERMARK, Long.toString(directMaxId));
+            commitData.put(WEDDING_WATERMARK, Long.toString(weddingMaxId));
+            writer.setLiveCommitData(commitData.entrySet());
+            writer.commit();
+        } catch (IOException e) {
+            logger.error("Failed to commit the message search index", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        refresh();
+        commit();
+        IOUtils.closeWhileHandlingException(searcherManager, writer, directory);
+        writer = null;
+        searcherManager = null;
+    }
+
+    private int catchUp() {
+        int indexed = 0;
+        try {
+            long after = Math.max(0, directMaxId - CATCH_UP_OVERLAP);
+            List<MessageDTO> messages;
+            do {
+                messages = messageRepository.findAllAfter(after, PageRequest.of(0, CATCH_UP_PAGE_SIZE));
+                for (MessageDTO m : messages) {
+                    index(direct(m.getId(), m.getSenderClerkId(), m.getReceiverClerkId(), m.getContent(), m.getSentAt()));
+                    after = m.getId();
+                }
+                indexed += messages.size();
+            } while (messages.size() == CATCH_UP_PAGE_SIZE);
+
+            after = Math.max(0, weddingMaxId - CATCH_UP_OVERLAP);
+            List<WeddingMessage> weddingMessages;
+            do {
+                weddingMessages = weddingMessageRepository.findByIdGreaterThanOrderByIdAsc(after,
+                        PageRequest.of(0, CATCH_UP_PAGE_SIZE));
+                for (WeddingMessage m : weddingMessages) {
+                    index(wedding(m));
+                    after = m.getId();
+                }
+                indexed += weddingMessages.size();
+            } while (weddingMessages.size() == CATCH_UP_PAGE_SIZE);
+        } catch (IOException e) {
+            logger.error("Failed to index messages from the database; search may miss older messages", e);
+        }
+        return indexed;
+    }
+
+    // Replaces any earlier copy, so indexing the same message twice is harmless
+    private void index(Pending entry) throws IOException {
+        writer.updateDocument(new Term(KEY, entry.type() + ":" + entry.id()), entry.document());
+        if (DIRECT.equals(entry.type())) {
+            directMaxId = Math.max(directMaxId, entry.id());
+        } else {
+            weddingMaxId = Math.max(weddingMaxId, entry.id());
+        }
+    }
+
+    private Query scope(String clerkId) {
+        BooleanQuery.Builder scope = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(PARTICIPANT, clerkId)), BooleanClause.Occur.SHOULD);
+        Set<Long> weddingIds = new LinkedHashSet<>(assignmentRepository.findWeddingIdsByParticipant(clerkId));
+        weddingRepository.findByClerkId(clerkId).map(Wedding::getId).ifPresent(weddingIds::add);
+        if (!weddingIds.isEmpty()) {
+            List<BytesRef> terms = new ArrayList<>(weddingIds.size());
+            for (Long weddingId : weddingIds) {
+                terms.add(new BytesRef(weddingId.toString()));
+            }
+            scope.add(new TermInSetQuery(WEDDING_ID, terms), BooleanClause.Occur.SHOULD);
+        }
+        return scope.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(CONTENT, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken() && words.size() < MAX_QUERY_TERMS) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    private static Pending direct(Long id, String senderClerkId, String receiverClerkId, String content,
+                                  LocalDateTime sentAt) {
+        Document document = document(DIRECT, id, content, sentAt);
+        document.add(new StringField(PARTICIPANT, senderClerkId, Field.Store.NO));
+        document.add(new StringField(PARTICIPANT, receiverClerkId, Field.Store.NO));
+        document.add(new StoredField(SENDER, senderClerkId));
+        document.add(new StoredField(RECEIVER, receiverClerkId));
+        return new Pending(DIRECT, id, document);
+    }
+
+    private static Pending wedding(WeddingMessage message) {
+        Document document = document(WEDDING, message.getId(), message.getMessage(), message.getCreatedAt());
+        document.add(new StringField(WEDDING_ID, message.getWeddingId().toString(), Field.Store.YES));
+        if (message.getSenderClerkId() != null) {
+            document.add(new StringField(PARTICIPANT, message.getSenderClerkId(), Field.Store.NO));
+            document.add(new StoredField(SENDER, message.getSenderClerkId()));
+        }
+        return new Pending(WEDDING, message.getId(), document);
+    }
+
+    private static Document document(String type, Long id, String content, LocalDateTime sentAt) {
+        long sentAtMillis = sentAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Document document = new Document();
+        document.add(new StringField(KEY, type + ":" + id, Field.Store.NO));
+        document.add(new StoredField(TYPE, type));
+        document.add(new StoredField(ID, id));
+        document.add(new TextField(CONTENT, content != null ? content : "", Field.Store.YES));
+        document.add(new StoredField(SENT_AT, sentAtMillis));
+        document.add(new NumericDocValuesField(SENT_AT, sentAtMillis));
+        return document;
+    }
+
+    private static MessageSearchResultDTO toResult(Document document) {
+        String weddingId = document.get(WEDDING_ID);
+        return new MessageSearchResultDTO(
+                document.get(TYPE),
+                document.getField(ID).numericValue().longValue(),
+                weddingId != null ? Long.valueOf(weddingId) : null,
+                document.get(SENDER),
+                document.get(RECEIVER),
+                document.get(CONTENT),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(document.getField(SENT_AT).numericValue().longValue()),
+                        ZoneId.systemDefault()));
+    }
+
+    private record Pending(String type, long id, Document document) {
+    }
+}
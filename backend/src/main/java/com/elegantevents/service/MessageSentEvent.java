@@ -0,0 +1,14 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.Message;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A direct message was saved; it is pushed to both parties' streams once the transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class MessageSentEvent {
+    private final Message message;
+}
@@ -1,13 +1,26 @@
 package com.elegantevents.service;
 
+import com.elegantevents.dto.ConversationDTO;
+import com.elegantevents.dto.MessageDTO;
+import com.elegantevents.model.ConversationSummary;
 import com.elegantevents.model.Message;
 import com.elegantevents.model.User;
+import com.elegantevents.repository.ConversationSummaryRepository;
 import com.elegantevents.repository.MessageRepository;
 import com.elegantevents.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -15,10 +28,28 @@ public class MessageService {
 
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
+    private final ConversationSummaryRepository summaryRepository;
+    private final ConversationSummaryService summaryService;
+    private final MessageArchiveService archiveService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public MessageService(MessageRepository messageRepository, UserRepository userRepository) {
+    public MessageService(MessageRepository messageRepository, UserRepository userRepository,
+                          ConversationSummaryRepository summaryRepository,
+                          ConversationSummaryService summaryService,
+                          MessageArchiveService archiveService,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${app.messages.page-size:50}") int defaultPageSize,
+                          @Value("${app.messages.max-page-size:200}") int maxPageSize) {
         this.messageRepository = messageRepository;
         this.userRepository = userRepository;
+        this.summaryRepository = summaryRepository;
+        this.summaryService = summaryService;
+        this.archiveService = archiveService;
+        this.eventPublisher = eventPublisher;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     public Message sendMessage(String senderClerkId, String receiverClerkId, String content) {
@@ -33,7 +64,11 @@ public class MessageService {
         message.setContent(content);
         message.setRead(false);
 
-        return messageRepository.save(message);
+        Message saved = messageRepository.save(message);
+        summaryService.recordMessage(saved);
+        // Pushed to open message streams and unread badges after commit
+        eventPublisher.publishEvent(new MessageSentEvent(saved));
+        return saved;
     }
 
     public List<Message> getConversation(String user1ClerkId, String user2ClerkId) {
@@ -42,28 +77,157 @@ public class MessageService {
         User user2 = userRepository.findByClerkId(user2ClerkId)
                 .orElseThrow(() -> new RuntimeException("User 2 not found"));
 
-        // Mark messages as read when fetching conversation
-        // TODO: This marks everything as read, maybe optimize to only mark receiver's messages?
-        // For now, simpler is better.
-        
-        return messageRepository.findConversation(user1.getId(), user2.getId());
+        List<Message> hot = messageRepository.findConversation(user1.getId(), user2.getId());
+        if (!hot.isEmpty()) {
+            // user1 is the one reading: only what user2 sent them, and only up to what was fetched
+            markRead(user1, user2, hot.get(hot.size() - 1).getId());
+        }
+        // Archived messages are all older than the hot ones. Only the latest page of them comes
+        // along; older ones are read through getConversationPage with beforeId
+        List<MessageDTO> archived = archiveService.findDirectBefore(user1.getId(), user2.getId(), Long.MAX_VALUE,
+                maxPageSize);
+        List<Message> conversation = new ArrayList<>(archived.size() + hot.size());
+        for (int i = archived.size() - 1; i >= 0; i--) {
+            conversation.add(toMessage(archived.get(i), user1, user2));
+        }
+        conversation.addAll(hot);
+        return conversation;
     }
 
+    /**
+     * Marks every message the reader received from the peer, up to {@code upToMessageId}
+     * (everything when null), as read in one UPDATE.
+     *
+     * @return how many messages were newly marked
+     */
+    public int markConversationRead(String readerClerkId, String peerClerkId, Long upToMessageId) {
+        User reader = userRepository.findByClerkId(readerClerkId)
+                .orElseThrow(() -> new RuntimeException("Reader not found"));
+        User peer = userRepository.findByClerkId(peerClerkId)
+                .orElseThrow(() -> new RuntimeException("Peer not found"));
+        return markRead(reader, peer, upToMessageId != null ? upToMessageId : Long.MAX_VALUE);
+    }
+
+    /**
+     * One page of a conversation, oldest first. With {@code afterId}, the messages after it (for
+     * fetching only what is new); otherwise the latest ones, or those before {@code beforeId}
+     * (for scrolling back).
+     */
+    @Transactional(readOnly = true)
+    public List<MessageDTO> getConversationPage(String user1ClerkId, String user2ClerkId,
+                                                Long afterId, Long beforeId, Integer limit) {
+        if (afterId != null && beforeId != null) {
+            throw new IllegalArgumentException("Use either afterId or beforeId, not both");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        User user1 = userRepository.findByClerkId(user1ClerkId)
+                .orElseThrow(() -> new RuntimeException("User 1 not found"));
+        User user2 = userRepository.findByClerkId(user2ClerkId)
+                .orElseThrow(() -> new RuntimeException("User 2 not found"));
+        PageRequest page = PageRequest.of(0, Math.min(limit != null ? limit : defaultPageSize, maxPageSize));
+
+        // A pair's archived messages are all older than its hot ones: a page that runs out of one
+        // continues in the other
+        if (afterId != null) {
+            List<MessageDTO> messages = new ArrayList<>(
+                    archiveService.findDirectAfter(user1.getId(), user2.getId(), afterId, page.getPageSize()));
+            if (messages.size() < page.getPageSize()) {
+                messages.addAll(messageRepository.findConversationAfter(user1.getId(), user2.getId(), afterId,
+                        PageRequest.of(0, page.getPageSize() - messages.size())));
+            }
+            return messages;
+        }
+        long before = beforeId != null ? beforeId : Long.MAX_VALUE;
+        List<MessageDTO> messages = new ArrayList<>(
+                messageRepository.findConversationBefore(user1.getId(), user2.getId(), before, page));
+        if (messages.size() < page.getPageSize()) {
+            messages.addAll(archiveService.findDirectBefore(user1.getId(), user2.getId(), before,
+                    page.getPageSize() - messages.size()));
+        }
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    /**
+     * Latest message of each of the user's conversations, newest first, found through the
+     * conversation summaries.
+     */
+    @Transactional(readOnly = true)
     public List<Message> getInbox(String clerkId) {
         User user = userRepository.findByClerkId(clerkId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return messageRepository.findLatestConversations(user.getId());
+        return getMessagesByUserId(user.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ConversationDTO> getConversations(String clerkId) {
+        User user = userRepository.findByClerkId(clerkId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return summaryRepository.findInbox(user.getId());
     }
-    
     
     public void markAsRead(Long messageId) {
         messageRepository.findById(messageId).ifPresent(m -> {
-            m.setRead(true);
-            messageRepository.save(m);
+            if (!m.isRead()) {
+                m.setRead(true);
+                messageRepository.save(m);
+                summaryService.markRead(m.getReceiver().getId(), m.getSender().getId(), 1);
+                eventPublisher.publishEvent(new MessagesReadEvent(m.getReceiver().getClerkId(), 1));
+            }
         });
     }
     
+    private int markRead(User reader, User peer, long upToMessageId) {
+        int marked = messageRepository.markReadUpTo(reader.getId(), peer.getId(), upToMessageId);
+        if (marked > 0) {
+            summaryService.markRead(reader.getId(), peer.getId(), marked);
+            eventPublisher.publishEvent(new MessagesReadEvent(reader.getClerkId(), marked));
+        }
+        return marked;
+    }
+
+    @Transactional(readOnly = true)
     public List<Message> getMessagesByUserId(Long userId) {
-        return messageRepository.findLatestConversations(userId);
+        List<ConversationSummary> summaries = summaryRepository.findByUserIdOrderByLastMessageAtDesc(userId);
+        Map<Long, Message> hot = messageRepository.findAllById(
+                        summaries.stream().map(ConversationSummary::getLastMessageId).toList())
+                .stream().collect(Collectors.toMap(Message::getId, Function.identity()));
+        List<Message> latest = new ArrayList<>(summaries.size());
+        User user = null;
+        for (ConversationSummary summary : summaries) {
+            Message message = hot.get(summary.getLastMessageId());
+            if (message == null) {
+                // The conversation has been archived since
+                if (user == null) {
+                    user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+                }
+                User peer = userRepository.findById(summary.getPeerId()).orElse(null);
+                MessageDTO archived = peer == null ? null
+                        : archiveService.findDirect(userId, peer.getId(), summary.getLastMessageId()).orElse(null);
+                if (archived != null) {
+                    message = toMessage(archived, user, peer);
+                }
+            }
+            if (message != null) {
+                latest.add(message);
+            }
+        }
+        latest.sort(Comparator.comparing(Message::getId).reversed());
+        return latest;
+    }
+
+    // Detached copy of an archived message for the endpoints that return entities
+    private static Message toMessage(MessageDTO archived, User user1, User user2) {
+        boolean fromUser1 = archived.getSenderClerkId().equals(user1.getClerkId());
+        Message message = new Message();
+        message.setId(archived.getId());
+        message.setSender(fromUser1 ? user1 : user2);
+        message.setReceiver(fromUser1 ? user2 : user1);
+        message.setContent(archived.getContent());
+        message.setSentAt(archived.getSentAt());
+        message.setRead(archived.isRead());
+        return message;
     }
 }
@@ -0,0 +1,14 @@
+package com.elegantevents.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A user read {@code count} more direct messages; unread badges catch up once the transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class MessagesReadEvent {
+    private final String readerClerkId;
+    private final int count;
+}
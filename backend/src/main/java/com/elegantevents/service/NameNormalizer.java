@@ -0,0 +1,90 @@
+package com.elegantevents.service;
+
+import java.text.Normalizer;
+
+/**
+ * Folds guest names and search input into one lowercase Latin form, so "Kebede", "Qebbede"
+ * and "ቀበደ" meet in the same index. Ethiopic syllables are transliterated by consonant row
+ * and vowel order; Latin text is decomposed and stripped of accents. Both sides then get the
+ * same loose spelling rules, since Amharic names have no single romanization.
+ */
+public final class NameNormalizer {
+
+    private static final int ETHIOPIC_START = 0x1200;
+    private static final int ETHIOPIC_SYLLABLES_END = 0x135A;
+
+    // Consonant of each 8-syllable row of the Ethiopic block, starting at U+1200; "" for vowel carriers (አ, ዐ)
+    private static final String[] CONSONANTS = {
+        "h", "l", "h", "m", "s", "r", "s", "sh",     // U+1200 ሀ ለ ሐ መ ሠ ረ ሰ ሸ
+        "q", "qw", "qh", "qhw", "b", "v", "t", "ch", // U+1240 ቀ ቈ ቐ ቘ በ ቨ ተ ቸ
+        "h", "hw", "n", "ny", "", "k", "kw", "kh",   // U+1280 ኀ ኈ ነ ኘ አ ከ ኰ ኸ
+        "khw", "w", "", "z", "zh", "y", "d", "dd",   // U+12C0 ዀ ወ ዐ ዘ ዠ የ ደ ዸ
+        "j", "g", "gw", "gg", "t", "ch", "p", "ts",  // U+1300 ጀ ገ ጐ ጘ ጠ ጨ ጰ ጸ
+        "ts", "f", "p"                               // U+1340 ፀ ፈ ፐ
+    };
+    // Vowel orders: ä, u, i, a, e, ə (usually silent), o, wa
+    private static final String[] VOWELS = {"e", "u", "i", "a", "e", "", "o", "wa"};
+
+    private NameNormalizer() {
+    }
+
+    /**
+     * @return lowercase ASCII letters and digits separated by single spaces
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        StringBuilder latin = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            if (cp >= ETHIOPIC_START && cp <= ETHIOPIC_SYLLABLES_END) {
+                int offset = cp - ETHIOPIC_START;
+                int row = offset >>> 3;
+                if (row < CONSONANTS.length) {
+                    String consonant = CONSONANTS[row];
+                    int order = offset & 7;
+                    if (consonant.isEmpty() && (order == 0 || order == 5)) {
+                        // A bare vowel carrier is spelled out: አበበ -> Abebe, እሸቱ -> Eshetu
+                        latin.append(order == 0 ? 'a' : 'e');
+                    } else {
+                        latin.append(consonant).append(VOWELS[order]);
+                    }
+                }
+            } else if (cp >= 0x1360 && cp <= 0x1368) {
+                latin.append(' '); // Ethiopic punctuation
+            } else {
+                latin.appendCodePoint(cp);
+            }
+        }
+
+        String decomposed = Normalizer.normalize(latin, Normalizer.Form.NFKD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        char previous = ' ';
+        for (int i = 0; i < decomposed.length(); i++) {
+            char ch = Character.toLowerCase(decomposed.charAt(i));
+            if (Character.getType(ch) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (ch >= 'a' && ch <= 'z' || ch >= '0' && ch <= '9') {
+                if (ch == 'q') {
+                    ch = 'k';
+                }
+                // Doubled letters carry gemination, which Latin spellings show inconsistently
+                if (ch != previous) {
+                    out.append(ch);
+                }
+                previous = ch;
+            } else if (previous != ' ') {
+                out.append(' ');
+                previous = ' ';
+            }
+        }
+        int end = out.length();
+        while (end > 0 && out.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return out.substring(0, end);
+    }
+}
@@ -0,0 +1,89 @@
+package com.elegantevents.service;
+
+import com.elegantevents.repository.NotificationOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes notifications to the outbox table inside the caller's transaction, so a notification
+ * exists exactly when the change that caused it commits. Delivery is left to
+ * {@link OutboxDispatcher}. Messages whose idempotency key is already queued are skipped.
+ */
+@Service
+public class NotificationOutboxService {
+
+    private static final String INSERT_OUTBOX = "INSERT INTO notification_outbox (channel, kind, idempotency_key, " +
+            "recipient, subject, body, wedding_id, guest_id, campaign_id, status, attempts, next_attempt_at, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 'PENDING', 0, ?, ?, ?)";
+    private static final int KEY_LOOKUP_CHUNK = 1000;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public NotificationOutboxService(NotificationOutboxRepository outboxRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     @Value("${app.guest-import.jdbc-batch-size:200}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int enqueue(OutboxMessage message) {
+        return enqueueAll(List.of(message));
+    }
+
+    /**
+     * @return number of messages queued (duplicates excluded)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int enqueueAll(List<OutboxMessage> messages) {
+        Map<String, OutboxMessage> byKey = new LinkedHashMap<>();
+        for (OutboxMessage message : messages) {
+            byKey.putIfAbsent(message.idempotencyKey(), message);
+        }
+        List<String> keys = new ArrayList<>(byKey.keySet());
+        Set<String> existing = new HashSet<>();
+        for (int start = 0; start < keys.size(); start += KEY_LOOKUP_CHUNK) {
+            existing.addAll(outboxRepository.findExistingKeys(keys.subList(start, Math.min(start + KEY_LOOKUP_CHUNK, keys.size()))));
+        }
+        List<OutboxMessage> fresh = new ArrayList<>(byKey.size());
+        for (OutboxMessage message : byKey.values()) {
+            if (!existing.contains(message.idempotencyKey())) {
+                fresh.add(message);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX, fresh, batchSize, (ps, message) -> {
+            ps.setString(1, message.channel().name());
+            ps.setString(2, message.kind());
+            ps.setString(3, message.idempotencyKey());
+            ps.setString(4, message.recipient());
+            ps.setString(5, message.subject());
+            ps.setString(6, message.body());
+            ps.setObject(7, message.weddingId());
+            ps.setObject(8, message.guestId());
+            ps.setObject(9, message.campaignId());
+            ps.setTimestamp(10, now);
+            ps.setTimestamp(11, now);
+            ps.setTimestamp(12, now);
+        });
+        return fresh.size();
+    }
+}
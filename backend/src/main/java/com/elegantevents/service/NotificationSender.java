@@ -0,0 +1,120 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.NotificationOutbox;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Delivers one outbox row over its channel. Throws on any failure so the dispatcher can
+ * retry; a row may therefore be delivered more than once, and each email carries a
+ * Message-ID derived from the idempotency key so mail clients collapse the duplicates.
+ */
+@Service
+public class NotificationSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationSender.class);
+    private static final Session MESSAGE_SESSION = Session.getInstance(new Properties());
+
+    private final SmtpTransportPool transportPool;
+    private final SmsGateway smsGateway;
+    private final String fromEmail;
+
+    public NotificationSender(SmtpTransportPool transportPool,
+                              SmsGateway smsGateway,
+                              @Value("${spring.mail.from:noreply@elegantevents.com}") String fromEmail) {
+        this.transportPool = transportPool;
+        this.smsGateway = smsGateway;
+        this.fromEmail = fromEmail;
+    }
+
+    public void send(NotificationOutbox notification) throws MessagingException {
+        switch (notification.getChannel()) {
+            case EMAIL -> sendEmail(notification);
+            case SMS -> {
+                SmsGateway.SmsResult result = sendSms(List.of(notification)).get(notification.getId());
+                if (!result.accepted()) {
+                    throw new MessagingException(result.error());
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends SMS rows in one gateway call. A gateway failure rejects the whole batch.
+     *
+     * @return a result for every row, keyed by outbox id
+     */
+    public Map<Long, SmsGateway.SmsResult> sendSms(List<NotificationOutbox> notifications) {
+        List<SmsGateway.SmsMessage> messages = new ArrayList<>(notifications.size());
+        for (NotificationOutbox notification : notifications) {
+            messages.add(new SmsGateway.SmsMessage(String.valueOf(notification.getId()),
+                    notification.getRecipient(), notification.getBody()));
+        }
+        Map<Long, SmsGateway.SmsResult> results = new HashMap<>();
+        try {
+            for (SmsGateway.SmsResult result : smsGateway.sendBatch(messages)) {
+                try {
+                    results.put(Long.valueOf(result.reference()), result);
+                } catch (NumberFormatException e) {
+                    logger.warn("SMS gateway returned an unknown reference {}", result.reference());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("SMS batch of {} failed: {}", messages.size(), e.getMessage());
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            for (SmsGateway.SmsMessage message : messages) {
+                results.put(Long.valueOf(message.reference()), SmsGateway.SmsResult.rejected(message.reference(), error));
+            }
+        }
+        for (SmsGateway.SmsMessage message : messages) {
+            results.putIfAbsent(Long.valueOf(message.reference()),
+                    SmsGateway.SmsResult.rejected(message.reference(), "No result from SMS provider"));
+        }
+        return results;
+    }
+
+    private void sendEmail(NotificationOutbox notification) throws MessagingException {
+        MimeMessage message = new KeyedMimeMessage(messageId(notification.getIdempotencyKey()));
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(notification.getRecipient());
+        helper.setSubject(notification.getSubject());
+        helper.setText(notification.getBody(), true);
+        transportPool.send(message);
+    }
+
+    String messageId(String idempotencyKey) {
+        int at = fromEmail.indexOf('@');
+        String domain = at >= 0 ? fromEmail.substring(at + 1) : "elegantevents.com";
+        return "<" + idempotencyKey.replaceAll("[^A-Za-z0-9._-]", ".") + "@" + domain + ">";
+    }
+
+    /**
+     * Keeps the same Message-ID on every attempt; JavaMail would generate a new one on each send.
+     */
+    private static final class KeyedMimeMessage extends MimeMessage {
+        private final String messageId;
+
+        KeyedMimeMessage(String messageId) {
+            super(MESSAGE_SESSION);
+            this.messageId = messageId;
+        }
+
+        @Override
+        protected void updateMessageID() throws MessagingException {
+            setHeader("Message-ID", messageId);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.NotificationOutbox;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.NotificationOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the notification outbox. Each poll records the outcomes of finished deliveries in
+ * two JDBC batches, then claims due rows (a conditional UPDATE per row, so two nodes never
+ * claim the same one) and hands them to the notification pool. Each channel is claimed
+ * separately under its provider's token bucket, and {@code app.outbox.max-in-flight} caps
+ * deliveries across both. Failures are retried with exponential backoff and jitter; after
+ * {@code app.outbox.max-attempts} the row is DEAD and left for inspection. A node that dies mid-delivery leaves rows SENDING until their lease
+ * expires, after which they are sent again: delivery is at least once.
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final String CLAIM = "UPDATE notification_outbox SET status = 'SENDING', attempts = attempts + 1, " +
+            "lease_until = ?, updated_at = ? WHERE id = ? AND (status = 'PENDING' OR (status = 'SENDING' AND lease_until < ?))";
+    private static final String MARK_SENT = "UPDATE notification_outbox SET status = 'SENT', sent_at = ?, lease_until = NULL, " +
+            "last_error = NULL, provider_message_id = ?, updated_at = ? WHERE id = ?";
+    private static final String MARK_FAILED = "UPDATE notification_outbox SET status = ?, next_attempt_at = ?, " +
+            "lease_until = NULL, last_error = ?, updated_at = ? WHERE id = ?";
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationSender sender;
+    private final GuestRepository guestRepository;
+    private final GuestStatsService guestStatsService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate newTransaction;
+    private final Queue<Outcome> outcomes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<NotificationOutbox.Channel, TokenBucket> rateLimits = new EnumMap<>(NotificationOutbox.Channel.class);
+    private final int batchSize;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    private final long leaseMillis;
+    private final int smsBatchSize;
+
+    public OutboxDispatcher(NotificationOutboxRepository outboxRepository,
+                            NotificationSender sender,
+                            GuestRepository guestRepository,
+                            GuestStatsService guestStatsService,
+                            JdbcTemplate jdbcTemplate,
+                            @Qualifier("notificationExecutor") ThreadPoolTaskExecutor executor,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.outbox.batch-size:100}") int batchSize,
+                            @Value("${app.outbox.max-in-flight:200}") int maxInFlight,
+                            @Value("${app.outbox.max-attempts:8}") int maxAttempts,
+                            @Value("${app.outbox.backoff-base-ms:30000}") long backoffBaseMillis,
+                            @Value("${app.outbox.backoff-max-ms:3600000}") long backoffMaxMillis,
+                            @Value("${app.outbox.lease-ms:120000}") long leaseMillis,
+                            @Value("${app.outbox.email.rate-per-second:0}") double emailRate,
+                            @Value("${app.outbox.email.burst:50}") double emailBurst,
+                            @Value("${app.outbox.sms.rate-per-second:0}") double smsRate,
+                            @Value("${app.outbox.sms.burst:10}") double smsBurst,
+                            @Value("${app.sms.gateway.batch-size:100}") int smsBatchSize) {
+        this.outboxRepository = outboxRepository;
+        this.sender = sender;
+        this.guestRepository = guestRepository;
+        this.guestStatsService = guestStatsService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.leaseMillis = leaseMillis;
+        this.smsBatchSize = Math.max(1, smsBatchSize);
+        this.rateLimits.put(NotificationOutbox.Channel.EMAIL, new TokenBucket(emailRate, emailBurst));
+        this.rateLimits.put(NotificationOutbox.Channel.SMS, new TokenBucket(smsRate, smsBurst));
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void poll() {
+        recordOutcomes();
+        for (NotificationOutbox.Channel channel : NotificationOutbox.Channel.values()) {
+            int room = Math.min(batchSize, maxInFlight - inFlight.get());
+            if (room <= 0) {
+                return;
+            }
+            TokenBucket bucket = rateLimits.get(channel);
+            int granted = bucket.take(room);
+            if (granted == 0) {
+                continue;
+            }
+            List<NotificationOutbox> claimed = newTransaction.execute(status -> claim(channel, granted));
+            bucket.giveBack(granted - claimed.size());
+            if (channel == NotificationOutbox.Channel.SMS) {
+                // Many recipients per gateway call
+                for (int start = 0; start < claimed.size(); start += smsBatchSize) {
+                    List<NotificationOutbox> batch = claimed.subList(start, Math.min(start + smsBatchSize, claimed.size()));
+                    submit(batch, () -> deliverSms(batch));
+                }
+            } else {
+                for (NotificationOutbox notification : claimed) {
+                    submit(List.of(notification), () -> deliver(notification));
+                }
+            }
+        }
+    }
+
+    private void submit(List<NotificationOutbox> notifications, Runnable delivery) {
+        inFlight.addAndGet(notifications.size());
+        try {
+            executor.execute(delivery);
+        } catch (RejectedExecutionException e) {
+            inFlight.addAndGet(-notifications.size());
+            // Pool is saturated by other work; counts as a failed attempt and is retried after backoff
+            for (NotificationOutbox notification : notifications) {
+                outcomes.add(Outcome.failed(notification, "Notification pool saturated"));
+            }
+        }
+    }
+
+    private List<NotificationOutbox> claim(NotificationOutbox.Channel channel, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTs = Timestamp.valueOf(now);
+        Timestamp lease = Timestamp.valueOf(now.plusNanos(leaseMillis * 1_000_000L));
+        List<Long> claimedIds = new ArrayList<>();
+        for (Long id : outboxRepository.findClaimableIds(channel, now, PageRequest.of(0, limit))) {
+            if (jdbcTemplate.update(CLAIM, lease, nowTs, id, nowTs) == 1) {
+                claimedIds.add(id);
+            }
+        }
+        return claimedIds.isEmpty() ? List.of() : outboxRepository.findAllById(claimedIds);
+    }
+
+    private void deliver(NotificationOutbox notification) {
+        try {
+            sender.send(notification);
+            outcomes.add(Outcome.sent(notification, null));
+        } catch (Exception e) {
+            logger.warn("Delivery of notification {} ({} to {}) failed on attempt {}: {}", notification.getId(),
+                    notification.getChannel(), notification.getRecipient(), notification.getAttempts(), e.getMessage());
+            outcomes.add(Outcome.failed(notification, e.getMessage()));
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void deliverSms(List<NotificationOutbox> batch) {
+        try {
+            Map<Long, SmsGateway.SmsResult> results = sender.sendSms(batch);
+            for (NotificationOutbox notification : batch) {
+                SmsGateway.SmsResult result = results.get(notification.getId());
+                if (result.accepted()) {
+                    outcomes.add(Outcome.sent(notification, result.providerMessageId()));
+                } else {
+                    logger.warn("SMS notification {} to {} rejected on attempt {}: {}", notification.getId(),
+                            notification.getRecipient(), notification.getAttempts(), result.error());
+                    outcomes.add(Outcome.failed(notification, result.error()));
+                }
+            }
+        } finally {
+            inFlight.addAndGet(-batch.size());
+        }
+    }
+
+    /**
+     * Writes finished deliveries back to the outbox and flags invited guests, one batch each.
+     */
+    void recordOutcomes() {
+        List<Outcome> sent = new ArrayList<>();
+        List<Outcome> failed = new ArrayList<>();
+        Outcome outcome;
+        while ((outcome = outcomes.poll()) != null) {
+            (outcome.error() == null ? sent : failed).add(outcome);
+        }
+        if (sent.isEmpty() && failed.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTs = Timestamp.valueOf(now);
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(MARK_SENT, sent, batchSize, (ps, o) -> {
+                    ps.setTimestamp(1, nowTs);
+                    ps.setString(2, o.providerMessageId());
+                    ps.setTimestamp(3, nowTs);
+                    ps.setLong(4, o.id());
+                });
+                jdbcTemplate.batchUpdate(MARK_FAILED, failed, batchSize, (ps, o) -> {
+                    boolean dead = o.attempts() >= maxAttempts;
+                    ps.setString(1, (dead ? NotificationOutbox.Status.DEAD : NotificationOutbox.Status.PENDING).name());
+                    ps.setTimestamp(2, Timestamp.valueOf(now.plusNanos(backoff(o.attempts()) * 1_000_000L)));
+                    ps.setString(3, truncate(o.error()));
+                    ps.setTimestamp(4, nowTs);
+                    ps.setLong(5, o.id());
+                });
+            });
+        } catch (RuntimeException e) {
+            // Rows stay SENDING and are retried when their lease expires
+            logger.error("Failed to record {} notification outcome(s)", sent.size() + failed.size(), e);
+            return;
+        }
+        for (Outcome o : failed) {
+            if (o.attempts() >= maxAttempts) {
+                logger.error("Notification {} is dead after {} attempts: {}", o.id(), o.attempts(), o.error());
+            }
+        }
+        markInvitationsSent(sent);
+    }
+
+    private void markInvitationsSent(List<Outcome> sent) {
+        Map<Long, Set<Long>> guestsByWedding = new HashMap<>();
+        for (Outcome o : sent) {
+            if (NotificationService.KIND_GUEST_INVITATION.equals(o.kind()) && o.guestId() != null && o.weddingId() != null) {
+                guestsByWedding.computeIfAbsent(o.weddingId(), id -> new LinkedHashSet<>()).add(o.guestId());
+            }
+        }
+        for (Map.Entry<Long, Set<Long>> entry : guestsByWedding.entrySet()) {
+            int marked = guestRepository.markInvitationsSent(entry.getValue(), LocalDateTime.now());
+            guestStatsService.recordInvitationsSent(entry.getKey(), marked);
+        }
+    }
+
+    /**
+     * Delay before the next attempt: base * 2^(attempts - 1), capped, with up to 20% jitter so
+     * a failed burst does not come back as one.
+     */
+    long backoff(int attempts) {
+        long delay = backoffBaseMillis << Math.min(Math.max(attempts - 1, 0), 20);
+        delay = Math.min(delay, backoffMaxMillis);
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return "Unknown error";
+        }
+        return error.length() <= 500 ? error : error.substring(0, 500);
+    }
+
+    private record Outcome(long id, String kind, Long weddingId, Long guestId, int attempts, String providerMessageId,
+                           String error) {
+
+        static Outcome sent(NotificationOutbox n, String providerMessageId) {
+            return new Outcome(n.getId(), n.getKind(), n.getWeddingId(), n.getGuestId(), n.getAttempts(),
+                    providerMessageId, null);
+        }
+
+        static Outcome failed(NotificationOutbox n, String error) {
+            return new Outcome(n.getId(), n.getKind(), n.getWeddingId(), n.getGuestId(), n.getAttempts(), null,
+                    error != null ? error : "Unknown error");
+        }
+    }
+}
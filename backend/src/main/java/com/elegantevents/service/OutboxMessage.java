@@ -0,0 +1,10 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.NotificationOutbox;
+
+/**
+ * A notification to enqueue; see {@link NotificationOutboxService}.
+ */
+public record OutboxMessage(NotificationOutbox.Channel channel, String kind, String idempotencyKey, String recipient,
+                            String subject, String body, Long weddingId, Long guestId, Long campaignId) {
+}
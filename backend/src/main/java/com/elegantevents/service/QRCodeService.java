@@ -1,5 +1,7 @@
 package com.elegantevents.service;
 
+import com.elegantevents.model.Guest;
+import com.elegantevents.model.Wedding;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
@@ -10,62 +12,103 @@ import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 
 @Service
 public class QRCodeService {
-    
+
     @Value("${app.frontend.url:http://localhost:5173}")
     private String frontendUrl;
-    
+
+    @Value("${app.qr.signed-payloads.valid-days-after-wedding:2}")
+    private long validDaysAfterWedding;
+
+    @Value("${app.qr.signed-payloads.default-ttl-days:365}")
+    private long defaultTtlDays;
+
+    private final QRPayloadSigner payloadSigner;
+
     private static final int WIDTH = 300;
     private static final int HEIGHT = 300;
-    
+
+    public QRCodeService(QRPayloadSigner payloadSigner) {
+        this.payloadSigner = payloadSigner;
+    }
+
     public String generateQRCode(String uniqueCode, String coupleClerkId) {
-        try {
-            // Create the URL that attendees will use to access their dashboard
-            // Use relative URL if frontendUrl is localhost (for development)
-            // In production, this should be your actual domain
-            String baseUrl = frontendUrl;
-            if (baseUrl.contains("localhost") || baseUrl.contains("127.0.0.1")) {
-                // For localhost, use relative URL so it works regardless of port
-                baseUrl = "";
-            }
-            String url = baseUrl + "/attendee/dashboard?code=" + uniqueCode + "&couple=" + coupleClerkId;
-            
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrCodeWriter.encode(url, BarcodeFormat.QR_CODE, WIDTH, HEIGHT);
-            
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            MatrixToImageWriter.writeToStream(bitMatrix, "PNG", outputStream);
-            
-            byte[] qrCodeBytes = outputStream.toByteArray();
-            String base64QRCode = Base64.getEncoder().encodeToString(qrCodeBytes);
-            
-            return "data:image/png;base64," + base64QRCode;
-        } catch (WriterException | IOException e) {
-            throw new RuntimeException("Failed to generate QR code", e);
-        }
+        return "data:image/png;base64," + encode(dashboardUrl(uniqueCode, coupleClerkId));
+    }
+
+    /**
+     * QR code for an arbitrary link, such as a guest's short link.
+     */
+    public String generateQRCodeForUrl(String url) {
+        return "data:image/png;base64," + encode(url);
     }
-    
+
     /**
      * Generate QR code and return only the base64 string (without data URI prefix)
      * Useful for embedding in emails
      */
     public String generateQRCodeBase64(String uniqueCode, String coupleClerkId) {
+        return encode(dashboardUrl(uniqueCode, coupleClerkId));
+    }
+
+    public boolean isSignedPayloadEnabled() {
+        return payloadSigner.isEnabled();
+    }
+
+    /**
+     * Generate a QR code whose dashboard URL also carries a signed payload in the {@code t}
+     * parameter. Older scanners keep reading {@code code=}, newer ones verify {@code t} offline.
+     * The guest must already be saved so its id can be signed.
+     */
+    public String generateSignedQRCode(Guest guest, Wedding wedding) {
+        String url = dashboardUrl(guest.getUniqueCode(), guest.getCoupleClerkId())
+                + "&t=" + generateSignedPayload(guest, wedding);
+        return "data:image/png;base64," + encode(url);
+    }
+
+    public String generateSignedPayload(Guest guest, Wedding wedding) {
+        return payloadSigner.sign(guest, payloadExpiry(wedding));
+    }
+
+    private Instant payloadExpiry(Wedding wedding) {
+        if (wedding != null && wedding.getWeddingDate() != null) {
+            return wedding.getWeddingDate()
+                    .atTime(LocalTime.MAX)
+                    .atZone(ZoneId.systemDefault())
+                    .toInstant()
+                    .plus(validDaysAfterWedding, ChronoUnit.DAYS)
+                    .truncatedTo(ChronoUnit.SECONDS);
+        }
+        return Instant.now().plus(defaultTtlDays, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private String dashboardUrl(String uniqueCode, String coupleClerkId) {
+        // Create the URL that attendees will use to access their dashboard
+        // Use relative URL if frontendUrl is localhost (for development)
+        // In production, this should be your actual domain
+        String baseUrl = frontendUrl;
+        if (baseUrl.contains("localhost") || baseUrl.contains("127.0.0.1")) {
+            // For localhost, use relative URL so it works regardless of port
+            baseUrl = "";
+        }
+        return baseUrl + "/attendee/dashboard?code=" + uniqueCode + "&couple=" + coupleClerkId;
+    }
+
+    private String encode(String content) {
         try {
-            String baseUrl = frontendUrl;
-            if (baseUrl.contains("localhost") || baseUrl.contains("127.0.0.1")) {
-                baseUrl = "";
-            }
-            String url = baseUrl + "/attendee/dashboard?code=" + uniqueCode + "&couple=" + coupleClerkId;
-            
             QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrCodeWriter.encode(url, BarcodeFormat.QR_CODE, WIDTH, HEIGHT);
-            
+            BitMatrix bitMatrix = qrCodeWriter.encode(content, BarcodeFormat.QR_CODE, WIDTH, HEIGHT);
+
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             MatrixToImageWriter.writeToStream(bitMatrix, "PNG", outputStream);
-            
+
             byte[] qrCodeBytes = outputStream.toByteArray();
             return Base64.getEncoder().encodeToString(qrCodeBytes);
         } catch (WriterException | IOException e) {
@@ -73,4 +116,3 @@ public class QRCodeService {
         }
     }
 }
-
@@ -0,0 +1,234 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.SignedQRVerification;
+import com.elegantevents.model.Guest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.NamedParameterSpec;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signs and verifies the compact guest payload embedded in entry QR codes.
+ *
+ * Layout (version 2, base64url without padding):
+ * version(1) | guestId(varint) | weddingId(varint) | priority(1) | expiry epoch seconds(4)
+ * | seat length(1) | seat UTF-8 | Ed25519 signature(64).
+ *
+ * Each wedding gets its own Ed25519 key pair derived from the master secret. Protocol devices
+ * only ever receive the wedding's public key, which verifies payloads but cannot sign them.
+ */
+@Service
+public class QRPayloadSigner {
+
+    public static final int VERSION = 2;
+    public static final int SIGNATURE_LENGTH = 64;
+    public static final String ALGORITHM = "Ed25519";
+    private static final int MAX_SEAT_BYTES = 255;
+
+    private final boolean enabled;
+    private final byte[] masterSecret;
+    private final Map<Long, KeyPair> keyPairs = new ConcurrentHashMap<>();
+
+    public QRPayloadSigner(@Value("${app.qr.signed-payloads.enabled:false}") boolean enabled,
+                           @Value("${app.qr.signing-secret:}") String signingSecret) {
+        if (enabled && (signingSecret == null || signingSecret.isBlank())) {
+            throw new IllegalStateException("app.qr.signing-secret must be set when signed QR payloads are enabled");
+        }
+        this.enabled = enabled;
+        this.masterSecret = signingSecret == null ? new byte[0] : signingSecret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String sign(Guest guest, Instant expiresAt) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(48);
+        out.write(VERSION);
+        writeVarLong(out, guest.getId());
+        writeVarLong(out, guest.getWeddingId());
+        Guest.Priority priority = guest.getPriority() != null ? guest.getPriority() : Guest.Priority.STANDARD;
+        out.write(priority.ordinal());
+        out.writeBytes(ByteBuffer.allocate(4).putInt((int) expiresAt.getEpochSecond()).array());
+
+        byte[] seat = guest.getSeatNumber() != null ? guest.getSeatNumber().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int seatLength = Math.min(seat.length, MAX_SEAT_BYTES);
+        out.write(seatLength);
+        out.write(seat, 0, seatLength);
+
+        byte[] body = out.toByteArray();
+        out.writeBytes(signature(guest.getWeddingId(), body));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+    }
+
+    public SignedQRVerification verify(String payload) {
+        if (!enabled) {
+            return SignedQRVerification.invalid("Signed QR payloads are disabled");
+        }
+        byte[] raw;
+        try {
+            raw = Base64.getUrlDecoder().decode(payload.trim());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return SignedQRVerification.invalid("Malformed payload");
+        }
+        if (raw.length <= SIGNATURE_LENGTH + 1 || (raw[0] & 0xFF) != VERSION) {
+            return SignedQRVerification.invalid("Unsupported payload version");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(raw, 0, raw.length - SIGNATURE_LENGTH);
+        long guestId;
+        long weddingId;
+        Guest.Priority priority;
+        long expiry;
+        String seatNumber;
+        try {
+            buffer.get();
+            guestId = readVarLong(buffer);
+            weddingId = readVarLong(buffer);
+            int priorityOrdinal = buffer.get() & 0xFF;
+            if (priorityOrdinal >= Guest.Priority.values().length) {
+                return SignedQRVerification.invalid("Unknown priority");
+            }
+            priority = Guest.Priority.values()[priorityOrdinal];
+            expiry = buffer.getInt() & 0xFFFFFFFFL;
+            byte[] seat = new byte[buffer.get() & 0xFF];
+            buffer.get(seat);
+            seatNumber = seat.length > 0 ? new String(seat, StandardCharsets.UTF_8) : null;
+        } catch (RuntimeException e) {
+            return SignedQRVerification.invalid("Malformed payload");
+        }
+        if (buffer.hasRemaining()) {
+            return SignedQRVerification.invalid("Malformed payload");
+        }
+
+        byte[] body = Arrays.copyOfRange(raw, 0, raw.length - SIGNATURE_LENGTH);
+        byte[] presented = Arrays.copyOfRange(raw, raw.length - SIGNATURE_LENGTH, raw.length);
+        if (!verifySignature(weddingId, body, presented)) {
+            return SignedQRVerification.invalid("Signature mismatch");
+        }
+
+        SignedQRVerification result = new SignedQRVerification();
+        result.setGuestId(guestId);
+        result.setWeddingId(weddingId);
+        result.setPriority(priority);
+        result.setSeatNumber(seatNumber);
+        result.setExpiresAt(Instant.ofEpochSecond(expiry));
+        if (Instant.now().getEpochSecond() > expiry) {
+            result.setValid(false);
+            result.setReason("Payload expired");
+        } else {
+            result.setValid(true);
+        }
+        return result;
+    }
+
+    /**
+     * Public key handed to protocol devices so they can verify payloads for one wedding offline,
+     * X.509 SubjectPublicKeyInfo encoded. It cannot be used to sign.
+     */
+    public byte[] weddingPublicKey(long weddingId) {
+        return keyPair(weddingId).getPublic().getEncoded();
+    }
+
+    private byte[] signature(long weddingId, byte[] body) {
+        try {
+            Signature signature = Signature.getInstance(ALGORITHM);
+            signature.initSign(keyPair(weddingId).getPrivate());
+            signature.update(body);
+            return signature.sign();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign QR payload", e);
+        }
+    }
+
+    private boolean verifySignature(long weddingId, byte[] body, byte[] presented) {
+        try {
+            Signature signature = Signature.getInstance(ALGORITHM);
+            signature.initVerify(keyPair(weddingId).getPublic());
+            signature.update(body);
+            return signature.verify(presented);
+        } catch (SignatureException e) {
+            return false;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not verify QR payload", e);
+        }
+    }
+
+    private KeyPair keyPair(long weddingId) {
+        if (!enabled) {
+            throw new IllegalStateException("Signed QR payloads are disabled");
+        }
+        return keyPairs.computeIfAbsent(weddingId, id -> {
+            byte[] seed = hmac(masterSecret, ("wedding-scan-key:" + id).getBytes(StandardCharsets.UTF_8));
+            try {
+                // An Ed25519 private key is 32 random bytes; drawing them from the derived seed gives
+                // every node the same key pair without storing it
+                KeyPairGenerator generator = KeyPairGenerator.getInstance(ALGORITHM);
+                generator.initialize(NamedParameterSpec.ED25519, new SeededRandom(seed));
+                return generator.generateKeyPair();
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Ed25519 is not available", e);
+            }
+        });
+    }
+
+    private static byte[] hmac(byte[] key, byte[] data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    private static final class SeededRandom extends SecureRandom {
+
+        private final byte[] seed;
+
+        SeededRandom(byte[] seed) {
+            this.seed = seed;
+        }
+
+        @Override
+        public void nextBytes(byte[] bytes) {
+            System.arraycopy(seed, 0, bytes, 0, Math.min(seed.length, bytes.length));
+        }
+    }
+}
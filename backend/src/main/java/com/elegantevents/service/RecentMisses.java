@@ -0,0 +1,45 @@
+package com.elegantevents.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keys recently looked up in the database and not found, so that a flood of made-up codes or
+ * slugs is answered from memory. Holds at most {@code maxSize} keys, least recently used out
+ * first, and forgets each after {@code ttlMillis} so a row created elsewhere is found again.
+ */
+class RecentMisses<K> {
+
+    private final Map<K, Long> missedAt;
+    private final long ttlMillis;
+
+    RecentMisses(int maxSize, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.missedAt = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Long> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    synchronized boolean contains(K key) {
+        Long at = missedAt.get(key);
+        if (at == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - at > ttlMillis) {
+            missedAt.remove(key);
+            return false;
+        }
+        return true;
+    }
+
+    synchronized void add(K key) {
+        missedAt.put(key, System.currentTimeMillis());
+    }
+
+    synchronized void remove(K key) {
+        missedAt.remove(key);
+    }
+}
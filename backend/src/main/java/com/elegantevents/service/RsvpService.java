@@ -0,0 +1,222 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.RsvpResult;
+import com.elegantevents.model.Guest;
+import com.elegantevents.repository.GuestRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Takes guest RSVPs by unique code without touching the database on the request path. Codes
+ * are checked against an in-memory directory; a code missing from it is looked up once and
+ * remembered either way, misses for {@code app.rsvp.miss-ttl-ms}. The answer is held in a
+ * write-behind buffer keyed by guest, so a guest who changes their mind twice before a flush
+ * costs one row update. The buffer is written every {@code app.rsvp.flush-interval-ms} in one JDBC batch.
+ * Answers still in the buffer are lost if the process dies, a window of one flush interval.
+ */
+@Service
+public class RsvpService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RsvpService.class);
+
+    private static final String UPDATE_RSVP = "UPDATE guests SET rsvp_status = ?, updated_at = ? WHERE id = ?";
+
+    private final Map<Long, CodeEntry> directory = new ConcurrentHashMap<>();
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    // Codes found neither in the directory nor in the database
+    private final RecentMisses<Long> misses;
+    // Weddings with answers the stats counters have not seen; their counters are reloaded after the flush
+    private final Set<Long> unrecorded = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    private final GuestRepository guestRepository;
+    private final GuestStatsService guestStatsService;
+    private final WriteBehindWriter writer;
+    private final boolean rejectInvalidCodeChecksum;
+
+    public RsvpService(GuestRepository guestRepository,
+                       GuestStatsService guestStatsService,
+                       JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.guest-code.reject-invalid-checksum:false}") boolean rejectInvalidCodeChecksum,
+                       @Value("${app.guest-import.jdbc-batch-size:200}") int batchSize,
+                       @Value("${app.rsvp.miss-cache-size:10000}") int missCacheSize,
+                       @Value("${app.rsvp.miss-ttl-ms:60000}") long missTtlMillis) {
+        this.guestRepository = guestRepository;
+        this.guestStatsService = guestStatsService;
+        this.writer = new WriteBehindWriter(jdbcTemplate, transactionManager, batchSize);
+        this.rejectInvalidCodeChecksum = rejectInvalidCodeChecksum;
+        this.misses = new RecentMisses<>(missCacheSize, missTtlMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensureLoaded();
+    }
+
+    public RsvpResult respond(String uniqueCode, Guest.RSVPStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("RSVP status is required");
+        }
+        if (rejectInvalidCodeChecksum && !GuestCodeAllocator.hasValidChecksum(uniqueCode)) {
+            throw new RuntimeException("Guest not found");
+        }
+        ensureLoaded();
+        long packed = WeddingCheckInIndex.packCode(uniqueCode);
+        if (packed == 0) {
+            throw new RuntimeException("Guest not found");
+        }
+        CodeEntry entry = directory.get(packed);
+        if (entry == null) {
+            entry = lookUp(uniqueCode, packed);
+        }
+
+        Guest.RSVPStatus previous;
+        synchronized (entry) {
+            previous = entry.status;
+            entry.status = status;
+            // Replacing the guest's pending answer is what coalesces repeated changes
+            pending.put(entry.guestId, new Pending(entry.guestId, status));
+        }
+        if (previous != status && !guestStatsService.recordRsvpChange(entry.weddingId, previous, status, 1)) {
+            unrecorded.add(entry.weddingId);
+        }
+        return new RsvpResult(entry.guestId, entry.weddingId, status, previous);
+    }
+
+    /**
+     * Guest behind a code, from the in-memory directory only; null when the code is not in it.
+     * For hot paths that must not fall back to the database.
+     */
+    public GuestRef findGuest(String uniqueCode) {
+        ensureLoaded();
+        long packed = WeddingCheckInIndex.packCode(uniqueCode);
+        CodeEntry entry = packed != 0 ? directory.get(packed) : null;
+        return entry != null ? new GuestRef(entry.guestId, entry.weddingId) : null;
+    }
+
+    @TransactionalEventListener
+    public void onGuestsImported(GuestsImportedEvent event) {
+        for (Guest guest : event.getGuests()) {
+            register(guest.getUniqueCode(), guest.getId(), event.getWeddingId(), guest.getRsvpStatus());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rsvp.flush-interval-ms:250}")
+    public synchronized void flush() {
+        if (pending.isEmpty() && unrecorded.isEmpty()) {
+            return;
+        }
+        // Markers are taken before the answers, so every answer behind a taken marker is in this batch
+        Set<Long> weddings = new HashSet<>();
+        for (Long weddingId : new ArrayList<>(unrecorded)) {
+            if (unrecorded.remove(weddingId)) {
+                weddings.add(weddingId);
+            }
+        }
+        List<Pending> batch = new ArrayList<>(pending.size());
+        for (Long guestId : new ArrayList<>(pending.keySet())) {
+            Pending answer = pending.remove(guestId);
+            if (answer != null) {
+                batch.add(answer);
+            }
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        boolean written = writer.write(UPDATE_RSVP, batch, (ps, answer) -> {
+            ps.setString(1, answer.status().name());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, answer.guestId());
+        }, "RSVP(s)", answer -> {
+            // A newer answer that arrived meanwhile wins
+            pending.putIfAbsent(answer.guestId(), answer);
+        });
+        if (!written) {
+            unrecorded.addAll(weddings);
+            return;
+        }
+        for (Long weddingId : weddings) {
+            guestStatsService.invalidate(weddingId);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (directory) {
+            if (loaded) {
+                return;
+            }
+            List<Object[]> rows = guestRepository.findRsvpDirectoryRows();
+            for (Object[] row : rows) {
+                register((String) row[1], (Long) row[0], (Long) row[2], (Guest.RSVPStatus) row[3]);
+            }
+            loaded = true;
+            logger.info("Loaded RSVP code directory ({} guests)", rows.size());
+        }
+    }
+
+    // Guests added outside the import path since the directory was loaded
+    private CodeEntry lookUp(String uniqueCode, long packed) {
+        if (misses.contains(packed)) {
+            throw new RuntimeException("Guest not found");
+        }
+        Guest guest = guestRepository.findByUniqueCode(uniqueCode.toUpperCase(Locale.ROOT)).orElse(null);
+        if (guest == null) {
+            misses.add(packed);
+            throw new RuntimeException("Guest not found");
+        }
+        register(guest.getUniqueCode(), guest.getId(), guest.getWeddingId(), guest.getRsvpStatus());
+        return directory.get(packed);
+    }
+
+    private void register(String uniqueCode, Long guestId, Long weddingId, Guest.RSVPStatus status) {
+        long packed = WeddingCheckInIndex.packCode(uniqueCode);
+        if (packed != 0 && guestId != null) {
+            // An entry already present may hold a newer answer than the database
+            directory.putIfAbsent(packed, new CodeEntry(guestId, weddingId, status != null ? status : Guest.RSVPStatus.PENDING));
+        }
+    }
+
+    public record GuestRef(long guestId, long weddingId) {
+    }
+
+    private static final class CodeEntry {
+        final long guestId;
+        final long weddingId;
+        Guest.RSVPStatus status; // Guarded by the entry
+
+        CodeEntry(long guestId, long weddingId, Guest.RSVPStatus status) {
+            this.guestId = guestId;
+            this.weddingId = weddingId;
+            this.status = status;
+        }
+    }
+
+    private record Pending(long guestId, Guest.RSVPStatus status) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.SeatingPlanRequest;
+import com.elegantevents.dto.SeatingPlanResponse;
+import com.elegantevents.model.Guest;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plans a wedding's seating with {@link SeatingSolver} and, when asked, writes the seats that
+ * changed back in one JDBC batch. Seat numbers are stored as "&lt;table label&gt;-&lt;seat&gt;".
+ */
+@Service
+public class SeatingService {
+
+    private static final String UPDATE_SEAT = "UPDATE guests SET seat_number = ?, updated_at = ? WHERE id = ? AND wedding_id = ?";
+
+    private final GuestRepository guestRepository;
+    private final WeddingRepository weddingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CheckInIndexService checkInIndexService;
+    private final GuestSearchService guestSearchService;
+    private final long budgetMillis;
+    private final int batchSize;
+
+    public SeatingService(GuestRepository guestRepository,
+                          WeddingRepository weddingRepository,
+                          JdbcTemplate jdbcTemplate,
+                          CheckInIndexService checkInIndexService,
+                          GuestSearchService guestSearchService,
+                          @Value("${app.seating.budget-ms:300}") long budgetMillis,
+                          @Value("${app.guest-import.jdbc-batch-size:200}") int batchSize) {
+        this.guestRepository = guestRepository;
+        this.weddingRepository = weddingRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.checkInIndexService = checkInIndexService;
+        this.guestSearchService = guestSearchService;
+        this.budgetMillis = budgetMillis;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public SeatingPlanResponse plan(Long weddingId, SeatingPlanRequest request) {
+        long started = System.currentTimeMillis();
+        if (!weddingRepository.existsById(weddingId)) {
+            throw new RuntimeException("Wedding not found");
+        }
+        if (request.getTables() == null || request.getTables().isEmpty()) {
+            throw new IllegalArgumentException("At least one table is required");
+        }
+
+        List<SeatingSolver.Table> tables = new ArrayList<>();
+        for (SeatingPlanRequest.TableLayout layout : request.getTables()) {
+            tables.add(new SeatingSolver.Table(layout.getLabel(), layout.getCapacity(), layout.getZoneRank()));
+        }
+        SeatingSolver solver = new SeatingSolver(tables, budgetMillis);
+
+        List<SeatingSolver.GuestSeat> guests = new ArrayList<>();
+        Map<Long, String> stored = new LinkedHashMap<>();
+        for (Object[] row : guestRepository.findCheckInRowsByWeddingId(weddingId)) {
+            Long guestId = (Long) row[0];
+            guests.add(new SeatingSolver.GuestSeat(guestId, (Guest.Priority) row[5], (String) row[4]));
+            stored.put(guestId, (String) row[4]);
+        }
+        Set<Long> changed = request.getChangedGuestIds() != null ? new HashSet<>(request.getChangedGuestIds()) : Set.of();
+
+        SeatingSolver.Plan plan = solver.solve(guests, request.getParties(), request.getKeepApart(), changed);
+
+        Map<Long, String> moved = new LinkedHashMap<>();
+        for (Map.Entry<Long, String> entry : stored.entrySet()) {
+            String seat = plan.seats().get(entry.getKey());
+            // Guests the tables had no room for keep their seat and are only reported as unassigned
+            if (seat != null && !seat.equals(entry.getValue())) {
+                moved.put(entry.getKey(), seat);
+            }
+        }
+        if (request.isApply() && !moved.isEmpty()) {
+            writeSeats(weddingId, moved);
+        }
+
+        return new SeatingPlanResponse(weddingId, plan.seats().size(), moved.size(), plan.unassigned(),
+                plan.keepApartViolations(), request.isApply(), System.currentTimeMillis() - started, plan.seats());
+    }
+
+    private void writeSeats(Long weddingId, Map<Long, String> seats) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_SEAT, new ArrayList<>(seats.entrySet()), batchSize, (ps, entry) -> {
+            ps.setString(1, entry.getValue());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, entry.getKey());
+            ps.setLong(4, weddingId);
+        });
+        checkInIndexService.updateSeats(weddingId, seats);
+        guestSearchService.invalidate(weddingId);
+    }
+}
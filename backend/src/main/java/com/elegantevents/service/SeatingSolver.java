@@ -0,0 +1,421 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.Guest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Heuristic seat planner. Parties are merged into units that share a table; units are placed
+ * greedily by priority into the most prominent zone with room and no keep-apart conflict, then
+ * a local search moves or swaps units while that lowers the cost (conflicts first, then
+ * priority-weighted zone rank). In incremental mode only the changed guests' units move;
+ * everyone else keeps their stored seat. Not thread-safe; create one per plan.
+ */
+public class SeatingSolver {
+
+    private static final long CONFLICT_PENALTY = 1_000_000L;
+    private static final int MAX_PASSES = 25;
+
+    public record Table(String label, int capacity, int zoneRank) {
+    }
+
+    public record GuestSeat(long guestId, Guest.Priority priority, String currentSeat) {
+    }
+
+    public record Plan(Map<Long, String> seats, List<Long> unassigned, int keepApartViolations) {
+    }
+
+    private final List<Table> tables;
+    private final Map<String, Integer> tableByLabel = new HashMap<>();
+    private final long budgetNanos;
+
+    private int[] load;
+    private Unit[] unitOf;
+    private Map<Integer, List<Integer>> apart; // Guest index to the guests it must not sit with
+
+    public SeatingSolver(Collection<Table> layout, long budgetMillis) {
+        List<Table> sorted = new ArrayList<>(layout);
+        sorted.sort(Comparator.comparingInt(Table::zoneRank).thenComparing(Table::label));
+        for (int t = 0; t < sorted.size(); t++) {
+            Table table = sorted.get(t);
+            if (table.label() == null || table.label().isBlank() || table.capacity() <= 0) {
+                throw new IllegalArgumentException("Every table needs a label and a positive capacity");
+            }
+            if (tableByLabel.put(table.label(), t) != null) {
+                throw new IllegalArgumentException("Duplicate table label: " + table.label());
+            }
+        }
+        this.tables = sorted;
+        this.budgetNanos = budgetMillis * 1_000_000L;
+    }
+
+    /**
+     * @param changed guests to re-seat; null or empty plans everyone from scratch
+     */
+    public Plan solve(List<GuestSeat> guests, List<List<Long>> parties, List<List<Long>> keepApart, Set<Long> changed) {
+        long deadline = System.nanoTime() + budgetNanos;
+        int n = guests.size();
+        Map<Long, Integer> indexById = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexById.put(guests.get(i).guestId(), i);
+        }
+        int[] currentTable = new int[n];
+        int[] currentSeat = new int[n];
+        for (int i = 0; i < n; i++) {
+            parseSeat(guests.get(i).currentSeat(), i, currentTable, currentSeat);
+        }
+
+        apart = new HashMap<>();
+        if (keepApart != null) {
+            for (List<Long> group : keepApart) {
+                List<Integer> members = resolve(group, indexById);
+                for (int a : members) {
+                    for (int b : members) {
+                        if (a != b) {
+                            apart.computeIfAbsent(a, k -> new ArrayList<>(2)).add(b);
+                        }
+                    }
+                }
+            }
+        }
+
+        boolean incremental = changed != null && !changed.isEmpty();
+        load = new int[tables.size()];
+        unitOf = new Unit[n];
+        List<Unit> units = buildUnits(guests, parties, indexById);
+
+        // Units nobody asked to move stay where they are, as long as the table still exists and has room
+        List<Unit> free = new ArrayList<>();
+        for (Unit unit : units) {
+            int table = incremental ? commonTable(unit, currentTable) : -1;
+            boolean untouched = incremental
+                    && unit.members.stream().noneMatch(m -> changed.contains(guests.get(m).guestId()));
+            if (table >= 0 && untouched && load[table] + unit.size() <= tables.get(table).capacity()) {
+                place(unit, table);
+            } else {
+                free.add(unit);
+            }
+        }
+
+        free.sort(Comparator.comparingInt((Unit u) -> -u.rank).thenComparingInt(u -> -u.size())
+                .thenComparingInt(u -> u.members.get(0)));
+        List<Unit> unplaced = new ArrayList<>();
+        for (Unit unit : free) {
+            int table = bestTable(unit);
+            if (table >= 0) {
+                place(unit, table);
+            } else {
+                unplaced.add(unit);
+            }
+        }
+
+        improve(free, deadline);
+
+        // A party that fits nowhere as a whole is split rather than left standing
+        List<Long> unassigned = new ArrayList<>();
+        for (Unit unit : unplaced) {
+            for (int member : unit.members) {
+                Unit single = new Unit(List.of(member), weight(guests.get(member).priority()));
+                unitOf[member] = single;
+                int table = bestTable(single);
+                if (table >= 0) {
+                    place(single, table);
+                } else {
+                    unassigned.add(guests.get(member).guestId());
+                }
+            }
+        }
+
+        return new Plan(numberSeats(guests, units, currentTable, currentSeat), unassigned, countViolations());
+    }
+
+    private List<Unit> buildUnits(List<GuestSeat> guests, List<List<Long>> parties, Map<Long, Integer> indexById) {
+        int n = guests.size();
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+        if (parties != null) {
+            for (List<Long> party : parties) {
+                List<Integer> members = resolve(party, indexById);
+                for (int i = 1; i < members.size(); i++) {
+                    parent[find(parent, members.get(i))] = find(parent, members.get(0));
+                }
+            }
+        }
+        Map<Integer, List<Integer>> components = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            components.computeIfAbsent(find(parent, i), r -> new ArrayList<>()).add(i);
+        }
+
+        int largestTable = tables.stream().mapToInt(Table::capacity).max().orElse(0);
+        List<Unit> units = new ArrayList<>();
+        for (List<Integer> component : components.values()) {
+            // Parties larger than any table are seated in table-sized blocks
+            for (int start = 0; start < component.size(); start += Math.max(1, largestTable)) {
+                List<Integer> members = component.subList(start, Math.min(start + Math.max(1, largestTable), component.size()));
+                int rank = 0;
+                for (int member : members) {
+                    rank = Math.max(rank, weight(guests.get(member).priority()));
+                }
+                Unit unit = new Unit(new ArrayList<>(members), rank);
+                for (int member : members) {
+                    unitOf[member] = unit;
+                }
+                units.add(unit);
+            }
+        }
+        return units;
+    }
+
+    private void improve(List<Unit> movable, long deadline) {
+        for (int pass = 0; pass < MAX_PASSES && System.nanoTime() < deadline; pass++) {
+            boolean improved = false;
+            for (Unit unit : movable) {
+                if (unit.table < 0) {
+                    continue;
+                }
+                long current = cost(unit, unit.table);
+                int bestTable = -1;
+                Unit bestSwap = null;
+                long bestDelta = 0;
+                for (int t = 0; t < tables.size(); t++) {
+                    if (t != unit.table && load[t] + unit.size() <= tables.get(t).capacity()) {
+                        long delta = cost(unit, t) - current;
+                        if (delta < bestDelta) {
+                            bestDelta = delta;
+                            bestTable = t;
+                        }
+                    }
+                }
+                // Swaps are only searched to resolve conflicts; they are quadratic in the worst case
+                if (current >= CONFLICT_PENALTY) {
+                    for (Unit other : movable) {
+                        if (other.table < 0 || other.table == unit.table || other.size() != unit.size()) {
+                            continue;
+                        }
+                        long delta = swapDelta(unit, other);
+                        if (delta < bestDelta) {
+                            bestDelta = delta;
+                            bestSwap = other;
+                            bestTable = -1;
+                        }
+                    }
+                }
+                if (bestSwap != null) {
+                    int table = unit.table;
+                    move(unit, bestSwap.table);
+                    move(bestSwap, table);
+                    improved = true;
+                } else if (bestTable >= 0) {
+                    move(unit, bestTable);
+                    improved = true;
+                }
+            }
+            if (!improved) {
+                return;
+            }
+        }
+    }
+
+    private long swapDelta(Unit a, Unit b) {
+        int tableA = a.table;
+        int tableB = b.table;
+        long before = cost(a, tableA) + cost(b, tableB);
+        a.table = tableB;
+        b.table = tableA;
+        long after = cost(a, tableB) + cost(b, tableA);
+        a.table = tableA;
+        b.table = tableB;
+        return after - before;
+    }
+
+    private int bestTable(Unit unit) {
+        int best = -1;
+        long bestCost = Long.MAX_VALUE;
+        for (int t = 0; t < tables.size(); t++) {
+            if (load[t] + unit.size() <= tables.get(t).capacity()) {
+                long cost = cost(unit, t);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = t;
+                }
+            }
+        }
+        return best;
+    }
+
+    private long cost(Unit unit, int table) {
+        int conflicts = 0;
+        for (int member : unit.members) {
+            List<Integer> others = apart.get(member);
+            if (others != null) {
+                for (int other : others) {
+                    Unit otherUnit = unitOf[other];
+                    if (otherUnit != unit && otherUnit.table == table) {
+                        conflicts++;
+                    }
+                }
+            }
+        }
+        return conflicts * CONFLICT_PENALTY + (long) unit.rank * unit.size() * tables.get(table).zoneRank();
+    }
+
+    private void place(Unit unit, int table) {
+        unit.table = table;
+        load[table] += unit.size();
+    }
+
+    private void move(Unit unit, int table) {
+        load[unit.table] -= unit.size();
+        place(unit, table);
+    }
+
+    private int countViolations() {
+        int violations = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : apart.entrySet()) {
+            int a = entry.getKey();
+            if (unitOf[a].table < 0) {
+                continue;
+            }
+            for (int b : entry.getValue()) {
+                if (a < b && unitOf[b].table == unitOf[a].table) {
+                    violations++;
+                }
+            }
+        }
+        return violations;
+    }
+
+    /**
+     * Guests who end up at their stored table keep their seat number; the rest take the lowest free numbers,
+     * party by party, so a party sits side by side.
+     */
+    private Map<Long, String> numberSeats(List<GuestSeat> guests, List<Unit> units, int[] currentTable, int[] currentSeat) {
+        int n = guests.size();
+        boolean[][] taken = new boolean[tables.size()][];
+        for (int t = 0; t < tables.size(); t++) {
+            taken[t] = new boolean[tables.get(t).capacity() + 1];
+        }
+        int[] seat = new int[n];
+        for (int i = 0; i < n; i++) {
+            int table = unitOf[i].table;
+            if (table >= 0 && table == currentTable[i] && currentSeat[i] > 0
+                    && currentSeat[i] < taken[table].length && !taken[table][currentSeat[i]]) {
+                taken[table][currentSeat[i]] = true;
+                seat[i] = currentSeat[i];
+            }
+        }
+        Set<Unit> ordered = new java.util.LinkedHashSet<>(units);
+        for (int i = 0; i < n; i++) {
+            ordered.add(unitOf[i]); // Units created by splitting oversized parties
+        }
+        int[] nextFree = new int[tables.size()];
+        Arrays.fill(nextFree, 1);
+        Map<Long, String> seats = new LinkedHashMap<>(n * 2);
+        for (Unit unit : ordered) {
+            if (unit.table < 0) {
+                continue;
+            }
+            for (int member : unit.members) {
+                if (unitOf[member] != unit) {
+                    continue;
+                }
+                int table = unit.table;
+                if (seat[member] == 0) {
+                    while (taken[table][nextFree[table]]) {
+                        nextFree[table]++;
+                    }
+                    seat[member] = nextFree[table];
+                    taken[table][seat[member]] = true;
+                }
+                seats.put(guests.get(member).guestId(), tables.get(table).label() + "-" + seat[member]);
+            }
+        }
+        return seats;
+    }
+
+    private void parseSeat(String seat, int guest, int[] currentTable, int[] currentSeat) {
+        currentTable[guest] = -1;
+        if (seat == null) {
+            return;
+        }
+        int dash = seat.lastIndexOf('-');
+        if (dash <= 0 || dash == seat.length() - 1) {
+            return;
+        }
+        Integer table = tableByLabel.get(seat.substring(0, dash));
+        if (table == null) {
+            return;
+        }
+        try {
+            currentSeat[guest] = Integer.parseInt(seat.substring(dash + 1));
+            currentTable[guest] = table;
+        } catch (NumberFormatException e) {
+            // Free-form seat text from before the planner; treated as unseated
+        }
+    }
+
+    private int commonTable(Unit unit, int[] currentTable) {
+        int table = currentTable[unit.members.get(0)];
+        for (int member : unit.members) {
+            if (currentTable[member] != table) {
+                return -1;
+            }
+        }
+        return table;
+    }
+
+    private static List<Integer> resolve(List<Long> ids, Map<Long, Integer> indexById) {
+        List<Integer> members = new ArrayList<>();
+        if (ids != null) {
+            Set<Integer> seen = new HashSet<>();
+            for (Long id : ids) {
+                Integer index = id != null ? indexById.get(id) : null;
+                if (index != null && seen.add(index)) {
+                    members.add(index);
+                }
+            }
+        }
+        return members;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static int weight(Guest.Priority priority) {
+        if (priority == Guest.Priority.VVIP) {
+            return 16;
+        }
+        return priority == Guest.Priority.VIP ? 4 : 1;
+    }
+
+    private static final class Unit {
+        final List<Integer> members;
+        final int rank;
+        int table = -1;
+
+        Unit(List<Integer> members, int rank) {
+            this.members = members;
+            this.rank = rank;
+        }
+
+        int size() {
+            return members.size();
+        }
+    }
+}
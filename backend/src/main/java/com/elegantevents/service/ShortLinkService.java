@@ -0,0 +1,280 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.Guest;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.repository.ShortLinkRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short invitation links: {@code {app.backend.url}/s/{slug}} with a random 7-character base62
+ * slug, instead of the full dashboard URL with the couple's clerk id. Shorter SMS, and a QR
+ * code a couple of versions smaller.
+ *
+ * Every link is kept in memory with its redirect target already built, so resolving one is a
+ * map lookup; a slug not in the map (issued on another node, or since startup) is looked up
+ * once, then remembered, and so is a well-formed slug that does not exist, for
+ * {@code app.short-links.miss-ttl-ms}. Hits are counted in memory and added to the table in one batch every
+ * {@code app.short-links.flush-interval-ms}, like invitation engagement. Slugs are checked
+ * against the map when generated; the primary key catches the rare clash with a slug issued
+ * elsewhere and not yet seen here.
+ */
+@Service
+public class ShortLinkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShortLinkService.class);
+
+    static final int SLUG_LENGTH = 7;
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private static final String INSERT_LINK = "INSERT INTO short_links (slug, guest_id, wedding_id, unique_code, " +
+            "target, hits, created_at) VALUES (?, ?, ?, ?, ?, 0, ?)";
+    private static final String ADD_HITS = "UPDATE short_links SET hits = hits + ?, last_hit_at = ? " +
+            "WHERE slug = ?";
+
+    private final Map<String, Link> links = new ConcurrentHashMap<>();
+    private final RecentMisses<String> misses;
+    private final SecureRandom random = new SecureRandom();
+
+    private final ShortLinkRepository shortLinkRepository;
+    private final EngagementService engagementService;
+    private final JdbcTemplate jdbcTemplate;
+    private final WriteBehindWriter writer;
+    private final String frontendUrl;
+    private final String backendUrl;
+    private final int batchSize;
+    private volatile boolean loaded;
+
+    public ShortLinkService(ShortLinkRepository shortLinkRepository,
+                            EngagementService engagementService,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.frontend.url:http://localhost:5173}") String frontendUrl,
+                            @Value("${app.backend.url:http://localhost:8080}") String backendUrl,
+                            @Value("${app.guest-import.jdbc-batch-size:200}") int batchSize,
+                            @Value("${app.short-links.miss-cache-size:10000}") int missCacheSize,
+                            @Value("${app.short-links.miss-ttl-ms:60000}") long missTtlMillis) {
+        this.shortLinkRepository = shortLinkRepository;
+        this.engagementService = engagementService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writer = new WriteBehindWriter(jdbcTemplate, transactionManager, batchSize);
+        this.misses = new RecentMisses<>(missCacheSize, missTtlMillis);
+        this.frontendUrl = frontendUrl;
+        this.backendUrl = backendUrl;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensureLoaded();
+    }
+
+    public String shortUrl(String slug) {
+        return backendUrl + "/s/" + slug;
+    }
+
+    /**
+     * Fresh slugs for guests that are about to be inserted, so their QR codes can be drawn first.
+     * Persist them with {@link #save}.
+     */
+    public List<String> newSlugs(int count) {
+        ensureLoaded();
+        Set<String> issued = new HashSet<>(count * 2);
+        List<String> slugs = new ArrayList<>(count);
+        char[] slug = new char[SLUG_LENGTH];
+        while (slugs.size() < count) {
+            for (int i = 0; i < SLUG_LENGTH; i++) {
+                slug[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            String candidate = new String(slug);
+            if (!links.containsKey(candidate) && issued.add(candidate)) {
+                slugs.add(candidate);
+            }
+        }
+        return slugs;
+    }
+
+    /**
+     * Inserts the guests' links in the caller's transaction; slugs pair up with guests by position.
+     *
+     * @return short URL by guest id
+     */
+    public Map<Long, String> save(Wedding wedding, List<Guest> guests, List<String> slugs) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Integer> positions = new ArrayList<>(guests.size());
+        for (int i = 0; i < guests.size(); i++) {
+            positions.add(i);
+        }
+        jdbcTemplate.batchUpdate(INSERT_LINK, positions, batchSize, (ps, i) -> {
+            Guest guest = guests.get(i);
+            ps.setString(1, slugs.get(i));
+            ps.setLong(2, guest.getId());
+            ps.setLong(3, wedding.getId());
+            ps.setString(4, guest.getUniqueCode());
+            ps.setString(5, target(guest.getUniqueCode(), wedding.getClerkId()));
+            ps.setTimestamp(6, now);
+        });
+        Map<Long, String> urls = new HashMap<>();
+        for (int i = 0; i < guests.size(); i++) {
+            urls.put(guests.get(i).getId(), shortUrl(slugs.get(i)));
+            misses.remove(slugs.get(i));
+        }
+        return urls;
+    }
+
+    /**
+     * Short URLs for saved guests, reusing each guest's existing link and creating the missing
+     * ones in the caller's transaction.
+     *
+     * @return short URL by guest id
+     */
+    public Map<Long, String> issue(Wedding wedding, List<Guest> guests) {
+        Map<Long, String> urls = new HashMap<>();
+        if (guests.isEmpty()) {
+            return urls;
+        }
+        List<Long> guestIds = new ArrayList<>(guests.size());
+        for (Guest guest : guests) {
+            guestIds.add(guest.getId());
+        }
+        for (int start = 0; start < guestIds.size(); start += batchSize) {
+            for (Object[] row : shortLinkRepository.findSlugsByGuestIds(
+                    guestIds.subList(start, Math.min(start + batchSize, guestIds.size())))) {
+                urls.put((Long) row[0], shortUrl((String) row[1]));
+            }
+        }
+        List<Guest> missing = new ArrayList<>();
+        for (Guest guest : guests) {
+            if (!urls.containsKey(guest.getId())) {
+                missing.add(guest);
+            }
+        }
+        if (!missing.isEmpty()) {
+            urls.putAll(save(wedding, missing, newSlugs(missing.size())));
+        }
+        return urls;
+    }
+
+    /**
+     * Counts a hit and returns the absolute URL to redirect to, or null for an unknown slug.
+     * A hit also counts as a click on the guest's invitation.
+     */
+    public String resolve(String slug) {
+        if (!isWellFormed(slug)) {
+            return null;
+        }
+        ensureLoaded();
+        Link link = links.get(slug);
+        if (link == null) {
+            if (misses.contains(slug)) {
+                return null;
+            }
+            link = shortLinkRepository.findById(slug)
+                    .map(found -> links.computeIfAbsent(found.getSlug(),
+                            s -> new Link(frontendUrl + found.getTarget(), found.getUniqueCode())))
+                    .orElse(null);
+            if (link == null) {
+                misses.add(slug);
+                return null;
+            }
+        }
+        link.hits.increment();
+        link.lastHitAt = System.currentTimeMillis();
+        engagementService.recordClick(link.uniqueCode);
+        return link.location;
+    }
+
+    @Scheduled(fixedDelayString = "${app.short-links.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        List<Delta> batch = new ArrayList<>();
+        for (Map.Entry<String, Link> entry : links.entrySet()) {
+            long hits = entry.getValue().hits.sumThenReset();
+            if (hits > 0) {
+                batch.add(new Delta(entry.getKey(), entry.getValue(), hits));
+            }
+        }
+        writer.write(ADD_HITS, batch, (ps, delta) -> {
+            Timestamp lastHitAt = Timestamp.valueOf(LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(delta.link().lastHitAt), ZoneId.systemDefault()));
+            ps.setLong(1, delta.hits());
+            ps.setTimestamp(2, lastHitAt);
+            ps.setString(3, delta.slug());
+        }, "short link hit count(s)", delta -> delta.link().hits.add(delta.hits()));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (links) {
+            if (loaded) {
+                return;
+            }
+            List<Object[]> rows = shortLinkRepository.findDirectoryRows();
+            for (Object[] row : rows) {
+                links.putIfAbsent((String) row[0], new Link(frontendUrl + row[1], (String) row[2]));
+            }
+            loaded = true;
+            logger.info("Loaded {} short link(s)", rows.size());
+        }
+    }
+
+    private static String target(String uniqueCode, String coupleClerkId) {
+        return "/attendee/dashboard?code=" + uniqueCode + "&couple=" + coupleClerkId;
+    }
+
+    // Anything else cannot be a slug, so it is turned away without a database lookup
+    private static boolean isWellFormed(String slug) {
+        if (slug == null || slug.length() != SLUG_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < slug.length(); i++) {
+            if (ALPHABET.indexOf(slug.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Link {
+        final String location;
+        final String uniqueCode;
+        final LongAdder hits = new LongAdder();
+        volatile long lastHitAt;
+
+        Link(String location, String uniqueCode) {
+            this.location = location;
+            this.uniqueCode = uniqueCode;
+        }
+    }
+
+    private record Delta(String slug, Link link, long hits) {
+    }
+}
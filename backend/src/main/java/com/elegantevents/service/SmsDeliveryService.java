@@ -0,0 +1,74 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.NotificationDelivery;
+import com.elegantevents.dto.SmsDeliveryReport;
+import com.elegantevents.repository.NotificationOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies SMS delivery reports to the outbox rows they belong to, matched by the provider's
+ * message id, and reads back per-guest delivery status.
+ */
+@Service
+public class SmsDeliveryService {
+
+    private static final String APPLY_REPORT = "UPDATE notification_outbox SET delivery_status = ?, delivered_at = ?, " +
+            "last_error = COALESCE(?, last_error), updated_at = ? WHERE provider_message_id = ? AND channel = 'SMS'";
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public SmsDeliveryService(NotificationOutboxRepository outboxRepository,
+                              JdbcTemplate jdbcTemplate,
+                              @Value("${app.outbox.batch-size:100}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return number of outbox rows updated; reports for unknown message ids are ignored
+     */
+    @Transactional
+    public int applyReports(List<SmsDeliveryReport> reports) {
+        List<SmsDeliveryReport> valid = new ArrayList<>(reports.size());
+        for (SmsDeliveryReport report : reports) {
+            if (report.getMessageId() != null && !report.getMessageId().isEmpty() && report.getStatus() != null) {
+                valid.add(report);
+            }
+        }
+        if (valid.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int updated = 0;
+        for (int[] batch : jdbcTemplate.batchUpdate(APPLY_REPORT, valid, batchSize, (ps, report) -> {
+            ps.setString(1, report.getStatus().name());
+            ps.setTimestamp(2, report.getDeliveredAt() != null ? Timestamp.valueOf(report.getDeliveredAt()) : now);
+            String error = report.getError();
+            ps.setString(3, error != null && error.length() > 500 ? error.substring(0, 500) : error);
+            ps.setTimestamp(4, now);
+            ps.setString(5, report.getMessageId());
+        })) {
+            for (int count : batch) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+                updated += Math.max(count, 0);
+            }
+        }
+        return updated;
+    }
+
+    @Transactional(readOnly = true)
+    public List<NotificationDelivery> getDeliveriesForGuest(Long guestId) {
+        return outboxRepository.findDeliveriesByGuestId(guestId);
+    }
+}
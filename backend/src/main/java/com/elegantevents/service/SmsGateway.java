@@ -0,0 +1,36 @@
+package com.elegantevents.service;
+
+import java.util.List;
+
+/**
+ * An SMS provider. Implementations send a whole batch in one call where the provider allows
+ * it and report each message separately, since a provider may accept some numbers of a
+ * batch and reject others. Throwing means nothing in the batch was accepted.
+ */
+public interface SmsGateway {
+
+    /**
+     * @return one result per message, in any order, matched by {@link SmsMessage#reference()}
+     */
+    List<SmsResult> sendBatch(List<SmsMessage> messages);
+
+    /**
+     * @param reference our id for the message, echoed back in its result
+     */
+    record SmsMessage(String reference, String to, String text) {
+    }
+
+    /**
+     * @param providerMessageId the provider's id, used to match later delivery reports
+     */
+    record SmsResult(String reference, boolean accepted, String providerMessageId, String error) {
+
+        static SmsResult accepted(String reference, String providerMessageId) {
+            return new SmsResult(reference, true, providerMessageId, null);
+        }
+
+        static SmsResult rejected(String reference, String error) {
+            return new SmsResult(reference, false, null, error);
+        }
+    }
+}
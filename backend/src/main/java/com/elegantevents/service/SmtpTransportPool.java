@@ -0,0 +1,176 @@
+package com.elegantevents.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps authenticated SMTP sessions open between sends, so a campaign pays the connect,
+ * STARTTLS and AUTH round trips once per connection instead of once per email. At most
+ * {@code app.mail.pool.size} sessions exist at a time; each is retired after
+ * {@code max-messages-per-connection} messages or {@code max-idle-ms} without use, since
+ * relays cap both. A send that fails on a reused session for any reason other than a
+ * rejected recipient is retried once on a fresh connection, which covers sessions the
+ * server closed while they sat idle.
+ */
+@Component
+public class SmtpTransportPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final int maxMessagesPerConnection;
+    private final long maxIdleMillis;
+    private final long borrowTimeoutMillis;
+    private volatile boolean closed;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${app.mail.pool.size:4}") int size,
+                             @Value("${app.mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                             @Value("${app.mail.pool.max-idle-ms:30000}") long maxIdleMillis,
+                             @Value("${app.mail.pool.borrow-timeout-ms:30000}") long borrowTimeoutMillis) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(size, true);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.maxIdleMillis = maxIdleMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+
+        acquirePermit();
+        try {
+            PooledTransport pooled = borrow();
+            try {
+                pooled.send(message);
+            } catch (MessagingException e) {
+                if (e instanceof SendFailedException && pooled.transport.isConnected()) {
+                    // The server refused a recipient or the message; the session itself is still usable
+                    release(pooled);
+                    throw e;
+                }
+                discard(pooled);
+                if (!pooled.reused) {
+                    throw e;
+                }
+                logger.debug("Pooled SMTP session failed ({}), retrying on a new connection", e.getMessage());
+                pooled = connect();
+                try {
+                    pooled.send(message);
+                } catch (MessagingException retryFailure) {
+                    discard(pooled);
+                    throw retryFailure;
+                }
+            }
+            release(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    int idleCount() {
+        return idle.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private void acquirePermit() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for an SMTP connection", e);
+        }
+    }
+
+    /**
+     * Most recently used session first, so surplus sessions age out instead of all staying warm.
+     */
+    private PooledTransport borrow() throws MessagingException {
+        long now = System.currentTimeMillis();
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (now - pooled.lastUsed <= maxIdleMillis) {
+                pooled.reused = true;
+                return pooled;
+            }
+            discard(pooled);
+        }
+        return connect();
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Transport transport = mailSender.getSession().getTransport(
+                mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if (username == null || username.isEmpty()) {
+            // No credentials configured: connect without AUTH
+            username = null;
+            password = null;
+        }
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        return new PooledTransport(transport);
+    }
+
+    private void release(PooledTransport pooled) {
+        if (closed || pooled.sent >= maxMessagesPerConnection) {
+            discard(pooled);
+        } else {
+            pooled.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        }
+    }
+
+    private static void discard(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            // Already broken; nothing left to release
+        }
+    }
+
+    private static final class PooledTransport {
+        final Transport transport;
+        int sent;
+        long lastUsed = System.currentTimeMillis();
+        boolean reused;
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        void send(MimeMessage message) throws MessagingException {
+            transport.sendMessage(message, message.getAllRecipients());
+            sent++;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.elegantevents.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Pull-style reader over the rows of an uploaded sheet; one row is in memory at a time.
+ */
+public interface SpreadsheetRowReader extends Closeable {
+
+    /**
+     * @return the next row's cell values, or {@code null} at end of input
+     */
+    List<String> next() throws IOException;
+}
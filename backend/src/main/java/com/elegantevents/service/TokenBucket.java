@@ -0,0 +1,44 @@
+package com.elegantevents.service;
+
+/**
+ * Rate limit for one delivery provider: refills at {@code ratePerSecond} up to {@code burst}
+ * tokens. A rate of zero or less means unlimited.
+ */
+final class TokenBucket {
+
+    private final double ratePerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double ratePerSecond, double burst) {
+        this.ratePerNano = ratePerSecond / 1_000_000_000.0;
+        this.burst = Math.max(burst, 1);
+        this.tokens = this.burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * @return how many of the wanted tokens were granted, possibly zero
+     */
+    synchronized int take(int wanted) {
+        if (ratePerNano <= 0) {
+            return wanted;
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * ratePerNano);
+        refilledAt = now;
+        int granted = (int) Math.min(wanted, Math.floor(tokens));
+        tokens -= granted;
+        return granted;
+    }
+
+    /**
+     * Returns tokens taken but not used, e.g. when fewer rows were due than were granted.
+     */
+    synchronized void giveBack(int unused) {
+        if (ratePerNano > 0 && unused > 0) {
+            tokens = Math.min(burst, tokens + unused);
+        }
+    }
+}
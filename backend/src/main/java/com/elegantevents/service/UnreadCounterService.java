@@ -0,0 +1,87 @@
+package com.elegantevents.service;
+
+import com.elegantevents.repository.ConversationSummaryRepository;
+import com.elegantevents.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Total unread direct messages per user, for badges. A user's count is summed from their
+ * conversation summaries the first time it is asked for, then moved by committed sends and
+ * reads, so badge requests stay off the database. Counts are reloaded after
+ * {@code app.messages.unread.refresh-ms}, which also heals a count that a send racing the
+ * first load moved twice. Clerk ids with no user are answered with zero and never cached.
+ */
+@Service
+public class UnreadCounterService {
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final ConversationSummaryRepository summaryRepository;
+    private final UserRepository userRepository;
+    private final long refreshMillis;
+
+    public UnreadCounterService(ConversationSummaryRepository summaryRepository,
+                                UserRepository userRepository,
+                                @Value("${app.messages.unread.refresh-ms:600000}") long refreshMillis) {
+        this.summaryRepository = summaryRepository;
+        this.userRepository = userRepository;
+        this.refreshMillis = refreshMillis;
+    }
+
+    public int getUnreadCount(String clerkId) {
+        long now = System.currentTimeMillis();
+        Counter counter = counters.get(clerkId);
+        if (counter == null || now - counter.loadedAt > refreshMillis) {
+            counter = counters.compute(clerkId, (id, current) -> {
+                if (current != null && now - current.loadedAt <= refreshMillis) {
+                    return current;
+                }
+                long unread = summaryRepository.sumUnreadByClerkId(id);
+                return unread > 0 || userRepository.existsByClerkId(id) ? new Counter((int) unread, now) : null;
+            });
+            if (counter == null) {
+                return 0;
+            }
+        }
+        return counter.count.get();
+    }
+
+    @TransactionalEventListener
+    public void onMessageSent(MessageSentEvent event) {
+        String sender = event.getMessage().getSender().getClerkId();
+        String receiver = event.getMessage().getReceiver().getClerkId();
+        if (!receiver.equals(sender)) {
+            adjust(receiver, 1);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onMessagesRead(MessagesReadEvent event) {
+        adjust(event.getReaderClerkId(), -event.getCount());
+    }
+
+    // Users whose count was never asked for are left alone; their first read loads it
+    private void adjust(String clerkId, int delta) {
+        Counter counter = counters.get(clerkId);
+        if (counter != null) {
+            // Clamped here so a read larger than the count cannot swallow the next send
+            counter.count.updateAndGet(c -> Math.max(0, c + delta));
+        }
+    }
+
+    private static final class Counter {
+        final AtomicInteger count;
+        final long loadedAt;
+
+        Counter(int count, long loadedAt) {
+            this.count = new AtomicInteger(count);
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.elegantevents.model.Wedding;
 import com.elegantevents.model.WeddingCard;
 import com.elegantevents.repository.WeddingCardRepository;
 import com.elegantevents.repository.WeddingRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,11 +17,14 @@ public class WeddingCardService {
     
     private final WeddingCardRepository weddingCardRepository;
     private final WeddingRepository weddingRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public WeddingCardService(WeddingCardRepository weddingCardRepository,
-                             WeddingRepository weddingRepository) {
+                             WeddingRepository weddingRepository,
+                             ApplicationEventPublisher eventPublisher) {
         this.weddingCardRepository = weddingCardRepository;
         this.weddingRepository = weddingRepository;
+        this.eventPublisher = eventPublisher;
     }
     
     public WeddingCard createOrUpdateWeddingCard(String coupleClerkId, WeddingCardRequest request) {
@@ -57,7 +61,9 @@ public class WeddingCardService {
         if (request.getPlateColor() != null) card.setPlateColor(request.getPlateColor());
         if (request.getBackgroundScale() != null) card.setBackgroundScale(request.getBackgroundScale());
         
-        return weddingCardRepository.save(card);
+        WeddingCard saved = weddingCardRepository.save(card);
+        eventPublisher.publishEvent(new WeddingContentChangedEvent(wedding.getId()));
+        return saved;
     }
     
     @Transactional(readOnly = true)
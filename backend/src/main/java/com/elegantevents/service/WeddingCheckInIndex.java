@@ -0,0 +1,265 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.CheckInResult;
+import com.elegantevents.model.Guest;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Door-scanning view of one wedding's guest list. Guests live in parallel arrays indexed by
+ * slot; unique codes and guest ids resolve to slots through primitive open-addressing maps,
+ * and check-ins flip a bit in an atomic bitset. The read lock only excludes guests being
+ * added while the arrays grow.
+ */
+public class WeddingCheckInIndex {
+
+    private final long weddingId;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongIntOpenHashMap slotByCode;
+    private final LongIntOpenHashMap slotByGuestId;
+    private long[] guestIds;
+    private String[] codes;
+    private String[] firstNames;
+    private String[] lastNames;
+    private String[] seats;
+    private byte[] priorities;
+    private AtomicLongArray checkedInAt; // epoch millis of the earliest check-in, 0 when absent
+    private AtomicLongArray checkedIn;
+    private int size;
+
+    public WeddingCheckInIndex(long weddingId, int expectedGuests) {
+        int capacity = Math.max(16, expectedGuests);
+        this.weddingId = weddingId;
+        this.slotByCode = new LongIntOpenHashMap(capacity);
+        this.slotByGuestId = new LongIntOpenHashMap(capacity);
+        this.guestIds = new long[capacity];
+        this.codes = new String[capacity];
+        this.firstNames = new String[capacity];
+        this.lastNames = new String[capacity];
+        this.seats = new String[capacity];
+        this.priorities = new byte[capacity];
+        this.checkedInAt = new AtomicLongArray(capacity);
+        this.checkedIn = new AtomicLongArray((capacity + 63) >>> 6);
+    }
+
+    public long getWeddingId() {
+        return weddingId;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(long guestId, String code, String firstName, String lastName, String seat,
+                    Guest.Priority priority, LocalDateTime checkedInTime) {
+        long packedCode = packCode(code);
+        lock.writeLock().lock();
+        try {
+            if (slotByGuestId.get(guestId) != LongIntOpenHashMap.MISSING) {
+                return;
+            }
+            if (size == guestIds.length) {
+                grow(size * 2);
+            }
+            int slot = size++;
+            guestIds[slot] = guestId;
+            codes[slot] = code;
+            firstNames[slot] = firstName;
+            lastNames[slot] = lastName;
+            seats[slot] = seat;
+            priorities[slot] = (byte) (priority != null ? priority : Guest.Priority.STANDARD).ordinal();
+            if (checkedInTime != null) {
+                checkedInAt.set(slot, checkedInTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                checkedIn.getAndUpdate(slot >>> 6, word -> word | (1L << slot));
+            }
+            slotByGuestId.put(guestId, slot);
+            if (packedCode != 0) {
+                slotByCode.put(packedCode, slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return slot of the guest holding this code, or -1 when the code is not in this wedding
+     */
+    public int slotForCode(String code) {
+        long packed = packCode(code);
+        if (packed == 0) {
+            return -1;
+        }
+        lock.readLock().lock();
+        try {
+            return slotByCode.get(packed);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int slotForGuestId(long guestId) {
+        lock.readLock().lock();
+        try {
+            return slotByGuestId.get(guestId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the guest as arrived. The earliest time wins, so repeated or late-synced scans never
+     * move a check-in forward.
+     *
+     * @return the result, with {@code alreadyCheckedIn} set when the guest had already arrived
+     */
+    public CheckInResult checkIn(int slot, long epochMillis) {
+        lock.readLock().lock();
+        try {
+            long previous = recordEarliest(slot, epochMillis);
+            return describe(slot, previous != 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a check-in time if it is earlier than the one held.
+     *
+     * @return true when the held time changed and must be persisted
+     */
+    public boolean applyEarliest(int slot, long epochMillis) {
+        lock.readLock().lock();
+        try {
+            long previous = recordEarliest(slot, epochMillis);
+            return previous == 0 || epochMillis < previous;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long recordEarliest(int slot, long epochMillis) {
+        // The time is published before the bit so readers that see the bit see the time
+        long previous = checkedInAt.getAndAccumulate(slot, epochMillis,
+                (current, candidate) -> current == 0 ? candidate : Math.min(current, candidate));
+        checkedIn.getAndUpdate(slot >>> 6, word -> word | (1L << slot));
+        return previous;
+    }
+
+    public CheckInResult describe(int slot) {
+        lock.readLock().lock();
+        try {
+            return describe(slot, isCheckedIn(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long guestIdAt(int slot) {
+        lock.readLock().lock();
+        try {
+            return guestIds[slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Guest.Priority priorityAt(int slot) {
+        lock.readLock().lock();
+        try {
+            return Guest.Priority.values()[priorities[slot]];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void setSeat(int slot, String seat) {
+        lock.writeLock().lock();
+        try {
+            seats[slot] = seat;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int checkedInCount() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (int i = 0; i < checkedIn.length(); i++) {
+                count += Long.bitCount(checkedIn.get(i));
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isCheckedIn(int slot) {
+        return (checkedIn.get(slot >>> 6) & (1L << slot)) != 0;
+    }
+
+    private CheckInResult describe(int slot, boolean alreadyCheckedIn) {
+        CheckInResult result = new CheckInResult();
+        result.setGuestId(guestIds[slot]);
+        result.setWeddingId(weddingId);
+        result.setUniqueCode(codes[slot]);
+        result.setFirstName(firstNames[slot]);
+        result.setLastName(lastNames[slot]);
+        result.setSeatNumber(seats[slot]);
+        result.setPriority(Guest.Priority.values()[priorities[slot]]);
+        result.setAlreadyCheckedIn(alreadyCheckedIn);
+        if (isCheckedIn(slot)) {
+            result.setCheckedInAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(checkedInAt.get(slot)), ZoneId.systemDefault()));
+        }
+        return result;
+    }
+
+    private void grow(int capacity) {
+        guestIds = Arrays.copyOf(guestIds, capacity);
+        codes = Arrays.copyOf(codes, capacity);
+        firstNames = Arrays.copyOf(firstNames, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+        seats = Arrays.copyOf(seats, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        AtomicLongArray times = new AtomicLongArray(capacity);
+        for (int i = 0; i < size; i++) {
+            times.set(i, checkedInAt.get(i));
+        }
+        checkedInAt = times;
+        AtomicLongArray bits = new AtomicLongArray((capacity + 63) >>> 6);
+        for (int i = 0; i < checkedIn.length(); i++) {
+            bits.set(i, checkedIn.get(i));
+        }
+        checkedIn = bits;
+    }
+
+    /**
+     * Packs an alphanumeric code of up to 10 characters into 6 bits per character, so lookups
+     * hash a long instead of a String. Returns 0 for codes that cannot be packed.
+     */
+    static long packCode(String code) {
+        if (code == null || code.isEmpty() || code.length() > 10) {
+            return 0;
+        }
+        long packed = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char ch = Character.toUpperCase(code.charAt(i));
+            int value;
+            if (ch >= '0' && ch <= '9') {
+                value = ch - '0' + 1;
+            } else if (ch >= 'A' && ch <= 'Z') {
+                value = ch - 'A' + 11;
+            } else {
+                return 0;
+            }
+            packed = (packed << 6) | value;
+        }
+        return packed;
+    }
+}
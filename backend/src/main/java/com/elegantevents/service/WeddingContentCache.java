@@ -0,0 +1,165 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.UserResponse;
+import com.elegantevents.model.GalleryItem;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.model.WeddingCard;
+import com.elegantevents.model.WeddingMessage;
+import com.elegantevents.repository.GalleryItemRepository;
+import com.elegantevents.repository.UserRepository;
+import com.elegantevents.repository.WeddingAssignmentRepository;
+import com.elegantevents.repository.WeddingCardRepository;
+import com.elegantevents.repository.WeddingMessageRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The parts of the attendee dashboard that are the same for every guest of a wedding. When
+ * invitations go out hundreds of guests open the dashboard together; they share one load per
+ * wedding instead of six queries each. Entries are dropped after commit of any write to the
+ * wedding's details, card, broadcasts or gallery, and expire after {@code app.attendee.cache-ttl-ms}
+ * to pick up changes with no hook (profiles, protocol assignment).
+ *
+ * The first miss for a wedding loads it outside the map while later misses wait on that load,
+ * so a slow load never holds a map lock that other weddings hash to. A load that a write
+ * committed during is served to its waiters but not kept.
+ */
+@Service
+public class WeddingContentCache {
+
+    private final WeddingRepository weddingRepository;
+    private final UserRepository userRepository;
+    private final WeddingCardRepository weddingCardRepository;
+    private final WeddingMessageRepository weddingMessageRepository;
+    private final GalleryItemRepository galleryItemRepository;
+    private final WeddingAssignmentRepository assignmentRepository;
+    private final MessageArchiveService archiveService;
+    private final Map<Long, WeddingContent> contents = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<WeddingContent>> loading = new ConcurrentHashMap<>();
+    // Bumped on every content change, so a load can tell whether a write committed while it ran
+    private final AtomicLong changes = new AtomicLong();
+    private final int cacheSize;
+    private final long ttlMillis;
+    private final int galleryPageSize;
+
+    public WeddingContentCache(WeddingRepository weddingRepository,
+                               UserRepository userRepository,
+                               WeddingCardRepository weddingCardRepository,
+                               WeddingMessageRepository weddingMessageRepository,
+                               GalleryItemRepository galleryItemRepository,
+                               WeddingAssignmentRepository assignmentRepository,
+                               MessageArchiveService archiveService,
+                               @Value("${app.attendee.cache-size:64}") int cacheSize,
+                               @Value("${app.attendee.cache-ttl-ms:60000}") long ttlMillis,
+                               @Value("${app.attendee.gallery-page-size:12}") int galleryPageSize) {
+        this.weddingRepository = weddingRepository;
+        this.userRepository = userRepository;
+        this.weddingCardRepository = weddingCardRepository;
+        this.weddingMessageRepository = weddingMessageRepository;
+        this.galleryItemRepository = galleryItemRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.archiveService = archiveService;
+        this.cacheSize = cacheSize;
+        this.ttlMillis = ttlMillis;
+        this.galleryPageSize = galleryPageSize;
+    }
+
+    @Transactional(readOnly = true)
+    public WeddingContent get(Long weddingId) {
+        WeddingContent content = contents.get(weddingId);
+        if (content != null && System.currentTimeMillis() - content.loadedAt() < ttlMillis) {
+            return content;
+        }
+        if (content != null) {
+            contents.remove(weddingId, content);
+        }
+        CompletableFuture<WeddingContent> mine = new CompletableFuture<>();
+        CompletableFuture<WeddingContent> inFlight = loading.putIfAbsent(weddingId, mine);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            long seen = changes.get();
+            content = load(weddingId);
+            if (changes.get() == seen) {
+                contents.put(weddingId, content);
+                if (contents.size() > cacheSize) {
+                    evictOldest();
+                }
+            }
+            mine.complete(content);
+            return content;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(weddingId, mine);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(WeddingContentChangedEvent event) {
+        changes.incrementAndGet();
+        contents.remove(event.getWeddingId());
+    }
+
+    private static WeddingContent await(CompletableFuture<WeddingContent> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            // The loader's own exception, e.g. "Wedding not found"
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private WeddingContent load(Long weddingId) {
+        Wedding wedding = weddingRepository.findById(weddingId)
+                .orElseThrow(() -> new RuntimeException("Wedding not found"));
+        UserResponse couple = userRepository.findByClerkId(wedding.getClerkId())
+                .map(UserResponse::fromEntity)
+                .orElse(null);
+        WeddingCard card = weddingCardRepository.findByWeddingId(weddingId).orElse(null);
+        UserResponse protocol = assignmentRepository.findByWeddingId(weddingId)
+                .filter(assignment -> assignment.getProtocolClerkId() != null)
+                .flatMap(assignment -> userRepository.findByClerkId(assignment.getProtocolClerkId()))
+                .map(UserResponse::fromEntity)
+                .orElse(null);
+        List<WeddingMessage> broadcasts = new ArrayList<>(
+                weddingMessageRepository.findByWeddingIdAndIsBroadcastTrueOrderByCreatedAtDesc(weddingId));
+        // Archived messages are read once per load; guests' own ones are picked out per guest
+        List<WeddingMessage> archivedToGuests = new ArrayList<>();
+        for (WeddingMessage archived : archiveService.findWeddingMessages(weddingId)) {
+            (Boolean.TRUE.equals(archived.getIsBroadcast()) ? broadcasts : archivedToGuests).add(archived);
+        }
+        // One item past the page tells whether there is more to show
+        List<GalleryItem> gallery = galleryItemRepository.findByWeddingIdAndIsApprovedTrueOrderByCreatedAtDesc(
+                weddingId, PageRequest.of(0, galleryPageSize + 1));
+        boolean galleryHasMore = gallery.size() > galleryPageSize;
+        List<GalleryItem> firstPage = gallery.subList(0, Math.min(gallery.size(), galleryPageSize));
+        return new WeddingContent(wedding, couple, card, protocol, List.copyOf(broadcasts),
+                List.copyOf(archivedToGuests), List.copyOf(firstPage), galleryHasMore, System.currentTimeMillis());
+    }
+
+    private void evictOldest() {
+        contents.entrySet().stream()
+                .min((a, b) -> Long.compare(a.getValue().loadedAt(), b.getValue().loadedAt()))
+                .ifPresent(eldest -> contents.remove(eldest.getKey(), eldest.getValue()));
+    }
+
+    public record WeddingContent(Wedding wedding, UserResponse couple, WeddingCard card, UserResponse protocol,
+                                 List<WeddingMessage> broadcasts, List<WeddingMessage> archivedToGuests,
+                                 List<GalleryItem> gallery, boolean galleryHasMore, long loadedAt) {
+    }
+}
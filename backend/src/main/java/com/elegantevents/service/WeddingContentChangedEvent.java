@@ -0,0 +1,13 @@
+package com.elegantevents.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Something every guest of the wedding sees (details, card, broadcasts, gallery) was written.
+ */
+@Getter
+@AllArgsConstructor
+public class WeddingContentChangedEvent {
+    private final Long weddingId;
+}
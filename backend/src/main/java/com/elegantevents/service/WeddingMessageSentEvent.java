@@ -0,0 +1,14 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.WeddingMessage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A wedding message or broadcast was saved; it is added to the message search index once the transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class WeddingMessageSentEvent {
+    private final WeddingMessage message;
+}
@@ -3,9 +3,12 @@ package com.elegantevents.service;
 import com.elegantevents.dto.WeddingMessageRequest;
 import com.elegantevents.model.WeddingMessage;
 import com.elegantevents.repository.WeddingMessageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -13,9 +16,24 @@ import java.util.List;
 public class WeddingMessageService {
     
     private final WeddingMessageRepository messageRepository;
+    private final MessageArchiveService archiveService;
+    private final WeddingContentCache weddingContentCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultPageSize;
+    private final int maxPageSize;
     
-    public WeddingMessageService(WeddingMessageRepository messageRepository) {
+    public WeddingMessageService(WeddingMessageRepository messageRepository,
+                                 MessageArchiveService archiveService,
+                                 WeddingContentCache weddingContentCache,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${app.messages.page-size:50}") int defaultPageSize,
+                                 @Value("${app.messages.max-page-size:200}") int maxPageSize) {
         this.messageRepository = messageRepository;
+        this.archiveService = archiveService;
+        this.weddingContentCache = weddingContentCache;
+        this.eventPublisher = eventPublisher;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
     
     public WeddingMessage sendMessage(WeddingMessageRequest request) {
@@ -28,25 +46,56 @@ public class WeddingMessageService {
         message.setMessage(request.getMessage());
         message.setIsBroadcast(request.getIsBroadcast() != null ? request.getIsBroadcast() : false);
         
-        return messageRepository.save(message);
+        WeddingMessage saved = messageRepository.save(message);
+        // Indexed for search after commit
+        eventPublisher.publishEvent(new WeddingMessageSentEvent(saved));
+        if (Boolean.TRUE.equals(saved.getIsBroadcast())) {
+            // Broadcasts are cached with the wedding; direct messages are read per guest
+            eventPublisher.publishEvent(new WeddingContentChangedEvent(saved.getWeddingId()));
+        }
+        return saved;
     }
     
+    /**
+     * The wedding's messages, newest first, followed by the latest page of its archived ones.
+     * Older archived messages are read through {@link #getArchivedMessages}.
+     */
     @Transactional(readOnly = true)
     public List<WeddingMessage> getMessagesByWedding(Long weddingId) {
-        return messageRepository.findByWeddingIdOrderByCreatedAtDesc(weddingId);
+        List<WeddingMessage> messages = messageRepository.findByWeddingIdOrderByCreatedAtDesc(weddingId);
+        // Archived messages are all older than the ones still in the table
+        messages.addAll(archiveService.findWeddingMessagesBefore(weddingId, Long.MAX_VALUE, defaultPageSize));
+        return messages;
     }
-    
+
+    /**
+     * One page of the wedding's archived messages, newest first, those before {@code beforeId}
+     * when given.
+     */
+    @Transactional(readOnly = true)
+    public List<WeddingMessage> getArchivedMessages(Long weddingId, Long beforeId, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return archiveService.findWeddingMessagesBefore(weddingId, beforeId != null ? beforeId : Long.MAX_VALUE,
+                Math.min(limit != null ? limit : defaultPageSize, maxPageSize));
+    }
+
+    /**
+     * Broadcasts and the guest's own messages, newest first. Broadcasts and archived messages
+     * come from {@link WeddingContentCache}; only the guest's hot messages are queried.
+     */
     @Transactional(readOnly = true)
     public List<WeddingMessage> getMessagesForGuest(Long weddingId, Long guestId) {
-        // Get broadcast messages and messages specific to this guest
-        List<WeddingMessage> broadcasts = messageRepository.findByWeddingIdAndIsBroadcastTrueOrderByCreatedAtDesc(weddingId);
-        List<WeddingMessage> specific = messageRepository.findByWeddingIdAndRecipientGuestIdOrderByCreatedAtDesc(weddingId, guestId);
-        
-        // Combine both lists
-        broadcasts.addAll(specific);
-        // Sort by created date descending
-        broadcasts.sort((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()));
-        return broadcasts;
+        WeddingContentCache.WeddingContent content = weddingContentCache.get(weddingId);
+        List<WeddingMessage> messages = new ArrayList<>(content.broadcasts());
+        messages.addAll(messageRepository.findByWeddingIdAndRecipientGuestIdOrderByCreatedAtDesc(weddingId, guestId));
+        for (WeddingMessage archived : content.archivedToGuests()) {
+            if (guestId.equals(archived.getRecipientGuestId())) {
+                messages.add(archived);
+            }
+        }
+        messages.sort((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()));
+        return messages;
     }
 }
-
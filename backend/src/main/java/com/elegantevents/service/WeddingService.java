@@ -5,6 +5,7 @@ import com.elegantevents.model.Wedding;
 import com.elegantevents.model.User;
 import com.elegantevents.repository.WeddingRepository;
 import com.elegantevents.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,10 +17,15 @@ public class WeddingService {
     
     private final WeddingRepository weddingRepository;
     private final UserRepository userRepository;
+    private final CheckInIndexService checkInIndexService;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public WeddingService(WeddingRepository weddingRepository, UserRepository userRepository) {
+    public WeddingService(WeddingRepository weddingRepository, UserRepository userRepository,
+                          CheckInIndexService checkInIndexService, ApplicationEventPublisher eventPublisher) {
         this.weddingRepository = weddingRepository;
         this.userRepository = userRepository;
+        this.checkInIndexService = checkInIndexService;
+        this.eventPublisher = eventPublisher;
     }
     
     public Wedding createOrUpdateWedding(String clerkId, WeddingRequest request) {
@@ -41,7 +47,9 @@ public class WeddingService {
                     return newWedding;
                 });
         
-        return weddingRepository.save(wedding);
+        Wedding saved = weddingRepository.save(wedding);
+        eventPublisher.publishEvent(new WeddingContentChangedEvent(saved.getId()));
+        return saved;
     }
     
     private void updateWeddingFields(Wedding wedding, WeddingRequest request) {
@@ -71,6 +79,7 @@ public class WeddingService {
         Wedding wedding = weddingRepository.findByClerkId(clerkId)
                 .orElseThrow(() -> new RuntimeException("Wedding not found for clerkId: " + clerkId));
         weddingRepository.delete(wedding);
+        eventPublisher.publishEvent(new WeddingContentChangedEvent(wedding.getId()));
     }
     
     @Transactional(readOnly = true)
@@ -88,7 +97,11 @@ public class WeddingService {
         Wedding wedding = weddingRepository.findById(weddingId)
                 .orElseThrow(() -> new RuntimeException("Wedding not found"));
         wedding.setStatus(status);
-        return weddingRepository.save(wedding);
+        Wedding saved = weddingRepository.save(wedding);
+        // Door scans are served from memory while the wedding is ONGOING
+        checkInIndexService.onWeddingStatusChanged(weddingId, status);
+        eventPublisher.publishEvent(new WeddingContentChangedEvent(weddingId));
+        return saved;
     }
 }
 
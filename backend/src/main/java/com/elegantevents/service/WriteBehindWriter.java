@@ -0,0 +1,54 @@
+package com.elegantevents.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The write half of the services that buffer counts or answers in memory and flush them on a
+ * schedule (RSVP answers, invitation engagement, short link hits). A drained batch is written
+ * as one JDBC batch in its own transaction, independent of whatever the flushing thread is in;
+ * if that fails, every entry is handed back to the caller to be restored for the next flush.
+ */
+class WriteBehindWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindWriter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final int batchSize;
+
+    WriteBehindWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param what   what the entries are, for the log, e.g. "RSVP(s)"
+     * @param restore called for every entry of a batch that could not be written
+     * @return false when the batch was not written and has been handed to {@code restore}
+     */
+    <T> boolean write(String sql, List<T> batch, ParameterizedPreparedStatementSetter<T> setter,
+                      String what, Consumer<T> restore) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        try {
+            newTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, batch, batchSize, setter));
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Failed to flush {} {}; will retry", batch.size(), what, e);
+            batch.forEach(restore);
+            return false;
+        }
+    }
+}
@@ -87,3 +87,152 @@ CREATE TABLE IF NOT EXISTS payments (
 -- Fix task status and category truncation
 ALTER TABLE tasks MODIFY COLUMN status VARCHAR(50) NOT NULL;
 ALTER TABLE tasks MODIFY COLUMN category VARCHAR(50) NOT NULL;
+
+-- Sequence backing the guest unique code allocator (one row, reserved in blocks per node)
+CREATE TABLE IF NOT EXISTS guest_code_sequences (
+    name VARCHAR(50) PRIMARY KEY,
+    next_value BIGINT NOT NULL,
+    updated_at DATETIME NOT NULL
+);
+INSERT IGNORE INTO guest_code_sequences (name, next_value, updated_at) VALUES ('guest_code', 1, NOW());
+
+-- Outbound notifications, written with the change that causes them and drained by the outbox dispatcher
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    channel VARCHAR(10) NOT NULL,
+    kind VARCHAR(40) NOT NULL,
+    idempotency_key VARCHAR(191) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255),
+    body LONGTEXT NOT NULL,
+    wedding_id BIGINT,
+    guest_id BIGINT,
+    campaign_id BIGINT,
+    status VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME NOT NULL,
+    lease_until DATETIME,
+    last_error VARCHAR(500),
+    sent_at DATETIME,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    UNIQUE KEY uk_outbox_idempotency_key (idempotency_key),
+    INDEX idx_outbox_due (channel, status, next_attempt_at),
+    INDEX idx_outbox_campaign (campaign_id, status)
+);
+
+-- The dispatcher claims each channel separately, under its own rate limit
+ALTER TABLE notification_outbox DROP INDEX idx_outbox_due, ADD INDEX idx_outbox_due (channel, status, next_attempt_at);
+
+-- Invitation campaigns: (re)sends to a filtered set of a wedding's guests, queued through the outbox
+CREATE TABLE IF NOT EXISTS invitation_campaigns (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    wedding_id BIGINT NOT NULL,
+    created_by VARCHAR(255),
+    send_email BOOLEAN NOT NULL DEFAULT TRUE,
+    send_sms BOOLEAN NOT NULL DEFAULT TRUE,
+    rsvp_status VARCHAR(20),
+    priority VARCHAR(20),
+    only_uninvited BOOLEAN NOT NULL DEFAULT FALSE,
+    guest_ids TEXT,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUING',
+    last_guest_id BIGINT NOT NULL DEFAULT 0,
+    guests_matched INT NOT NULL DEFAULT 0,
+    messages_queued INT NOT NULL DEFAULT 0,
+    created_at DATETIME NOT NULL,
+    updated_at DATETIME NOT NULL,
+    INDEX idx_campaign_wedding (wedding_id),
+    INDEX idx_campaign_status (status),
+    FOREIGN KEY (wedding_id) REFERENCES weddings(id) ON DELETE CASCADE
+);
+
+-- SMS delivery tracking: the provider's message id, and what its delivery reports said
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS provider_message_id VARCHAR(100);
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS delivery_status VARCHAR(20);
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS delivered_at DATETIME;
+CREATE INDEX idx_outbox_provider_message ON notification_outbox (provider_message_id);
+CREATE INDEX idx_outbox_guest ON notification_outbox (guest_id);
+
+-- Invitation opens and clicks per guest, upserted in batches by the engagement service
+CREATE TABLE IF NOT EXISTS guest_engagement (
+    guest_id BIGINT PRIMARY KEY,
+    wedding_id BIGINT NOT NULL,
+    opens BIGINT NOT NULL DEFAULT 0,
+    clicks BIGINT NOT NULL DEFAULT 0,
+    first_opened_at DATETIME,
+    last_opened_at DATETIME,
+    first_clicked_at DATETIME,
+    last_clicked_at DATETIME,
+    INDEX idx_engagement_wedding (wedding_id),
+    FOREIGN KEY (guest_id) REFERENCES guests(id) ON DELETE CASCADE
+);
+
+-- Short invitation links used in SMS and unsigned QR codes; hits are added in batches
+CREATE TABLE IF NOT EXISTS short_links (
+    slug VARCHAR(16) PRIMARY KEY,
+    guest_id BIGINT NOT NULL UNIQUE,
+    wedding_id BIGINT NOT NULL,
+    unique_code VARCHAR(255) NOT NULL,
+    target VARCHAR(500) NOT NULL,
+    hits BIGINT NOT NULL DEFAULT 0,
+    created_at DATETIME NOT NULL,
+    last_hit_at DATETIME,
+    INDEX idx_short_link_wedding (wedding_id),
+    FOREIGN KEY (guest_id) REFERENCES guests(id) ON DELETE CASCADE
+);
+
+-- Keyset paging of conversations: one range per direction of a user pair
+CREATE INDEX idx_message_pair ON messages (sender_id, receiver_id, id);
+
+-- Inbox read model: one row per participant of each conversation, upserted with every message
+CREATE TABLE IF NOT EXISTS conversation_summaries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    peer_id BIGINT NOT NULL,
+    last_message_id BIGINT NOT NULL,
+    last_sender_id BIGINT NOT NULL,
+    last_snippet VARCHAR(160),
+    last_message_at DATETIME NOT NULL,
+    unread_count INT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_conversation_pair (user_id, peer_id),
+    INDEX idx_conversation_inbox (user_id, last_message_at)
+);
+
+-- Backfill from existing messages (also run automatically on startup while the table is empty);
+-- safe to re-run, rows are rebuilt from the messages table
+INSERT INTO conversation_summaries (user_id, peer_id, last_message_id, last_sender_id, last_snippet,
+                                    last_message_at, unread_count)
+SELECT p.user_id, p.peer_id, m.id, m.sender_id, SUBSTRING(m.content, 1, 160), m.sent_at,
+       (SELECT COUNT(*) FROM messages u
+        WHERE u.receiver_id = p.user_id AND u.sender_id = p.peer_id AND u.is_read = FALSE)
+FROM (SELECT x.user_id, x.peer_id, MAX(x.id) AS last_id
+      FROM (SELECT sender_id AS user_id, receiver_id AS peer_id, id FROM messages
+            UNION ALL
+            SELECT receiver_id AS user_id, sender_id AS peer_id, id FROM messages) x
+      GROUP BY x.user_id, x.peer_id) p
+JOIN messages m ON m.id = p.last_id
+ON DUPLICATE KEY UPDATE last_message_id = VALUES(last_message_id), last_sender_id = VALUES(last_sender_id),
+                        last_snippet = VALUES(last_snippet), last_message_at = VALUES(last_message_at),
+                        unread_count = VALUES(unread_count);
+
+-- Wedding messages are read per wedding, newest first
+CREATE INDEX idx_wedding_message_wedding ON wedding_messages (wedding_id, created_at);
+
+-- Archived conversations: one month of a user pair's (DIRECT) or a wedding's (WEDDING) messages
+-- per row, as gzipped JSON. Hot/archive tables rather than PARTITION BY RANGE: MySQL does not
+-- allow foreign keys on partitioned InnoDB tables, and messages references users.
+CREATE TABLE IF NOT EXISTS message_archives (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    kind VARCHAR(16) NOT NULL,
+    user_low_id BIGINT,
+    user_high_id BIGINT,
+    wedding_id BIGINT,
+    period_start DATE NOT NULL,
+    first_message_id BIGINT NOT NULL,
+    last_message_id BIGINT NOT NULL,
+    message_count INT NOT NULL,
+    payload LONGBLOB NOT NULL,
+    created_at DATETIME NOT NULL,
+    INDEX idx_archive_pair (user_low_id, user_high_id, last_message_id),
+    INDEX idx_archive_wedding (wedding_id, last_message_id)
+);
@@ -0,0 +1,96 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.AttendeeBootstrap;
+import com.elegantevents.model.AttendeeRating;
+import com.elegantevents.model.GalleryItem;
+import com.elegantevents.model.Guest;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.model.WeddingMessage;
+import com.elegantevents.repository.AttendeeRatingRepository;
+import com.elegantevents.repository.WeddingMessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttendeeServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 6, 20, 18, 0);
+
+    @Mock
+    private GuestService guestService;
+
+    @Mock
+    private WeddingContentCache weddingContentCache;
+
+    @Mock
+    private WeddingMessageRepository weddingMessageRepository;
+
+    @Mock
+    private MessageArchiveService archiveService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AttendeeRatingRepository attendeeRatingRepository;
+
+    private AttendeeService attendeeService;
+
+    @BeforeEach
+    void setUp() {
+        WeddingMessageService weddingMessageService = new WeddingMessageService(weddingMessageRepository,
+                archiveService, weddingContentCache, eventPublisher, 50, 200);
+        attendeeService = new AttendeeService(guestService, weddingContentCache, weddingMessageService,
+                attendeeRatingRepository);
+    }
+
+    @Test
+    void bootstrap_ShouldMergeCachedAndOwnMessagesNewestFirst_AndPassTheGalleryPageThrough() {
+        Guest guest = new Guest();
+        guest.setId(5L);
+        guest.setWeddingId(1L);
+        when(guestService.getGuestByUniqueCode("AB12CD34")).thenReturn(guest);
+        WeddingMessage broadcast = message(10L, true, null, NOW.minusHours(1));
+        WeddingMessage archivedToMe = message(2L, false, 5L, NOW.minusMonths(4));
+        WeddingMessage archivedToOther = message(3L, false, 6L, NOW.minusMonths(4));
+        WeddingMessage toMe = message(11L, false, 5L, NOW);
+        List<GalleryItem> gallery = List.of(new GalleryItem());
+        when(weddingContentCache.get(1L)).thenReturn(new WeddingContentCache.WeddingContent(new Wedding(), null, null,
+                null, List.of(broadcast), List.of(archivedToMe, archivedToOther), gallery, true, 0));
+        when(weddingMessageRepository.findByWeddingIdAndRecipientGuestIdOrderByCreatedAtDesc(1L, 5L))
+                .thenReturn(new ArrayList<>(List.of(toMe)));
+        List<AttendeeRating> ratings = List.of(new AttendeeRating());
+        when(attendeeRatingRepository.findByGuestId(5L)).thenReturn(ratings);
+
+        AttendeeBootstrap bootstrap = attendeeService.bootstrap("AB12CD34");
+
+        assertEquals(List.of(11L, 10L, 2L), bootstrap.getMessages().stream().map(WeddingMessage::getId).toList());
+        assertSame(gallery, bootstrap.getGallery());
+        assertTrue(bootstrap.isGalleryHasMore());
+        assertSame(ratings, bootstrap.getRatings());
+        // Broadcasts and archived messages come from the cache, not the database
+        verify(weddingMessageRepository, never()).findByWeddingIdAndIsBroadcastTrueOrderByCreatedAtDesc(any());
+        verifyNoInteractions(archiveService);
+    }
+
+    private static WeddingMessage message(Long id, boolean broadcast, Long guestId, LocalDateTime createdAt) {
+        WeddingMessage message = new WeddingMessage();
+        message.setId(id);
+        message.setWeddingId(1L);
+        message.setIsBroadcast(broadcast);
+        message.setRecipientGuestId(guestId);
+        message.setCreatedAt(createdAt);
+        return message;
+    }
+}
@@ -0,0 +1,80 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.InvitationCampaign;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.InvitationCampaignRepository;
+import com.elegantevents.repository.NotificationOutboxRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CampaignServiceTest {
+
+    @Mock
+    private InvitationCampaignRepository campaignRepository;
+
+    @Mock
+    private WeddingRepository weddingRepository;
+
+    @Mock
+    private GuestRepository guestRepository;
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ShortLinkService shortLinkService;
+
+    @Mock
+    private GuestBulkImportService guestBulkImportService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CampaignService campaignService;
+
+    @BeforeEach
+    void setUp() {
+        campaignService = new CampaignService(campaignRepository, weddingRepository, guestRepository, outboxRepository,
+                notificationService, shortLinkService, guestBulkImportService, eventPublisher, executor,
+                transactionManager, 500);
+    }
+
+    @Test
+    void onCampaignQueued_ShouldMarkTheCampaignFailed_WhenThePoolRejectsIt() {
+        InvitationCampaign campaign = new InvitationCampaign();
+        campaign.setId(3L);
+        when(campaignRepository.findById(3L)).thenReturn(Optional.of(campaign));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doThrow(new TaskRejectedException("Notification pool saturated")).when(executor).execute(any(Runnable.class));
+
+        campaignService.onCampaignQueued(new CampaignQueuedEvent(3L));
+
+        assertEquals(InvitationCampaign.Status.FAILED, campaign.getStatus());
+        verify(campaignRepository).save(campaign);
+    }
+}
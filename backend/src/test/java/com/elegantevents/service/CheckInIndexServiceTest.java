@@ -0,0 +1,79 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.CheckInResult;
+import com.elegantevents.model.Guest;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CheckInIndexServiceTest {
+
+    @Mock
+    private GuestRepository guestRepository;
+
+    @Mock
+    private WeddingRepository weddingRepository;
+
+    @Mock
+    private CheckInJournal journal;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CheckInIndexService indexService;
+
+    @BeforeEach
+    void setUp() {
+        indexService = new CheckInIndexService(guestRepository, weddingRepository, journal, jdbcTemplate,
+                transactionManager, eventPublisher, true, 200);
+        when(guestRepository.findCheckInRowsByWeddingId(7L)).thenReturn(List.<Object[]>of(
+                new Object[]{1L, "ABC123", "Ada", "Lovelace", "T1-1", Guest.Priority.STANDARD, false, null}));
+        indexService.load(7L);
+    }
+
+    @Test
+    void checkInByCode_ShouldLeaveTheGuestNotCheckedIn_WhenTheJournalFails() {
+        doThrow(new UncheckedIOException(new IOException("Disk full"))).doNothing()
+                .when(journal).append(eq(1L), anyLong());
+
+        assertThrows(UncheckedIOException.class, () -> indexService.checkInByCode("ABC123"));
+        assertFalse(indexService.lookup("ABC123").isAlreadyCheckedIn());
+        verifyNoInteractions(eventPublisher);
+
+        // The rescan is a first arrival, not a repeat
+        CheckInResult retried = indexService.checkInByCode("ABC123");
+        assertFalse(retried.isAlreadyCheckedIn());
+        assertNotNull(retried.getCheckedInAt());
+        verify(eventPublisher).publishEvent(any(GuestCheckedInEvent.class));
+    }
+
+    @Test
+    void checkInByCode_ShouldNotJournalAgain_WhenTheGuestHasArrived() {
+        indexService.checkInByCode("ABC123");
+
+        assertTrue(indexService.checkInByCode("ABC123").isAlreadyCheckedIn());
+        verify(journal, times(1)).append(eq(1L), anyLong());
+    }
+}
@@ -0,0 +1,119 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.CheckInSyncRequest;
+import com.elegantevents.dto.CheckInSyncResponse;
+import com.elegantevents.model.Guest;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CheckInSyncServiceTest {
+
+    @Mock
+    private GuestRepository guestRepository;
+
+    @Mock
+    private WeddingRepository weddingRepository;
+
+    @Mock
+    private CheckInIndexService checkInIndexService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CheckInSyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        syncService = new CheckInSyncService(guestRepository, weddingRepository, checkInIndexService, eventPublisher, 5000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sync_ShouldKeepTheEarliestTimePerGuest_AndReportUnknownCodes() {
+        long now = System.currentTimeMillis();
+        when(weddingRepository.findById(7L)).thenReturn(Optional.of(wedding(LocalDate.now())));
+        when(guestRepository.findIdsByWeddingIdAndUniqueCodes(7L, List.of("CODE1", "CODE0", "NOPE", "CODE2")))
+                .thenReturn(List.<Object[]>of(new Object[]{11L, "code1"}, new Object[]{10L, "CODE0"}, new Object[]{12L, "CODE2"}));
+        when(guestRepository.findCheckedInRowsUpdatedSince(eq(7L), any())).thenReturn(List.<Object[]>of(
+                new Object[]{10L, "CODE0", "Ada", "Lovelace", "T1-1", Guest.Priority.STANDARD, true, LocalDateTime.now()}));
+
+        CheckInSyncResponse response = syncService.sync(7L, new CheckInSyncRequest(null, List.of(
+                new CheckInSyncRequest.CheckIn("code1", now - 3_600_000),
+                new CheckInSyncRequest.CheckIn(" CODE1 ", now - 1000),
+                new CheckInSyncRequest.CheckIn("CODE0", now - 7_200_000),
+                new CheckInSyncRequest.CheckIn("NOPE", now),
+                new CheckInSyncRequest.CheckIn(" ", now),
+                // A device clock running ahead is clamped to the receive time
+                new CheckInSyncRequest.CheckIn("CODE2", now + 3_600_000))));
+
+        InOrder order = inOrder(checkInIndexService);
+        order.verify(checkInIndexService).flush();
+        ArgumentCaptor<Map<Long, Long>> persisted = ArgumentCaptor.forClass(Map.class);
+        order.verify(checkInIndexService).persistEarliest(persisted.capture());
+        assertEquals(now - 3_600_000, persisted.getValue().get(11L));
+        assertEquals(now - 7_200_000, persisted.getValue().get(10L));
+        assertTrue(persisted.getValue().get(12L) <= response.getCursor());
+        verify(checkInIndexService).applyToIndex(7L, persisted.getValue());
+        verify(eventPublisher).publishEvent(any(CheckInsSyncedEvent.class));
+
+        assertEquals(6, response.getReceived());
+        assertEquals(3, response.getMatched());
+        assertEquals(List.of("NOPE"), response.getUnknownCodes());
+        assertEquals(1, response.getChanges().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sync_ShouldUseTheReceiveTime_WhenTheDeviceClockPredatesTheWedding() {
+        long now = System.currentTimeMillis();
+        Wedding wedding = wedding(null);
+        wedding.setCreatedAt(LocalDateTime.now().minusMonths(3));
+        when(weddingRepository.findById(7L)).thenReturn(Optional.of(wedding));
+        when(guestRepository.findIdsByWeddingIdAndUniqueCodes(7L, List.of("CODE0")))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, "CODE0"}));
+
+        // A device whose clock was reset to the epoch
+        syncService.sync(7L, new CheckInSyncRequest(null, List.of(new CheckInSyncRequest.CheckIn("CODE0", 0L))));
+
+        ArgumentCaptor<Map<Long, Long>> persisted = ArgumentCaptor.forClass(Map.class);
+        verify(checkInIndexService).persistEarliest(persisted.capture());
+        assertTrue(persisted.getValue().get(10L) >= now);
+    }
+
+    @Test
+    void sync_ShouldRejectAnOversizedBatch() {
+        syncService = new CheckInSyncService(guestRepository, weddingRepository, checkInIndexService, eventPublisher, 1);
+        when(weddingRepository.findById(7L)).thenReturn(Optional.of(wedding(LocalDate.now())));
+
+        assertThrows(IllegalArgumentException.class, () -> syncService.sync(7L, new CheckInSyncRequest(null, List.of(
+                new CheckInSyncRequest.CheckIn("CODE0", null), new CheckInSyncRequest.CheckIn("CODE1", null)))));
+        verifyNoInteractions(checkInIndexService);
+    }
+
+    private static Wedding wedding(LocalDate date) {
+        Wedding wedding = new Wedding();
+        wedding.setId(7L);
+        wedding.setWeddingDate(date);
+        return wedding;
+    }
+}
@@ -0,0 +1,92 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.Message;
+import com.elegantevents.model.User;
+import com.elegantevents.repository.ConversationSummaryRepository;
+import com.elegantevents.repository.MessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationSummaryServiceTest {
+
+    @Mock
+    private ConversationSummaryRepository summaryRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ConversationSummaryService summaryService;
+
+    @BeforeEach
+    void setUp() {
+        summaryService = new ConversationSummaryService(summaryRepository, messageRepository, jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordMessage_ShouldUpsertLowerUserIdFirst_WhoeverSends() {
+        LocalDateTime sentAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+        summaryService.recordMessage(message(9L, 7L, 3L, "Hello", sentAt));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        List<Object[]> upserted = rows.getValue();
+        assertEquals(2, upserted.size());
+        // The receiver (user 3) first, with the message counted as unread
+        assertArrayEquals(new Object[]{3L, 7L, 9L, 7L, "Hello", Timestamp.valueOf(sentAt), 1}, upserted.get(0));
+        assertArrayEquals(new Object[]{7L, 3L, 9L, 7L, "Hello", Timestamp.valueOf(sentAt), 0}, upserted.get(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordMessage_ShouldNotCutASurrogatePairInTheSnippet() {
+        String content = "a".repeat(ConversationSummaryService.SNIPPET_LENGTH - 1) + "💍 and more";
+
+        summaryService.recordMessage(message(1L, 1L, 2L, content, LocalDateTime.now()));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        String snippet = (String) rows.getValue().get(0)[4];
+        assertEquals(ConversationSummaryService.SNIPPET_LENGTH - 1, snippet.length());
+        assertFalse(Character.isHighSurrogate(snippet.charAt(snippet.length() - 1)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordMessage_ShouldUpsertOneReadRow_ForAMessageToSelf() {
+        summaryService.recordMessage(message(4L, 5L, 5L, "Note to self", LocalDateTime.now()));
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(1, rows.getValue().size());
+        assertEquals(0, rows.getValue().get(0)[6]);
+    }
+
+    private static Message message(Long id, Long senderId, Long receiverId, String content, LocalDateTime sentAt) {
+        return new Message(id, user(senderId), user(receiverId), content, sentAt, false);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,42 @@
+package com.elegantevents.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRowReaderTest {
+
+    private CsvRowReader reader(String content) {
+        return new CsvRowReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void next_ShouldHandleQuotesEmbeddedNewlinesAndCrlf() throws IOException {
+        CsvRowReader reader = reader("\uFEFFName,Seat\r\n\"Abebe, Kebede\",\"Table \"\"A\"\"\"\r\n\"Multi\nLine\",5");
+
+        assertEquals(List.of("Name", "Seat"), reader.next());
+        assertEquals(List.of("Abebe, Kebede", "Table \"A\""), reader.next());
+        assertEquals(List.of("Multi\nLine", "5"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_ShouldDetectSemicolonDelimiter() throws IOException {
+        CsvRowReader reader = reader("First Name;Phone\nSelam;0911223344\n");
+
+        assertEquals(List.of("First Name", "Phone"), reader.next());
+        assertEquals(List.of("Selam", "0911223344"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void normalizePhone_ShouldFoldLocalEthiopianNumbers() {
+        assertEquals("251911223344", GuestFileImportService.normalizePhone("0911 22 33 44"));
+        assertEquals("251911223344", GuestFileImportService.normalizePhone("+251-911-223344"));
+    }
+}
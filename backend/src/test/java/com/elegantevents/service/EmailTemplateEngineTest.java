@@ -0,0 +1,44 @@
+package com.elegantevents.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateEngineTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void render_ShouldEscapeSlotValues_AndKeepStaticChunks() throws Exception {
+        Files.writeString(dir.resolve("invite.html"), "<p>Dear {{guestName}},</p><a href='{{url}}'>View</a>{{missing}}");
+        EmailTemplateEngine engine = new EmailTemplateEngine("file:" + dir + "/", false);
+
+        String html = engine.render("invite", Map.of("guestName", "<script>x</script> O'Neil", "url", "https://x/?a=1&b=2"));
+
+        assertEquals("<p>Dear &lt;script&gt;x&lt;/script&gt; O&#39;Neil,</p><a href='https://x/?a=1&amp;b=2'>View</a>", html);
+    }
+
+    @Test
+    void reloadIfChanged_ShouldPickUpEditedTemplate_AndKeepPreviousWhenEditIsBroken() throws Exception {
+        Path file = dir.resolve("invite.html");
+        Files.writeString(file, "Hello {{name}}");
+        EmailTemplateEngine engine = new EmailTemplateEngine("file:" + dir + "/", true);
+
+        Files.writeString(file, "Welcome {{name}}");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        engine.reloadIfChanged();
+        assertEquals("Welcome Abebe", engine.render("invite", Map.of("name", "Abebe")));
+
+        Files.writeString(file, "Broken {{name");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 20_000));
+        engine.reloadIfChanged();
+        assertEquals("Welcome Abebe", engine.render("invite", Map.of("name", "Abebe")));
+    }
+}
@@ -0,0 +1,76 @@
+package com.elegantevents.service;
+
+import com.elegantevents.repository.GuestEngagementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EngagementServiceTest {
+
+    @Mock
+    private RsvpService rsvpService;
+
+    @Mock
+    private GuestStatsService guestStatsService;
+
+    @Mock
+    private GuestEngagementRepository engagementRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EngagementService engagementService;
+
+    @BeforeEach
+    void setUp() {
+        engagementService = new EngagementService(rsvpService, guestStatsService, engagementRepository, jdbcTemplate,
+                transactionManager, 200);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteOneAggregatedRowPerGuest_AndIgnoreUnknownCodes() throws Exception {
+        when(rsvpService.findGuest("AB12CD34")).thenReturn(new RsvpService.GuestRef(7L, 1L));
+        when(rsvpService.findGuest("NOPE")).thenReturn(null);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        for (int i = 0; i < 1000; i++) {
+            engagementService.recordOpen("AB12CD34");
+            engagementService.recordOpen("NOPE");
+        }
+        engagementService.recordClick("AB12CD34");
+        engagementService.flush();
+        engagementService.flush(); // Nothing new: no second write
+
+        ArgumentCaptor<Collection<Object>> rows = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Object>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture(), eq(200), setter.capture());
+        assertEquals(1, rows.getValue().size());
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, List.copyOf(rows.getValue()).get(0));
+        verify(ps).setLong(1, 7L);
+        verify(ps).setLong(3, 1000L);
+        verify(ps).setLong(4, 1L);
+    }
+}
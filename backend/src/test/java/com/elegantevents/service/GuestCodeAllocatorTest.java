@@ -0,0 +1,101 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.GuestCodeSequence;
+import com.elegantevents.repository.GuestCodeSequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GuestCodeAllocatorTest {
+
+    @Mock
+    private GuestCodeSequenceRepository sequenceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private GuestCodeAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        allocator = new GuestCodeAllocator(sequenceRepository, transactionManager, 100, "test-secret");
+    }
+
+    @Test
+    void encode_ShouldProduceDistinctCodesWithValidChecksums() {
+        Set<String> codes = new HashSet<>();
+        for (long sequence = 0; sequence < 100_000; sequence++) {
+            String code = allocator.encode(sequence);
+            assertEquals(8, code.length());
+            assertTrue(GuestCodeAllocator.hasValidChecksum(code), code);
+            codes.add(code);
+        }
+        assertEquals(100_000, codes.size());
+    }
+
+    @Test
+    void permute_ShouldStayInsideDomain() {
+        for (long sequence = GuestCodeAllocator.DOMAIN_SIZE - 1000; sequence < GuestCodeAllocator.DOMAIN_SIZE; sequence++) {
+            long permuted = allocator.permute(sequence);
+            assertTrue(permuted >= 0 && permuted < GuestCodeAllocator.DOMAIN_SIZE);
+        }
+    }
+
+    @Test
+    void hasValidChecksum_ShouldRejectSingleCharacterTypos() {
+        String code = allocator.encode(42);
+        for (int i = 0; i < code.length(); i++) {
+            for (char c : GuestCodeAllocator.ALPHABET.toCharArray()) {
+                if (c == code.charAt(i)) {
+                    continue;
+                }
+                String typo = code.substring(0, i) + c + code.substring(i + 1);
+                assertFalse(GuestCodeAllocator.hasValidChecksum(typo), typo);
+            }
+        }
+    }
+
+    @Test
+    void nextCodes_ShouldReserveOneBlockPerBlockSizeCodes() {
+        GuestCodeSequence sequence = new GuestCodeSequence("guest_code", 1L, null);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(sequenceRepository.findForUpdate("guest_code")).thenReturn(Optional.of(sequence));
+
+        List<String> codes = allocator.nextCodes(250);
+
+        assertEquals(250, new HashSet<>(codes).size());
+        assertEquals(301L, sequence.getNextValue());
+        verify(sequenceRepository, times(3)).findForUpdate("guest_code");
+    }
+
+    @Test
+    void nextCode_ShouldCreateTheSequenceInItsOwnTransaction_WhenTheRowIsMissing() {
+        GuestCodeSequence sequence = new GuestCodeSequence("guest_code", 1L, null);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(sequenceRepository.findForUpdate("guest_code")).thenReturn(Optional.empty(), Optional.of(sequence));
+
+        assertEquals(allocator.encode(1L), allocator.nextCode());
+
+        InOrder order = inOrder(sequenceRepository, transactionManager);
+        order.verify(transactionManager).commit(any());
+        order.verify(sequenceRepository).createIfMissing("guest_code");
+        order.verify(transactionManager).commit(any());
+        order.verify(sequenceRepository).findForUpdate("guest_code");
+        assertEquals(101L, sequence.getNextValue());
+    }
+}
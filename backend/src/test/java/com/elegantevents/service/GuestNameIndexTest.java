@@ -0,0 +1,54 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.GuestSearchResult;
+import com.elegantevents.model.Guest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuestNameIndexTest {
+
+    private GuestNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GuestNameIndex();
+        index.add(1L, "AAAA0001", "Abebe", "Kebede", "T1-1", Guest.Priority.STANDARD);
+        index.add(2L, "AAAA0002", "Tesfaye", "Bekele", "T2-3", Guest.Priority.VIP);
+        index.add(3L, "AAAA0003", "ሰላም", "ተስፋዬ", null, Guest.Priority.STANDARD);
+        index.add(4L, "AAAA0004", "Hélène", "Abera", null, Guest.Priority.VVIP);
+    }
+
+    @Test
+    void normalize_ShouldFoldEthiopicAndLatinSpellings() {
+        assertEquals("abebe kebede", NameNormalizer.normalize("አበበ ከበደ"));
+        assertEquals("abebe kebede", NameNormalizer.normalize("  ABBEBE  Qebede "));
+        assertEquals("tesfaye", NameNormalizer.normalize("ተስፋዬ"));
+        assertEquals("helene", NameNormalizer.normalize("Hélène"));
+    }
+
+    @Test
+    void search_ShouldRankPrefixMatchesFirst() {
+        List<GuestSearchResult> results = index.search("abe", 10);
+
+        assertEquals(1L, results.get(0).getGuestId());
+        assertTrue(results.stream().anyMatch(r -> r.getGuestId() == 4L)); // Abera
+    }
+
+    @Test
+    void search_ShouldMatchAcrossScripts() {
+        assertEquals(3L, index.search("Selam", 10).get(0).getGuestId());
+        assertEquals(2L, index.search("ተስፋዬ በቀለ", 10).get(0).getGuestId());
+    }
+
+    @Test
+    void search_ShouldTolerateTypos() {
+        List<GuestSearchResult> results = index.search("Tesfay Bekle", 3);
+
+        assertFalse(results.isEmpty());
+        assertEquals(2L, results.get(0).getGuestId());
+    }
+}
@@ -0,0 +1,81 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.CheckInResult;
+import com.elegantevents.model.Guest;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.WeddingCardRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GuestServiceTest {
+
+    @Mock
+    private GuestRepository guestRepository;
+
+    @Mock
+    private WeddingRepository weddingRepository;
+
+    @Mock
+    private WeddingCardRepository weddingCardRepository;
+
+    @Mock
+    private QRCodeService qrCodeService;
+
+    @Mock
+    private QRPayloadSigner qrPayloadSigner;
+
+    @Mock
+    private GuestBulkImportService guestBulkImportService;
+
+    @Mock
+    private CheckInIndexService checkInIndexService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private GuestService guestService;
+
+    @BeforeEach
+    void setUp() {
+        guestService = new GuestService(guestRepository, weddingRepository, weddingCardRepository,
+                qrCodeService, qrPayloadSigner, guestBulkImportService,
+                checkInIndexService, eventPublisher, false);
+    }
+
+    @Test
+    void checkInGuest_ShouldReturnTheWholeGuest_WhenTheWeddingIsServedFromTheIndex() {
+        LocalDateTime arrivedAt = LocalDateTime.of(2025, 6, 14, 17, 30);
+        CheckInResult indexed = new CheckInResult(1L, 7L, "ABC123", "Ada", "Lovelace", "T1-1",
+                Guest.Priority.STANDARD, arrivedAt, false);
+        when(checkInIndexService.checkInByGuestId(1L)).thenReturn(indexed);
+        Guest stored = new Guest();
+        stored.setId(1L);
+        stored.setWeddingId(7L);
+        stored.setEmail("ada@example.com");
+        stored.setQrCodeUrl("data:image/png;base64,AAAA");
+        stored.setCheckedIn(false);
+        when(guestRepository.findReadOnlyById(1L)).thenReturn(Optional.of(stored));
+
+        Guest guest = guestService.checkInGuest(1L);
+
+        assertEquals("ada@example.com", guest.getEmail());
+        assertEquals("data:image/png;base64,AAAA", guest.getQrCodeUrl());
+        assertTrue(guest.getCheckedIn());
+        assertEquals(arrivedAt, guest.getCheckedInAt());
+        // The journal flush writes the row
+        verify(guestRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,127 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.GuestSnapshot;
+import com.elegantevents.model.Guest;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GuestSnapshotServiceTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2026, 5, 2, 18, 30);
+
+    private Object[] row(long id, String code, String first, String seat, Guest.Priority priority, boolean checkedIn,
+                         LocalDateTime updatedAt) {
+        return new Object[]{id, code, first, "Tesfaye", seat, priority, Guest.RSVPStatus.CONFIRMED, checkedIn, updatedAt};
+    }
+
+    @Test
+    void encode_ShouldWriteColumnarLayoutAndLatestVersion() throws IOException {
+        List<Object[]> rows = List.of(
+                row(100, "AB12CD3X", "Selam", "T1-4", Guest.Priority.VIP, true, UPDATED),
+                row(103, "QW34ER5Y", "Hanna", null, Guest.Priority.STANDARD, false, UPDATED.plusMinutes(5)));
+
+        GuestSnapshot snapshot = GuestSnapshotService.encode(7L, 0, rows);
+
+        DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(snapshot.getBody())));
+        assertEquals("EEGS", new String(in.readNBytes(4), StandardCharsets.US_ASCII));
+        assertEquals(GuestSnapshotService.FORMAT, in.readByte());
+        assertEquals(0, in.readByte());
+        assertEquals(7L, in.readLong());
+        long version = UPDATED.plusMinutes(5).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertEquals(version, in.readLong());
+        assertEquals(version, snapshot.getVersion());
+        assertEquals(0L, in.readLong());
+        assertEquals(2, readVarint(in));
+        assertEquals(100, readVarint(in));
+        assertEquals(3, readVarint(in));
+        assertEquals(List.of("AB12CD3X", "QW34ER5Y"), readStrings(in, 2));
+        assertEquals(List.of("Selam", "Hanna"), readStrings(in, 2));
+        assertEquals(List.of("Tesfaye", "Tesfaye"), readStrings(in, 2));
+        assertEquals(Arrays.asList("T1-4", null), readStrings(in, 2));
+        assertEquals(Guest.Priority.VIP.ordinal(), in.readByte());
+        assertEquals(Guest.Priority.STANDARD.ordinal(), in.readByte());
+        assertEquals(Guest.RSVPStatus.CONFIRMED.ordinal(), in.readByte());
+        assertEquals(Guest.RSVPStatus.CONFIRMED.ordinal(), in.readByte());
+        assertEquals(0b01, in.readByte());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void encode_ShouldKeepBaseVersion_WhenDeltaIsEmpty() {
+        GuestSnapshot snapshot = GuestSnapshotService.encode(7L, 1_700_000_000_000L, List.of());
+
+        assertEquals(1_700_000_000_000L, snapshot.getVersion());
+        assertEquals(0, snapshot.getGuestCount());
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static List<String> readStrings(DataInputStream in, int count) throws IOException {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int length = (int) readVarint(in);
+            values.add(length == 0 ? null : new String(in.readNBytes(length - 1), StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    @Test
+    void getSnapshot_ShouldReachBackAnOverlapWindow_SoLateCommitsAreNotMissed() {
+        GuestRepository guestRepository = mock(GuestRepository.class);
+        WeddingRepository weddingRepository = mock(WeddingRepository.class);
+        CheckInIndexService checkInIndexService = mock(CheckInIndexService.class);
+        GuestSnapshotService service = new GuestSnapshotService(guestRepository, weddingRepository, checkInIndexService, 4);
+        when(weddingRepository.existsById(1L)).thenReturn(true);
+        when(guestRepository.findLatestUpdateByWeddingId(1L)).thenReturn(UPDATED);
+        long clientVersion = UPDATED.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // Stamped before the client's version, committed after the client read it
+        LocalDateTime lateCommit = UPDATED.minusSeconds(1);
+        LocalDateTime since = UPDATED.minusNanos(GuestSnapshotService.DELTA_OVERLAP_MILLIS * 1_000_000);
+        when(guestRepository.findSnapshotRowsUpdatedSince(1L, since)).thenReturn(List.<Object[]>of(
+                row(5, "LATE0001", "Abebe", "T1", Guest.Priority.STANDARD, false, lateCommit)));
+
+        GuestSnapshot delta = service.getSnapshot(1L, clientVersion);
+
+        assertEquals(1, delta.getGuestCount());
+        assertEquals(clientVersion, delta.getVersion());
+    }
+
+    @Test
+    void currentVersion_ShouldNotFlushDoorScans() {
+        GuestRepository guestRepository = mock(GuestRepository.class);
+        WeddingRepository weddingRepository = mock(WeddingRepository.class);
+        CheckInIndexService checkInIndexService = mock(CheckInIndexService.class);
+        GuestSnapshotService service = new GuestSnapshotService(guestRepository, weddingRepository, checkInIndexService, 4);
+        when(weddingRepository.existsById(1L)).thenReturn(true);
+        when(guestRepository.findLatestUpdateByWeddingId(1L)).thenReturn(UPDATED);
+
+        service.currentVersion(1L);
+
+        verifyNoInteractions(checkInIndexService);
+    }
+}
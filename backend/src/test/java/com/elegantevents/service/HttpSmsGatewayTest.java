@@ -0,0 +1,48 @@
+package com.elegantevents.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class HttpSmsGatewayTest {
+
+    @Test
+    void sendBatch_ShouldSendOneRequest_AndReportEachMessage() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("http://sms.local/bulk"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("Authorization", "Bearer secret"))
+                .andExpect(jsonPath("$.sender").value("ElegantEvents"))
+                .andExpect(jsonPath("$.messages.length()").value(3))
+                .andRespond(withSuccess("{\"results\": [" +
+                        "{\"reference\": \"1\", \"accepted\": true, \"messageId\": \"m-1\"}," +
+                        "{\"reference\": \"2\", \"accepted\": false, \"error\": \"Invalid number\"}]}",
+                        MediaType.APPLICATION_JSON));
+        HttpSmsGateway gateway = new HttpSmsGateway(restTemplate, "http://sms.local/bulk", "secret", "ElegantEvents");
+
+        Map<String, SmsGateway.SmsResult> results = gateway.sendBatch(List.of(
+                new SmsGateway.SmsMessage("1", "+251911000001", "Hi"),
+                new SmsGateway.SmsMessage("2", "123", "Hi"),
+                new SmsGateway.SmsMessage("3", "+251911000003", "Hi")))
+                .stream().collect(Collectors.toMap(SmsGateway.SmsResult::reference, Function.identity()));
+
+        server.verify();
+        assertTrue(results.get("1").accepted());
+        assertEquals("m-1", results.get("1").providerMessageId());
+        assertFalse(results.get("2").accepted());
+        assertEquals("Invalid number", results.get("2").error());
+        assertFalse(results.get("3").accepted());
+    }
+}
@@ -0,0 +1,166 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.MessageDTO;
+import com.elegantevents.model.Message;
+import com.elegantevents.model.MessageArchive;
+import com.elegantevents.model.User;
+import com.elegantevents.model.WeddingMessage;
+import com.elegantevents.repository.MessageArchiveRepository;
+import com.elegantevents.repository.MessageRepository;
+import com.elegantevents.repository.WeddingMessageRepository;
+import com.elegantevents.repository.WeddingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageArchiveServiceTest {
+
+    @Mock
+    private MessageArchiveRepository archiveRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private WeddingMessageRepository weddingMessageRepository;
+
+    @Mock
+    private WeddingRepository weddingRepository;
+
+    @Mock
+    private ConversationSummaryService summaryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MessageArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        archiveService = new MessageArchiveService(archiveRepository, messageRepository, weddingMessageRepository,
+                weddingRepository, summaryService, eventPublisher, new ObjectMapper().findAndRegisterModules(),
+                transactionManager, true, 90, 1000);
+    }
+
+    @Test
+    void archiveDirect_ShouldStoreOneChunkPerPairAndMonth_AndReadItBackNewestFirst() {
+        User couple = user(1L, "couple");
+        User manager = user(2L, "manager");
+        User vendor = user(3L, "vendor");
+        LocalDateTime january = LocalDateTime.of(2024, 1, 10, 9, 0);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(messageRepository.findArchivable(eq(1L), any(), any())).thenReturn(List.of(
+                message(10L, manager, couple, january, false),
+                message(11L, couple, manager, january.plusDays(1), true),
+                message(12L, vendor, couple, january.plusDays(2), true),
+                message(13L, manager, couple, january.plusMonths(1), true)));
+
+        assertEquals(4, archiveService.archiveDirect(1L, LocalDateTime.of(2024, 6, 1, 0, 0)));
+
+        ArgumentCaptor<MessageArchive> chunks = ArgumentCaptor.forClass(MessageArchive.class);
+        verify(archiveRepository, times(3)).save(chunks.capture());
+        MessageArchive first = chunks.getAllValues().get(0);
+        assertEquals(1L, first.getUserLowId());
+        assertEquals(2L, first.getUserHighId());
+        assertEquals(10L, first.getFirstMessageId());
+        assertEquals(11L, first.getLastMessageId());
+        assertEquals(2, first.getMessageCount());
+        verify(messageRepository).deleteAllByIdInBatch(List.of(10L, 11L, 12L, 13L));
+        // The one unread message leaves the couple's unread counts
+        verify(summaryService).markRead(1L, 2L, 1);
+        verify(eventPublisher).publishEvent(any(MessagesReadEvent.class));
+
+        when(archiveRepository.findDirectChunksBefore(1L, 2L, 11L)).thenReturn(List.of(1L));
+        first.setId(1L);
+        when(archiveRepository.findAllById(List.of(1L))).thenReturn(List.of(first));
+        List<MessageDTO> page = archiveService.findDirectBefore(2L, 1L, 11L, 50);
+
+        assertEquals(1, page.size());
+        assertEquals(10L, page.get(0).getId());
+        assertEquals("manager", page.get(0).getSenderClerkId());
+        assertEquals(january, page.get(0).getSentAt());
+        assertTrue(page.get(0).isRead());
+    }
+
+    @Test
+    void archiveWedding_ShouldStoreOneChunkPerMonth_AndPageBackThroughThem() {
+        LocalDateTime january = LocalDateTime.of(2024, 1, 10, 9, 0);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(weddingMessageRepository.findByWeddingIdAndCreatedAtBeforeOrderByIdAsc(eq(7L), any(), any()))
+                .thenReturn(List.of(
+                        weddingMessage(20L, january, true, null),
+                        weddingMessage(21L, january.plusDays(3), false, 4L),
+                        weddingMessage(22L, january.plusMonths(1), true, null)));
+
+        assertEquals(3, archiveService.archiveWedding(7L, LocalDateTime.of(2024, 6, 1, 0, 0)));
+
+        ArgumentCaptor<MessageArchive> chunks = ArgumentCaptor.forClass(MessageArchive.class);
+        verify(archiveRepository, times(2)).save(chunks.capture());
+        MessageArchive jan = chunks.getAllValues().get(0);
+        MessageArchive feb = chunks.getAllValues().get(1);
+        assertEquals(MessageArchive.Kind.WEDDING, jan.getKind());
+        assertEquals(7L, jan.getWeddingId());
+        assertEquals(20L, jan.getFirstMessageId());
+        assertEquals(21L, jan.getLastMessageId());
+        assertEquals(1, feb.getMessageCount());
+        verify(weddingMessageRepository).deleteAllByIdInBatch(List.of(20L, 21L, 22L));
+
+        jan.setId(1L);
+        feb.setId(2L);
+        when(archiveRepository.findWeddingChunksBefore(7L, Long.MAX_VALUE)).thenReturn(List.of(2L, 1L));
+        when(archiveRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(jan, feb));
+        List<WeddingMessage> page = archiveService.findWeddingMessagesBefore(7L, Long.MAX_VALUE, 2);
+
+        assertEquals(List.of(22L, 21L), page.stream().map(WeddingMessage::getId).toList());
+        assertEquals(4L, page.get(1).getRecipientGuestId());
+
+        when(archiveRepository.findWeddingChunksBefore(7L, 21L)).thenReturn(List.of(1L));
+        when(archiveRepository.findAllById(List.of(1L))).thenReturn(List.of(jan));
+        List<WeddingMessage> older = archiveService.findWeddingMessagesBefore(7L, 21L, 2);
+
+        assertEquals(List.of(20L), older.stream().map(WeddingMessage::getId).toList());
+    }
+
+    private static WeddingMessage weddingMessage(Long id, LocalDateTime createdAt, boolean broadcast, Long guestId) {
+        WeddingMessage message = new WeddingMessage();
+        message.setId(id);
+        message.setWeddingId(7L);
+        message.setSenderClerkId("couple");
+        message.setSenderType(WeddingMessage.SenderType.COUPLE);
+        message.setRecipientGuestId(guestId);
+        message.setMessage("Message " + id);
+        message.setIsBroadcast(broadcast);
+        message.setCreatedAt(createdAt);
+        message.setUpdatedAt(createdAt);
+        return message;
+    }
+
+    private static Message message(Long id, User from, User to, LocalDateTime sentAt, boolean read) {
+        return new Message(id, from, to, "Message " + id, sentAt, read);
+    }
+
+    private static User user(Long id, String clerkId) {
+        User user = new User();
+        user.setId(id);
+        user.setClerkId(clerkId);
+        return user;
+    }
+}
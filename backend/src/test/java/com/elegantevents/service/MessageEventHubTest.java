@@ -0,0 +1,178 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.Message;
+import com.elegantevents.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MessageEventHubTest {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    @Test
+    void publish_ShouldReplaceTheQueueWithResync_WhenASubscriberFallsTooFarBehind() {
+        MessageEventHub hub = hub(manualExecutor(), 2);
+        hub.subscribe("b");
+
+        // The open heartbeat and the first message fill the queue; the second overflows it
+        for (int i = 1; i <= 3; i++) {
+            hub.onMessageSent(new MessageSentEvent(message("a", "b")));
+        }
+        runTasks();
+
+        assertEquals(List.of("resync", "message"), emitters.get(0).sent);
+    }
+
+    @Test
+    void publish_ShouldReachEveryStreamOfBothParticipants_ButAMessageToSelfOnce() {
+        MessageEventHub hub = hub(manualExecutor(), 10);
+        hub.subscribe("a");
+        hub.subscribe("b");
+        hub.subscribe("b");
+
+        hub.onMessageSent(new MessageSentEvent(message("a", "b")));
+        hub.onMessageSent(new MessageSentEvent(message("a", "a")));
+        runTasks();
+
+        assertEquals(List.of("keep-alive", "message", "message"), emitters.get(0).sent);
+        assertEquals(List.of("keep-alive", "message"), emitters.get(1).sent);
+        assertEquals(List.of("keep-alive", "message"), emitters.get(2).sent);
+    }
+
+    @Test
+    void heartbeat_ShouldPingIdleStreams_AndDropClosedOnes() {
+        MessageEventHub hub = hub(manualExecutor(), 10);
+        hub.subscribe("b");
+        hub.subscribe("b");
+        runTasks();
+        emitters.get(1).closed = true;
+
+        hub.heartbeat();
+        runTasks();
+
+        assertEquals(List.of("keep-alive", "keep-alive"), emitters.get(0).sent);
+        assertEquals(1, hub.subscriberCount("b"));
+    }
+
+    @Test
+    void publish_ShouldRetryLater_WhenThePoolRejectsTheDrain() {
+        ThreadPoolTaskExecutor executor = mock(ThreadPoolTaskExecutor.class);
+        doThrow(new TaskRejectedException("full"))
+                .doAnswer(invocation -> tasks.add(invocation.getArgument(0)))
+                .when(executor).execute(any(Runnable.class));
+        MessageEventHub hub = hub(executor, 10);
+        hub.subscribe("b");
+
+        hub.onMessageSent(new MessageSentEvent(message("a", "b")));
+        runTasks();
+
+        assertEquals(List.of("keep-alive", "message"), emitters.get(0).sent);
+    }
+
+    @Test
+    void publish_ShouldDeliverEveryEvent_WhenOfferedWhileADrainIsFinishing() throws Exception {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        ExecutorService publishers = Executors.newFixedThreadPool(4);
+        try {
+            MessageEventHub hub = hub(executor, 100_000);
+            hub.subscribe("b");
+            int perPublisher = 5000;
+            CountDownLatch done = new CountDownLatch(4);
+            for (int p = 0; p < 4; p++) {
+                publishers.execute(() -> {
+                    for (int i = 0; i < perPublisher; i++) {
+                        hub.onMessageSent(new MessageSentEvent(message("a", "b")));
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+
+            // Nothing is left behind in the queue once the publishers stop
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (emitters.get(0).sent.size() < 4 * perPublisher + 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(4 * perPublisher + 1, emitters.get(0).sent.size());
+        } finally {
+            publishers.shutdownNow();
+            executor.shutdown();
+        }
+    }
+
+    private MessageEventHub hub(ThreadPoolTaskExecutor executor, int queueCapacity) {
+        return new MessageEventHub(executor, queueCapacity, 60000) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private ThreadPoolTaskExecutor manualExecutor() {
+        ThreadPoolTaskExecutor executor = mock(ThreadPoolTaskExecutor.class);
+        doAnswer(invocation -> tasks.add(invocation.getArgument(0))).when(executor).execute(any(Runnable.class));
+        return executor;
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private static Message message(String from, String to) {
+        Message message = new Message();
+        message.setSender(user(from));
+        message.setReceiver(user(to));
+        message.setContent("hi");
+        return message;
+    }
+
+    private static User user(String clerkId) {
+        User user = new User();
+        user.setClerkId(clerkId);
+        return user;
+    }
+
+    // Records the event name, or the comment for heartbeats, of everything sent
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new CopyOnWriteArrayList<>();
+        volatile boolean closed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (closed) {
+                throw new IOException("Broken pipe");
+            }
+            String head = (String) builder.build().iterator().next().getData();
+            sent.add(head.startsWith(":") ? head.substring(1).trim() : head.substring(6, head.indexOf('\n')));
+        }
+
+        @Override
+        public void send(Object object, MediaType mediaType) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
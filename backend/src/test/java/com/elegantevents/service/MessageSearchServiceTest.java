@@ -0,0 +1,150 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.MessageDTO;
+import com.elegantevents.dto.MessageSearchResultDTO;
+import com.elegantevents.model.Message;
+import com.elegantevents.model.User;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.model.WeddingMessage;
+import com.elegantevents.repository.MessageRepository;
+import com.elegantevents.repository.WeddingAssignmentRepository;
+import com.elegantevents.repository.WeddingMessageRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageSearchServiceTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private WeddingMessageRepository weddingMessageRepository;
+
+    @Mock
+    private WeddingRepository weddingRepository;
+
+    @Mock
+    private WeddingAssignmentRepository assignmentRepository;
+
+    @TempDir
+    Path indexDir;
+
+    private MessageSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        searchService = newService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchService.close();
+    }
+
+    @Test
+    void search_ShouldOnlyFindMessagesInTheCallersConversationsAndWeddings() {
+        when(messageRepository.findAllAfter(anyLong(), any())).thenReturn(List.of());
+        when(weddingMessageRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any())).thenReturn(List.of());
+        when(assignmentRepository.findWeddingIdsByParticipant("manager")).thenReturn(List.of(7L));
+        when(weddingRepository.findByClerkId("manager")).thenReturn(Optional.empty());
+        searchService.open();
+
+        searchService.onMessageSent(new MessageSentEvent(message(1L, "couple", "manager", "The venue change is confirmed")));
+        searchService.onMessageSent(new MessageSentEvent(message(2L, "other", "someone", "Our venue changed too")));
+        searchService.onWeddingMessageSent(new WeddingMessageSentEvent(weddingMessage(3L, 7L, "New venue: the garden")));
+        searchService.onWeddingMessageSent(new WeddingMessageSentEvent(weddingMessage(4L, 8L, "Venue for wedding 8")));
+        searchService.refresh();
+
+        List<MessageSearchResultDTO> results = searchService.search("manager", "VENUE", null);
+
+        assertEquals(List.of("DIRECT:1", "WEDDING:3"),
+                results.stream().map(r -> r.getType() + ":" + r.getId()).sorted().toList());
+        // The last word matches as a prefix while it is being typed
+        assertEquals(1, searchService.search("manager", "venue chan", null).size());
+        assertThrows(IllegalArgumentException.class, () -> searchService.search("manager", " ?! ", null));
+    }
+
+    @Test
+    void search_ShouldLetTheCoupleFindTheirWeddingMessages_ButTheirContactOnlyTheDirectOne() {
+        when(messageRepository.findAllAfter(anyLong(), any())).thenReturn(List.of());
+        when(weddingMessageRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any())).thenReturn(List.of());
+        Wedding wedding = new Wedding();
+        wedding.setId(7L);
+        when(weddingRepository.findByClerkId("couple")).thenReturn(Optional.of(wedding));
+        when(weddingRepository.findByClerkId("vendor")).thenReturn(Optional.empty());
+        searchService.open();
+
+        searchService.onMessageSent(new MessageSentEvent(message(1L, "couple", "vendor", "Venue moved to the lakeside hall")));
+        searchService.onWeddingMessageSent(new WeddingMessageSentEvent(weddingMessage(2L, 7L, "Lakeside parking opens at 5")));
+        searchService.refresh();
+
+        assertEquals(List.of("DIRECT:1", "WEDDING:2"), searchService.search("couple", "lakeside", null).stream()
+                .map(r -> r.getType() + ":" + r.getId()).sorted().toList());
+        assertEquals(List.of("DIRECT:1"), searchService.search("vendor", "lakeside", null).stream()
+                .map(r -> r.getType() + ":" + r.getId()).toList());
+    }
+
+    @Test
+    void open_ShouldIndexOnlyMessagesAboveTheCommittedWatermark_AfterARestart() {
+        when(messageRepository.findAllAfter(anyLong(), any())).thenReturn(List.of(
+                new MessageDTO(5000L, "couple", "manager", "Cake tasting on Friday", LocalDateTime.now(), false)));
+        when(weddingMessageRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any())).thenReturn(List.of());
+        searchService.open();
+        searchService.close();
+
+        searchService = newService();
+        searchService.open();
+
+        verify(messageRepository).findAllAfter(eq(0L), any());
+        verify(messageRepository).findAllAfter(eq(4000L), any());
+        when(weddingRepository.findByClerkId("couple")).thenReturn(Optional.empty());
+        assertEquals(1, searchService.search("couple", "cake", null).size());
+    }
+
+    private MessageSearchService newService() {
+        return new MessageSearchService(messageRepository, weddingMessageRepository, weddingRepository,
+                assignmentRepository, indexDir.toString(), 50);
+    }
+
+    private static Message message(Long id, String from, String to, String content) {
+        Message message = new Message();
+        message.setId(id);
+        message.setSender(user(from));
+        message.setReceiver(user(to));
+        message.setContent(content);
+        message.setSentAt(LocalDateTime.now());
+        return message;
+    }
+
+    private static WeddingMessage weddingMessage(Long id, Long weddingId, String content) {
+        WeddingMessage message = new WeddingMessage();
+        message.setId(id);
+        message.setWeddingId(weddingId);
+        message.setSenderClerkId("couple-" + weddingId);
+        message.setMessage(content);
+        message.setCreatedAt(LocalDateTime.now());
+        return message;
+    }
+
+    private static User user(String clerkId) {
+        User user = new User();
+        user.setClerkId(clerkId);
+        return user;
+    }
+}
@@ -0,0 +1,164 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.MessageDTO;
+import com.elegantevents.model.ConversationSummary;
+import com.elegantevents.model.Message;
+import com.elegantevents.model.User;
+import com.elegantevents.repository.ConversationSummaryRepository;
+import com.elegantevents.repository.MessageRepository;
+import com.elegantevents.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MessageServiceTest {
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ConversationSummaryRepository summaryRepository;
+
+    @Mock
+    private ConversationSummaryService summaryService;
+
+    @Mock
+    private MessageArchiveService archiveService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private MessageService messageService;
+
+    @BeforeEach
+    void setUp() {
+        messageService = new MessageService(messageRepository, userRepository, summaryRepository, summaryService,
+                archiveService, eventPublisher, 50, 200);
+    }
+
+    @Test
+    void getConversationPage_ShouldReturnLatestOldestFirst_AndCapTheLimit() {
+        when(userRepository.findByClerkId("a")).thenReturn(Optional.of(user(1L)));
+        when(userRepository.findByClerkId("b")).thenReturn(Optional.of(user(2L)));
+        when(messageRepository.findConversationBefore(1L, 2L, Long.MAX_VALUE, PageRequest.of(0, 200)))
+                .thenReturn(List.of(message(9L), message(8L), message(5L)));
+
+        List<MessageDTO> page = messageService.getConversationPage("a", "b", null, null, 10_000);
+
+        assertEquals(List.of(5L, 8L, 9L), page.stream().map(MessageDTO::getId).toList());
+    }
+
+    @Test
+    void getConversationPage_ShouldContinueIntoTheArchive_WhenHotMessagesRunOut() {
+        when(userRepository.findByClerkId("a")).thenReturn(Optional.of(user(1L)));
+        when(userRepository.findByClerkId("b")).thenReturn(Optional.of(user(2L)));
+        when(messageRepository.findConversationBefore(1L, 2L, Long.MAX_VALUE, PageRequest.of(0, 4)))
+                .thenReturn(List.of(message(9L), message(8L)));
+        when(archiveService.findDirectBefore(1L, 2L, Long.MAX_VALUE, 2)).thenReturn(List.of(message(5L), message(3L)));
+
+        List<MessageDTO> latest = messageService.getConversationPage("a", "b", null, null, 4);
+
+        assertEquals(List.of(3L, 5L, 8L, 9L), latest.stream().map(MessageDTO::getId).toList());
+
+        // Fetching what is new after an archived message reads the archive first, then the hot table
+        when(archiveService.findDirectAfter(1L, 2L, 3L, 3)).thenReturn(List.of(message(5L)));
+        when(messageRepository.findConversationAfter(1L, 2L, 3L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(message(8L), message(9L)));
+
+        List<MessageDTO> newer = messageService.getConversationPage("a", "b", 3L, null, 3);
+
+        assertEquals(List.of(5L, 8L, 9L), newer.stream().map(MessageDTO::getId).toList());
+    }
+
+    @Test
+    void getConversationPage_ShouldRejectBothCursors() {
+        assertThrows(IllegalArgumentException.class,
+                () -> messageService.getConversationPage("a", "b", 1L, 9L, null));
+        verifyNoInteractions(messageRepository);
+    }
+
+    @Test
+    void markAsRead_ShouldDecrementTheReadersUnreadCount_OnlyTheFirstTime() {
+        Message message = new Message();
+        message.setId(3L);
+        message.setSender(user(1L));
+        message.setReceiver(user(2L));
+        when(messageRepository.findById(3L)).thenReturn(Optional.of(message));
+
+        messageService.markAsRead(3L);
+        messageService.markAsRead(3L);
+
+        assertTrue(message.isRead());
+        verify(summaryService, times(1)).markRead(2L, 1L, 1);
+    }
+
+    @Test
+    void markConversationRead_ShouldMarkInOneUpdate_AndMoveSummaryAndBadgeByTheMarkedCount() {
+        User reader = user(2L);
+        reader.setClerkId("b");
+        when(userRepository.findByClerkId("b")).thenReturn(Optional.of(reader));
+        when(userRepository.findByClerkId("a")).thenReturn(Optional.of(user(1L)));
+        when(messageRepository.markReadUpTo(2L, 1L, Long.MAX_VALUE)).thenReturn(4);
+
+        assertEquals(4, messageService.markConversationRead("b", "a", null));
+
+        verify(summaryService).markRead(2L, 1L, 4);
+        ArgumentCaptor<MessagesReadEvent> event = ArgumentCaptor.forClass(MessagesReadEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals("b", event.getValue().getReaderClerkId());
+        assertEquals(4, event.getValue().getCount());
+    }
+
+    @Test
+    void getInbox_ShouldShowTheArchivedLastMessage_WhenTheConversationWasArchived() {
+        User a = user(1L);
+        a.setClerkId("a");
+        User b = user(2L);
+        b.setClerkId("b");
+        ConversationSummary summary = new ConversationSummary();
+        summary.setUserId(1L);
+        summary.setPeerId(2L);
+        summary.setLastMessageId(7L);
+        when(userRepository.findByClerkId("a")).thenReturn(Optional.of(a));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(a));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(b));
+        when(summaryRepository.findByUserIdOrderByLastMessageAtDesc(1L)).thenReturn(List.of(summary));
+        when(messageRepository.findAllById(List.of(7L))).thenReturn(List.of());
+        when(archiveService.findDirect(1L, 2L, 7L))
+                .thenReturn(Optional.of(new MessageDTO(7L, "b", "a", "See you at the venue", LocalDateTime.now(), true)));
+
+        List<Message> inbox = messageService.getInbox("a");
+
+        assertEquals(1, inbox.size());
+        assertEquals("See you at the venue", inbox.get(0).getContent());
+        assertSame(b, inbox.get(0).getSender());
+        assertSame(a, inbox.get(0).getReceiver());
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static MessageDTO message(Long id) {
+        return new MessageDTO(id, "a", "b", "hi", LocalDateTime.now(), false);
+    }
+}
@@ -0,0 +1,64 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.NotificationOutbox;
+import com.elegantevents.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxServiceTest {
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private NotificationOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new NotificationOutboxService(outboxRepository, jdbcTemplate, 200);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void enqueueAll_ShouldSkipKeysAlreadyQueued_AndRepeatsWithinTheBatch() {
+        when(outboxRepository.findExistingKeys(List.of("invite-1", "invite-2", "invite-3"))).thenReturn(List.of("invite-2"));
+
+        int queued = outboxService.enqueueAll(List.of(message("invite-1"), message("invite-1"), message("invite-2"),
+                message("invite-3")));
+
+        assertEquals(2, queued);
+        ArgumentCaptor<Collection> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO notification_outbox"), rows.capture(), eq(200), any());
+        assertEquals(List.of("invite-1", "invite-3"),
+                ((Collection<OutboxMessage>) rows.getValue()).stream().map(OutboxMessage::idempotencyKey).toList());
+    }
+
+    @Test
+    void enqueueAll_ShouldInsertNothing_WhenEveryKeyIsAlreadyQueued() {
+        when(outboxRepository.findExistingKeys(List.of("invite-1"))).thenReturn(List.of("invite-1"));
+
+        assertEquals(0, outboxService.enqueue(message("invite-1")));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static OutboxMessage message(String key) {
+        return new OutboxMessage(NotificationOutbox.Channel.EMAIL, NotificationService.KIND_GUEST_INVITATION, key,
+                "guest@example.com", "You're invited", "Hello", 7L, 1L, null);
+    }
+}
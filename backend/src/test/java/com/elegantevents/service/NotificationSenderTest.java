@@ -0,0 +1,63 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.NotificationOutbox;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationSenderTest {
+
+    private LocalSmtpServer smtp;
+    private NotificationSender sender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new LocalSmtpServer();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtp.getPort());
+        sender = new NotificationSender(new SmtpTransportPool(mailSender, 1, 100, 30000, 1000), new LoggingSmsGateway(),
+                "noreply@elegantevents.com");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtp.close();
+    }
+
+    @Test
+    void send_ShouldKeepMessageIdFromIdempotencyKey_AcrossAttempts() throws Exception {
+        NotificationOutbox notification = email("invite:email:42");
+        smtp.failNextMessages = 1;
+
+        assertThrows(MessagingException.class, () -> sender.send(notification));
+        sender.send(notification);
+        sender.send(notification);
+
+        assertEquals(2, smtp.messages.size());
+        for (String message : smtp.messages) {
+            assertTrue(message.contains("Message-ID: <invite.email.42@elegantevents.com>"), message);
+            assertTrue(message.contains("To: guest@example.com"), message);
+        }
+    }
+
+    private static NotificationOutbox email(String key) {
+        NotificationOutbox notification = new NotificationOutbox();
+        notification.setId(1L);
+        notification.setChannel(NotificationOutbox.Channel.EMAIL);
+        notification.setKind(NotificationService.KIND_GUEST_INVITATION);
+        notification.setIdempotencyKey(key);
+        notification.setRecipient("guest@example.com");
+        notification.setSubject("You're Invited!");
+        notification.setBody("<p>Hello</p>");
+        notification.setAttempts(1);
+        notification.setNextAttemptAt(LocalDateTime.now());
+        return notification;
+    }
+}
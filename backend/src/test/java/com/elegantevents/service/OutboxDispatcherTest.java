@@ -0,0 +1,152 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.NotificationOutbox;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.NotificationOutboxRepository;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private NotificationSender sender;
+
+    @Mock
+    private GuestRepository guestRepository;
+
+    @Mock
+    private GuestStatsService guestStatsService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new OutboxDispatcher(outboxRepository, sender, guestRepository, guestStatsService, jdbcTemplate,
+                executor, transactionManager, 100, 200, MAX_ATTEMPTS, 1000, 10000, 120000, 0, 50, 0, 10, 100);
+    }
+
+    @Test
+    void poll_ShouldOnlyDeliverRowsWhoseLeaseItWon() throws Exception {
+        runTransactionsAndDeliveriesInline();
+        NotificationOutbox won = notification(1L, 1);
+        when(outboxRepository.findClaimableIds(eq(NotificationOutbox.Channel.EMAIL), any(), any())).thenReturn(List.of(1L, 2L));
+        // Another node claimed row 2 between the select and the conditional update
+        when(jdbcTemplate.update(startsWith("UPDATE notification_outbox SET status = 'SENDING'"), any(), any(), eq(1L), any()))
+                .thenReturn(1);
+        when(jdbcTemplate.update(startsWith("UPDATE notification_outbox SET status = 'SENDING'"), any(), any(), eq(2L), any()))
+                .thenReturn(0);
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(won));
+
+        dispatcher.poll();
+
+        verify(sender).send(won);
+        verifyNoMoreInteractions(sender);
+    }
+
+    @Test
+    void recordOutcomes_ShouldBackOffFailures_AndMarkThemDeadAfterMaxAttempts() throws Exception {
+        runTransactionsAndDeliveriesInline();
+        NotificationOutbox retried = notification(1L, 1);
+        NotificationOutbox exhausted = notification(2L, MAX_ATTEMPTS);
+        when(outboxRepository.findClaimableIds(eq(NotificationOutbox.Channel.EMAIL), any(), any())).thenReturn(List.of(1L, 2L));
+        when(jdbcTemplate.update(anyString(), any(), any(), anyLong(), any())).thenReturn(1);
+        when(outboxRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(retried, exhausted));
+        doThrow(new MessagingException("Relay refused")).when(sender).send(any());
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.poll();
+        dispatcher.recordOutcomes();
+
+        PreparedStatement first = failedRow(0);
+        verify(first).setString(1, "PENDING");
+        verify(first).setString(3, "Relay refused");
+        ArgumentCaptor<Timestamp> nextAttempt = ArgumentCaptor.forClass(Timestamp.class);
+        verify(first).setTimestamp(eq(2), nextAttempt.capture());
+        long delay = Duration.between(before, nextAttempt.getValue().toLocalDateTime()).toMillis();
+        assertTrue(delay >= 1000 && delay < 2000, "first retry after about the base delay, was " + delay);
+
+        verify(failedRow(1)).setString(1, "DEAD");
+    }
+
+    @Test
+    void backoff_ShouldDoublePerAttempt_UpToTheCapPlusJitter() {
+        for (int i = 0; i < 50; i++) {
+            assertTrue(between(dispatcher.backoff(1), 1000, 1200));
+            assertTrue(between(dispatcher.backoff(3), 4000, 4800));
+            assertTrue(between(dispatcher.backoff(30), 10000, 12000));
+        }
+    }
+
+    private void runTransactionsAndDeliveriesInline() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+    }
+
+    /**
+     * Applies the MARK_FAILED setter to the given outcome and returns the statement it filled.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private PreparedStatement failedRow(int index) throws Exception {
+        ArgumentCaptor<Collection> rows = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE notification_outbox SET status = ?"), rows.capture(),
+                anyInt(), setter.capture());
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, List.copyOf(rows.getValue()).get(index));
+        return ps;
+    }
+
+    private static boolean between(long value, long min, long max) {
+        return value >= min && value <= max;
+    }
+
+    private static NotificationOutbox notification(Long id, int attempts) {
+        NotificationOutbox notification = new NotificationOutbox();
+        notification.setId(id);
+        notification.setChannel(NotificationOutbox.Channel.EMAIL);
+        notification.setKind("TEST");
+        notification.setRecipient("guest" + id + "@example.com");
+        notification.setAttempts(attempts);
+        return notification;
+    }
+}
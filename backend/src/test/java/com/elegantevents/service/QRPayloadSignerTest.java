@@ -0,0 +1,103 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.SignedQRVerification;
+import com.elegantevents.model.Guest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QRPayloadSignerTest {
+
+    private QRPayloadSigner signer;
+    private Guest guest;
+
+    @BeforeEach
+    void setUp() {
+        signer = new QRPayloadSigner(true, "test-signing-secret");
+
+        guest = new Guest();
+        guest.setId(4821L);
+        guest.setWeddingId(17L);
+        guest.setPriority(Guest.Priority.VIP);
+        guest.setSeatNumber("Table 4 - Seat 2");
+    }
+
+    @Test
+    void verify_ShouldAcceptPayload_WhenSignedWithSameSecret() {
+        Instant expiry = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+
+        SignedQRVerification result = signer.verify(signer.sign(guest, expiry));
+
+        assertTrue(result.isValid());
+        assertEquals(4821L, result.getGuestId());
+        assertEquals(17L, result.getWeddingId());
+        assertEquals(Guest.Priority.VIP, result.getPriority());
+        assertEquals("Table 4 - Seat 2", result.getSeatNumber());
+        assertEquals(expiry, result.getExpiresAt());
+    }
+
+    @Test
+    void verify_ShouldRejectPayload_WhenTampered() {
+        byte[] raw = Base64.getUrlDecoder().decode(signer.sign(guest, Instant.now().plus(1, ChronoUnit.DAYS)));
+        raw[raw.length - 15] ^= 0x01;
+
+        SignedQRVerification result = signer.verify(Base64.getUrlEncoder().withoutPadding().encodeToString(raw));
+
+        assertFalse(result.isValid());
+    }
+
+    @Test
+    void verify_ShouldRejectPayload_WhenSignedWithAnotherSecret() {
+        QRPayloadSigner otherSigner = new QRPayloadSigner(true, "another-secret");
+
+        SignedQRVerification result = signer.verify(otherSigner.sign(guest, Instant.now().plus(1, ChronoUnit.DAYS)));
+
+        assertFalse(result.isValid());
+        assertEquals("Signature mismatch", result.getReason());
+    }
+
+    @Test
+    void verify_ShouldRejectPayload_WhenExpired() {
+        SignedQRVerification result = signer.verify(signer.sign(guest, Instant.now().minus(1, ChronoUnit.HOURS)));
+
+        assertFalse(result.isValid());
+        assertEquals("Payload expired", result.getReason());
+    }
+
+    @Test
+    void verify_ShouldRejectPayload_WhenSignedPayloadsAreDisabled() {
+        String payload = signer.sign(guest, Instant.now().plus(1, ChronoUnit.DAYS));
+
+        SignedQRVerification result = new QRPayloadSigner(false, "").verify(payload);
+
+        assertFalse(result.isValid());
+        assertEquals("Signed QR payloads are disabled", result.getReason());
+    }
+
+    @Test
+    void weddingPublicKey_ShouldVerifyPayloadsOffline_AndDifferPerWedding() throws Exception {
+        byte[] raw = Base64.getUrlDecoder().decode(signer.sign(guest, Instant.now().plus(1, ChronoUnit.DAYS)));
+        int bodyLength = raw.length - QRPayloadSigner.SIGNATURE_LENGTH;
+
+        // What a protocol device does with the key it is handed
+        PublicKey publicKey = KeyFactory.getInstance(QRPayloadSigner.ALGORITHM)
+                .generatePublic(new X509EncodedKeySpec(signer.weddingPublicKey(17L)));
+        Signature signature = Signature.getInstance(QRPayloadSigner.ALGORITHM);
+        signature.initVerify(publicKey);
+        signature.update(raw, 0, bodyLength);
+
+        assertTrue(signature.verify(Arrays.copyOfRange(raw, bodyLength, raw.length)));
+        assertArrayEquals(signer.weddingPublicKey(17L), new QRPayloadSigner(true, "test-signing-secret").weddingPublicKey(17L));
+        assertFalse(Arrays.equals(signer.weddingPublicKey(1L), signer.weddingPublicKey(2L)));
+    }
+}
@@ -0,0 +1,98 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.RsvpResult;
+import com.elegantevents.model.Guest;
+import com.elegantevents.repository.GuestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RsvpServiceTest {
+
+    @Mock
+    private GuestRepository guestRepository;
+
+    @Mock
+    private GuestStatsService guestStatsService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RsvpService rsvpService;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{7L, "AB12CD34", 1L, Guest.RSVPStatus.PENDING});
+        when(guestRepository.findRsvpDirectoryRows()).thenReturn(rows);
+        rsvpService = new RsvpService(guestRepository, guestStatsService, jdbcTemplate, transactionManager, false, 200, 100, 60000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteOnlyLatestAnswer_WhenGuestChangesTheirMind() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(guestStatsService.recordRsvpChange(eq(1L), any(), any(), eq(1))).thenReturn(true);
+
+        rsvpService.respond("ab12cd34", Guest.RSVPStatus.CONFIRMED);
+        RsvpResult result = rsvpService.respond("AB12CD34", Guest.RSVPStatus.DECLINED);
+        rsvpService.flush();
+
+        assertEquals(Guest.RSVPStatus.CONFIRMED, result.getPreviousStatus());
+        ArgumentCaptor<Collection<Object>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture(), eq(200), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(1, batch.getValue().size());
+        verify(guestStatsService).recordRsvpChange(1L, Guest.RSVPStatus.CONFIRMED, Guest.RSVPStatus.DECLINED, 1);
+        verify(guestStatsService, never()).invalidate(any());
+    }
+
+    @Test
+    void respond_ShouldRejectUnknownCode_AndRememberTheMiss() {
+        when(guestRepository.findByUniqueCode("ZZ99ZZ99")).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> rsvpService.respond("ZZ99ZZ99", Guest.RSVPStatus.CONFIRMED));
+        assertThrows(RuntimeException.class, () -> rsvpService.respond("zz99zz99", Guest.RSVPStatus.CONFIRMED));
+        verify(guestRepository, times(1)).findByUniqueCode("ZZ99ZZ99");
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void respond_ShouldFallBackToTheDatabase_ForAGuestAddedSinceTheDirectoryLoaded() {
+        Guest guest = new Guest();
+        guest.setId(9L);
+        guest.setWeddingId(1L);
+        guest.setUniqueCode("QW34ER56");
+        guest.setRsvpStatus(Guest.RSVPStatus.PENDING);
+        when(guestRepository.findByUniqueCode("QW34ER56")).thenReturn(Optional.of(guest));
+        when(guestStatsService.recordRsvpChange(eq(1L), any(), any(), eq(1))).thenReturn(true);
+
+        RsvpResult first = rsvpService.respond("qw34er56", Guest.RSVPStatus.CONFIRMED);
+        RsvpResult second = rsvpService.respond("QW34ER56", Guest.RSVPStatus.DECLINED);
+
+        assertEquals(9L, first.getGuestId());
+        assertEquals(Guest.RSVPStatus.PENDING, first.getPreviousStatus());
+        assertEquals(Guest.RSVPStatus.CONFIRMED, second.getPreviousStatus());
+        // The guest is in the directory after the first lookup
+        verify(guestRepository, times(1)).findByUniqueCode("QW34ER56");
+    }
+}
@@ -0,0 +1,69 @@
+package com.elegantevents.service;
+
+import com.elegantevents.dto.SeatingPlanRequest;
+import com.elegantevents.dto.SeatingPlanResponse;
+import com.elegantevents.model.Guest;
+import com.elegantevents.repository.GuestRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatingServiceTest {
+
+    @Mock
+    private GuestRepository guestRepository;
+
+    @Mock
+    private WeddingRepository weddingRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CheckInIndexService checkInIndexService;
+
+    @Mock
+    private GuestSearchService guestSearchService;
+
+    private SeatingService seatingService;
+
+    @BeforeEach
+    void setUp() {
+        seatingService = new SeatingService(guestRepository, weddingRepository, jdbcTemplate, checkInIndexService,
+                guestSearchService, 300, 200);
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void plan_ShouldKeepTheStoredSeat_OfGuestsTheTablesHaveNoRoomFor() {
+        when(weddingRepository.existsById(7L)).thenReturn(true);
+        when(guestRepository.findCheckInRowsByWeddingId(7L)).thenReturn(List.<Object[]>of(
+                new Object[]{1L, "CODE1", "Ada", "Lovelace", "Garden-9", Guest.Priority.VIP, false, null},
+                new Object[]{2L, "CODE2", "Alan", "Turing", "Garden-3", Guest.Priority.STANDARD, false, null}));
+        SeatingPlanRequest request = new SeatingPlanRequest(
+                List.of(new SeatingPlanRequest.TableLayout("Head", 1, 0)), null, null, null, true);
+
+        SeatingPlanResponse response = seatingService.plan(7L, request);
+
+        assertEquals(List.of(2L), response.getUnassigned());
+        assertEquals(1, response.getMoved());
+        ArgumentCaptor<Collection> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), eq(200), any());
+        assertEquals(List.of(Map.entry(1L, "Head-1")), List.copyOf(rows.getValue()));
+        verify(checkInIndexService).updateSeats(7L, Map.of(1L, "Head-1"));
+    }
+}
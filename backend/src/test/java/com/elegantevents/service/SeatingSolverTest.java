@@ -0,0 +1,74 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.Guest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatingSolverTest {
+
+    private static final List<SeatingSolver.Table> TABLES = List.of(
+            new SeatingSolver.Table("H", 4, 0),
+            new SeatingSolver.Table("A", 4, 1),
+            new SeatingSolver.Table("B", 4, 2));
+
+    @Test
+    void solve_ShouldSeatVipsUpFrontAndKeepPartiesTogether() {
+        List<SeatingSolver.GuestSeat> guests = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            guests.add(new SeatingSolver.GuestSeat(id, id == 10 ? Guest.Priority.VVIP : Guest.Priority.STANDARD, null));
+        }
+        List<List<Long>> parties = List.of(List.of(1L, 2L, 3L), List.of(4L, 5L));
+        List<List<Long>> keepApart = List.of(List.of(1L, 4L));
+
+        SeatingSolver.Plan plan = new SeatingSolver(TABLES, 100).solve(guests, parties, keepApart, Set.of());
+
+        Map<Long, String> seats = plan.seats();
+        assertEquals(10, seats.size());
+        assertTrue(plan.unassigned().isEmpty());
+        assertEquals(0, plan.keepApartViolations());
+        assertTrue(seats.get(10L).startsWith("H-"));
+        assertEquals(table(seats.get(1L)), table(seats.get(2L)));
+        assertEquals(table(seats.get(1L)), table(seats.get(3L)));
+        assertEquals(table(seats.get(4L)), table(seats.get(5L)));
+        assertNotEquals(table(seats.get(1L)), table(seats.get(4L)));
+        assertEquals(10, seats.values().stream().distinct().count());
+    }
+
+    @Test
+    void solve_ShouldOnlyMoveChangedGuests_WhenIncremental() {
+        List<SeatingSolver.GuestSeat> guests = List.of(
+                new SeatingSolver.GuestSeat(1L, Guest.Priority.STANDARD, "B-2"),
+                new SeatingSolver.GuestSeat(2L, Guest.Priority.STANDARD, "B-3"),
+                new SeatingSolver.GuestSeat(3L, Guest.Priority.STANDARD, "A-1"),
+                new SeatingSolver.GuestSeat(4L, Guest.Priority.VIP, "B-1"));
+
+        SeatingSolver.Plan plan = new SeatingSolver(TABLES, 100).solve(guests, null, null, Set.of(4L));
+
+        assertEquals("B-2", plan.seats().get(1L));
+        assertEquals("B-3", plan.seats().get(2L));
+        assertEquals("A-1", plan.seats().get(3L));
+        assertEquals("H-1", plan.seats().get(4L));
+    }
+
+    @Test
+    void solve_ShouldPlanEveryone_WhenChangedIsNull() {
+        List<SeatingSolver.GuestSeat> guests = List.of(
+                new SeatingSolver.GuestSeat(1L, Guest.Priority.STANDARD, "B-2"),
+                new SeatingSolver.GuestSeat(2L, Guest.Priority.VIP, "B-1"));
+
+        SeatingSolver.Plan plan = new SeatingSolver(TABLES, 100).solve(guests, null, null, null);
+
+        assertEquals(2, plan.seats().size());
+        assertTrue(plan.seats().get(2L).startsWith("H-"));
+    }
+
+    private static String table(String seat) {
+        return seat.substring(0, seat.lastIndexOf('-'));
+    }
+}
@@ -0,0 +1,104 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.ShortLink;
+import com.elegantevents.repository.ShortLinkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShortLinkServiceTest {
+
+    @Mock
+    private ShortLinkRepository shortLinkRepository;
+
+    @Mock
+    private EngagementService engagementService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ShortLinkService shortLinkService;
+
+    @BeforeEach
+    void setUp() {
+        shortLinkService = new ShortLinkService(shortLinkRepository, engagementService, jdbcTemplate,
+                transactionManager, "https://app.example", "https://api.example", 200, 100, 60000);
+    }
+
+    @Test
+    void newSlugs_ShouldBeDistinctAndSkipLoadedSlugs() {
+        when(shortLinkRepository.findDirectoryRows()).thenReturn(List.<Object[]>of(
+                new Object[]{"aaaaaaa", "/attendee/dashboard?code=AB12CD34&couple=user_1", "AB12CD34"}));
+
+        List<String> slugs = shortLinkService.newSlugs(5000);
+
+        assertEquals(5000, new HashSet<>(slugs).size());
+        assertFalse(slugs.contains("aaaaaaa"));
+        assertTrue(slugs.stream().allMatch(s -> s.matches("[0-9A-Za-z]{" + ShortLinkService.SLUG_LENGTH + "}")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void resolve_ShouldRedirectFromMemoryAndFlushAggregatedHits() throws Exception {
+        when(shortLinkRepository.findDirectoryRows()).thenReturn(List.<Object[]>of(
+                new Object[]{"aB3dE9f", "/attendee/dashboard?code=AB12CD34&couple=user_1", "AB12CD34"}));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("https://app.example/attendee/dashboard?code=AB12CD34&couple=user_1",
+                    shortLinkService.resolve("aB3dE9f"));
+        }
+        assertNull(shortLinkService.resolve("../../x")); // Not a slug: no lookup at all
+        shortLinkService.flush();
+
+        verify(shortLinkRepository, never()).findById(anyString());
+        verify(engagementService, times(100)).recordClick("AB12CD34");
+        ArgumentCaptor<Collection<Object>> rows = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<Object>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), eq(200), setter.capture());
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, List.copyOf(rows.getValue()).get(0));
+        verify(ps).setLong(1, 100L);
+        verify(ps).setString(3, "aB3dE9f");
+    }
+
+    @Test
+    void resolve_ShouldLookUpUnknownSlugOnce_AndReturnNullWhenMissing() {
+        when(shortLinkRepository.findDirectoryRows()).thenReturn(List.of());
+        ShortLink link = new ShortLink("Zz9Yy8X", 5L, 1L, "AB12CD34", "/attendee/dashboard?code=AB12CD34&couple=u",
+                0L, null, null);
+        when(shortLinkRepository.findById("Zz9Yy8X")).thenReturn(Optional.of(link));
+        when(shortLinkRepository.findById("0000000")).thenReturn(Optional.empty());
+
+        assertNotNull(shortLinkService.resolve("Zz9Yy8X"));
+        assertNotNull(shortLinkService.resolve("Zz9Yy8X"));
+        assertNull(shortLinkService.resolve("0000000"));
+        assertNull(shortLinkService.resolve("0000000"));
+
+        verify(shortLinkRepository, times(1)).findById("Zz9Yy8X");
+        // The miss is remembered too
+        verify(shortLinkRepository, times(1)).findById("0000000");
+    }
+}
@@ -0,0 +1,114 @@
+package com.elegantevents.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmtpTransportPoolTest {
+
+    private static final Session SESSION = Session.getInstance(new Properties());
+
+    private LocalSmtpServer smtp;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new LocalSmtpServer();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtp.getPort());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtp.close();
+    }
+
+    @Test
+    void send_ShouldReuseConnections_AndRetireThemAtMessageLimit() throws Exception {
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 2, 10, 30000, 5000);
+
+        for (int i = 0; i < 40; i++) {
+            pool.send(message(i));
+        }
+
+        assertEquals(40, smtp.messages.size());
+        // The warmest session is always reused and retired after 10 messages
+        assertEquals(4, smtp.connections.get());
+        pool.close();
+    }
+
+    @Test
+    void send_ShouldRecoverOnNewConnection_WhenPooledSessionWasDropped() throws Exception {
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 1, 100, 30000, 5000);
+        pool.send(message(0));
+
+        smtp.dropConnections();
+        pool.send(message(1));
+
+        assertEquals(2, smtp.messages.size());
+        assertEquals(2, smtp.connections.get());
+        assertEquals(1, pool.idleCount());
+        pool.close();
+    }
+
+    @Test
+    void send_ShouldReuseAFewConnections_WhereConnectionPerMessageOpensOneEach() throws Exception {
+        int count = 60;
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 4, 100, 30000, 5000);
+
+        sendConcurrently(pool, count, 4);
+        int pooledConnections = smtp.connections.get();
+
+        for (int i = 0; i < count; i++) {
+            mailSender.send(message(i));
+        }
+
+        assertEquals(2 * count, smtp.messages.size());
+        assertTrue(pooledConnections <= 4);
+        assertEquals(pooledConnections + count, smtp.connections.get());
+        pool.close();
+    }
+
+    private static void sendConcurrently(SmtpTransportPool pool, int count, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                MimeMessage message = message(i);
+                futures.add(executor.submit(() -> {
+                    pool.send(message);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static MimeMessage message(int i) throws MessagingException {
+        MimeMessage message = new MimeMessage(SESSION);
+        message.setFrom(new InternetAddress("noreply@elegantevents.com"));
+        message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("guest" + i + "@example.com"));
+        message.setSubject("You're Invited!");
+        message.setText("Hello " + i);
+        return message;
+    }
+}
@@ -0,0 +1,30 @@
+package com.elegantevents.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    @Test
+    void take_ShouldGrantBurstThenRefillAtRate() throws Exception {
+        TokenBucket bucket = new TokenBucket(10, 10);
+
+        assertEquals(10, bucket.take(50));
+        assertEquals(0, bucket.take(50));
+
+        Thread.sleep(350);
+        int refilled = bucket.take(50);
+        assertTrue(refilled >= 2 && refilled <= 5, "refilled " + refilled);
+
+        bucket.giveBack(3);
+        assertEquals(3, bucket.take(3));
+    }
+
+    @Test
+    void take_ShouldGrantEverything_WhenRateIsUnlimited() {
+        TokenBucket bucket = new TokenBucket(0, 10);
+
+        assertEquals(1000, bucket.take(1000));
+    }
+}
@@ -0,0 +1,84 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.Message;
+import com.elegantevents.model.User;
+import com.elegantevents.repository.ConversationSummaryRepository;
+import com.elegantevents.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCounterServiceTest {
+
+    @Mock
+    private ConversationSummaryRepository summaryRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void getUnreadCount_ShouldLoadOnce_ThenFollowSendsAndReads() {
+        UnreadCounterService service = new UnreadCounterService(summaryRepository, userRepository, 600000);
+        when(summaryRepository.sumUnreadByClerkId("b")).thenReturn(3L);
+
+        assertEquals(3, service.getUnreadCount("b"));
+        service.onMessageSent(new MessageSentEvent(message("a", "b")));
+        service.onMessageSent(new MessageSentEvent(message("b", "a"))); // b's own send
+        assertEquals(4, service.getUnreadCount("b"));
+        service.onMessagesRead(new MessagesReadEvent("b", 4));
+        assertEquals(0, service.getUnreadCount("b"));
+
+        verify(summaryRepository, times(1)).sumUnreadByClerkId("b");
+    }
+
+    @Test
+    void onMessageSent_ShouldCountFromZero_AfterAReadLargerThanTheCount() {
+        UnreadCounterService service = new UnreadCounterService(summaryRepository, userRepository, 600000);
+        when(summaryRepository.sumUnreadByClerkId("b")).thenReturn(4L);
+
+        service.getUnreadCount("b");
+        service.onMessagesRead(new MessagesReadEvent("b", 10));
+        service.onMessageSent(new MessageSentEvent(message("a", "b")));
+
+        assertEquals(1, service.getUnreadCount("b"));
+    }
+
+    @Test
+    void getUnreadCount_ShouldNotCacheUnknownUsers() {
+        UnreadCounterService service = new UnreadCounterService(summaryRepository, userRepository, 600000);
+        when(summaryRepository.sumUnreadByClerkId("ghost")).thenReturn(0L);
+        when(userRepository.existsByClerkId("ghost")).thenReturn(false);
+
+        assertEquals(0, service.getUnreadCount("ghost"));
+        assertEquals(0, service.getUnreadCount("ghost"));
+
+        verify(summaryRepository, times(2)).sumUnreadByClerkId("ghost");
+    }
+
+    @Test
+    void getUnreadCount_ShouldReloadFromSummaries_OnceStale() {
+        UnreadCounterService service = new UnreadCounterService(summaryRepository, userRepository, -1);
+        when(summaryRepository.sumUnreadByClerkId("b")).thenReturn(2L, 5L);
+
+        assertEquals(2, service.getUnreadCount("b"));
+        assertEquals(5, service.getUnreadCount("b"));
+    }
+
+    private static Message message(String from, String to) {
+        Message message = new Message();
+        message.setSender(user(from));
+        message.setReceiver(user(to));
+        return message;
+    }
+
+    private static User user(String clerkId) {
+        User user = new User();
+        user.setClerkId(clerkId);
+        return user;
+    }
+}
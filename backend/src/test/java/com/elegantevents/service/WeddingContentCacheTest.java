@@ -0,0 +1,138 @@
+package com.elegantevents.service;
+
+import com.elegantevents.model.GalleryItem;
+import com.elegantevents.model.Wedding;
+import com.elegantevents.model.WeddingMessage;
+import com.elegantevents.repository.GalleryItemRepository;
+import com.elegantevents.repository.UserRepository;
+import com.elegantevents.repository.WeddingAssignmentRepository;
+import com.elegantevents.repository.WeddingCardRepository;
+import com.elegantevents.repository.WeddingMessageRepository;
+import com.elegantevents.repository.WeddingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WeddingContentCacheTest {
+
+    @Mock
+    private WeddingRepository weddingRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private WeddingCardRepository weddingCardRepository;
+
+    @Mock
+    private WeddingMessageRepository weddingMessageRepository;
+
+    @Mock
+    private GalleryItemRepository galleryItemRepository;
+
+    @Mock
+    private WeddingAssignmentRepository assignmentRepository;
+
+    @Mock
+    private MessageArchiveService archiveService;
+
+    private WeddingContentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new WeddingContentCache(weddingRepository, userRepository, weddingCardRepository,
+                weddingMessageRepository, galleryItemRepository, assignmentRepository, archiveService, 64, 60000, 2);
+        Wedding wedding = new Wedding();
+        wedding.setId(1L);
+        wedding.setClerkId("couple");
+        lenient().when(weddingRepository.findById(1L)).thenReturn(Optional.of(wedding));
+        lenient().when(weddingMessageRepository.findByWeddingIdAndIsBroadcastTrueOrderByCreatedAtDesc(1L))
+                .thenReturn(new ArrayList<>());
+    }
+
+    @Test
+    void get_ShouldLoadOnce_UntilTheContentChanges() {
+        assertSame(cache.get(1L), cache.get(1L));
+        verify(weddingRepository, times(1)).findById(1L);
+
+        cache.onContentChanged(new WeddingContentChangedEvent(1L));
+        cache.get(1L);
+
+        verify(weddingRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void get_ShouldSplitArchivedMessages_AndFlagAGalleryLongerThanAPage() {
+        WeddingMessage broadcast = new WeddingMessage();
+        broadcast.setIsBroadcast(true);
+        WeddingMessage toGuest = new WeddingMessage();
+        toGuest.setIsBroadcast(false);
+        toGuest.setRecipientGuestId(5L);
+        when(archiveService.findWeddingMessages(1L)).thenReturn(List.of(broadcast, toGuest));
+        when(galleryItemRepository.findByWeddingIdAndIsApprovedTrueOrderByCreatedAtDesc(1L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(new GalleryItem(), new GalleryItem(), new GalleryItem()));
+
+        WeddingContentCache.WeddingContent content = cache.get(1L);
+
+        assertEquals(List.of(broadcast), content.broadcasts());
+        assertEquals(List.of(toGuest), content.archivedToGuests());
+        assertEquals(2, content.gallery().size());
+        assertTrue(content.galleryHasMore());
+    }
+
+    @Test
+    void get_ShouldNotKeepALoad_ThatAWriteCommittedDuring() {
+        when(weddingCardRepository.findByWeddingId(1L)).thenAnswer(invocation -> {
+            cache.onContentChanged(new WeddingContentChangedEvent(1L));
+            return Optional.empty();
+        }).thenReturn(Optional.empty());
+
+        cache.get(1L);
+        cache.get(1L);
+
+        verify(weddingRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void get_ShouldLetConcurrentMissesWaitForOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(weddingCardRepository.findByWeddingId(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<WeddingContentCache.WeddingContent> first = executor.submit(() -> cache.get(1L));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<WeddingContentCache.WeddingContent> second = executor.submit(() -> cache.get(1L));
+            // Other weddings are not held up by the load in progress
+            when(weddingRepository.findById(2L)).thenReturn(Optional.empty());
+            assertThrows(RuntimeException.class, () -> cache.get(2L));
+            release.countDown();
+
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            verify(weddingRepository, times(1)).findById(1L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -30,6 +31,12 @@ class WeddingServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CheckInIndexService checkInIndexService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private WeddingService weddingService;
 
@@ -123,5 +130,15 @@ class WeddingServiceTest {
 
         verify(weddingRepository, times(1)).delete(testWedding);
     }
-}
 
+    @Test
+    void updateStatus_ShouldLoadCheckInIndex_WhenOngoing() {
+        when(weddingRepository.findById(1L)).thenReturn(Optional.of(testWedding));
+        when(weddingRepository.save(any(Wedding.class))).thenReturn(testWedding);
+
+        Wedding result = weddingService.updateStatus(1L, Wedding.WeddingStatus.ONGOING);
+
+        assertEquals(Wedding.WeddingStatus.ONGOING, result.getStatus());
+        verify(checkInIndexService).onWeddingStatusChanged(1L, Wedding.WeddingStatus.ONGOING);
+    }
+}
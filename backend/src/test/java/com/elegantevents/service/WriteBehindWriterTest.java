@@ -0,0 +1,53 @@
+package com.elegantevents.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void write_ShouldHandEveryEntryBack_WhenTheBatchFails() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), eq(2), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("lock wait timeout"));
+        WriteBehindWriter writer = new WriteBehindWriter(jdbcTemplate, transactionManager, 2);
+        List<String> restored = new ArrayList<>();
+
+        assertFalse(writer.write("UPDATE t SET n = n + 1", List.of("a", "b", "c"), (ps, row) -> {
+        }, "row(s)", restored::add));
+
+        assertEquals(List.of("a", "b", "c"), restored);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void write_ShouldSkipTheDatabase_WhenThereIsNothingToWrite() {
+        WriteBehindWriter writer = new WriteBehindWriter(jdbcTemplate, transactionManager, 2);
+
+        assertTrue(writer.write("UPDATE t SET n = n + 1", List.<String>of(), (ps, row) -> {
+        }, "row(s)", row -> fail()));
+
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+}
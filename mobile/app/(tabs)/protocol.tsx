@@ -2,7 +2,7 @@ import { Ionicons } from '@expo/vector-icons';
 import { CameraView, Camera } from 'expo-camera';
 import { LinearGradient } from 'expo-linear-gradient';
 import { useRouter } from 'expo-router';
-import React, { useEffect, useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import {
     ActivityIndicator,
     Alert,
@@ -22,7 +22,7 @@ import * as Haptics from 'expo-haptics';
 
 import { Colors } from '@/constants/theme';
 import { useAuth } from '@clerk/clerk-expo';
-import { getGuestByCode, getGuests, getProtocolAssignments, getWeddingById } from '@/utils/api';
+import { getGuests, getProtocolAssignments, getWeddingById, scanGuest, syncCheckIns } from '@/utils/api';
 
 const { width } = Dimensions.get('window');
 
@@ -111,6 +111,12 @@ export default function ProtocolScreen() {
     const [manualCode, setManualCode] = useState('');
     const [scanning, setScanning] = useState(false);
 
+    // Offline check-ins waiting for upload, and the server cursor from the last sync
+    const pendingCheckIns = useRef<any[]>([]);
+    const syncCursor = useRef<number | null>(null);
+    const deviceId = useRef(`${Platform.OS}-${Math.random().toString(36).slice(2, 10)}`);
+    const [pendingCount, setPendingCount] = useState(0);
+
     useEffect(() => {
         loadData();
         (async () => {
@@ -147,6 +153,8 @@ export default function ProtocolScreen() {
             ]);
             setWeddingDetails(details);
             setGuests(guestList);
+            syncCursor.current = null;
+            syncPendingCheckIns(assignment.weddingId);
             // Sort tasks by due date for timeline
             const timelineTasks = (allTasks || [])
                 .filter((t: any) => t.dueDate)
@@ -157,6 +165,27 @@ export default function ProtocolScreen() {
         }
     };
 
+    const syncPendingCheckIns = async (weddingId = selectedWedding?.weddingId) => {
+        if (!weddingId) return;
+        const batch = pendingCheckIns.current.filter(c => c.weddingId === weddingId);
+        try {
+            const result = await syncCheckIns(weddingId, {
+                deviceId: deviceId.current,
+                since: syncCursor.current,
+                checkIns: batch.map(({ code, checkedInAt, deviceId }) => ({ code, checkedInAt, deviceId })),
+            });
+            pendingCheckIns.current = pendingCheckIns.current.filter(c => !batch.includes(c));
+            setPendingCount(pendingCheckIns.current.length);
+            syncCursor.current = result.cursor;
+            if (result.changes?.length) {
+                const arrived = new Map(result.changes.map((c: any) => [c.guestId, c.checkedInAt]));
+                setGuests(prev => prev.map(g => arrived.has(g.id) ? { ...g, checkedIn: true, checkedInAt: arrived.get(g.id) } : g));
+            }
+        } catch (error) {
+            // Still offline; the queue is retried on the next scan or refresh
+        }
+    };
+
     const handleBarCodeScanned = async ({ data }: { data: string }) => {
         setScanning(false);
         setModalVisible(false);
@@ -180,24 +209,31 @@ export default function ProtocolScreen() {
 
         Haptics.notificationAsync(Haptics.NotificationFeedbackType.Success);
         try {
-            const guest = await getGuestByCode(code);
+            if (pendingCheckIns.current.length > 0) {
+                syncPendingCheckIns();
+            }
+            // Lookup and check-in in one round trip
+            const guest = await scanGuest(code);
             if (guest) {
-                // Perform actual check-in
-                const { checkInGuest } = require('@/utils/api');
-                await checkInGuest(guest.id);
-
                 setScannedData(guest);
                 setTimeout(() => setScannedData(null), 5000); // Clear after 5 seconds
 
                 Alert.alert(
-                    "Check-in Successful!",
+                    guest.alreadyCheckedIn ? "Already Checked In" : "Check-in Successful!",
                     `Welcome, ${guest.firstName} ${guest.lastName}!\n\nTable: ${guest.seatNumber || 'Assigned by Host'}`,
                     [{ text: "OK", onPress: () => loadData() }]
                 );
             } else {
                 Alert.alert("Not Found", "Guest code not recognized.");
             }
-        } catch (error) {
+        } catch (error: any) {
+            if (!error.response && selectedWedding) {
+                // No connection: keep the scan and reconcile when the network is back
+                pendingCheckIns.current.push({ weddingId: selectedWedding.weddingId, code, checkedInAt: Date.now(), deviceId: deviceId.current });
+                setPendingCount(pendingCheckIns.current.length);
+                Alert.alert("Saved Offline", "Check-in recorded on this device and will sync when the connection returns.");
+                return;
+            }
             console.error('Check-in error:', error);
             Alert.alert("Error", "Could not verify guest or check-in failed.");
         }
@@ -225,7 +261,7 @@ export default function ProtocolScreen() {
                     <View style={{ flexDirection: 'row', justifyContent: 'space-between', alignItems: 'center', marginBottom: 10 }}>
                         <Text style={styles.eventName}>{weddingDetails.partnersName}</Text>
                         <View style={styles.statusBadge}>
-                            <Text style={styles.statusText}>ACTIVE</Text>
+                            <Text style={styles.statusText}>{pendingCount > 0 ? `${pendingCount} TO SYNC` : 'ACTIVE'}</Text>
                         </View>
                     </View>
                     <CountdownTimer targetDate={weddingDetails.weddingDate} />
@@ -455,6 +455,31 @@ export const getGuestByCode = async (code) => {
   }
 };
 
+// Resolves a scanned code and checks the guest in with a single request
+export const scanGuest = async (code) => {
+  try {
+    const response = await api.post(`guests/scan/${code}`);
+    return response.data;
+  } catch (error) {
+    if (error.response?.status === 404) {
+      return null;
+    }
+    console.error("Error scanning guest:", error);
+    throw error;
+  }
+};
+
+// Uploads check-ins captured while offline and returns the server's check-in delta since `since`
+export const syncCheckIns = async (weddingId, payload) => {
+  try {
+    const response = await api.post(`guests/wedding/${weddingId}/check-ins/sync`, payload);
+    return response.data.sync;
+  } catch (error) {
+    console.error("Error syncing check-ins:", error);
+    throw error;
+  }
+};
+
 export const checkInGuest = async (guestId) => {
   try {
     const response = await api.patch(`guests/${guestId}/check-in`);
@@ -1,20 +1,37 @@
-import { useState } from "react";
+import { useState, useEffect } from "react";
 import { useNavigate, useLocation } from "react-router-dom";
-import { useClerk } from "@clerk/clerk-react";
+import { useClerk, useAuth } from "@clerk/clerk-react";
 import { Settings, LogOut, UserCheck, User, DollarSign, Users, MessageSquare, Calendar, Briefcase } from "lucide-react";
+import { getUnreadMessageCount } from "../utils/api";
 
 export default function ManagerSidebar() {
   const navigate = useNavigate();
   const location = useLocation();
   const { signOut } = useClerk();
+  const { userId: clerkUserId } = useAuth();
   const [hoveredPath, setHoveredPath] = useState(null);
+  const [unreadMessages, setUnreadMessages] = useState(0);
+
+  // Unread badge for Messages
+  useEffect(() => {
+    let clerkId = clerkUserId;
+    try {
+      const dbUser = JSON.parse(localStorage.getItem("dbUser") || "null");
+      if (dbUser?.clerkId) clerkId = dbUser.clerkId;
+    } catch (e) { }
+    if (!clerkId) return;
+    const refresh = () => getUnreadMessageCount(clerkId).then(setUnreadMessages).catch(() => { });
+    refresh();
+    const interval = setInterval(refresh, 30000);
+    return () => clearInterval(interval);
+  }, [clerkUserId, location.pathname]);
 
   const menuItems = [
     { path: "/manager/dashboard", icon: UserCheck, label: "Dashboard" },
     { path: "/manager/wedding-management", icon: DollarSign, label: "Wedding Management" },
     { path: "/manager/team", icon: Users, label: "My Team" },
     { path: "/manager/missions", icon: Briefcase, label: "Mission Tracking" },
-    { path: "/manager/messages", icon: MessageSquare, label: "Messages" },
+    { path: "/manager/messages", icon: MessageSquare, label: "Messages", badge: unreadMessages },
     { path: "/manager/schedule", icon: Calendar, label: "Schedule" },
     { path: "/manager/profile", icon: User, label: "Profile" },
   ];
@@ -134,6 +151,21 @@ export default function ManagerSidebar() {
               }}>
                 {item.label}
               </span>
+              {item.badge > 0 && (
+                <span style={{
+                  marginLeft: "auto",
+                  minWidth: "22px",
+                  padding: "2px 7px",
+                  borderRadius: "11px",
+                  backgroundColor: isActive ? "#ffffff" : "#d4af37",
+                  color: isActive ? "#d4af37" : "#ffffff",
+                  fontSize: "12px",
+                  fontWeight: "700",
+                  textAlign: "center"
+                }}>
+                  {item.badge > 99 ? "99+" : item.badge}
+                </span>
+              )}
             </div>
           );
         })}
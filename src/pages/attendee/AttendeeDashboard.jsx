@@ -1,16 +1,10 @@
 import { useState, useEffect } from "react";
 import { useSearchParams } from "react-router-dom";
 import {
-  getGuestByCode,
-  getWeddingCard,
-  getWeddingDetails,
-  getUserFromDatabase,
+  getAttendeeBootstrap,
   getGalleryByWedding,
   uploadGalleryItem,
-  getAssignmentByWedding,
-  getUserByClerkId,
-  submitAttendeeRating,
-  getWeddingMessagesForGuest
+  submitAttendeeRating
 } from "../../utils/api";
 import { formatPartnerNames } from "../../utils/formatPartnerNames";
 import {
@@ -34,13 +28,13 @@ const HERO_IMAGE_URL = "https://images.unsplash.com/photo-1519741497674-61148186
 export default function AttendeeDashboard() {
   const [searchParams] = useSearchParams();
   const uniqueCodeFromUrl = searchParams.get("code");
-  const coupleClerkIdFromUrl = searchParams.get("couple");
 
   const [currentUser, setCurrentUser] = useState(null); // The couple user
   const [guest, setGuest] = useState(null);
   const [wedding, setWedding] = useState(null);
   const [weddingCard, setWeddingCard] = useState(null);
   const [galleryItems, setGalleryItems] = useState([]);
+  const [galleryHasMore, setGalleryHasMore] = useState(false);
   const [isLoading, setIsLoading] = useState(true);
   const [showUploadModal, setShowUploadModal] = useState(false);
   const [uploadFile, setUploadFile] = useState(null);
@@ -63,48 +57,27 @@ export default function AttendeeDashboard() {
       }
 
       try {
-        const guestData = await getGuestByCode(uniqueCodeFromUrl);
-        setGuest(guestData);
-
-        const coupleId = coupleClerkIdFromUrl || guestData.coupleClerkId;
-
-        if (coupleId) {
-          const [userData, weddingData] = await Promise.all([
-            getUserFromDatabase(coupleId),
-            getWeddingDetails(coupleId),
-          ]);
-          const cardData = await getWeddingCard(coupleId);
-
-          let processedCard = cardData;
-          if (cardData && cardData.cardDesign) {
-            try {
-              const extraData = JSON.parse(cardData.cardDesign);
-              processedCard = { ...cardData, ...extraData };
-            } catch (e) {
-              console.error("Failed to parse card design", e);
-            }
-          }
-
-          setCurrentUser(userData);
-          setWedding(weddingData);
-          setWeddingCard(processedCard);
-
-          if (weddingData.id) {
-            const [gallery, assignmentData, messagesData] = await Promise.all([
-              getGalleryByWedding(weddingData.id, true).catch(() => []),
-              getAssignmentByWedding(weddingData.id).catch(() => null),
-              getWeddingMessagesForGuest(weddingData.id, guestData.id).catch(() => [])
-            ]);
-
-            setGalleryItems(gallery);
-            setMessages(messagesData);
-
-            if (assignmentData?.protocolClerkId) {
-              const protocolData = await getUserByClerkId(assignmentData.protocolClerkId);
-              setProtocol(protocolData);
-            }
+        // Guest, wedding, card, messages, gallery and protocol in one request
+        const data = await getAttendeeBootstrap(uniqueCodeFromUrl);
+
+        let processedCard = data.card;
+        if (data.card && data.card.cardDesign) {
+          try {
+            const extraData = JSON.parse(data.card.cardDesign);
+            processedCard = { ...data.card, ...extraData };
+          } catch (e) {
+            console.error("Failed to parse card design", e);
           }
         }
+
+        setGuest(data.guest);
+        setCurrentUser(data.couple);
+        setWedding(data.wedding);
+        setWeddingCard(processedCard);
+        setGalleryItems(data.gallery || []);
+        setGalleryHasMore(Boolean(data.galleryHasMore));
+        setMessages(data.messages || []);
+        setProtocol(data.protocol);
       } catch (error) {
         console.error("Failed to load dashboard data:", error);
       } finally {
@@ -113,7 +86,18 @@ export default function AttendeeDashboard() {
     };
 
     loadData();
-  }, [uniqueCodeFromUrl, coupleClerkIdFromUrl]);
+  }, [uniqueCodeFromUrl]);
+
+  // The bootstrap carries only the newest moments; the rest are fetched on request
+  const handleShowAllMoments = async () => {
+    if (!wedding) return;
+    try {
+      setGalleryItems(await getGalleryByWedding(wedding.id, true));
+      setGalleryHasMore(false);
+    } catch (error) {
+      console.error("Failed to load gallery:", error);
+    }
+  };
 
   const handleUpload = async () => {
     if (!uploadFile || !guest || !wedding) return;
@@ -129,6 +113,7 @@ export default function AttendeeDashboard() {
 
       const updatedGallery = await getGalleryByWedding(wedding.id, true);
       setGalleryItems(updatedGallery);
+      setGalleryHasMore(false);
       setShowUploadModal(false);
       setUploadFile(null);
       setUploadCaption("");
@@ -314,6 +299,14 @@ export default function AttendeeDashboard() {
                 <p className="section-subtitle">No moments shared yet. Be the first to contribute.</p>
               </div>
             )}
+
+            {galleryHasMore && (
+              <div style={{ textAlign: 'center', marginTop: '1.5rem' }}>
+                <button className="upload-trigger" onClick={handleShowAllMoments}>
+                  VIEW ALL MOMENTS
+                </button>
+              </div>
+            )}
           </div>
 
           {/* Event Logistics */}
@@ -2,19 +2,36 @@ import { useState, useEffect, useRef } from "react";
 import { useAuth } from "@clerk/clerk-react";
 import ManagerSidebar from "../../components/ManagerSidebar";
 import { MessageSquare, Send, User, Search, MoreVertical, Phone, Video, Info } from "lucide-react";
-import { getInbox, getConversation, sendMessage, getUserByClerkId } from "../../utils/api";
+import { getConversations, getConversationPage, sendMessage, getUserByClerkId, subscribeToMessages, markConversationRead, searchMessages } from "../../utils/api";
 import "../admin/AdminDashboard.css";
 
+const PAGE_SIZE = 50;
+
+// Conversation pages carry clerk ids only; pushed and sent messages carry full users
+const toItem = (m) => m.senderClerkId ? m : {
+    id: m.id,
+    senderClerkId: m.sender.clerkId,
+    receiverClerkId: m.receiver.clerkId,
+    content: m.content,
+    sentAt: m.sentAt,
+    read: m.read
+};
+
 export default function ManagerMessages() {
     const { userId: clerkUserId } = useAuth();
     const [userId, setUserId] = useState(null);
     const [conversations, setConversations] = useState([]);
     const [activeChat, setActiveChat] = useState(null);
     const [messages, setMessages] = useState([]);
+    const [hasOlder, setHasOlder] = useState(false);
     const [newMessage, setNewMessage] = useState("");
     const [isLoading, setIsLoading] = useState(true);
     const [searchQuery, setSearchQuery] = useState("");
+    const [messageResults, setMessageResults] = useState([]);
+    const [streamFailed, setStreamFailed] = useState(typeof EventSource === "undefined");
     const messagesEndRef = useRef(null);
+    const activeChatRef = useRef(null);
+    const messagesRef = useRef([]);
 
     // Sync auth
     useEffect(() => {
@@ -31,50 +48,82 @@ export default function ManagerMessages() {
         if (clerkUserId) setUserId(clerkUserId);
     }, [clerkUserId]);
 
-    // Load Inbox
+    useEffect(() => {
+        activeChatRef.current = activeChat;
+    }, [activeChat]);
+
+    useEffect(() => {
+        messagesRef.current = messages;
+    }, [messages]);
+
+    // Load Inbox (polled only when the message stream is unavailable)
     useEffect(() => {
         if (userId) {
             loadInbox();
-            const interval = setInterval(loadInbox, 5000);
-            return () => clearInterval(interval);
+            if (streamFailed) {
+                const interval = setInterval(loadInbox, 5000);
+                return () => clearInterval(interval);
+            }
         } else {
             setIsLoading(false);
         }
-    }, [userId]);
+    }, [userId, streamFailed]);
 
     // Load Conversation
     useEffect(() => {
         if (userId && activeChat) {
             loadConversation(activeChat.user.clerkId);
-            const interval = setInterval(() => loadConversation(activeChat.user.clerkId), 3000);
-            return () => clearInterval(interval);
+            if (streamFailed) {
+                const interval = setInterval(() => loadNewer(activeChat.user.clerkId), 3000);
+                return () => clearInterval(interval);
+            }
         }
-    }, [userId, activeChat]);
+    }, [userId, activeChat, streamFailed]);
 
-    // Scroll to bottom
+    // New messages are pushed; after a reconnect or a resync the inbox and open chat are reloaded
+    useEffect(() => {
+        if (!userId || streamFailed) return;
+        let opened = false;
+        const reload = () => {
+            loadInbox();
+            if (activeChatRef.current) loadConversation(activeChatRef.current.user.clerkId);
+        };
+        const source = subscribeToMessages(userId, handleIncoming, reload);
+        source.onopen = () => {
+            if (opened) reload();
+            opened = true;
+        };
+        source.onerror = () => {
+            // The browser retries on its own; only a closed stream falls back to polling
+            if (source.readyState === EventSource.CLOSED) setStreamFailed(true);
+        };
+        return () => source.close();
+    }, [userId, streamFailed]);
+
+    // Scroll to bottom when a newer message arrives, not when older ones are prepended
+    const lastMessageId = messages.length ? messages[messages.length - 1].id : null;
     useEffect(() => {
         messagesEndRef.current?.scrollIntoView({ behavior: "smooth" });
-    }, [messages]);
+    }, [lastMessageId]);
 
     const loadInbox = async () => {
         try {
-            const msgs = await getInbox(userId);
-            const grouped = {};
-            msgs.forEach(m => {
-                const other = m.sender.clerkId === userId ? m.receiver : m.sender;
-                if (!grouped[other.clerkId]) {
-                    grouped[other.clerkId] = {
-                        user: other,
-                        lastMessage: m,
-                        unreadCount: (!m.read && m.receiver.clerkId === userId) ? 1 : 0
-                    };
-                } else {
-                    if (!m.read && m.receiver.clerkId === userId) {
-                        grouped[other.clerkId].unreadCount++;
-                    }
-                }
-            });
-            setConversations(Object.values(grouped));
+            const summaries = await getConversations(userId);
+            setConversations(summaries.map(c => ({
+                user: {
+                    clerkId: c.peerClerkId,
+                    firstName: c.peerFirstName,
+                    lastName: c.peerLastName,
+                    imageUrl: c.peerImageUrl
+                },
+                lastMessage: {
+                    id: c.lastMessageId,
+                    senderClerkId: c.lastSenderClerkId,
+                    content: c.lastSnippet,
+                    sentAt: c.lastMessageAt
+                },
+                unreadCount: c.unreadCount
+            })));
             setIsLoading(false);
         } catch (error) {
             console.error("Failed to load inbox:", error);
@@ -82,21 +131,85 @@ export default function ManagerMessages() {
         }
     };
 
+    const handleIncoming = (m) => {
+        const fromMe = m.sender.clerkId === userId;
+        const other = fromMe ? m.receiver : m.sender;
+        const chat = activeChatRef.current;
+        const isOpen = chat && chat.user.clerkId === other.clerkId;
+        if (isOpen) {
+            // Our own sends arrive here too; they may already be in the list
+            setMessages(prev => prev.some(p => p.id === m.id) ? prev : [...prev, toItem(m)]);
+            if (!fromMe) markRead(other.clerkId, m.id);
+        }
+        setConversations(prev => {
+            const existing = prev.find(c => c.user.clerkId === other.clerkId);
+            const unread = !fromMe && !isOpen && !m.read ? 1 : 0;
+            const updated = {
+                user: other,
+                lastMessage: toItem(m),
+                unreadCount: (existing ? existing.unreadCount : 0) + unread
+            };
+            return [updated, ...prev.filter(c => c.user.clerkId !== other.clerkId)];
+        });
+    };
+
     const loadConversation = async (otherUserId) => {
         try {
-            const msgs = await getConversation(userId, otherUserId);
-            setMessages(msgs);
+            const page = await getConversationPage(userId, otherUserId, { limit: PAGE_SIZE });
+            setMessages(page);
+            setHasOlder(page.length === PAGE_SIZE);
+            if (page.length) markRead(otherUserId, page[page.length - 1].id);
         } catch (error) {
             console.error("Failed to load conversation:", error);
         }
     };
 
+    const loadNewer = async (otherUserId) => {
+        const current = messagesRef.current;
+        if (!current.length) {
+            return loadConversation(otherUserId);
+        }
+        try {
+            const page = await getConversationPage(userId, otherUserId, {
+                afterId: current[current.length - 1].id,
+                limit: PAGE_SIZE
+            });
+            if (page.length) {
+                setMessages(prev => [...prev, ...page.filter(m => !prev.some(p => p.id === m.id))]);
+                markRead(otherUserId, page[page.length - 1].id);
+            }
+        } catch (error) {
+            console.error("Failed to load new messages:", error);
+        }
+    };
+
+    // Everything up to the newest message on screen is read; the badge in the list clears at once
+    const markRead = (otherUserId, upToMessageId) => {
+        setConversations(prev => prev.map(c =>
+            c.user.clerkId === otherUserId && c.unreadCount ? { ...c, unreadCount: 0 } : c));
+        markConversationRead(userId, otherUserId, upToMessageId).catch(() => { });
+    };
+
+    const loadOlder = async () => {
+        if (!activeChat || !messages.length) return;
+        try {
+            const page = await getConversationPage(userId, activeChat.user.clerkId, {
+                beforeId: messages[0].id,
+                limit: PAGE_SIZE
+            });
+            setMessages(prev => [...page, ...prev]);
+            setHasOlder(page.length === PAGE_SIZE);
+        } catch (error) {
+            console.error("Failed to load earlier messages:", error);
+        }
+    };
+
     const handleSendMessage = async () => {
         if (!newMessage.trim() || !activeChat) return;
 
         try {
             const sent = await sendMessage(userId, activeChat.user.clerkId, newMessage);
-            setMessages([...messages, sent]);
+            setMessages(prev => prev.some(p => p.id === sent.id) ? prev : [...prev, toItem(sent)]);
             setNewMessage("");
         } catch (error) {
             alert("Failed to send message");
@@ -108,6 +221,25 @@ export default function ManagerMessages() {
         return date.toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' });
     };
 
+    // Message search runs once typing pauses; shorter queries only filter people
+    useEffect(() => {
+        const query = searchQuery.trim();
+        if (!userId || query.length < 3) {
+            setMessageResults([]);
+            return;
+        }
+        const timer = setTimeout(() => {
+            searchMessages(userId, query, 20).then(setMessageResults).catch(() => setMessageResults([]));
+        }, 300);
+        return () => clearTimeout(timer);
+    }, [searchQuery, userId]);
+
+    const openResult = (result) => {
+        const peerId = result.senderClerkId === userId ? result.receiverClerkId : result.senderClerkId;
+        const conversation = conversations.find(c => c.user.clerkId === peerId);
+        if (conversation) setActiveChat(conversation);
+    };
+
     const filteredConversations = conversations.filter(c =>
         `${c.user.firstName} ${c.user.lastName}`.toLowerCase().includes(searchQuery.toLowerCase())
     );
@@ -146,7 +278,7 @@ export default function ManagerMessages() {
                                 <Search size={18} style={{ position: "absolute", left: "14px", top: "50%", transform: "translateY(-50%)", color: "#94a3b8" }} />
                                 <input
                                     type="text"
-                                    placeholder="Search people..."
+                                    placeholder="Search people or messages..."
                                     value={searchQuery}
                                     onChange={(e) => setSearchQuery(e.target.value)}
                                     style={{
@@ -228,7 +360,7 @@ export default function ManagerMessages() {
                                                     overflow: "hidden",
                                                     textOverflow: "ellipsis"
                                                 }}>
-                                                    {c.lastMessage.sender.clerkId === userId ? "You: " : ""}{c.lastMessage.content}
+                                                    {c.lastMessage.senderClerkId === userId ? "You: " : ""}{c.lastMessage.content}
                                                 </p>
                                                 {c.unreadCount > 0 && <span style={{
                                                     background: "#d4af37",
@@ -245,6 +377,30 @@ export default function ManagerMessages() {
                                     </div>
                                 ))
                             )}
+                            {messageResults.length > 0 && (
+                                <div style={{ padding: "1rem 0.5rem" }}>
+                                    <p style={{ fontSize: "0.75rem", fontWeight: "700", color: "#94a3b8", textTransform: "uppercase", letterSpacing: "0.05em", marginBottom: "0.5rem" }}>Messages</p>
+                                    {messageResults.map(r => (
+                                        <div
+                                            key={`${r.type}-${r.id}`}
+                                            onClick={() => r.type === "DIRECT" && openResult(r)}
+                                            style={{
+                                                padding: "0.75rem 1rem",
+                                                borderRadius: "12px",
+                                                marginBottom: "0.25rem",
+                                                cursor: r.type === "DIRECT" ? "pointer" : "default",
+                                                background: "#f8fafc"
+                                            }}
+                                        >
+                                            <div style={{ display: "flex", justifyContent: "space-between", fontSize: "0.75rem", color: "#94a3b8", marginBottom: "0.25rem" }}>
+                                                <span>{r.type === "WEDDING" ? `Wedding #${r.weddingId}` : (r.senderClerkId === userId ? "You" : "Direct message")}</span>
+                                                <span>{formatTime(r.sentAt)}</span>
+                                            </div>
+                                            <p style={{ fontSize: "0.875rem", color: "#523c2b", margin: 0, overflow: "hidden", textOverflow: "ellipsis", whiteSpace: "nowrap" }}>{r.content}</p>
+                                        </div>
+                                    ))}
+                                </div>
+                            )}
                         </div>
                     </div>
 
@@ -305,24 +461,42 @@ export default function ManagerMessages() {
                                     flexDirection: "column",
                                     gap: "1.25rem"
                                 }}>
+                                    {hasOlder && (
+                                        <button
+                                            onClick={loadOlder}
+                                            style={{
+                                                alignSelf: "center",
+                                                padding: "0.5rem 1.25rem",
+                                                borderRadius: "20px",
+                                                border: "1px solid #e2e8f0",
+                                                background: "#fff",
+                                                color: "#64748b",
+                                                fontSize: "0.8rem",
+                                                fontWeight: "600",
+                                                cursor: "pointer"
+                                            }}
+                                        >
+                                            Load earlier messages
+                                        </button>
+                                    )}
                                     {messages.map((msg, index) => (
                                         <div
                                             key={msg.id || index}
                                             style={{
-                                                alignSelf: msg.sender.clerkId === userId ? "flex-end" : "flex-start",
+                                                alignSelf: msg.senderClerkId === userId ? "flex-end" : "flex-start",
                                                 maxWidth: "65%",
                                                 display: "flex",
                                                 flexDirection: "column",
-                                                alignItems: msg.sender.clerkId === userId ? "flex-end" : "flex-start"
+                                                alignItems: msg.senderClerkId === userId ? "flex-end" : "flex-start"
                                             }}
                                         >
                                             <div style={{
                                                 padding: "1rem 1.25rem",
-                                                background: msg.sender.clerkId === userId
+                                                background: msg.senderClerkId === userId
                                                     ? "linear-gradient(135deg, #d4af37 0%, #b8962e 100%)"
                                                     : "#fff",
-                                                color: msg.sender.clerkId === userId ? "#fff" : "#1e293b",
-                                                borderRadius: msg.sender.clerkId === userId ? "20px 20px 4px 20px" : "20px 20px 20px 4px",
+                                                color: msg.senderClerkId === userId ? "#fff" : "#1e293b",
+                                                borderRadius: msg.senderClerkId === userId ? "20px 20px 4px 20px" : "20px 20px 20px 4px",
                                                 boxShadow: "0 4px 15px rgba(0,0,0,0.05)",
                                                 fontSize: "0.95rem",
                                                 lineHeight: "1.5",
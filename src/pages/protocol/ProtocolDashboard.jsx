@@ -1,7 +1,7 @@
 import { useState, useEffect, useRef } from "react";
 import { useAuth } from "@clerk/clerk-react";
 import ProtocolSidebar from "../../components/ProtocolSidebar";
-import { getProtocolAssignments, getGuestByCode, getWeddingById, getGuests, checkInGuest } from "../../utils/api";
+import { getProtocolAssignments, getGuestByCode, getWeddingById, getGuests, checkInGuest, searchGuests, subscribeToGuestStats } from "../../utils/api";
 import {
   QrCode, CheckCircle, XCircle, Users, Calendar,
   Search, Info, Clock, UserCheck, UserPlus,
@@ -25,6 +25,8 @@ export default function ProtocolDashboard() {
     { name: "Sara Kebede", time: "15 min ago", status: "Guest" },
     { name: "Dawit Isaac", time: "22 min ago", status: "VVIP" }
   ]);
+  const [liveStats, setLiveStats] = useState(null);
+  const [nameMatches, setNameMatches] = useState([]);
   const codeInputRef = useRef(null);
 
   useEffect(() => {
@@ -49,6 +51,16 @@ export default function ProtocolDashboard() {
     }
   }, [userId]);
 
+  // Arrivals from every protocol device, pushed as they happen
+  useEffect(() => {
+    if (!selectedWedding) return;
+    setLiveStats(null);
+    const source = subscribeToGuestStats(selectedWedding, (stats) => {
+      setLiveStats(prev => (prev && prev.sequence > stats.sequence ? prev : stats));
+    });
+    return () => source.close();
+  }, [selectedWedding]);
+
   const loadData = async () => {
     if (!userId) return;
     setIsLoading(true);
@@ -83,13 +95,20 @@ export default function ProtocolDashboard() {
   const handleScanCode = async (code) => {
     if (!code || code.trim() === "") return;
     setIsScanning(true);
+    setNameMatches([]);
     try {
       const guestData = await getGuestByCode(code.trim());
       setGuest(guestData);
       setScannedCode(code);
     } catch (error) {
       setGuest(null);
-      alert("Guest not found with code: " + code);
+      // Not a code: treat the input as a name and offer the closest guests
+      const matches = selectedWedding ? await searchGuests(selectedWedding, code.trim()).catch(() => []) : [];
+      if (matches.length > 0) {
+        setNameMatches(matches);
+      } else {
+        alert("Guest not found with code or name: " + code);
+      }
     } finally {
       setIsScanning(false);
     }
@@ -125,7 +144,7 @@ export default function ProtocolDashboard() {
 
   const selectedWeddingGuests = selectedWedding ? (guests[selectedWedding] || []) : [];
   const selectedWeddingDetail = selectedWedding ? weddingDetails[selectedWedding] : null;
-  const checkedInCount = selectedWeddingGuests.filter(g => g.checkedIn).length;
+  const checkedInCount = liveStats ? liveStats.checkedIn : selectedWeddingGuests.filter(g => g.checkedIn).length;
   const totalExpected = selectedWeddingDetail?.numberOfGuests || selectedWeddingGuests.length || 0;
   const attendanceRate = totalExpected > 0 ? Math.round((checkedInCount / totalExpected) * 100) : 0;
 
@@ -220,6 +239,21 @@ export default function ProtocolDashboard() {
                     </button>
                   </div>
 
+                  {!guest && nameMatches.length > 0 && (
+                    <div className="name-matches" style={{ marginTop: '1.5rem', display: 'flex', flexDirection: 'column', gap: '0.5rem' }}>
+                      {nameMatches.map(match => (
+                        <button
+                          key={match.guestId}
+                          className="btn-accept"
+                          style={{ textAlign: 'left', padding: '0.75rem 1rem' }}
+                          onClick={() => handleScanCode(match.uniqueCode)}
+                        >
+                          {match.firstName} {match.lastName} · {match.priority} · {match.seatNumber || "No seat"}
+                        </button>
+                      ))}
+                    </div>
+                  )}
+
                   {guest ? (
                     <div className="guest-result-modern" style={{ marginTop: '2rem', padding: '2rem', background: 'rgba(16, 185, 129, 0.05)', borderRadius: '20px', border: '1px solid rgba(16, 185, 129, 0.2)' }}>
                       <div className="modern-result-header" style={{ display: 'flex', gap: '1rem', alignItems: 'center' }}>
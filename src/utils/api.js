@@ -271,6 +271,78 @@ export const getGuestByCode = async (uniqueCode) => {
   }
 };
 
+export const getAttendeeBootstrap = async (uniqueCode) => {
+  try {
+    const response = await api.get('/attendee/bootstrap', { params: { code: uniqueCode } });
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
+export const searchGuests = async (weddingId, query, limit = 10) => {
+  try {
+    const response = await api.get(`/guests/wedding/${weddingId}/search`, { params: { q: query, limit } });
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
+export const respondToInvitation = async (uniqueCode, rsvpStatus) => {
+  try {
+    const response = await api.post(`/guests/rsvp/${uniqueCode}`, { rsvpStatus });
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
+// Invitation opens and clicks for a wedding
+export const getWeddingEngagement = async (weddingId) => {
+  try {
+    const response = await api.get(`/engagement/wedding/${weddingId}`);
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
+// Invitation campaigns: (re)send invitations to a filtered subset of guests
+export const createInvitationCampaign = async (campaignData) => {
+  try {
+    const response = await api.post('/campaigns', campaignData);
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
+export const getInvitationCampaign = async (campaignId) => {
+  try {
+    const response = await api.get(`/campaigns/${campaignId}`);
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
+export const getGuestStats = async (weddingId) => {
+  try {
+    const response = await api.get(`/guests/wedding/${weddingId}/stats`);
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
+// Live guest counters pushed by the server; the caller closes the returned EventSource
+export const subscribeToGuestStats = (weddingId, onStats) => {
+  const source = new EventSource(`${API_URL}/guests/wedding/${weddingId}/stats/stream`);
+  source.addEventListener("stats", (event) => onStats(JSON.parse(event.data)));
+  return source;
+};
+
 export const checkInGuest = async (guestId) => {
   try {
     const response = await api.patch(`/guests/${guestId}/check-in`);
@@ -638,6 +710,18 @@ export const getWeddingMessages = async (weddingId) => {
   }
 };
 
+// Older archived messages, newest first; pass the oldest id shown so far as beforeId
+export const getArchivedWeddingMessages = async (weddingId, beforeId, limit) => {
+  try {
+    const response = await api.get(`/wedding-messages/wedding/${weddingId}/archived`, {
+      params: { beforeId, limit },
+    });
+    return response.data;
+  } catch (error) {
+    throw error;
+  }
+};
+
 export const getWeddingMessagesForGuest = async (weddingId, guestId) => {
   try {
     const response = await api.get(`/wedding-messages/wedding/${weddingId}/guest/${guestId}`);
@@ -689,6 +773,63 @@ export const getConversation = async (user1, user2) => {
   }
 };
 
+// One entry per conversation, most recent first, with the caller's unread count
+export const getConversations = async (clerkId) => {
+  try {
+    const response = await api.get(`/messages/conversations/${clerkId}`);
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching conversations:", error);
+    throw error;
+  }
+};
+
+// Page of a conversation, oldest first: { afterId } for new messages, { beforeId } for older ones, else the latest
+export const getConversationPage = async (user1, user2, { afterId, beforeId, limit = 50 } = {}) => {
+  try {
+    const response = await api.get('/messages/conversation', {
+      params: { user1, user2, afterId, beforeId, limit }
+    });
+    return response.data;
+  } catch (error) {
+    console.error("Error fetching conversation:", error);
+    throw error;
+  }
+};
+
+// Marks what the reader received from the peer as read, up to upToMessageId (everything when omitted)
+export const markConversationRead = async (readerClerkId, peerClerkId, upToMessageId) => {
+  try {
+    const response = await api.post('/messages/conversation/read', { readerClerkId, peerClerkId, upToMessageId });
+    return response.data;
+  } catch (error) {
+    console.error("Error marking conversation read:", error);
+    throw error;
+  }
+};
+
+// Total unread direct messages, for badges; served from memory, so cheap to poll
+export const getUnreadMessageCount = async (clerkId) => {
+  try {
+    const response = await api.get(`/messages/unread-count/${clerkId}`);
+    return response.data.unreadCount;
+  } catch (error) {
+    console.error("Error fetching unread count:", error);
+    throw error;
+  }
+};
+
+// Direct and wedding messages the user takes part in that contain every word of the query
+export const searchMessages = async (clerkId, query, limit) => {
+  try {
+    const response = await api.get('/messages/search', { params: { clerkId, q: query, limit } });
+    return response.data;
+  } catch (error) {
+    console.error("Error searching messages:", error);
+    throw error;
+  }
+};
+
 export const getInbox = async (clerkId) => {
   try {
     const response = await api.get(`/messages/inbox/${clerkId}`);
@@ -699,6 +840,14 @@ export const getInbox = async (clerkId) => {
   }
 };
 
+// Messages sent or received by the user, pushed by the server; the caller closes the returned EventSource
+export const subscribeToMessages = (clerkId, onMessage, onResync) => {
+  const source = new EventSource(`${API_URL}/messages/stream/${clerkId}`);
+  source.addEventListener("message", (event) => onMessage(JSON.parse(event.data)));
+  source.addEventListener("resync", () => onResync());
+  return source;
+};
+
 // Meeting APIs (Manager)
 export const requestMeeting = async (meetingData) => {
   try {